@@ -20,7 +20,9 @@ import java.util.function.IntFunction;
 
 import ch.ethz.sn.visone3.lang.Mapping;
 import ch.ethz.sn.visone3.lang.PrimitiveIterable;
+import ch.ethz.sn.visone3.networks.DirectedGraph;
 import ch.ethz.sn.visone3.networks.Edge;
+import ch.ethz.sn.visone3.networks.UndirectedGraph;
 
 /**
  * Full and limited length graph traversals.
@@ -48,6 +50,40 @@ public interface Traversal {
   Mapping.OfInt bfs(final int numVertices, final IntFunction<PrimitiveIterable.OfInt> neighbors,
       final PrimitiveIterable.OfInt starts, final Visitor visitor);
 
+  /**
+   * Multi source breadth-first-search determining the level, i.e., the number of edges on a
+   * shortest path from any of the sources, of each vertex. Edges are traversed in their direction.
+   * Graphs of the built-in network implementations are searched directly on their adjacency
+   * arrays and switch between expanding the frontier and scanning unvisited vertices for frontier
+   * neighbors, whichever is cheaper for the current level.
+   *
+   * @param graph
+   *          Directed graph.
+   * @param sources
+   *          Source vertices.
+   * @param parallel
+   *          True if each level may be expanded in parallel.
+   * @return the level mapping, -1 for vertices unreachable from the sources.
+   */
+  Mapping.OfInt bfsLevels(final DirectedGraph graph, final PrimitiveIterable.OfInt sources,
+      final boolean parallel);
+
+  /**
+   * Multi source breadth-first-search determining the level, i.e., the number of edges on a
+   * shortest path from any of the sources, of each vertex. See
+   * {@link #bfsLevels(DirectedGraph, PrimitiveIterable.OfInt, boolean)}.
+   *
+   * @param graph
+   *          Undirected graph.
+   * @param sources
+   *          Source vertices.
+   * @param parallel
+   *          True if each level may be expanded in parallel.
+   * @return the level mapping, -1 for vertices unreachable from the sources.
+   */
+  Mapping.OfInt bfsLevels(final UndirectedGraph graph, final PrimitiveIterable.OfInt sources,
+      final boolean parallel);
+
   /**
    * Multi source depth-first-search.
    *
@@ -0,0 +1,92 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks;
+
+/**
+ * Reusable, mutable cursor over the adjacency list of a vertex (or element).
+ *
+ * <p>
+ * In contrast to the iterables returned by, e.g., {@link Relation#getRelationshipsFrom(int)} or
+ * {@link DirectedGraph#getOutEdges(int)}, a cursor does not produce an object per entry. It is
+ * positioned on the adjacency list of a vertex by {@link #reset(int)} and then advanced entry by
+ * entry by {@link #next()}, exposing the current entry through {@link #target()} and
+ * {@link #index()}. The same cursor can be reset to any number of lists, so a traversal of the
+ * whole network needs only a single cursor.
+ *
+ * <pre>
+ * AdjacencyCursor cursor = graph.getOutCursor();
+ * for (int v = 0; v &lt; n; ++v) {
+ *   cursor.reset(v);
+ *   while (cursor.next()) {
+ *     visit(v, cursor.target(), cursor.index());
+ *   }
+ * }
+ * </pre>
+ *
+ * <p>
+ * Cursors are not thread-safe; use one cursor per thread. A cursor reflects the adjacency list at
+ * the time of the last call to {@link #reset(int)}; the result of reordering a network's
+ * neighborhoods while a cursor is positioned on one of its lists is undefined.
+ */
+public interface AdjacencyCursor {
+
+  /**
+   * Positions the cursor before the first entry of the adjacency list of the specified vertex.
+   *
+   * @param vertex
+   *          the vertex (or element) the adjacency list of which should be traversed.
+   * @return this cursor.
+   * @throws IllegalArgumentException
+   *           if the underlying network does not maintain an adjacency list of the specified
+   *           kind for {@code vertex}.
+   */
+  AdjacencyCursor reset(int vertex);
+
+  /**
+   * Advances the cursor to the next entry of the current adjacency list.
+   *
+   * @return true if the cursor is now positioned on an entry, false if the list is exhausted.
+   */
+  boolean next();
+
+  /**
+   * Returns the vertex whose adjacency list is currently traversed, i.e., the vertex specified in
+   * the last call to {@link #reset(int)}.
+   *
+   * @return the focal vertex.
+   */
+  int source();
+
+  /**
+   * Returns the vertex opposite to {@link #source()} in the current entry.
+   *
+   * @return the opposite vertex.
+   * @throws java.util.NoSuchElementException
+   *           if the cursor is not positioned on an entry.
+   */
+  int target();
+
+  /**
+   * Returns the edge (or relationship) index of the current entry.
+   *
+   * @return the edge index.
+   * @throws java.util.NoSuchElementException
+   *           if the cursor is not positioned on an entry.
+   */
+  int index();
+}
@@ -55,6 +55,16 @@ public interface DirectedGraph extends Graph {
    */
   Iterable<Edge> getInEdges(int vertex);
 
+  /**
+   * Produces a reusable cursor over the incoming incident edges of vertices. The cursor's
+   * {@link AdjacencyCursor#target() target} is the edge's source.
+   *
+   * @return a cursor over incoming edges, to be positioned on a vertex.
+   */
+  default AdjacencyCursor getInCursor() {
+    return new IterableAdjacencyCursor<>(this::getInEdges, (e, target) -> e.getSource());
+  }
+
   /**
    * Determines the in-degree of the specified vertex.
    * 
@@ -93,6 +103,16 @@ public interface DirectedGraph extends Graph {
    */
   Iterable<Edge> getOutEdges(int vertex);
 
+  /**
+   * Produces a reusable cursor over the outgoing incident edges of vertices. The cursor's
+   * {@link AdjacencyCursor#target() target} is the edge's target.
+   *
+   * @return a cursor over outgoing edges, to be positioned on a vertex.
+   */
+  default AdjacencyCursor getOutCursor() {
+    return new IterableAdjacencyCursor<>(this::getOutEdges, (e, source) -> e.getTarget());
+  }
+
   /**
    * Determines the out-degree of the specified vertex.
    * 
@@ -131,6 +151,18 @@ public interface DirectedGraph extends Graph {
    */
   Iterable<Edge> getEdges(int vertex);
 
+  /**
+   * Produces a reusable cursor over the incoming and outgoing incident edges of vertices, in the
+   * order of {@link #getEdges(int)}. The cursor's {@link AdjacencyCursor#target() target} is the
+   * vertex at the other end of the edge.
+   *
+   * @return a cursor over incident edges, to be positioned on a vertex.
+   */
+  default AdjacencyCursor getCursor() {
+    return new IterableAdjacencyCursor<>(this::getEdges,
+        (e, vertex) -> e.getSource() == vertex ? e.getTarget() : e.getSource());
+  }
+
   /**
    * Returns the degree (=in- plus out-degree) of the specified vertex.
    * 
@@ -0,0 +1,91 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks;
+
+import ch.ethz.sn.visone3.lang.Indexed;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * Adjacency cursor on top of per-vertex iterables, used as the default implementation of the
+ * cursor methods. Networks backed by arrays should provide allocation-free cursors instead.
+ *
+ * @param <T>
+ *          type of the adjacency list entries.
+ */
+final class IterableAdjacencyCursor<T extends Indexed> implements AdjacencyCursor {
+
+  /**
+   * Determines the vertex opposite to the focal vertex in an adjacency list entry.
+   */
+  @FunctionalInterface
+  interface Opposite<T> {
+    int of(T entry, int source);
+  }
+
+  private final IntFunction<? extends Iterable<? extends T>> lists;
+  private final Opposite<? super T> opposite;
+  private Iterator<? extends T> itr = Collections.emptyIterator();
+  private int source = -1;
+  private T current;
+
+  IterableAdjacencyCursor(final IntFunction<? extends Iterable<? extends T>> lists,
+      final Opposite<? super T> opposite) {
+    this.lists = lists;
+    this.opposite = opposite;
+  }
+
+  @Override
+  public AdjacencyCursor reset(final int vertex) {
+    itr = lists.apply(vertex).iterator();
+    source = vertex;
+    current = null;
+    return this;
+  }
+
+  @Override
+  public boolean next() {
+    current = itr.hasNext() ? itr.next() : null;
+    return current != null;
+  }
+
+  @Override
+  public int source() {
+    return source;
+  }
+
+  @Override
+  public int target() {
+    return opposite.of(current(), source);
+  }
+
+  @Override
+  public int index() {
+    return current().getIndex();
+  }
+
+  private T current() {
+    if (current == null) {
+      throw new NoSuchElementException();
+    }
+    return current;
+  }
+}
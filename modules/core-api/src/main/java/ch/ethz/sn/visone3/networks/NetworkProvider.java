@@ -44,7 +44,9 @@ public final class NetworkProvider {
   }
 
   /**
-   * Searches and returns a builder that supports the specified dyad type.
+   * Searches and returns a builder that supports the specified dyad type. Among the network
+   * services supporting this dyad type, the one with the highest {@link NetworkService#priority()}
+   * is used.
    * 
    * @param type
    *          the dyad type.
@@ -53,11 +55,37 @@ public final class NetworkProvider {
    *           if no network service for this dyad type is registered.
    */
   public NetworkBuilder builder(final DyadType type) {
+    NetworkService best = null;
     for (final NetworkService s : loader) {
-      if (s.supports(type)) {
+      if (s.supports(type) && (best == null || s.priority() > best.priority())) {
+        best = s;
+      }
+    }
+    if (best == null) {
+      throw new IllegalStateException("no network service for dyad type: " + type);
+    }
+    return best.createBuilder(type);
+  }
+
+  /**
+   * Searches and returns a builder of the named network service for the specified dyad type.
+   * 
+   * @param type
+   *          the dyad type.
+   * @param serviceName
+   *          the name of the network service, see {@link NetworkService#getName()}.
+   * @return a builder if the named network service supports that dyad type.
+   * @throws IllegalStateException
+   *           if no network service with this name is registered or if it does not support this
+   *           dyad type.
+   */
+  public NetworkBuilder builder(final DyadType type, final String serviceName) {
+    for (final NetworkService s : loader) {
+      if (s.getName().equals(serviceName) && s.supports(type)) {
         return s.createBuilder(type);
       }
     }
-    throw new IllegalStateException("no network service for dyad type: " + type);
+    throw new IllegalStateException(
+        "no network service " + serviceName + " for dyad type: " + type);
   }
 }
@@ -39,6 +39,17 @@ public interface NetworkService {
    */
   boolean supports(DyadType type);
 
+  /**
+   * Returns the priority of this service. If several services support a dyad type and no service
+   * is requested by name, {@link NetworkProvider#builder(DyadType)} picks the one with the highest
+   * priority, independently of the order in which the services are registered.
+   * 
+   * @return the priority of this service, by default 0.
+   */
+  default int priority() {
+    return 0;
+  }
+
   /**
    * Produces a new builder for the specified dyad type.
    * 
@@ -203,6 +203,23 @@ public interface Relation {
    */
   int countRelationshipsFrom(int left);
 
+  /**
+   * Produces a reusable cursor over the ("outgoing") relationships of elements of the left domain.
+   * The cursor's {@link AdjacencyCursor#source() source} is the element of the left domain, its
+   * {@link AdjacencyCursor#target() target} the element of the right domain and its
+   * {@link AdjacencyCursor#index() index} the relationship index.
+   *
+   * <p>
+   * Unlike {@link #getRelationshipsFrom(int)}, traversing the cursor does not produce
+   * {@link Relationship} objects.
+   *
+   * @return a cursor to be positioned on elements of the left domain.
+   */
+  default AdjacencyCursor getCursorFrom() {
+    return new IterableAdjacencyCursor<>(this::getRelationshipsFrom,
+        (r, source) -> r.getRight());
+  }
+
   /**
    * Produces an iterable over the relationships the specified element of the right domain is
    * involved in.
@@ -236,6 +253,22 @@ public interface Relation {
    */
   int countRelationshipsTo(int right);
 
+  /**
+   * Produces a reusable cursor over the ("incoming") relationships of elements of the right
+   * domain. The cursor's {@link AdjacencyCursor#source() source} is the element of the right
+   * domain, its {@link AdjacencyCursor#target() target} the element of the left domain and its
+   * {@link AdjacencyCursor#index() index} the relationship index.
+   *
+   * <p>
+   * Unlike {@link #getRelationshipsTo(int)}, traversing the cursor does not produce
+   * {@link Relationship} objects.
+   *
+   * @return a cursor to be positioned on elements of the right domain.
+   */
+  default AdjacencyCursor getCursorTo() {
+    return new IterableAdjacencyCursor<>(this::getRelationshipsTo, (r, source) -> r.getLeft());
+  }
+
   /**
    * Returns the number of ("incoming") relationships that the specified element of the right domain
    * is involved in. 0-based variant of {@link #countRelationshipsTo(int)}.
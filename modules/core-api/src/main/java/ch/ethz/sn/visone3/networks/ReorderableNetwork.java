@@ -17,12 +17,14 @@
 
 package ch.ethz.sn.visone3.networks;
 
+import ch.ethz.sn.visone3.lang.ConstMapping;
+
 import java.util.Comparator;
 import java.util.function.IntBinaryOperator;
 import java.util.function.ToIntFunction;
 
 /**
- * A network that permits reordering of neighborhoods.
+ * A network that permits reordering of neighborhoods and vertices.
  */
 public interface ReorderableNetwork extends Network {
 
@@ -58,4 +60,28 @@ public interface ReorderableNetwork extends Network {
    *          the size of the integer interval [0, univereSize) in which the integer values lie
    */
   void sortNeighborhoods(ToIntFunction<AdjacencyListEntry> valueProducer, int universeSize);
+
+  /**
+   * Produces a copy of this network with renumbered vertices, such that vertex {@code order[k]} of
+   * this network becomes vertex {@code k} of the returned network. Edge indices are retained, so
+   * link mappings remain valid for the returned network, whereas vertex mappings have to be
+   * translated by {@link VertexOrderings#toReordered(ConstMapping, ConstMapping.OfInt)}.
+   *
+   * <p>
+   * Renumbering the vertices by an ordering such as {@link VertexOrderings#byDegree(Network)} or
+   * {@link VertexOrderings#reverseCuthillMcKee(Network)} improves the memory locality of
+   * algorithms that traverse the network.
+   *
+   * @param order
+   *          the new vertex order.
+   * @return the renumbered network.
+   * @throws IllegalArgumentException
+   *           if {@code order} is not a permutation of the vertices, or, for two-mode networks,
+   *           moves vertices between the two domains.
+   * @throws UnsupportedOperationException
+   *           if the network does not support renumbering its vertices, which is the default.
+   */
+  default ReorderableNetwork permuteVertices(ConstMapping.OfInt order) {
+    throw new UnsupportedOperationException("renumbering vertices is not supported");
+  }
 }
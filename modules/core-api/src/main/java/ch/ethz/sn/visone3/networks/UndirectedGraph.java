@@ -61,6 +61,17 @@ public interface UndirectedGraph extends Graph {
    */
   Iterable<Edge> getEdges(int vertex);
 
+  /**
+   * Produces a reusable cursor over the incident edges of vertices, in the order of
+   * {@link #getEdges(int)}. The cursor's {@link AdjacencyCursor#target() target} is the vertex at
+   * the other end of the edge.
+   *
+   * @return a cursor over incident edges, to be positioned on a vertex.
+   */
+  default AdjacencyCursor getCursor() {
+    return new IterableAdjacencyCursor<>(this::getEdges, (e, vertex) -> e.getTarget());
+  }
+
   /**
    * Returns a stream over the incident edges of the specified vertex.
    * 
@@ -0,0 +1,234 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.lang.PrimitiveList;
+
+import java.util.Arrays;
+
+/**
+ * Computes vertex orderings that improve the memory locality of network traversals, and translates
+ * vertex mappings between the original and the reordered network.
+ *
+ * <p>
+ * An ordering is represented by a mapping {@code order} such that vertex {@code order[k]} of the
+ * original network becomes vertex {@code k} of the reordered network (see
+ * {@link ReorderableNetwork#permuteVertices(ConstMapping.OfInt)}). For two-mode networks, orderings
+ * never move vertices between the two domains.
+ */
+public final class VertexOrderings {
+  private VertexOrderings() {
+  }
+
+  /**
+   * Orders vertices by non-increasing degree, breaking ties by vertex index. This places the
+   * high-degree vertices, which are accessed most frequently in networks with skewed degree
+   * distributions, next to each other.
+   *
+   * @param network
+   *          the network.
+   * @return the ordering.
+   */
+  public static ConstMapping.OfInt byDegree(final Network network) {
+    final int[] degrees = degrees(network);
+    final int n = degrees.length;
+    int maxDegree = 0;
+    for (final int degree : degrees) {
+      maxDegree = Math.max(maxDegree, degree);
+    }
+    // counting sort by decreasing degree, stable with respect to vertex index
+    final int[] begin = new int[maxDegree + 2];
+    for (final int degree : degrees) {
+      ++begin[maxDegree - degree + 1];
+    }
+    for (int d = 1; d < begin.length; ++d) {
+      begin[d] += begin[d - 1];
+    }
+    final int[] order = new int[n];
+    for (int v = 0; v < n; ++v) {
+      order[begin[maxDegree - degrees[v]]++] = v;
+    }
+    return Mappings.wrapUnmodifiableInt(separateDomains(network, order));
+  }
+
+  /**
+   * Orders vertices by the reverse Cuthill-McKee heuristic, which numbers vertices in breadth-first
+   * order and thus keeps the indices of adjacent vertices close to each other. Each connected
+   * component is started at a vertex of minimum degree, and the neighbors of a vertex are numbered
+   * in order of increasing degree. Edge directions are ignored.
+   *
+   * @param network
+   *          the network.
+   * @return the ordering.
+   */
+  public static ConstMapping.OfInt reverseCuthillMcKee(final Network network) {
+    final int[] degrees = degrees(network);
+    final int n = degrees.length;
+    final AdjacencyCursor cursor = network.isDirected() ? network.asDirectedGraph().getCursor()
+        : network.asUndirectedGraph().getCursor();
+
+    final int[] queue = new int[n];
+    final boolean[] visited = new boolean[n];
+    final long[] candidates = new long[n];
+    int tail = 0;
+    for (final long start : sortedByDegree(degrees)) {
+      final int root = (int) start;
+      if (visited[root]) {
+        continue;
+      }
+      visited[root] = true;
+      int head = tail;
+      queue[tail++] = root;
+      while (head < tail) {
+        cursor.reset(queue[head++]);
+        int count = 0;
+        while (cursor.next()) {
+          final int w = cursor.target();
+          if (!visited[w]) {
+            visited[w] = true;
+            candidates[count++] = key(degrees[w], w);
+          }
+        }
+        Arrays.sort(candidates, 0, count);
+        for (int i = 0; i < count; ++i) {
+          queue[tail++] = (int) candidates[i];
+        }
+      }
+    }
+    for (int i = 0, j = n - 1; i < j; ++i, --j) {
+      final int tmp = queue[i];
+      queue[i] = queue[j];
+      queue[j] = tmp;
+    }
+    return Mappings.wrapUnmodifiableInt(separateDomains(network, queue));
+  }
+
+  /**
+   * Computes the inverse of an ordering, i.e., the mapping from vertices of the original network
+   * to their index in the reordered network.
+   *
+   * @param order
+   *          the ordering.
+   * @return the inverse ordering.
+   * @throws IllegalArgumentException
+   *           if {@code order} is not a permutation.
+   */
+  public static Mapping.OfInt inverse(final ConstMapping.OfInt order) {
+    final int n = order.size();
+    final int[] position = new int[n];
+    Arrays.fill(position, -1);
+    for (int k = 0; k < n; ++k) {
+      final int v = order.getInt(k);
+      if (v < 0 || v >= n || position[v] >= 0) {
+        throw new IllegalArgumentException("not a permutation: " + v + " at index " + k);
+      }
+      position[v] = k;
+    }
+    return Mappings.wrapModifiableInt(position);
+  }
+
+  /**
+   * Translates a vertex mapping of the original network to the reordered network.
+   *
+   * @param mapping
+   *          the vertex mapping on the original network.
+   * @param order
+   *          the ordering.
+   * @param <T>
+   *          the value type.
+   * @return the vertex mapping on the reordered network.
+   */
+  public static <T> Mapping<T> toReordered(final ConstMapping<T> mapping,
+      final ConstMapping.OfInt order) {
+    final int n = Networks.checkVertexMapSize(order.size(), mapping, null).size();
+    final PrimitiveList<T> result = Mappings.newListOfSize(mapping.getComponentType(), n);
+    for (int k = 0; k < n; ++k) {
+      result.set(k, mapping.get(order.getInt(k)));
+    }
+    return result;
+  }
+
+  /**
+   * Translates a vertex mapping of the reordered network back to the original network.
+   *
+   * @param mapping
+   *          the vertex mapping on the reordered network.
+   * @param order
+   *          the ordering.
+   * @param <T>
+   *          the value type.
+   * @return the vertex mapping on the original network.
+   */
+  public static <T> Mapping<T> toOriginal(final ConstMapping<T> mapping,
+      final ConstMapping.OfInt order) {
+    final int n = Networks.checkVertexMapSize(order.size(), mapping, null).size();
+    final PrimitiveList<T> result = Mappings.newListOfSize(mapping.getComponentType(), n);
+    for (int k = 0; k < n; ++k) {
+      result.set(order.getInt(k), mapping.get(k));
+    }
+    return result;
+  }
+
+  private static int[] degrees(final Network network) {
+    final int n = network.countMonadicIndices();
+    final int[] degrees = new int[n];
+    if (network.isDirected()) {
+      final DirectedGraph g = network.asDirectedGraph();
+      for (int v = 0; v < n; ++v) {
+        degrees[v] = g.getDegree(v);
+      }
+    } else {
+      final UndirectedGraph g = network.asUndirectedGraph();
+      for (int v = 0; v < n; ++v) {
+        degrees[v] = g.getDegree(v);
+      }
+    }
+    return degrees;
+  }
+
+  private static long key(final int degree, final int vertex) {
+    return ((long) degree << 32) | vertex;
+  }
+
+  private static long[] sortedByDegree(final int[] degrees) {
+    final long[] keys = new long[degrees.length];
+    for (int v = 0; v < degrees.length; ++v) {
+      keys[v] = key(degrees[v], v);
+    }
+    Arrays.sort(keys);
+    return keys;
+  }
+
+  private static int[] separateDomains(final Network network, final int[] order) {
+    if (!network.isTwoMode()) {
+      return order;
+    }
+    // stable partition into the left domain followed by the right domain
+    final int numLeft = network.asRelation().countLeftDomain();
+    final int[] result = new int[order.length];
+    int left = 0;
+    int right = numLeft;
+    for (final int v : order) {
+      result[v < numLeft ? left++ : right++] = v;
+    }
+    return result;
+  }
+}
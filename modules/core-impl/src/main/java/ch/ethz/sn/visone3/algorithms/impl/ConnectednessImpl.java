@@ -28,6 +28,7 @@ import ch.ethz.sn.visone3.lang.PrimitiveIterable;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
 import ch.ethz.sn.visone3.networks.DirectedGraph;
 import ch.ethz.sn.visone3.networks.UndirectedGraph;
+import ch.ethz.sn.visone3.networks.impl.AdjacencyArrays;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -37,10 +38,19 @@ import java.util.function.IntPredicate;
 
 /**
  * Implements methods establishing notions of connectedness.
+ *
+ * <p>
+ * Weak and strong components of large array-based networks are computed in
+ * parallel by {@link ParallelComponents}.
  */
 public final class ConnectednessImpl implements Connectedness {
   private static final Traversal TRAVERSAL = AlgoProvider.getInstance().traversals();
 
+  /**
+   * Number of vertices from which components are computed in parallel.
+   */
+  private static final int PARALLEL_SIZE = 1 << 16;
+
   ConnectednessImpl() {
   }
 
@@ -61,7 +71,16 @@ public final class ConnectednessImpl implements Connectedness {
   @Override
   public Mapping.OfInt components(final UndirectedGraph graph) {
     Objects.requireNonNull(graph);
+    final AdjacencyArrays arrays = AdjacencyArrays.of(graph);
+    if (isLarge(arrays)) {
+      return ParallelComponents.weakComponents(arrays);
+    }
     final Mapping.OfInt comp = Mappings.newIntList(-1, graph.countVertices());
+    if (arrays != null) {
+      TraversalImpl.dfs(arrays, false, graph.getVertices(),
+          Mappings.newIntList(-1, graph.countVertices()), new ConnectednessImpl.Label(comp));
+      return comp;
+    }
     TRAVERSAL.dfs(graph.countVertices(), graph::getNeighbors, graph.getVertices(),
         new ConnectednessImpl.Label(comp));
     return comp;
@@ -83,9 +102,18 @@ public final class ConnectednessImpl implements Connectedness {
   @Override
   public Mapping.OfInt strongComponents(final DirectedGraph graph) {
     Objects.requireNonNull(graph);
+    final AdjacencyArrays arrays = AdjacencyArrays.of(graph);
+    if (isLarge(arrays)) {
+      return ParallelComponents.strongComponents(arrays);
+    }
     final int n = graph.countVertices();
     final Mapping.OfInt comp = Mappings.newIntList(-1, n);
     final Mapping.OfInt dfsns = Mappings.newIntList(-1, n);
+    if (arrays != null) {
+      TraversalImpl.dfs(arrays, true, graph.getVertices(), dfsns,
+          new ConnectednessImpl.LabelStrongComponents(n, comp, dfsns));
+      return comp;
+    }
     TRAVERSAL.dfs(graph::getOutNeighbors, graph.getVertices(), dfsns,
         new ConnectednessImpl.LabelStrongComponents(n, comp, dfsns));
     return comp;
@@ -97,6 +125,12 @@ public final class ConnectednessImpl implements Connectedness {
     final int n = graph.countVertices();
     final Mapping.OfInt comp = Mappings.newIntList(-1, n);
     final Mapping.OfInt dfsns = Mappings.newIntList(-1, n);
+    final AdjacencyArrays arrays = AdjacencyArrays.of(graph);
+    if (arrays != null) {
+      TraversalImpl.edgeDfs(arrays, graph.countEdges(), graph.getVertices(), dfsns,
+          new ConnectednessImpl.LabelStrongComponents(n, comp, dfsns));
+      return comp;
+    }
     TRAVERSAL.edgeDfs(graph.countEdges(), graph::getEdges, graph.getVertices(), dfsns,
         new ConnectednessImpl.LabelStrongComponents(n, comp, dfsns));
     return comp;
@@ -109,6 +143,12 @@ public final class ConnectednessImpl implements Connectedness {
     final int m = graph.countEdges();
     final Mapping.OfInt comp = Mappings.newIntList(-1, m);
     final Mapping.OfInt dfsns = Mappings.newIntList(-1, n);
+    final AdjacencyArrays arrays = AdjacencyArrays.of(graph);
+    if (arrays != null) {
+      TraversalImpl.edgeDfs(arrays, m, graph.getVertices(), dfsns,
+          new ConnectednessImpl.LabelBiconnectedComponents(n, m, comp, dfsns));
+      return comp;
+    }
     TRAVERSAL.edgeDfs(graph.countEdges(), graph::getEdges, graph.getVertices(), dfsns,
         new ConnectednessImpl.LabelBiconnectedComponents(n, m, comp, dfsns));
     return comp;
@@ -117,6 +157,16 @@ public final class ConnectednessImpl implements Connectedness {
   @Override
   public Mapping.OfInt weakComponents(final DirectedGraph graph) {
     Objects.requireNonNull(graph);
+    final AdjacencyArrays arrays = AdjacencyArrays.of(graph);
+    if (isLarge(arrays)) {
+      return ParallelComponents.weakComponents(arrays);
+    }
+    if (arrays != null) {
+      final Mapping.OfInt comp = Mappings.newIntList(-1, graph.countVertices());
+      TraversalImpl.dfs(arrays, false, graph.getVertices(),
+          Mappings.newIntList(-1, graph.countVertices()), new ConnectednessImpl.Label(comp));
+      return comp;
+    }
     return weakComponents(graph.countVertices(), graph::getNeighbors);
   }
 
@@ -129,6 +179,10 @@ public final class ConnectednessImpl implements Connectedness {
     return comp;
   }
 
+  private static boolean isLarge(final AdjacencyArrays arrays) {
+    return arrays != null && arrays.countVertices() >= PARALLEL_SIZE;
+  }
+
   private static class Label implements TraversalImpl.Visitor {
     final Mapping.OfInt comp;
     int compn;
@@ -0,0 +1,220 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.algorithms.impl;
+
+import ch.ethz.sn.visone3.lang.PrimitiveIterable;
+import ch.ethz.sn.visone3.networks.impl.AdjacencyArrays;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-source breadth-first search computing the levels (hop distances) of
+ * the vertices.
+ *
+ * <p>
+ * On adjacency arrays, the frontier is kept as a bitset and each level is
+ * either expanded from the frontier (top-down) or found by scanning the
+ * unvisited vertices for a neighbor in the frontier (bottom-up), depending on
+ * which touches fewer edges. Levels can be expanded in parallel.
+ */
+final class LevelSynchronousBfs {
+
+  private LevelSynchronousBfs() {
+  }
+
+  /**
+   * Switch to bottom-up once the frontier's edges exceed this fraction of the
+   * unvisited vertices' edges.
+   */
+  private static final int ALPHA = 14;
+
+  /**
+   * Switch back to top-down once the frontier shrinks below this fraction of
+   * the vertices.
+   */
+  private static final int BETA = 24;
+
+  /**
+   * Computes the levels on adjacency arrays.
+   * 
+   * @param adjacency the adjacency arrays, traversed along out-neighbors.
+   * @param sources   the source vertices.
+   * @param parallel  true if the levels should be expanded in parallel.
+   * @return the level of each vertex, or -1 for vertices not reachable from any
+   *         source.
+   */
+  static int[] levels(final AdjacencyArrays adjacency, final PrimitiveIterable.OfInt sources,
+      final boolean parallel) {
+    final int n = adjacency.countVertices();
+    final int[] targets = adjacency.targets();
+    final int[] levels = new int[n];
+    Arrays.fill(levels, -1);
+    final int words = (n + 63) >>> 6;
+    final AtomicLongArray visited = new AtomicLongArray(words);
+    AtomicLongArray frontier = new AtomicLongArray(words);
+
+    long frontierSize = 0;
+    long frontierEdges = 0;
+    // edges to scan bottom-up: the in-degrees of all unvisited vertices
+    long unvisitedEdges = 0;
+    for (int v = 0; v < n; ++v) {
+      unvisitedEdges += adjacency.inEnd(v) - adjacency.begin(v);
+    }
+    for (final int s : sources) {
+      if (set(visited, s)) {
+        set(frontier, s);
+        levels[s] = 0;
+        ++frontierSize;
+        frontierEdges += adjacency.end(s) - adjacency.outBegin(s);
+        unvisitedEdges -= adjacency.inEnd(s) - adjacency.begin(s);
+      }
+    }
+
+    boolean bottomUp = false;
+    for (int level = 1; frontierSize > 0; ++level) {
+      if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA) {
+        bottomUp = true;
+      } else if (bottomUp && frontierSize < n / BETA) {
+        bottomUp = false;
+      }
+      final AtomicLongArray current = frontier;
+      final AtomicLongArray next = new AtomicLongArray(words);
+      final int depth = level;
+      IntStream range = IntStream.range(0, words);
+      if (parallel) {
+        range = range.parallel();
+      }
+      final long[] stats;
+      if (bottomUp) {
+        stats = range.mapToObj(w -> {
+          final long[] counts = new long[3];
+          final int end = Math.min(n, (w + 1) << 6);
+          for (int v = w << 6; v < end; ++v) {
+            if (levels[v] >= 0) {
+              continue;
+            }
+            for (int k = adjacency.begin(v), inEnd = adjacency.inEnd(v); k < inEnd; ++k) {
+              if (isSet(current, targets[k])) {
+                // only this task writes vertices of word w
+                levels[v] = depth;
+                set(visited, v);
+                set(next, v);
+                count(counts, adjacency, v);
+                break;
+              }
+            }
+          }
+          return counts;
+        }).reduce(new long[3], LevelSynchronousBfs::add);
+      } else {
+        stats = range.mapToObj(w -> {
+          final long[] counts = new long[3];
+          long bits = current.get(w);
+          while (bits != 0) {
+            final int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            for (int k = adjacency.outBegin(v), end = adjacency.end(v); k < end; ++k) {
+              final int u = targets[k];
+              if (!isSet(visited, u) && set(visited, u)) {
+                levels[u] = depth;
+                set(next, u);
+                count(counts, adjacency, u);
+              }
+            }
+          }
+          return counts;
+        }).reduce(new long[3], LevelSynchronousBfs::add);
+      }
+      frontier = next;
+      frontierSize = stats[0];
+      frontierEdges = stats[1];
+      unvisitedEdges -= stats[2];
+    }
+    return levels;
+  }
+
+  /**
+   * Computes the levels by a sequential top-down search on a neighborhood
+   * function.
+   * 
+   * @param numVertices the number of vertices.
+   * @param neighbors   the neighborhood function.
+   * @param sources     the source vertices.
+   * @return the level of each vertex, or -1 for vertices not reachable from any
+   *         source.
+   */
+  static int[] levels(final int numVertices, final IntFunction<PrimitiveIterable.OfInt> neighbors,
+      final PrimitiveIterable.OfInt sources) {
+    final int[] levels = new int[numVertices];
+    Arrays.fill(levels, -1);
+    final int[] queue = new int[numVertices];
+    int tail = 0;
+    for (final int s : sources) {
+      if (levels[s] < 0) {
+        levels[s] = 0;
+        queue[tail++] = s;
+      }
+    }
+    for (int head = 0; head < tail; ++head) {
+      final int v = queue[head];
+      for (final int u : neighbors.apply(v)) {
+        if (levels[u] < 0) {
+          levels[u] = levels[v] + 1;
+          queue[tail++] = u;
+        }
+      }
+    }
+    return levels;
+  }
+
+  private static void count(final long[] counts, final AdjacencyArrays adjacency, final int v) {
+    ++counts[0];
+    counts[1] += adjacency.end(v) - adjacency.outBegin(v);
+    counts[2] += adjacency.inEnd(v) - adjacency.begin(v);
+  }
+
+  private static long[] add(final long[] lhs, final long[] rhs) {
+    return new long[] { lhs[0] + rhs[0], lhs[1] + rhs[1], lhs[2] + rhs[2] };
+  }
+
+  private static boolean isSet(final AtomicLongArray bits, final int index) {
+    return (bits.get(index >>> 6) & (1L << index)) != 0;
+  }
+
+  /**
+   * Sets a bit.
+   * 
+   * @return true if the bit was not set before.
+   */
+  private static boolean set(final AtomicLongArray bits, final int index) {
+    final int word = index >>> 6;
+    final long mask = 1L << index;
+    while (true) {
+      final long value = bits.get(word);
+      if ((value & mask) != 0) {
+        return false;
+      }
+      if (bits.compareAndSet(word, value, value | mask)) {
+        return true;
+      }
+    }
+  }
+}
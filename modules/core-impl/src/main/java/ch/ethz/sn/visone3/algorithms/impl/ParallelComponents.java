@@ -0,0 +1,312 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.algorithms.impl;
+
+import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.networks.impl.AdjacencyArrays;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * Computes connected components in parallel directly on the adjacency arrays of
+ * the array-based network implementations.
+ *
+ * <p>
+ * Weak components are determined by a concurrent union-find, strong components
+ * by trimming and coloring (propagating the largest vertex that reaches each
+ * vertex and collecting each color's strong component by a backward search).
+ * Components are numbered by their smallest vertex, so the numbering is
+ * deterministic, but can differ from the numbering produced by depth-first
+ * search.
+ */
+public final class ParallelComponents {
+
+  private ParallelComponents() {
+  }
+
+  /**
+   * Maximum number of trimming and coloring rounds before the remaining
+   * vertices are processed sequentially.
+   */
+  private static final int MAX_ROUNDS = 32;
+
+  /**
+   * Number of remaining vertices below which the strong components are
+   * determined sequentially.
+   */
+  private static final int SEQUENTIAL_SIZE = 1 << 12;
+
+  /**
+   * Determines the weak components, which for undirected networks are the
+   * connected components.
+   * 
+   * @param adjacency the adjacency arrays.
+   * @return mapping of vertices to component numbers.
+   */
+  public static Mapping.OfInt weakComponents(final AdjacencyArrays adjacency) {
+    final int n = adjacency.countVertices();
+    final int[] targets = adjacency.targets();
+    final boolean directed = adjacency.isDirected();
+    final AtomicIntegerArray parent = new AtomicIntegerArray(n);
+    IntStream.range(0, n).parallel().forEach(v -> parent.set(v, v));
+    IntStream.range(0, n).parallel().forEach(v -> {
+      // undirected neighborhoods list each edge at both ends
+      for (int k = adjacency.outBegin(v), end = adjacency.end(v); k < end; ++k) {
+        final int u = targets[k];
+        if (directed ? u != v : u > v) {
+          union(parent, u, v);
+        }
+      }
+    });
+    final int[] comp = new int[n];
+    IntStream.range(0, n).parallel().forEach(v -> comp[v] = find(parent, v));
+    return Mappings.wrapModifiableInt(numberByRepresentative(comp));
+  }
+
+  /**
+   * Determines the strong components of a directed network.
+   * 
+   * @param adjacency the adjacency arrays of a directed network.
+   * @return mapping of vertices to component numbers.
+   */
+  public static Mapping.OfInt strongComponents(final AdjacencyArrays adjacency) {
+    if (!adjacency.isDirected()) {
+      throw new IllegalArgumentException("strong components require a directed network");
+    }
+    final int n = adjacency.countVertices();
+    // representative of each vertex's component, or -1 while unassigned
+    final int[] comp = new int[n];
+    Arrays.fill(comp, -1);
+    final int[] color = new int[n];
+    int remaining = n;
+    for (int round = 0; round < MAX_ROUNDS && remaining > SEQUENTIAL_SIZE; ++round) {
+      trim(adjacency, comp);
+      colorComponents(adjacency, comp, color);
+      remaining = (int) IntStream.range(0, n).parallel().filter(v -> comp[v] < 0).count();
+    }
+    if (remaining > 0) {
+      sequentialStrongComponents(adjacency, comp);
+    }
+    return Mappings.wrapModifiableInt(numberByRepresentative(comp));
+  }
+
+  private static int find(final AtomicIntegerArray parent, int x) {
+    while (true) {
+      final int p = parent.get(x);
+      if (p == x) {
+        return x;
+      }
+      final int gp = parent.get(p);
+      if (gp != p) {
+        // path halving
+        parent.compareAndSet(x, p, gp);
+      }
+      x = p;
+    }
+  }
+
+  private static void union(final AtomicIntegerArray parent, int a, int b) {
+    while (true) {
+      a = find(parent, a);
+      b = find(parent, b);
+      if (a == b) {
+        return;
+      }
+      // always link the larger root below the smaller one, so roots are the smallest vertices
+      if (a < b) {
+        final int tmp = a;
+        a = b;
+        b = tmp;
+      }
+      if (parent.compareAndSet(a, a, b)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Removes vertices without remaining in- or out-neighbors, which form
+   * singleton strong components.
+   */
+  private static void trim(final AdjacencyArrays adjacency, final int[] comp) {
+    final int n = adjacency.countVertices();
+    final int[] targets = adjacency.targets();
+    boolean changed = true;
+    for (int pass = 0; changed && pass < MAX_ROUNDS; ++pass) {
+      // reading stale entries only keeps more vertices, which is safe
+      changed = IntStream.range(0, n).parallel().filter(v -> {
+        if (comp[v] >= 0) {
+          return false;
+        }
+        if (!hasRemaining(targets, adjacency.begin(v), adjacency.inEnd(v), v, comp)
+            || !hasRemaining(targets, adjacency.outBegin(v), adjacency.end(v), v, comp)) {
+          comp[v] = v;
+          return true;
+        }
+        return false;
+      }).count() > 0;
+    }
+  }
+
+  private static boolean hasRemaining(final int[] targets, final int begin, final int end,
+      final int self, final int[] comp) {
+    for (int k = begin; k < end; ++k) {
+      final int u = targets[k];
+      if (u != self && comp[u] < 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Colors each remaining vertex with the largest remaining vertex reaching it
+   * and assigns the strong component of each vertex that keeps its own color.
+   */
+  private static void colorComponents(final AdjacencyArrays adjacency, final int[] comp,
+      final int[] color) {
+    final int n = adjacency.countVertices();
+    final int[] targets = adjacency.targets();
+    IntStream.range(0, n).parallel().forEach(v -> color[v] = v);
+    boolean changed = true;
+    while (changed) {
+      // colors only grow, so a pass without changes has seen the final colors
+      changed = IntStream.range(0, n).parallel().filter(v -> {
+        if (comp[v] >= 0) {
+          return false;
+        }
+        int c = color[v];
+        for (int k = adjacency.begin(v), end = adjacency.inEnd(v); k < end; ++k) {
+          final int u = targets[k];
+          if (comp[u] < 0 && color[u] > c) {
+            c = color[u];
+          }
+        }
+        if (c != color[v]) {
+          color[v] = c;
+          return true;
+        }
+        return false;
+      }).count() > 0;
+    }
+    // the vertices of a color that reach its root form the root's strong component
+    IntStream.range(0, n).parallel().filter(v -> comp[v] < 0 && color[v] == v).forEach(root -> {
+      int[] queue = new int[16];
+      int size = 0;
+      queue[size++] = root;
+      comp[root] = root;
+      for (int head = 0; head < size; ++head) {
+        final int v = queue[head];
+        for (int k = adjacency.begin(v), end = adjacency.inEnd(v); k < end; ++k) {
+          final int u = targets[k];
+          if (comp[u] < 0 && color[u] == root) {
+            comp[u] = root;
+            if (size == queue.length) {
+              queue = Arrays.copyOf(queue, 2 * size);
+            }
+            queue[size++] = u;
+          }
+        }
+      }
+    });
+  }
+
+  /**
+   * Assigns the strong components among the remaining vertices by an iterative
+   * version of Tarjan's algorithm.
+   */
+  private static void sequentialStrongComponents(final AdjacencyArrays adjacency,
+      final int[] comp) {
+    final int n = adjacency.countVertices();
+    final int[] targets = adjacency.targets();
+    final int[] index = new int[n];
+    Arrays.fill(index, -1);
+    final int[] low = new int[n];
+    final boolean[] onStack = new boolean[n];
+    final int[] stack = new int[n];
+    final int[] callVertex = new int[n];
+    final int[] callPosition = new int[n];
+    int counter = 0;
+    int stackSize = 0;
+    for (int s = 0; s < n; ++s) {
+      if (comp[s] >= 0 || index[s] >= 0) {
+        continue;
+      }
+      index[s] = low[s] = counter++;
+      stack[stackSize++] = s;
+      onStack[s] = true;
+      int depth = 0;
+      callVertex[depth] = s;
+      callPosition[depth++] = adjacency.outBegin(s);
+      while (depth > 0) {
+        final int v = callVertex[depth - 1];
+        if (callPosition[depth - 1] < adjacency.end(v)) {
+          final int u = targets[callPosition[depth - 1]++];
+          if (comp[u] >= 0) {
+            continue;
+          }
+          if (index[u] < 0) {
+            index[u] = low[u] = counter++;
+            stack[stackSize++] = u;
+            onStack[u] = true;
+            callVertex[depth] = u;
+            callPosition[depth++] = adjacency.outBegin(u);
+          } else if (onStack[u]) {
+            low[v] = Math.min(low[v], index[u]);
+          }
+        } else {
+          --depth;
+          if (low[v] == index[v]) {
+            int u;
+            do {
+              u = stack[--stackSize];
+              onStack[u] = false;
+              comp[u] = v;
+            } while (u != v);
+          }
+          if (depth > 0) {
+            final int parent = callVertex[depth - 1];
+            low[parent] = Math.min(low[parent], low[v]);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Renumbers components given by a representative vertex in the order of their
+   * smallest vertex.
+   */
+  private static int[] numberByRepresentative(final int[] representatives) {
+    final int n = representatives.length;
+    final int[] number = new int[n];
+    Arrays.fill(number, -1);
+    int count = 0;
+    for (int v = 0; v < n; ++v) {
+      final int r = representatives[v];
+      if (number[r] < 0) {
+        number[r] = count++;
+      }
+      representatives[v] = number[r];
+    }
+    return representatives;
+  }
+}
@@ -22,7 +22,10 @@ import ch.ethz.sn.visone3.lang.Mapping;
 import ch.ethz.sn.visone3.lang.Mappings;
 import ch.ethz.sn.visone3.lang.PrimitiveIterable;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.networks.DirectedGraph;
 import ch.ethz.sn.visone3.networks.Edge;
+import ch.ethz.sn.visone3.networks.UndirectedGraph;
+import ch.ethz.sn.visone3.networks.impl.AdjacencyArrays;
 
 import java.util.Iterator;
 import java.util.Objects;
@@ -113,6 +116,32 @@ public class TraversalImpl implements Traversal {
     visitor.endSearch();
   }
 
+  @Override
+  public Mapping.OfInt bfsLevels(final DirectedGraph graph, final PrimitiveIterable.OfInt sources,
+      final boolean parallel) {
+    Objects.requireNonNull(graph);
+    Objects.requireNonNull(sources);
+    final AdjacencyArrays adjacency = AdjacencyArrays.of(graph);
+    if (adjacency != null) {
+      return Mappings.wrapModifiableInt(LevelSynchronousBfs.levels(adjacency, sources, parallel));
+    }
+    return Mappings.wrapModifiableInt(
+        LevelSynchronousBfs.levels(graph.countVertices(), graph::getOutNeighbors, sources));
+  }
+
+  @Override
+  public Mapping.OfInt bfsLevels(final UndirectedGraph graph,
+      final PrimitiveIterable.OfInt sources, final boolean parallel) {
+    Objects.requireNonNull(graph);
+    Objects.requireNonNull(sources);
+    final AdjacencyArrays adjacency = AdjacencyArrays.of(graph);
+    if (adjacency != null) {
+      return Mappings.wrapModifiableInt(LevelSynchronousBfs.levels(adjacency, sources, parallel));
+    }
+    return Mappings.wrapModifiableInt(
+        LevelSynchronousBfs.levels(graph.countVertices(), graph::getNeighbors, sources));
+  }
+
   /**
    * Multi source depth-first-search.
    *
@@ -288,4 +317,97 @@ public class TraversalImpl implements Traversal {
     visitor.endSearch();
     return dfsns;
   }
+
+  /**
+   * Multi source depth-first-search on adjacency arrays, which visits vertices and edges in the
+   * same order as a search on the corresponding neighborhood function, but does not allocate
+   * iterators.
+   *
+   * @param adjacency
+   *          Adjacency arrays.
+   * @param outgoing
+   *          True if only out-neighbors should be followed, false if all neighbors should be.
+   * @param starts
+   *          Start points. A new DFS is started from each of these nodes if the DFS number is still
+   *          negative.
+   * @param dfsns
+   *          Mapping as storage for DFS numbers.
+   * @param visitor
+   *          A traversal visitor. Use {@link Visitor#NULL} instead of {@code null}.
+   */
+  static void dfs(final AdjacencyArrays adjacency, final boolean outgoing,
+      final PrimitiveIterable.OfInt starts, final Mapping.OfInt dfsns, final Visitor visitor) {
+    searchArrays(adjacency, outgoing, false, 0, starts, dfsns, visitor);
+  }
+
+  /**
+   * Multi source depth-first-search on adjacency arrays traversing each edge once, which visits
+   * vertices and edges in the same order as {@link #edgeDfs}, but does not allocate edge objects.
+   *
+   * @param adjacency
+   *          Adjacency arrays.
+   * @param numEdges
+   *          Number of edges.
+   * @param starts
+   *          Start points. A new DFS is started from each of these nodes if the DFS number is still
+   *          negative.
+   * @param dfsns
+   *          Mapping as storage for DFS numbers.
+   * @param visitor
+   *          A traversal visitor. Use {@link Visitor#NULL} instead of {@code null}.
+   */
+  static void edgeDfs(final AdjacencyArrays adjacency, final int numEdges,
+      final PrimitiveIterable.OfInt starts, final Mapping.OfInt dfsns, final Visitor visitor) {
+    searchArrays(adjacency, false, true, numEdges, starts, dfsns, visitor);
+  }
+
+  private static void searchArrays(final AdjacencyArrays adjacency, final boolean outgoing,
+      final boolean markEdges, final int numEdges, final PrimitiveIterable.OfInt starts,
+      final Mapping.OfInt dfsns, final Visitor visitor) {
+    final int[] targets = adjacency.targets();
+    final int[] edgeIds = adjacency.edgeIds();
+    final boolean[] edgeMark = markEdges ? new boolean[numEdges] : null;
+    // every vertex is on the stack at most once
+    final int[] vertexStack = new int[adjacency.countVertices()];
+    final int[] positionStack = new int[adjacency.countVertices()];
+    for (final int start : starts) {
+      if (dfsns.getInt(start) >= 0) {
+        continue;
+      }
+      visitor.startSearch(start);
+      int dfsn = 0;
+      int depth = 0;
+      vertexStack[depth] = start;
+      positionStack[depth++] = outgoing ? adjacency.outBegin(start) : adjacency.begin(start);
+      while (depth > 0) {
+        final int source = vertexStack[depth - 1];
+        if (dfsns.getInt(source) < 0) {
+          dfsns.setInt(source, dfsn++);
+          visitor.visitVertex(source);
+        }
+        final int position = positionStack[depth - 1];
+        if (position == adjacency.end(source)) {
+          visitor.backtrackVertex(source);
+          --depth;
+        } else {
+          positionStack[depth - 1] = position + 1;
+          final int idx = markEdges ? edgeIds[position] : -1;
+          if (markEdges) {
+            if (edgeMark[idx]) {
+              continue;
+            }
+            edgeMark[idx] = true;
+          }
+          final int target = targets[position];
+          if (dfsns.getInt(target) < 0) {
+            vertexStack[depth] = target;
+            positionStack[depth++] = outgoing ? adjacency.outBegin(target)
+                : adjacency.begin(target);
+          }
+          visitor.visitEdge(source, target, idx);
+        }
+      }
+      visitor.endSearch();
+    }
+  }
 }
@@ -0,0 +1,163 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.impl;
+
+/**
+ * Read-only view of the compressed sparse row arrays backing the array-based
+ * network implementations. It lets algorithms walk neighborhoods by offsets
+ * into flat arrays instead of iterating over neighbor and edge objects.
+ *
+ * <p>
+ * The neighbors of vertex {@code v} are stored at positions
+ * {@link #begin(int) begin(v)} (inclusive) to {@link #end(int) end(v)}
+ * (exclusive) of {@link #targets()}, with the matching edge ids at the same
+ * positions of {@link #edgeIds()}. For directed networks, the in-neighbors
+ * precede the out-neighbors, which start at {@link #outBegin(int)}.
+ *
+ * <p>
+ * The arrays are shared with the network and must not be modified. The view
+ * becomes stale if a reorderable network is reordered.
+ */
+public final class AdjacencyArrays {
+  private final boolean directed;
+  private final int[] offsets;
+  private final int[] inDegrees;
+  private final int[] targets;
+  private final int[] edgeIds;
+
+  private AdjacencyArrays(final boolean directed, final int[] offsets, final int[] inDegrees,
+      final int[] targets, final int[] edgeIds) {
+    this.directed = directed;
+    this.offsets = offsets;
+    this.inDegrees = inDegrees;
+    this.targets = targets;
+    this.edgeIds = edgeIds;
+  }
+
+  /**
+   * Returns the adjacency arrays of the specified graph or network.
+   * 
+   * @param graph the graph or network.
+   * @return the adjacency arrays, or {@code null} if the graph is not backed by
+   *         one of the array-based network implementations.
+   */
+  public static AdjacencyArrays of(final Object graph) {
+    if (graph instanceof ArrayDirectedNetwork) {
+      final ArrayDirectedNetwork network = (ArrayDirectedNetwork) graph;
+      return new AdjacencyArrays(true, network.accDegree, network.inDegree, network.neighbors,
+          network.edgeIds);
+    } else if (graph instanceof UndirectedNetworkImpl) {
+      final UndirectedNetworkImpl network = (UndirectedNetworkImpl) graph;
+      return new AdjacencyArrays(false, network.accDegree, null, network.neighbors,
+          network.edgeIds);
+    } else if (graph instanceof TwoModeNetwork) {
+      final TwoModeNetwork network = (TwoModeNetwork) graph;
+      return new AdjacencyArrays(false, network.accDegree, null, network.neighbors,
+          network.edgeIds);
+    }
+    return null;
+  }
+
+  /**
+   * Returns whether the arrays separate in- and out-neighbors.
+   * 
+   * @return true if the underlying network is directed, false otherwise.
+   */
+  public boolean isDirected() {
+    return directed;
+  }
+
+  /**
+   * Returns the number of vertices.
+   * 
+   * @return the number of vertices.
+   */
+  public int countVertices() {
+    return offsets.length - 1;
+  }
+
+  /**
+   * Returns the position of the first neighbor of the vertex.
+   * 
+   * @param vertex the vertex.
+   * @return the position of the first neighbor.
+   */
+  public int begin(final int vertex) {
+    return offsets[vertex];
+  }
+
+  /**
+   * Returns the position of the first out-neighbor of the vertex. For
+   * undirected networks, this is the same as {@link #begin(int)}.
+   * 
+   * @param vertex the vertex.
+   * @return the position of the first out-neighbor.
+   */
+  public int outBegin(final int vertex) {
+    return directed ? offsets[vertex] + inDegrees[vertex] : offsets[vertex];
+  }
+
+  /**
+   * Returns the position after the last in-neighbor of the vertex. For
+   * undirected networks, this is the same as {@link #end(int)}.
+   * 
+   * @param vertex the vertex.
+   * @return the position after the last in-neighbor.
+   */
+  public int inEnd(final int vertex) {
+    return directed ? offsets[vertex] + inDegrees[vertex] : offsets[vertex + 1];
+  }
+
+  /**
+   * Returns the position after the last neighbor of the vertex.
+   * 
+   * @param vertex the vertex.
+   * @return the position after the last neighbor.
+   */
+  public int end(final int vertex) {
+    return offsets[vertex + 1];
+  }
+
+  /**
+   * Returns the array of neighbor offsets, which has one more entry than there
+   * are vertices.
+   * 
+   * @return the offsets.
+   */
+  public int[] offsets() {
+    return offsets;
+  }
+
+  /**
+   * Returns the array of neighbors.
+   * 
+   * @return the neighbors.
+   */
+  public int[] targets() {
+    return targets;
+  }
+
+  /**
+   * Returns the array of edge ids matching the neighbors.
+   * 
+   * @return the edge ids.
+   */
+  public int[] edgeIds() {
+    return edgeIds;
+  }
+}
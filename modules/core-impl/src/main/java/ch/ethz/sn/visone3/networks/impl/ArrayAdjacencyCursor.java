@@ -0,0 +1,123 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.impl;
+
+import java.util.NoSuchElementException;
+
+import ch.ethz.sn.visone3.networks.AdjacencyCursor;
+
+/**
+ * Allocation-free cursor over a range of the neighbor and edge id arrays of an array-based network.
+ * Subclasses define the range for each vertex and, optionally, the domain of admissible vertices.
+ */
+abstract class ArrayAdjacencyCursor implements AdjacencyCursor {
+  private int source = -1;
+  private int begin;
+  private int position;
+  private int end;
+  private int[] targets;
+  private int[] indices;
+
+  /**
+   * Checks that the vertex belongs to the domain the cursor iterates over. Accepts all vertices by
+   * default.
+   * 
+   * @param vertex
+   *          the vertex.
+   * @throws IndexOutOfBoundsException
+   *           if the vertex is not in the domain.
+   */
+  void checkVertex(final int vertex) {
+  }
+
+  /**
+   * Returns the first position of the vertex's adjacencies in the arrays.
+   * 
+   * @param vertex
+   *          the vertex.
+   * @return the first position (inclusive).
+   */
+  abstract int rangeBegin(int vertex);
+
+  /**
+   * Returns the end position of the vertex's adjacencies in the arrays.
+   * 
+   * @param vertex
+   *          the vertex.
+   * @return the end position (exclusive).
+   */
+  abstract int rangeEnd(int vertex);
+
+  /**
+   * Returns the current neighbor array.
+   * 
+   * @return the neighbor array.
+   */
+  abstract int[] targets();
+
+  /**
+   * Returns the current edge id array.
+   * 
+   * @return the edge id array.
+   */
+  abstract int[] indices();
+
+  @Override
+  public AdjacencyCursor reset(final int vertex) {
+    checkVertex(vertex);
+    this.source = vertex;
+    this.begin = rangeBegin(vertex);
+    this.position = begin - 1;
+    this.end = rangeEnd(vertex);
+    // read the arrays here since reordering may replace them
+    this.targets = targets();
+    this.indices = indices();
+    return this;
+  }
+
+  @Override
+  public int source() {
+    return source;
+  }
+
+  @Override
+  public boolean next() {
+    if (position < end) {
+      ++position;
+    }
+    return position < end;
+  }
+
+  @Override
+  public int target() {
+    checkPosition();
+    return targets[position];
+  }
+
+  @Override
+  public int index() {
+    checkPosition();
+    return indices[position];
+  }
+
+  private void checkPosition() {
+    if (position < begin || position >= end) {
+      throw new NoSuchElementException();
+    }
+  }
+}
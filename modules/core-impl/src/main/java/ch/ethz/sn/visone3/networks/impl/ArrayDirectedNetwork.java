@@ -38,18 +38,21 @@ import ch.ethz.sn.visone3.lang.PrimitiveCollections;
 import ch.ethz.sn.visone3.lang.PrimitiveContainers;
 import ch.ethz.sn.visone3.lang.PrimitiveIterable;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.networks.AdjacencyCursor;
 import ch.ethz.sn.visone3.networks.AdjacencyListEntry;
 import ch.ethz.sn.visone3.networks.DirectedGraph;
 import ch.ethz.sn.visone3.networks.Direction;
 import ch.ethz.sn.visone3.networks.Edge;
 import ch.ethz.sn.visone3.networks.Network;
 import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.Networks;
 import ch.ethz.sn.visone3.networks.Relation;
 import ch.ethz.sn.visone3.networks.Relationship;
 import ch.ethz.sn.visone3.networks.ReorderableDirectedGraph;
 import ch.ethz.sn.visone3.networks.ReorderableNetwork;
 import ch.ethz.sn.visone3.networks.ReorderableUndirectedGraph;
 import ch.ethz.sn.visone3.networks.UndirectedGraph;
+import ch.ethz.sn.visone3.networks.VertexOrderings;
 
 /**
  * Implements a directed network by using a constant number of integer arrays.
@@ -126,6 +129,11 @@ public class ArrayDirectedNetwork implements Network, Relation, DirectedGraph, S
         ArrayDirectedNetwork::itrInEdge);
   }
 
+  @Override
+  public AdjacencyCursor getInCursor() {
+    return new Cursor(Direction.INCOMING);
+  }
+
   @Override
   public int getInDegree(final int target) {
     return inDegree[target];
@@ -142,6 +150,11 @@ public class ArrayDirectedNetwork implements Network, Relation, DirectedGraph, S
         accDegree[source + 1], ArrayDirectedNetwork::itrOutEdge);
   }
 
+  @Override
+  public AdjacencyCursor getOutCursor() {
+    return new Cursor(Direction.OUTGOING);
+  }
+
   @Override
   public int getOutDegree(final int source) {
     return getDegree(source) - inDegree[source];
@@ -162,6 +175,11 @@ public class ArrayDirectedNetwork implements Network, Relation, DirectedGraph, S
     return Iterators.concat(getInEdges(vertex), getOutEdges(vertex));
   }
 
+  @Override
+  public AdjacencyCursor getCursor() {
+    return new Cursor(null);
+  }
+
   @Override
   public Iterable<Edge> getEdges() {
     return AllEdgeIterator::new;
@@ -269,6 +287,16 @@ public class ArrayDirectedNetwork implements Network, Relation, DirectedGraph, S
         ArrayDirectedNetwork::itrTo);
   }
 
+  @Override
+  public AdjacencyCursor getCursorFrom() {
+    return getOutCursor();
+  }
+
+  @Override
+  public AdjacencyCursor getCursorTo() {
+    return getInCursor();
+  }
+
   @Override
   public int countRelationshipsFrom(final int left) {
     return getOutDegree(left);
@@ -431,6 +459,39 @@ public class ArrayDirectedNetwork implements Network, Relation, DirectedGraph, S
     }
   }
 
+  /**
+   * Allocation-free cursor over the in-, out- or all adjacencies.
+   */
+  private class Cursor extends ArrayAdjacencyCursor {
+    private final Direction direction; // null for both directions
+
+    Cursor(final Direction direction) {
+      this.direction = direction;
+    }
+
+    @Override
+    int rangeBegin(final int vertex) {
+      return direction == Direction.OUTGOING ? accDegree[vertex] + inDegree[vertex]
+          : accDegree[vertex];
+    }
+
+    @Override
+    int rangeEnd(final int vertex) {
+      return direction == Direction.INCOMING ? accDegree[vertex] + inDegree[vertex]
+          : accDegree[vertex + 1];
+    }
+
+    @Override
+    int[] targets() {
+      return neighbors;
+    }
+
+    @Override
+    int[] indices() {
+      return edgeIds;
+    }
+  }
+
   private class NeighborIterable<T> implements Iterable<T> {
     final int vertex;
     final int begin;
@@ -658,6 +719,21 @@ public class ArrayDirectedNetwork implements Network, Relation, DirectedGraph, S
           Arrays.copyOf(edgeIds, edgeIds.length), true);
     }
 
+    @Override
+    public ReorderableNetwork permuteVertices(ConstMapping.OfInt order) {
+      final int[] position = VertexOrderings
+          .inverse(Networks.checkVertexMapSize(countVertices(), order, "order")).array();
+      final int[] newOrder = order.toUnboxedArray();
+      final int[] newAccDegree = VertexPermutation.accDegree(accDegree, newOrder);
+      final int[] newInDegree = new int[inDegree.length];
+      for (int k = 0; k < newOrder.length; ++k) {
+        newInDegree[k] = inDegree[newOrder[k]];
+      }
+      return new Reorderable(newAccDegree, newInDegree,
+          VertexPermutation.permute(accDegree, neighbors, newAccDegree, newOrder, position),
+          VertexPermutation.permute(accDegree, edgeIds, newAccDegree, newOrder, null), true);
+    }
+
     @Override
     public ReorderableDirectedGraph asDirectedGraph() {
       return this;
@@ -21,7 +21,8 @@ import ch.ethz.sn.visone3.networks.NetworkBuilder;
 import ch.ethz.sn.visone3.networks.NetworkService;
 
 /**
- * Service making the network implementations available via the API.
+ * Service making the network implementations available via the API. It is the default service for
+ * the dyad types it supports.
  */
 public class ArrayNetworkService implements NetworkService {
 
@@ -30,6 +31,16 @@ public class ArrayNetworkService implements NetworkService {
     return "ch.ethz.sn.visone3.core-impl.networks";
   }
 
+  /**
+   * The priority of the default network service.
+   */
+  public static final int PRIORITY = 10;
+
+  @Override
+  public int priority() {
+    return PRIORITY;
+  }
+
   @Override
   public boolean supports(final DyadType type) {
     switch (type) {
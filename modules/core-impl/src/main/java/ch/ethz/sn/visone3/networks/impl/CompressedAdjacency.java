@@ -0,0 +1,307 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compressed adjacency lists of one direction. The list of each vertex is stored as a sequence of
+ * varints (7 bits per byte, least significant group first) in a byte page. Lists never span two
+ * pages, so a list is addressed by a page index (high 32 bits) and an offset within the page (low
+ * 32 bits).
+ *
+ * <p>
+ * Every list is preceded by a skip table with one entry for each further block of
+ * {@link #SKIP_INTERVAL} list entries. A skip entry consists of two little-endian 32-bit integers:
+ * the (gap-decoded) value of the last list entry before the block, and the byte offset of the
+ * block relative to the end of the skip table. Thus, a search for a value only decodes the block
+ * that may contain it.
+ */
+final class CompressedAdjacency implements Serializable {
+  private static final long serialVersionUID = -3213964035424419468L;
+
+  /**
+   * Maximum size of a byte page.
+   */
+  static final int PAGE_SIZE = 1 << 30;
+
+  /**
+   * Number of list entries between two skip entries.
+   */
+  static final int SKIP_INTERVAL = 64;
+
+  /**
+   * array containing the accumulated degree up to each node i.
+   */
+  final int[] accDegree;
+
+  /**
+   * page index and offset of each node's adjacency list.
+   */
+  final long[] addresses;
+
+  /**
+   * the byte pages.
+   */
+  final byte[][] pages;
+
+  private CompressedAdjacency(final int[] accDegree, final long[] addresses,
+      final byte[][] pages) {
+    this.accDegree = accDegree;
+    this.addresses = addresses;
+    this.pages = pages;
+  }
+
+  private static int countSkips(final int degree) {
+    return degree == 0 ? 0 : (degree - 1) / SKIP_INTERVAL;
+  }
+
+  int degree(final int vertex) {
+    return accDegree[vertex + 1] - accDegree[vertex];
+  }
+
+  /**
+   * Returns the number of bytes used by the adjacency lists.
+   *
+   * @return the number of bytes.
+   */
+  long countBytes() {
+    long bytes = 0;
+    for (final byte[] page : pages) {
+      bytes += page.length;
+    }
+    return bytes;
+  }
+
+  @Override
+  public boolean equals(final Object rhs) {
+    if (!(rhs instanceof CompressedAdjacency)) {
+      return false;
+    }
+    final CompressedAdjacency other = (CompressedAdjacency) rhs;
+    return Arrays.equals(accDegree, other.accDegree) && Arrays.equals(addresses, other.addresses)
+        && Arrays.deepEquals(pages, other.pages);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(accDegree) + Arrays.deepHashCode(pages);
+  }
+
+  /**
+   * Decodes the adjacency list of one vertex at a time.
+   */
+  static final class Reader {
+    private byte[] page;
+    private int start;
+    private int offset;
+    private int skips;
+    private int base;
+
+    /**
+     * Positions this reader at the first entry of a vertex's adjacency list.
+     *
+     * @param lists
+     *          the adjacency lists.
+     * @param vertex
+     *          the vertex.
+     * @return the number of list entries.
+     */
+    int open(final CompressedAdjacency lists, final int vertex) {
+      final long address = lists.addresses[vertex];
+      final int degree = lists.degree(vertex);
+      page = lists.pages[(int) (address >>> 32)];
+      skips = countSkips(degree);
+      start = (int) address + 8 * skips;
+      offset = start;
+      base = 0;
+      return degree;
+    }
+
+    /**
+     * Skips the blocks of the list that only contain values smaller than the bound. Must be called
+     * right after {@link #open(CompressedAdjacency, int)}.
+     *
+     * @param bound
+     *          the bound.
+     * @return the number of skipped list entries.
+     */
+    int skipBelow(final int bound) {
+      // find the last block whose preceding value is below the bound
+      int lo = 0;
+      int hi = skips;
+      while (lo < hi) {
+        final int mid = (lo + hi + 1) >>> 1;
+        if (readInt(start - 8 * (skips - mid + 1)) < bound) {
+          lo = mid;
+        } else {
+          hi = mid - 1;
+        }
+      }
+      if (lo > 0) {
+        final int entry = start - 8 * (skips - lo + 1);
+        base = readInt(entry);
+        offset = start + readInt(entry + 4);
+      }
+      return lo * SKIP_INTERVAL;
+    }
+
+    /**
+     * Returns the value preceding the current position, i.e., the value the gaps following it are
+     * relative to.
+     *
+     * @return the value of the last skipped entry, or 0 if no entry has been skipped.
+     */
+    int base() {
+      return base;
+    }
+
+    /**
+     * Reads the next varint.
+     *
+     * @return the value.
+     */
+    int read() {
+      int b = page[offset++];
+      int value = b & 0x7f;
+      for (int shift = 7; b < 0; shift += 7) {
+        b = page[offset++];
+        value |= (b & 0x7f) << shift;
+      }
+      return value;
+    }
+
+    private int readInt(final int at) {
+      return (page[at] & 0xff) | (page[at + 1] & 0xff) << 8 | (page[at + 2] & 0xff) << 16
+          | page[at + 3] << 24;
+    }
+  }
+
+  /**
+   * Encodes adjacency lists vertex by vertex.
+   */
+  static final class Writer {
+    private long[] addresses = new long[Magic.CAP_NODES];
+    private final List<byte[]> pages = new ArrayList<>();
+    private byte[] page = new byte[Magic.CAP_EDGES];
+    private int pageSize;
+    private byte[] list = new byte[Magic.CAP_DEGREE * 5];
+    private int listSize;
+    private int[] skips = new int[16];
+    private int skipSize;
+    private int entries;
+    private int vertex;
+
+    /**
+     * Starts the next entry of the list of the current vertex.
+     *
+     * @param previous
+     *          the value of the previous entry, which the entry's gap is relative to.
+     */
+    void startEntry(final int previous) {
+      if (entries > 0 && entries % SKIP_INTERVAL == 0) {
+        if (skipSize + 2 > skips.length) {
+          skips = Arrays.copyOf(skips, 2 * skips.length);
+        }
+        skips[skipSize++] = previous;
+        skips[skipSize++] = listSize;
+      }
+      ++entries;
+    }
+
+    /**
+     * Appends a value to the list of the current vertex.
+     *
+     * @param value
+     *          the non-negative value.
+     */
+    void write(int value) {
+      if (listSize + 5 > list.length) {
+        list = Arrays.copyOf(list, 2 * list.length);
+      }
+      while ((value & ~0x7f) != 0) {
+        list[listSize++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      list[listSize++] = (byte) value;
+    }
+
+    /**
+     * Finishes the list of the current vertex and continues with the next vertex.
+     */
+    void endList() {
+      final long size = 4L * skipSize + listSize;
+      if (size > PAGE_SIZE) {
+        throw new IllegalStateException("adjacency list of " + vertex + " exceeds page size");
+      }
+      if (pageSize + size > PAGE_SIZE) {
+        pages.add(Arrays.copyOf(page, pageSize));
+        page = new byte[Math.max(Magic.CAP_EDGES, (int) size)];
+        pageSize = 0;
+      }
+      if (pageSize + size > page.length) {
+        page = Arrays.copyOf(page,
+            (int) Math.min(PAGE_SIZE, Math.max(2L * page.length, pageSize + size)));
+      }
+      if (vertex == addresses.length) {
+        addresses = Arrays.copyOf(addresses, 2 * addresses.length);
+      }
+      addresses[vertex++] = ((long) pages.size() << 32) | pageSize;
+      for (int i = 0; i < skipSize; ++i) {
+        final int value = skips[i];
+        page[pageSize++] = (byte) value;
+        page[pageSize++] = (byte) (value >>> 8);
+        page[pageSize++] = (byte) (value >>> 16);
+        page[pageSize++] = (byte) (value >>> 24);
+      }
+      System.arraycopy(list, 0, page, pageSize, listSize);
+      pageSize += listSize;
+      listSize = 0;
+      skipSize = 0;
+      entries = 0;
+    }
+
+    /**
+     * Returns the number of finished lists.
+     *
+     * @return the number of finished lists.
+     */
+    int countLists() {
+      return vertex;
+    }
+
+    /**
+     * Produces the adjacency lists written so far. The writer can still be continued afterwards.
+     *
+     * @param accDegree
+     *          the accumulated degrees of the vertices whose lists have been finished.
+     * @return the adjacency lists.
+     */
+    CompressedAdjacency build(final int[] accDegree) {
+      if (vertex != accDegree.length - 1) {
+        throw new IllegalStateException("missing adjacency lists");
+      }
+      final byte[][] result = pages.toArray(new byte[pages.size() + 1][]);
+      result[pages.size()] = Arrays.copyOf(page, pageSize);
+      return new CompressedAdjacency(accDegree, Arrays.copyOf(addresses, vertex), result);
+    }
+  }
+}
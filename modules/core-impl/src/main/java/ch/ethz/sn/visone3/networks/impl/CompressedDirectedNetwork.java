@@ -0,0 +1,794 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.impl;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.IntPair;
+import ch.ethz.sn.visone3.lang.Iterators;
+import ch.ethz.sn.visone3.lang.LongMap;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.lang.PrimitiveContainers;
+import ch.ethz.sn.visone3.lang.PrimitiveIterable;
+import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.networks.AdjacencyCursor;
+import ch.ethz.sn.visone3.networks.DirectedGraph;
+import ch.ethz.sn.visone3.networks.Direction;
+import ch.ethz.sn.visone3.networks.Edge;
+import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.Relation;
+import ch.ethz.sn.visone3.networks.Relationship;
+import ch.ethz.sn.visone3.networks.ReorderableNetwork;
+import ch.ethz.sn.visone3.networks.UndirectedGraph;
+
+/**
+ * Implements an immutable directed network with compressed adjacency lists.
+ *
+ * <p>
+ * The outgoing edges of each vertex are sorted by target, and the targets are stored as
+ * varint-encoded gaps. The incoming edges of each vertex are sorted by source and stored as
+ * varint-encoded gaps of the sources together with the rank of the edge in the source's outgoing
+ * list. Thus, every edge has a position in the concatenation of the outgoing lists. If the edges
+ * are added to the builder in order of (source, target), the edge indices coincide with these
+ * positions and are not stored at all; otherwise, one integer per edge maps positions to edge
+ * indices. For sparse networks with local structure, this takes about 2 to 4 bytes per edge,
+ * compared to 16 bytes per edge for {@link ArrayDirectedNetwork}.
+ *
+ * <p>
+ * Every adjacency list starts with a skip entry for each further block of 64 entries, so that
+ * {@link #getEdge(int, int)} decodes a single block. Otherwise, adjacency lists are decoded
+ * sequentially, so this implementation is best traversed with the cursors returned by
+ * {@link #getOutCursor()}, {@link #getInCursor()} and {@link #getCursor()}.
+ * Its neighborhoods cannot be reordered, so {@link #reorderable()} returns an uncompressed copy.
+ */
+public class CompressedDirectedNetwork
+    implements Network, Relation, DirectedGraph, Serializable {
+  private static final Logger LOG = LoggerFactory.getLogger(CompressedDirectedNetwork.class);
+  private static final long serialVersionUID = -2329218460328424305L;
+
+  /**
+   * outgoing adjacency lists: target gaps.
+   */
+  private final CompressedAdjacency out;
+
+  /**
+   * incoming adjacency lists: pairs of source gaps and ranks in the source's outgoing list.
+   */
+  private final CompressedAdjacency in;
+
+  /**
+   * edge index of each position in the outgoing lists, or null if they coincide.
+   */
+  private final int[] edgeIds;
+
+  private CompressedDirectedNetwork(final CompressedAdjacency out, final CompressedAdjacency in,
+      final int[] edgeIds) {
+    this.out = out;
+    this.in = in;
+    this.edgeIds = edgeIds;
+  }
+
+  private static Edge itrOutEdge(final int edge, final int self, final int opposite) {
+    return new DirectedEdgeImpl(edge, self, opposite);
+  }
+
+  private static Edge itrInEdge(final int edge, final int self, final int opposite) {
+    return new DirectedEdgeImpl(edge, opposite, self);
+  }
+
+  private static Relationship itrFrom(final int edge, final int self, final int opposite) {
+    return new RelationshipImpl(edge, self, opposite);
+  }
+
+  private static Relationship itrTo(final int edge, final int self, final int opposite) {
+    return new RelationshipImpl(edge, opposite, self);
+  }
+
+  /**
+   * Returns whether edge indices are implicit, i.e., whether the edges have been added in order of
+   * (source, target).
+   *
+   * @return true if no edge indices are stored.
+   */
+  public boolean hasImplicitEdgeIds() {
+    return edgeIds == null;
+  }
+
+  /**
+   * Returns the number of bytes used to store the network structure, excluding the per-vertex
+   * offsets.
+   *
+   * @return the number of bytes.
+   */
+  public long countAdjacencyBytes() {
+    return out.countBytes() + in.countBytes() + (edgeIds == null ? 0L : 4L * edgeIds.length);
+  }
+
+  private int[] neighbors(final Direction direction, final int vertex) {
+    final int[] result = new int[direction == Direction.INCOMING ? getInDegree(vertex)
+        : direction == Direction.OUTGOING ? getOutDegree(vertex) : getDegree(vertex)];
+    final AdjacencyCursor cursor = new Cursor(direction).reset(vertex);
+    for (int i = 0; cursor.next(); ++i) {
+      result[i] = cursor.target();
+    }
+    return result;
+  }
+
+  @Override
+  public int countVertices() {
+    return out.accDegree.length - 1;
+  }
+
+  @Override
+  public IntStream getInNeighborStream(final int target) {
+    return Arrays.stream(neighbors(Direction.INCOMING, target));
+  }
+
+  @Override
+  public Iterable<Edge> getInEdges(final int target) {
+    return new NeighborIterable<>(Direction.INCOMING, target,
+        CompressedDirectedNetwork::itrInEdge);
+  }
+
+  @Override
+  public AdjacencyCursor getInCursor() {
+    return new Cursor(Direction.INCOMING);
+  }
+
+  @Override
+  public int getInDegree(final int target) {
+    return in.degree(target);
+  }
+
+  @Override
+  public IntStream getOutNeighborStream(final int source) {
+    return Arrays.stream(neighbors(Direction.OUTGOING, source));
+  }
+
+  @Override
+  public Iterable<Edge> getOutEdges(final int source) {
+    return new NeighborIterable<>(Direction.OUTGOING, source,
+        CompressedDirectedNetwork::itrOutEdge);
+  }
+
+  @Override
+  public AdjacencyCursor getOutCursor() {
+    return new Cursor(Direction.OUTGOING);
+  }
+
+  @Override
+  public int getOutDegree(final int source) {
+    return out.degree(source);
+  }
+
+  @Override
+  public IntStream getNeighborStream(final int vertex) {
+    return Arrays.stream(neighbors(null, vertex));
+  }
+
+  @Override
+  public int countEdges() {
+    return countRelationships();
+  }
+
+  @Override
+  public Iterable<Edge> getEdges(final int vertex) {
+    return Iterators.concat(getInEdges(vertex), getOutEdges(vertex));
+  }
+
+  @Override
+  public AdjacencyCursor getCursor() {
+    return new Cursor(null);
+  }
+
+  @Override
+  public Iterable<Edge> getEdges() {
+    return AllEdgeIterator::new;
+  }
+
+  @Override
+  public int getDegree(final int vertex) {
+    return in.degree(vertex) + out.degree(vertex);
+  }
+
+  @Override
+  public Edge getEdge(final int source, final int target) {
+    // outgoing lists are sorted by target, so skip to the block that may contain it
+    final Cursor cursor = new Cursor(Direction.OUTGOING);
+    cursor.reset(source);
+    cursor.skipBelow(target);
+    while (cursor.next() && cursor.target() <= target) {
+      if (cursor.target() == target) {
+        return new DirectedEdgeImpl(cursor.index(), source, target);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isDirected() {
+    return true;
+  }
+
+  @Override
+  public DirectedGraph asDirectedGraph() {
+    return this;
+  }
+
+  @Override
+  public UndirectedGraph asUndirectedGraph() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Relation asRelation() {
+    return this;
+  }
+
+  @Override
+  public NetworkBuilder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public boolean equals(final Object rhs) {
+    return (rhs instanceof Network) && structureEquals((Network) rhs);
+  }
+
+  @Override
+  public boolean isTwoMode() {
+    return false;
+  }
+
+  @Override
+  public int countMonadicIndices() {
+    return countUnionDomain();
+  }
+
+  @Override
+  public int countDyadicIndices() {
+    return countRelationships();
+  }
+
+  @Override
+  public String toString() {
+    return AsciiDumper.singleLine((Relation) this);
+  }
+
+  @Override
+  public PrimitiveIterable.OfInt getLeftDomain() {
+    return Mappings.intRange(0, countLeftDomain());
+  }
+
+  @Override
+  public int countLeftDomain() {
+    return countUnionDomain();
+  }
+
+  @Override
+  public PrimitiveIterable.OfInt getRightDomain() {
+    return Mappings.intRange(0, countRightDomain());
+  }
+
+  @Override
+  public int countRightDomain() {
+    return countUnionDomain();
+  }
+
+  @Override
+  public PrimitiveIterable.OfInt getUnionDomain() {
+    return Mappings.intRange(0, countUnionDomain());
+  }
+
+  @Override
+  public int countUnionDomain() {
+    return out.accDegree.length - 1;
+  }
+
+  @Override
+  public int countRelationships() {
+    return out.accDegree[out.accDegree.length - 1];
+  }
+
+  @Override
+  public Iterable<Relationship> getRelationshipsFrom(final int left) {
+    return new NeighborIterable<>(Direction.OUTGOING, left, CompressedDirectedNetwork::itrFrom);
+  }
+
+  @Override
+  public Iterable<Relationship> getRelationshipsTo(final int right) {
+    return new NeighborIterable<>(Direction.INCOMING, right, CompressedDirectedNetwork::itrTo);
+  }
+
+  @Override
+  public AdjacencyCursor getCursorFrom() {
+    return getOutCursor();
+  }
+
+  @Override
+  public AdjacencyCursor getCursorTo() {
+    return getInCursor();
+  }
+
+  @Override
+  public int countRelationshipsFrom(final int left) {
+    return getOutDegree(left);
+  }
+
+  @Override
+  public int countRelationshipsTo(final int right) {
+    return getInDegree(right);
+  }
+
+  @Override
+  public IntStream getPartnersStream(final int elemnt) {
+    return getNeighborStream(elemnt);
+  }
+
+  @Override
+  public Iterable<Relationship> getRelationships(final int index) {
+    return Iterators.concat(getRelationshipsTo(index), getRelationshipsFrom(index));
+  }
+
+  @Override
+  public <T> T[][] asMatrix(T fill, T diagonal, ConstMapping<T> mapping) {
+    return MatrixConstruction.toMatrix(this, fill, diagonal, mapping);
+  }
+
+  @Override
+  public boolean structureEquals(Network network) {
+    if (!(network instanceof CompressedDirectedNetwork)) {
+      return false;
+    }
+    final CompressedDirectedNetwork other = (CompressedDirectedNetwork) network;
+    return out.equals(other.out) && in.equals(other.in)
+        && Arrays.equals(edgeIds, other.edgeIds);
+  }
+
+  @Override
+  public int hashCode() {
+    return out.hashCode() + in.hashCode() + Arrays.hashCode(edgeIds);
+  }
+
+  /**
+   * Produces an uncompressed copy of this network with the same vertex and edge indices, since
+   * compressed neighborhoods cannot be reordered.
+   */
+  @Override
+  public ReorderableNetwork reorderable() {
+    final int m = countRelationships();
+    final int[] sources = new int[m];
+    final int[] targets = new int[m];
+    final AdjacencyCursor cursor = getOutCursor();
+    for (int v = 0; v < countVertices(); ++v) {
+      cursor.reset(v);
+      while (cursor.next()) {
+        sources[cursor.index()] = v;
+        targets[cursor.index()] = cursor.target();
+      }
+    }
+    final ArrayDirectedNetwork.Builder builder = new ArrayDirectedNetwork.Builder();
+    if (countVertices() > 0) {
+      builder.ensureNode(countVertices() - 1);
+    }
+    for (int e = 0; e < m; ++e) {
+      builder.addEdge(sources[e], targets[e]);
+    }
+    return builder.build().reorderable();
+  }
+
+  /**
+   * Convenience interface to reduce number of iterators.
+   */
+  @FunctionalInterface
+  private interface ItrOutput<T> {
+    T edge(int edge, int self, int opposite);
+  }
+
+  /**
+   * Builder class to produce a compressed directed network. If the edges are added in order of
+   * (source, target), the builder encodes the outgoing lists while the edges are added, neither
+   * needs a lookup table to detect duplicate edges nor does the resulting network store edge
+   * indices.
+   *
+   * <p>
+   * In this case, the peak memory footprint of the builder is about twice the size of the
+   * compressed outgoing lists (due to the growth of the byte pages), plus about one byte per edge
+   * to bucket the edges by target when the incoming lists are encoded in a few passes over the
+   * outgoing lists. Once an edge is added out of order, the
+   * builder falls back to collecting the edges as 8-byte keys (in a list growing by doubling) and
+   * detects duplicates with a hash map of boxed edge indices; sorting the edges in
+   * {@link #build()} takes another 8 bytes per edge. Thus, unsorted input temporarily takes
+   * considerably more memory than {@link ArrayDirectedNetwork}'s 16 bytes per edge.
+   */
+  public static class Builder implements NetworkBuilder {
+    /**
+     * number of passes over the outgoing lists to encode the incoming lists.
+     */
+    static final int IN_PASSES = 8;
+
+    final PrimitiveList.OfInt outDegrees = Mappings.newIntList(Magic.CAP_NODES); // n
+    final PrimitiveList.OfInt inDegrees = Mappings.newIntList(Magic.CAP_NODES); // n
+    CompressedAdjacency.Writer outWriter = new CompressedAdjacency.Writer();
+    long lastKey = -1;
+    PrimitiveList.OfLong keys; // m
+    LongMap<Integer> hash;
+    int edgeCount;
+    int hits;
+
+    @Override
+    public void ensureNode(final int node) {
+      while (outDegrees.size() <= node) {
+        outDegrees.addInt(0);
+        inDegrees.addInt(0);
+      }
+    }
+
+    @Override
+    public int addEdge(final int source, final int target) {
+      final long key = IntPair.tuple(source, target);
+      if (hash == null && key == lastKey) {
+        if (hits < 10) {
+          LOG.warn("ignoring duplicate edge ({},{}) [{} hits]", source, target, hits);
+        }
+        ++hits;
+        return -edgeCount;
+      }
+      if (hash == null && (key < lastKey || source < outWriter.countLists())) {
+        // edges are no longer added in order, so duplicates have to be looked up
+        decodeKeys();
+      }
+      if (hash != null) {
+        if (hash.contains(key)) {
+          if (hits < 10) {
+            LOG.warn("ignoring duplicate edge ({},{}) [{} hits]", source, target, hits);
+          }
+          ++hits;
+          return -(hash.get(key) + 1);
+        }
+        hash.put(key, edgeCount);
+        keys.addLong(key);
+      } else {
+        final int previous = lastKey >= 0 && IntPair.first(lastKey) == source
+            ? IntPair.second(lastKey) : 0;
+        while (outWriter.countLists() < source) {
+          outWriter.endList();
+        }
+        outWriter.startEntry(previous);
+        outWriter.write(target - previous);
+        lastKey = key;
+      }
+
+      ensureNode(source);
+      ensureNode(target);
+      outDegrees.arrayQuick()[source]++;
+      inDegrees.arrayQuick()[target]++;
+      return edgeCount++;
+    }
+
+    private void decodeKeys() {
+      final CompressedAdjacency out = finishOutgoing();
+      keys = Mappings.newLongList(Math.max(Magic.CAP_EDGES, 2 * edgeCount));
+      hash = PrimitiveContainers.longHashMap();
+      final CompressedAdjacency.Reader reader = new CompressedAdjacency.Reader();
+      for (int v = 0; v < out.accDegree.length - 1; ++v) {
+        int target = 0;
+        for (int remaining = reader.open(out, v); remaining > 0; --remaining) {
+          target += reader.read();
+          hash.put(IntPair.tuple(v, target), keys.size());
+          keys.addLong(IntPair.tuple(v, target));
+        }
+      }
+      outWriter = null;
+    }
+
+    private CompressedAdjacency finishOutgoing() {
+      while (outWriter.countLists() < outDegrees.size()) {
+        outWriter.endList();
+      }
+      return outWriter.build(accumulate(outDegrees));
+    }
+
+    @Override
+    public boolean acceptsDirected() {
+      return true;
+    }
+
+    @Override
+    public boolean acceptsTwoModes() {
+      return false;
+    }
+
+    @Override
+    public Network build() {
+      if (hits > 0) {
+        LOG.warn("ignored {} duplicate edges", hits);
+      }
+      if (hash == null) {
+        final CompressedAdjacency out = finishOutgoing();
+        return new CompressedDirectedNetwork(out, encodeIncoming(out, accumulate(inDegrees)),
+            null);
+      }
+
+      // sort edges by (source, target)
+      final int n = outDegrees.size();
+      final int m = keys.size();
+      final long[] edges = keys.arrayQuick();
+      final int[] accOut = accumulate(outDegrees);
+      final long[] buffer = new long[m];
+      final int[] fill = Arrays.copyOf(accOut, n);
+      for (int e = 0; e < m; ++e) {
+        buffer[fill[IntPair.first(edges[e])]++] = IntPair.tuple(IntPair.second(edges[e]), e);
+      }
+      int[] edgeIds = new int[m];
+      boolean implicit = true;
+      final CompressedAdjacency.Writer writer = new CompressedAdjacency.Writer();
+      for (int v = 0; v < n; ++v) {
+        Arrays.sort(buffer, accOut[v], accOut[v + 1]);
+        int previous = 0;
+        for (int p = accOut[v]; p < accOut[v + 1]; ++p) {
+          final int target = IntPair.first(buffer[p]);
+          writer.startEntry(previous);
+          writer.write(target - previous);
+          previous = target;
+          edgeIds[p] = IntPair.second(buffer[p]);
+          implicit &= edgeIds[p] == p;
+        }
+        writer.endList();
+      }
+      if (implicit) {
+        edgeIds = null;
+      }
+      final CompressedAdjacency out = writer.build(accOut);
+      return new CompressedDirectedNetwork(out, encodeIncoming(out, accumulate(inDegrees)),
+          edgeIds);
+    }
+
+    /**
+     * Encodes the incoming lists, sorted by source, from the outgoing lists. Each pass buckets the
+     * edges to a range of targets, so that only about a fraction {@code 1 / IN_PASSES} of the edges
+     * is buffered at a time.
+     */
+    private static CompressedAdjacency encodeIncoming(final CompressedAdjacency out,
+        final int[] accIn) {
+      final int n = accIn.length - 1;
+      final int budget = Math.max(Magic.CAP_EDGES, (accIn[n] + IN_PASSES - 1) / IN_PASSES);
+      final CompressedAdjacency.Writer writer = new CompressedAdjacency.Writer();
+      final CompressedAdjacency.Reader reader = new CompressedAdjacency.Reader();
+      long[] buffer = new long[0];
+      for (int lo = 0; lo < n;) {
+        int hi = lo + 1;
+        while (hi < n && accIn[hi + 1] - accIn[lo] <= budget) {
+          ++hi;
+        }
+        if (buffer.length < accIn[hi] - accIn[lo]) {
+          buffer = new long[accIn[hi] - accIn[lo]];
+        }
+        final int[] fill = new int[hi - lo];
+        for (int t = lo; t < hi; ++t) {
+          fill[t - lo] = accIn[t] - accIn[lo];
+        }
+
+        // bucket (source, rank) pairs by target, in order of source
+        for (int v = 0; v < n; ++v) {
+          int remaining = reader.open(out, v);
+          int rank = reader.skipBelow(lo);
+          int target = reader.base();
+          for (remaining -= rank; remaining > 0; --remaining, ++rank) {
+            target += reader.read();
+            if (target >= hi) {
+              break;
+            }
+            if (target >= lo) {
+              buffer[fill[target - lo]++] = IntPair.tuple(v, rank);
+            }
+          }
+        }
+
+        for (int t = lo; t < hi; ++t) {
+          int previous = 0;
+          for (int i = accIn[t] - accIn[lo]; i < accIn[t + 1] - accIn[lo]; ++i) {
+            final int source = IntPair.first(buffer[i]);
+            writer.startEntry(previous);
+            writer.write(source - previous);
+            writer.write(IntPair.second(buffer[i]));
+            previous = source;
+          }
+          writer.endList();
+        }
+        lo = hi;
+      }
+      return writer.build(accIn);
+    }
+
+    private static int[] accumulate(final PrimitiveList.OfInt degrees) {
+      final int[] acc = new int[degrees.size() + 1];
+      for (int i = 0; i < acc.length - 1; i++) {
+        acc[i + 1] = acc[i] + degrees.getInt(i);
+      }
+      return acc;
+    }
+  }
+
+  /**
+   * Decoding cursor over the in-, out- or all adjacencies.
+   */
+  private class Cursor implements AdjacencyCursor {
+    private final Direction direction; // null for both directions
+    private final CompressedAdjacency.Reader reader = new CompressedAdjacency.Reader();
+    private int source = -1;
+    private boolean incoming;
+    private int rank;
+    private int remaining;
+    private int target = -1;
+    private int index = -1;
+
+    Cursor(final Direction direction) {
+      this.direction = direction;
+    }
+
+    @Override
+    public AdjacencyCursor reset(final int vertex) {
+      source = vertex;
+      open(direction != Direction.OUTGOING);
+      return this;
+    }
+
+    private void open(final boolean incoming) {
+      this.incoming = incoming;
+      remaining = reader.open(incoming ? in : out, source);
+      rank = 0;
+      target = 0;
+      index = -1;
+    }
+
+    /**
+     * Skips the blocks of the current list whose targets are all smaller than the bound. Must be
+     * called right after {@link #reset(int)}.
+     */
+    void skipBelow(final int bound) {
+      final int skipped = reader.skipBelow(bound);
+      remaining -= skipped;
+      rank += skipped;
+      target = reader.base();
+    }
+
+    @Override
+    public int source() {
+      return source;
+    }
+
+    @Override
+    public boolean next() {
+      if (remaining == 0 && incoming && direction == null) {
+        open(false);
+      }
+      if (remaining == 0) {
+        index = -1;
+        return false;
+      }
+      --remaining;
+      target += reader.read();
+      final int position = incoming ? out.accDegree[target] + reader.read()
+          : out.accDegree[source] + rank++;
+      index = edgeIds == null ? position : edgeIds[position];
+      return true;
+    }
+
+    @Override
+    public int target() {
+      checkPosition();
+      return target;
+    }
+
+    @Override
+    public int index() {
+      checkPosition();
+      return index;
+    }
+
+    private void checkPosition() {
+      if (index < 0) {
+        throw new NoSuchElementException();
+      }
+    }
+  }
+
+  private class NeighborIterable<T> implements Iterable<T> {
+    final Direction direction;
+    final int vertex;
+    final ItrOutput<T> fac;
+
+    NeighborIterable(final Direction direction, final int vertex, final ItrOutput<T> fac) {
+      this.direction = direction;
+      this.vertex = vertex;
+      this.fac = fac;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Itr();
+    }
+
+    private class Itr implements Iterator<T> {
+      final AdjacencyCursor cursor = new Cursor(direction).reset(vertex);
+      boolean advanced;
+      boolean valid;
+
+      @Override
+      public boolean hasNext() {
+        if (!advanced) {
+          valid = cursor.next();
+          advanced = true;
+        }
+        return valid;
+      }
+
+      @Override
+      public T next() {
+        if (hasNext()) {
+          advanced = false;
+          return fac.edge(cursor.index(), vertex, cursor.target());
+        }
+        throw new NoSuchElementException();
+      }
+    }
+  }
+
+  private class AllEdgeIterator implements Iterator<Edge> {
+    final AdjacencyCursor cursor = new Cursor(Direction.OUTGOING);
+    int source = -1;
+    boolean valid;
+
+    AllEdgeIterator() {
+      loadNext();
+    }
+
+    void loadNext() {
+      valid = source >= 0 && cursor.next();
+      while (!valid && source + 1 < countVertices()) {
+        cursor.reset(++source);
+        valid = cursor.next();
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return valid;
+    }
+
+    @Override
+    public Edge next() {
+      if (!valid) {
+        throw new NoSuchElementException();
+      }
+      final Edge edge = new DirectedEdgeImpl(cursor.index(), source, cursor.target());
+      loadNext();
+      return edge;
+    }
+  }
+}
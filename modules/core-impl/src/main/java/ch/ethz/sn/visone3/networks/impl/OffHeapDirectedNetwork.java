@@ -0,0 +1,565 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.impl;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Iterators;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.lang.OffHeapMapping;
+import ch.ethz.sn.visone3.lang.PrimitiveIterable;
+import ch.ethz.sn.visone3.networks.AdjacencyCursor;
+import ch.ethz.sn.visone3.networks.DirectedGraph;
+import ch.ethz.sn.visone3.networks.Direction;
+import ch.ethz.sn.visone3.networks.Edge;
+import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.Relation;
+import ch.ethz.sn.visone3.networks.Relationship;
+import ch.ethz.sn.visone3.networks.ReorderableNetwork;
+import ch.ethz.sn.visone3.networks.UndirectedGraph;
+
+/**
+ * Implements an immutable directed network whose adjacency arrays are stored outside the Java
+ * heap.
+ * 
+ * <p>
+ * The layout matches {@link ArrayDirectedNetwork}, but the arrays are held in
+ * {@link OffHeapMapping off-heap mappings}, so that the garbage collector only sees a handful of
+ * small objects irrespective of the network's size. The storage has to be released explicitly by
+ * {@link #close()}; afterwards, any query of the network structure throws an
+ * {@link IllegalStateException}.
+ * 
+ * <p>
+ * Off-heap mappings are stored in segments of at most 1 GiB, so the network supports as many
+ * edges as {@link ArrayDirectedNetwork}.
+ */
+public class OffHeapDirectedNetwork
+    implements Network, Relation, DirectedGraph, AutoCloseable, Serializable {
+  private static final long serialVersionUID = 7270405326150744237L;
+
+  /**
+   * accumulated degree up to each node i, i.e., the sum over the degrees from 0 to i-1.
+   */
+  private final OffHeapMapping.OfInt accDegree;
+
+  /**
+   * indegree of each node.
+   */
+  private final OffHeapMapping.OfInt inDegree;
+
+  /**
+   * neighbor nodes, sorted by the reference node and for each reference node partitioned by
+   * direction.
+   */
+  private final OffHeapMapping.OfInt neighbors;
+
+  /**
+   * edge ids, sorted in a matching way to the neighbors.
+   */
+  private final OffHeapMapping.OfInt edgeIds;
+
+  private OffHeapDirectedNetwork(final ArrayDirectedNetwork network) {
+    accDegree = Mappings.toOffHeapInt(Mappings.wrapUnmodifiableInt(network.accDegree));
+    inDegree = Mappings.toOffHeapInt(Mappings.wrapUnmodifiableInt(network.inDegree));
+    neighbors = Mappings.toOffHeapInt(Mappings.wrapUnmodifiableInt(network.neighbors));
+    edgeIds = Mappings.toOffHeapInt(Mappings.wrapUnmodifiableInt(network.edgeIds));
+  }
+
+  private static Edge itrOutEdge(final int edge, final int self, final int opposite) {
+    return new DirectedEdgeImpl(edge, self, opposite);
+  }
+
+  private static Edge itrInEdge(final int edge, final int self, final int opposite) {
+    return new DirectedEdgeImpl(edge, opposite, self);
+  }
+
+  private static Relationship itrFrom(final int edge, final int self, final int opposite) {
+    return new RelationshipImpl(edge, self, opposite);
+  }
+
+  private static Relationship itrTo(final int edge, final int self, final int opposite) {
+    return new RelationshipImpl(edge, opposite, self);
+  }
+
+  /**
+   * Releases the off-heap storage of this network. Subsequent calls have no effect.
+   */
+  @Override
+  public void close() {
+    accDegree.close();
+    inDegree.close();
+    neighbors.close();
+    edgeIds.close();
+  }
+
+  /**
+   * Returns whether the off-heap storage of this network has been released.
+   * 
+   * @return true if the network has been closed, false otherwise.
+   */
+  public boolean isClosed() {
+    return accDegree.isClosed();
+  }
+
+  private int begin(final Direction direction, final int vertex) {
+    final int begin = accDegree.getInt(vertex);
+    return direction == Direction.OUTGOING ? begin + inDegree.getInt(vertex) : begin;
+  }
+
+  private int end(final Direction direction, final int vertex) {
+    return direction == Direction.INCOMING
+        ? accDegree.getInt(vertex) + inDegree.getInt(vertex)
+        : accDegree.getInt(vertex + 1);
+  }
+
+  private IntStream neighborStream(final Direction direction, final int vertex) {
+    return IntStream.range(begin(direction, vertex), end(direction, vertex))
+        .map(neighbors::getInt);
+  }
+
+  @Override
+  public int countVertices() {
+    return accDegree.size() - 1;
+  }
+
+  @Override
+  public IntStream getInNeighborStream(final int target) {
+    return neighborStream(Direction.INCOMING, target);
+  }
+
+  @Override
+  public Iterable<Edge> getInEdges(final int target) {
+    return new NeighborIterable<>(Direction.INCOMING, target, OffHeapDirectedNetwork::itrInEdge);
+  }
+
+  @Override
+  public AdjacencyCursor getInCursor() {
+    return new Cursor(Direction.INCOMING);
+  }
+
+  @Override
+  public int getInDegree(final int target) {
+    return inDegree.getInt(target);
+  }
+
+  @Override
+  public IntStream getOutNeighborStream(final int source) {
+    return neighborStream(Direction.OUTGOING, source);
+  }
+
+  @Override
+  public Iterable<Edge> getOutEdges(final int source) {
+    return new NeighborIterable<>(Direction.OUTGOING, source, OffHeapDirectedNetwork::itrOutEdge);
+  }
+
+  @Override
+  public AdjacencyCursor getOutCursor() {
+    return new Cursor(Direction.OUTGOING);
+  }
+
+  @Override
+  public int getOutDegree(final int source) {
+    return getDegree(source) - inDegree.getInt(source);
+  }
+
+  @Override
+  public IntStream getNeighborStream(final int vertex) {
+    return neighborStream(null, vertex);
+  }
+
+  @Override
+  public int countEdges() {
+    return countRelationships();
+  }
+
+  @Override
+  public Iterable<Edge> getEdges(final int vertex) {
+    return Iterators.concat(getInEdges(vertex), getOutEdges(vertex));
+  }
+
+  @Override
+  public AdjacencyCursor getCursor() {
+    return new Cursor(null);
+  }
+
+  @Override
+  public Iterable<Edge> getEdges() {
+    return AllEdgeIterator::new;
+  }
+
+  @Override
+  public int getDegree(final int vertex) {
+    return accDegree.getInt(vertex + 1) - accDegree.getInt(vertex);
+  }
+
+  @Override
+  public Edge getEdge(final int source, final int target) {
+    final int end = end(Direction.OUTGOING, source);
+    for (int i = begin(Direction.OUTGOING, source); i < end; ++i) {
+      if (neighbors.getInt(i) == target) {
+        return new DirectedEdgeImpl(edgeIds.getInt(i), source, target);
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public boolean isDirected() {
+    return true;
+  }
+
+  @Override
+  public DirectedGraph asDirectedGraph() {
+    return this;
+  }
+
+  @Override
+  public UndirectedGraph asUndirectedGraph() {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public Relation asRelation() {
+    return this;
+  }
+
+  @Override
+  public NetworkBuilder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public boolean equals(final Object rhs) {
+    return (rhs instanceof Network) && structureEquals((Network) rhs);
+  }
+
+  @Override
+  public boolean isTwoMode() {
+    return false;
+  }
+
+  @Override
+  public int countMonadicIndices() {
+    return countUnionDomain();
+  }
+
+  @Override
+  public int countDyadicIndices() {
+    return countRelationships();
+  }
+
+  @Override
+  public String toString() {
+    return isClosed() ? "{OffHeapDirectedNetwork,closed}"
+        : AsciiDumper.singleLine((Relation) this);
+  }
+
+  @Override
+  public PrimitiveIterable.OfInt getLeftDomain() {
+    return Mappings.intRange(0, countLeftDomain());
+  }
+
+  @Override
+  public int countLeftDomain() {
+    return countUnionDomain();
+  }
+
+  @Override
+  public PrimitiveIterable.OfInt getRightDomain() {
+    return Mappings.intRange(0, countRightDomain());
+  }
+
+  @Override
+  public int countRightDomain() {
+    return countUnionDomain();
+  }
+
+  @Override
+  public PrimitiveIterable.OfInt getUnionDomain() {
+    return Mappings.intRange(0, countUnionDomain());
+  }
+
+  @Override
+  public int countUnionDomain() {
+    return accDegree.size() - 1;
+  }
+
+  @Override
+  public int countRelationships() {
+    return neighbors.size() / 2;
+  }
+
+  @Override
+  public Iterable<Relationship> getRelationshipsFrom(final int left) {
+    return new NeighborIterable<>(Direction.OUTGOING, left, OffHeapDirectedNetwork::itrFrom);
+  }
+
+  @Override
+  public Iterable<Relationship> getRelationshipsTo(final int right) {
+    return new NeighborIterable<>(Direction.INCOMING, right, OffHeapDirectedNetwork::itrTo);
+  }
+
+  @Override
+  public AdjacencyCursor getCursorFrom() {
+    return getOutCursor();
+  }
+
+  @Override
+  public AdjacencyCursor getCursorTo() {
+    return getInCursor();
+  }
+
+  @Override
+  public int countRelationshipsFrom(final int left) {
+    return getOutDegree(left);
+  }
+
+  @Override
+  public int countRelationshipsTo(final int right) {
+    return getInDegree(right);
+  }
+
+  @Override
+  public IntStream getPartnersStream(final int elemnt) {
+    return getNeighborStream(elemnt);
+  }
+
+  @Override
+  public Iterable<Relationship> getRelationships(final int index) {
+    return Iterators.concat(getRelationshipsTo(index), getRelationshipsFrom(index));
+  }
+
+  @Override
+  public <T> T[][] asMatrix(T fill, T diagonal, ConstMapping<T> mapping) {
+    return MatrixConstruction.toMatrix(this, fill, diagonal, mapping);
+  }
+
+  @Override
+  public boolean structureEquals(Network network) {
+    if (!(network instanceof OffHeapDirectedNetwork)) {
+      return false;
+    }
+    final OffHeapDirectedNetwork other = (OffHeapDirectedNetwork) network;
+    return accDegree.equals(other.accDegree) && inDegree.equals(other.inDegree)
+        && neighbors.equals(other.neighbors) && edgeIds.equals(other.edgeIds);
+  }
+
+  @Override
+  public int hashCode() {
+    return accDegree.hashCode() + inDegree.hashCode() + neighbors.hashCode()
+        + edgeIds.hashCode();
+  }
+
+  /**
+   * Produces an on-heap copy of this network with the same vertex and edge indices, since the
+   * off-heap arrays cannot be modified.
+   */
+  @Override
+  public ReorderableNetwork reorderable() {
+    final ArrayDirectedNetwork.Builder builder = new ArrayDirectedNetwork.Builder();
+    final int m = countRelationships();
+    final int[] sources = new int[m];
+    final int[] targets = new int[m];
+    final AdjacencyCursor cursor = getOutCursor();
+    for (int v = 0; v < countVertices(); ++v) {
+      cursor.reset(v);
+      while (cursor.next()) {
+        sources[cursor.index()] = v;
+        targets[cursor.index()] = cursor.target();
+      }
+    }
+    if (countVertices() > 0) {
+      builder.ensureNode(countVertices() - 1);
+    }
+    for (int e = 0; e < m; ++e) {
+      builder.addEdge(sources[e], targets[e]);
+    }
+    return builder.build().reorderable();
+  }
+
+  /**
+   * Convenience interface to reduce number of iterators.
+   */
+  @FunctionalInterface
+  private interface ItrOutput<T> {
+    T edge(int edge, int self, int opposite);
+  }
+
+  /**
+   * Builder class to produce a directed network stored off-heap. The network is assembled on the
+   * heap and moved off-heap by {@link #build()}.
+   */
+  public static class Builder implements NetworkBuilder {
+    private final ArrayDirectedNetwork.Builder builder = new ArrayDirectedNetwork.Builder();
+
+    @Override
+    public void ensureNode(final int node) {
+      builder.ensureNode(node);
+    }
+
+    @Override
+    public int addEdge(final int source, final int target) {
+      return builder.addEdge(source, target);
+    }
+
+    @Override
+    public boolean acceptsDirected() {
+      return true;
+    }
+
+    @Override
+    public boolean acceptsTwoModes() {
+      return false;
+    }
+
+    @Override
+    public Network build() {
+      return new OffHeapDirectedNetwork((ArrayDirectedNetwork) builder.build());
+    }
+  }
+
+  /**
+   * Cursor over the in-, out- or all adjacencies.
+   */
+  private class Cursor implements AdjacencyCursor {
+    private final Direction direction; // null for both directions
+    private int source = -1;
+    private int begin;
+    private int position;
+    private int end;
+
+    Cursor(final Direction direction) {
+      this.direction = direction;
+    }
+
+    @Override
+    public AdjacencyCursor reset(final int vertex) {
+      source = vertex;
+      begin = begin(direction, vertex);
+      position = begin - 1;
+      end = end(direction, vertex);
+      return this;
+    }
+
+    @Override
+    public int source() {
+      return source;
+    }
+
+    @Override
+    public boolean next() {
+      if (position < end) {
+        ++position;
+      }
+      return position < end;
+    }
+
+    @Override
+    public int target() {
+      checkPosition();
+      return neighbors.getInt(position);
+    }
+
+    @Override
+    public int index() {
+      checkPosition();
+      return edgeIds.getInt(position);
+    }
+
+    private void checkPosition() {
+      if (position < begin || position >= end) {
+        throw new NoSuchElementException();
+      }
+    }
+  }
+
+  private class NeighborIterable<T> implements Iterable<T> {
+    final Direction direction;
+    final int vertex;
+    final ItrOutput<T> fac;
+
+    NeighborIterable(final Direction direction, final int vertex, final ItrOutput<T> fac) {
+      this.direction = direction;
+      this.vertex = vertex;
+      this.fac = fac;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Itr();
+    }
+
+    private class Itr implements Iterator<T> {
+      int position = begin(direction, vertex);
+      final int end = end(direction, vertex);
+
+      @Override
+      public boolean hasNext() {
+        return position < end;
+      }
+
+      @Override
+      public T next() {
+        if (position < end) {
+          final T result = fac.edge(edgeIds.getInt(position), vertex, neighbors.getInt(position));
+          ++position;
+          return result;
+        }
+        throw new NoSuchElementException();
+      }
+    }
+  }
+
+  private class AllEdgeIterator implements Iterator<Edge> {
+    final AdjacencyCursor cursor = new Cursor(Direction.OUTGOING);
+    int source = -1;
+    boolean valid;
+
+    AllEdgeIterator() {
+      loadNext();
+    }
+
+    void loadNext() {
+      valid = source >= 0 && cursor.next();
+      while (!valid && source + 1 < countVertices()) {
+        cursor.reset(++source);
+        valid = cursor.next();
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return valid;
+    }
+
+    @Override
+    public Edge next() {
+      if (!valid) {
+        throw new NoSuchElementException();
+      }
+      final Edge edge = new DirectedEdgeImpl(cursor.index(), source, cursor.target());
+      loadNext();
+      return edge;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.impl;
+
+import ch.ethz.sn.visone3.networks.DyadType;
+import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.NetworkService;
+
+/**
+ * Service making the off-heap network implementations available via the API. Its priority
+ * is below that of {@link ArrayNetworkService}, so it has to be requested by name.
+ */
+public class OffHeapNetworkService implements NetworkService {
+
+  @Override
+  public String getName() {
+    return "ch.ethz.sn.visone3.core-impl.networks.offheap";
+  }
+
+  @Override
+  public boolean supports(final DyadType type) {
+    return type == DyadType.DIRECTED;
+  }
+
+  @Override
+  public NetworkBuilder createBuilder(final DyadType type) {
+    if (type == DyadType.DIRECTED) {
+      return new OffHeapDirectedNetwork.Builder();
+    }
+    throw new IllegalArgumentException("unsupported dyad type");
+  }
+
+}
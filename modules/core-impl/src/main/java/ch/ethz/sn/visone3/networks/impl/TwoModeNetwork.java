@@ -23,6 +23,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
 import java.util.function.ToIntFunction;
 import java.util.stream.IntStream;
 
@@ -37,17 +38,20 @@ import ch.ethz.sn.visone3.lang.PrimitiveCollections;
 import ch.ethz.sn.visone3.lang.PrimitiveContainers;
 import ch.ethz.sn.visone3.lang.PrimitiveIterable;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.networks.AdjacencyCursor;
 import ch.ethz.sn.visone3.networks.AdjacencyListEntry;
 import ch.ethz.sn.visone3.networks.DirectedGraph;
 import ch.ethz.sn.visone3.networks.Edge;
 import ch.ethz.sn.visone3.networks.Network;
 import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.Networks;
 import ch.ethz.sn.visone3.networks.Relation;
 import ch.ethz.sn.visone3.networks.Relationship;
 import ch.ethz.sn.visone3.networks.ReorderableDirectedGraph;
 import ch.ethz.sn.visone3.networks.ReorderableNetwork;
 import ch.ethz.sn.visone3.networks.ReorderableUndirectedGraph;
 import ch.ethz.sn.visone3.networks.UndirectedGraph;
+import ch.ethz.sn.visone3.networks.VertexOrderings;
 import ch.ethz.sn.visone3.progress.ProgressProvider;
 import ch.ethz.sn.visone3.progress.ProgressSource;
 
@@ -144,6 +148,12 @@ public class TwoModeNetwork
         UndirectedEdgeImpl::new);
   }
 
+  @Override
+  public AdjacencyCursor getCursor() {
+    return new Cursor(vertex -> {
+    });
+  }
+
   @Override
   public Iterable<Edge> getEdges() {
     return AllEdgeIterator::new;
@@ -206,6 +216,16 @@ public class TwoModeNetwork
     return new NeighborIterable<>(right, accDegree[right], accDegree[right + 1], this::itrTo);
   }
 
+  @Override
+  public AdjacencyCursor getCursorFrom() {
+    return new Cursor(this::assertLeft);
+  }
+
+  @Override
+  public AdjacencyCursor getCursorTo() {
+    return new Cursor(this::assertRight);
+  }
+
   @Override
   public Iterable<Relationship> getRelationships(final int index) {
     if (index < countLeftDomain()) {
@@ -457,6 +477,42 @@ public class TwoModeNetwork
     }
   }
 
+  /**
+   * Allocation-free cursor over the adjacencies, optionally restricted to one of the domains.
+   */
+  private class Cursor extends ArrayAdjacencyCursor {
+    private final IntConsumer check;
+
+    Cursor(final IntConsumer check) {
+      this.check = check;
+    }
+
+    @Override
+    void checkVertex(final int vertex) {
+      check.accept(vertex);
+    }
+
+    @Override
+    int rangeBegin(final int vertex) {
+      return accDegree[vertex];
+    }
+
+    @Override
+    int rangeEnd(final int vertex) {
+      return accDegree[vertex + 1];
+    }
+
+    @Override
+    int[] targets() {
+      return neighbors;
+    }
+
+    @Override
+    int[] indices() {
+      return edgeIds;
+    }
+  }
+
   private class NeighborIterable<T> implements Iterable<T> {
     final int vertex;
     final int begin;
@@ -670,6 +726,24 @@ public class TwoModeNetwork
           Arrays.copyOf(edgeIds, edgeIds.length), true);
     }
 
+    @Override
+    public ReorderableNetwork permuteVertices(ConstMapping.OfInt order) {
+      final int[] position = VertexOrderings
+          .inverse(Networks.checkVertexMapSize(countVertices(), order, "order")).array();
+      final int numNodes = countLeftDomain();
+      for (int k = 0; k < numNodes; ++k) {
+        if (order.getInt(k) >= numNodes) {
+          throw new IllegalArgumentException("order moves affiliation " + order.getInt(k)
+              + " to the left domain");
+        }
+      }
+      final int[] newOrder = order.toUnboxedArray();
+      final int[] newAccDegree = VertexPermutation.accDegree(accDegree, newOrder);
+      return new Reorderable(numNodes, newAccDegree,
+          VertexPermutation.permute(accDegree, neighbors, newAccDegree, newOrder, position),
+          VertexPermutation.permute(accDegree, edgeIds, newAccDegree, newOrder, null), true);
+    }
+
     @Override
     public ReorderableDirectedGraph asDirectedGraph() {
       return (ReorderableDirectedGraph) super.asDirectedGraph();
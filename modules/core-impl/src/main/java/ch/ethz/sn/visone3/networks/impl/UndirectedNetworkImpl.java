@@ -38,17 +38,20 @@ import ch.ethz.sn.visone3.lang.PrimitiveCollections;
 import ch.ethz.sn.visone3.lang.PrimitiveContainers;
 import ch.ethz.sn.visone3.lang.PrimitiveIterable;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.networks.AdjacencyCursor;
 import ch.ethz.sn.visone3.networks.AdjacencyListEntry;
 import ch.ethz.sn.visone3.networks.DirectedGraph;
 import ch.ethz.sn.visone3.networks.Edge;
 import ch.ethz.sn.visone3.networks.Network;
 import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.Networks;
 import ch.ethz.sn.visone3.networks.Relation;
 import ch.ethz.sn.visone3.networks.Relationship;
 import ch.ethz.sn.visone3.networks.ReorderableDirectedGraph;
 import ch.ethz.sn.visone3.networks.ReorderableNetwork;
 import ch.ethz.sn.visone3.networks.ReorderableUndirectedGraph;
 import ch.ethz.sn.visone3.networks.UndirectedGraph;
+import ch.ethz.sn.visone3.networks.VertexOrderings;
 
 /**
  * Implements an undirected network by using a constant number of integer
@@ -127,6 +130,11 @@ public class UndirectedNetworkImpl
         UndirectedEdgeImpl::new);
   }
 
+  @Override
+  public AdjacencyCursor getCursor() {
+    return new Cursor();
+  }
+
   @Override
   public Iterable<Edge> getEdges() {
     return AllEdgeIterator::new;
@@ -184,6 +192,16 @@ public class UndirectedNetworkImpl
         UndirectedNetworkImpl::itrTo);
   }
 
+  @Override
+  public AdjacencyCursor getCursorFrom() {
+    return new Cursor();
+  }
+
+  @Override
+  public AdjacencyCursor getCursorTo() {
+    return new Cursor();
+  }
+
   @Override
   public Iterable<Relationship> getRelationships(final int index) {
     return Iterators.concat(getRelationshipsTo(index), getRelationshipsFrom(index));
@@ -390,6 +408,31 @@ public class UndirectedNetworkImpl
     }
   }
 
+  /**
+   * Allocation-free cursor over the adjacencies.
+   */
+  private class Cursor extends ArrayAdjacencyCursor {
+    @Override
+    int rangeBegin(final int vertex) {
+      return accDegree[vertex];
+    }
+
+    @Override
+    int rangeEnd(final int vertex) {
+      return accDegree[vertex + 1];
+    }
+
+    @Override
+    int[] targets() {
+      return neighbors;
+    }
+
+    @Override
+    int[] indices() {
+      return edgeIds;
+    }
+  }
+
   private class NeighborIterable<T> implements Iterable<T> {
     final int vertex;
     final int begin;
@@ -599,6 +642,18 @@ public class UndirectedNetworkImpl
           Arrays.copyOf(edgeIds, edgeIds.length), loopCount, true);
     }
 
+    @Override
+    public ReorderableNetwork permuteVertices(ConstMapping.OfInt order) {
+      final int[] position = VertexOrderings
+          .inverse(Networks.checkVertexMapSize(countVertices(), order, "order")).array();
+      final int[] newOrder = order.toUnboxedArray();
+      final int[] newAccDegree = VertexPermutation.accDegree(accDegree, newOrder);
+      return new Reorderable(newAccDegree,
+          VertexPermutation.permute(accDegree, neighbors, newAccDegree, newOrder, position),
+          VertexPermutation.permute(accDegree, edgeIds, newAccDegree, newOrder, null), loopCount,
+          true);
+    }
+
     @Override
     public ReorderableDirectedGraph asDirectedGraph() {
       return (ReorderableDirectedGraph) super.asDirectedGraph();
@@ -0,0 +1,78 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.impl;
+
+/**
+ * Renumbers the vertices of the array-based network representations.
+ */
+final class VertexPermutation {
+  private VertexPermutation() {
+  }
+
+  /**
+   * Computes the accumulated degrees of the renumbered network.
+   *
+   * @param accDegree
+   *          accumulated degrees of the original network.
+   * @param order
+   *          the new vertex order.
+   * @return accumulated degrees of the renumbered network.
+   */
+  static int[] accDegree(final int[] accDegree, final int[] order) {
+    final int[] result = new int[accDegree.length];
+    for (int k = 0; k < order.length; ++k) {
+      final int v = order[k];
+      result[k + 1] = result[k] + accDegree[v + 1] - accDegree[v];
+    }
+    return result;
+  }
+
+  /**
+   * Moves the adjacency list of each vertex to its new position and renumbers the neighbors. The
+   * order within each adjacency list is retained.
+   *
+   * @param accDegree
+   *          accumulated degrees of the original network.
+   * @param list
+   *          neighbors or edge ids of the original network.
+   * @param newAccDegree
+   *          accumulated degrees of the renumbered network.
+   * @param order
+   *          the new vertex order.
+   * @param position
+   *          the inverse of the order, or null if the list entries are not renumbered.
+   * @return the list for the renumbered network.
+   */
+  static int[] permute(final int[] accDegree, final int[] list, final int[] newAccDegree,
+      final int[] order, final int[] position) {
+    final int[] result = new int[list.length];
+    for (int k = 0; k < order.length; ++k) {
+      final int begin = accDegree[order[k]];
+      final int newBegin = newAccDegree[k];
+      final int degree = newAccDegree[k + 1] - newBegin;
+      if (position == null) {
+        System.arraycopy(list, begin, result, newBegin, degree);
+      } else {
+        for (int i = 0; i < degree; ++i) {
+          result[newBegin + i] = position[list[begin + i]];
+        }
+      }
+    }
+    return result;
+  }
+}
@@ -22,17 +22,21 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import ch.ethz.sn.visone3.algorithms.AlgoProvider;
 import ch.ethz.sn.visone3.algorithms.Connectedness;
+import ch.ethz.sn.visone3.algorithms.impl.ParallelComponents;
 import ch.ethz.sn.visone3.lang.Mapping;
 import ch.ethz.sn.visone3.lang.Mappings;
 import ch.ethz.sn.visone3.networks.DyadType;
 import ch.ethz.sn.visone3.networks.MatrixSource.OfDouble;
 import ch.ethz.sn.visone3.networks.Network;
 import ch.ethz.sn.visone3.networks.WeightedNetwork;
+import ch.ethz.sn.visone3.networks.impl.AdjacencyArrays;
+import ch.ethz.sn.visone3.networks.impl.ArrayDirectedNetwork;
 import ch.ethz.sn.visone3.networks.impl.UndirectedNetworkImpl;
 
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 public class ConnectednessImplTest {
   private static final Connectedness CONNECTEDNESS = AlgoProvider.getInstance().connectedness();
@@ -148,6 +152,58 @@ public class ConnectednessImplTest {
     assertEqualComponents(new int[]{0, 0, 0, 0, 2, 2, 2, 0, 0, 0, 0, 1, 0}, comp.array());
   }
 
+  @Test
+  public void testParallelComponents() {
+    // large enough to run the parallel rounds for strong components
+    final int n = 10000;
+    final Random rand = new Random(42);
+    final ArrayDirectedNetwork.Builder directed = new ArrayDirectedNetwork.Builder();
+    final UndirectedNetworkImpl.Builder undirected = new UndirectedNetworkImpl.Builder();
+    directed.ensureNode(n - 1);
+    undirected.ensureNode(n - 1);
+    for (int k = 0; k < 13000; k++) {
+      final int source = rand.nextInt(n);
+      final int target = rand.nextInt(n);
+      directed.addEdge(source, target);
+      if (k < 4000) {
+        undirected.addEdge(source, target);
+      }
+    }
+    // a long cycle and a long chain
+    for (int i = 0; i < 500; i++) {
+      directed.addEdge(i, (i + 1) % 500);
+      directed.addEdge(9000 + i, 9001 + i);
+    }
+    final Network directedNetwork = directed.build();
+    final Network undirectedNetwork = undirected.build();
+
+    final Mapping.OfInt weak = CONNECTEDNESS.weakComponents(directedNetwork.asDirectedGraph());
+    assertEquals(weak, ParallelComponents.weakComponents(AdjacencyArrays.of(directedNetwork)));
+    final Mapping.OfInt comp = CONNECTEDNESS.components(undirectedNetwork.asUndirectedGraph());
+    assertEquals(comp, ParallelComponents.weakComponents(AdjacencyArrays.of(undirectedNetwork)));
+
+    final Mapping.OfInt strong = CONNECTEDNESS
+        .strongComponents(directedNetwork.asDirectedGraph());
+    final Mapping.OfInt parallelStrong = ParallelComponents
+        .strongComponents(AdjacencyArrays.of(directedNetwork));
+    assertArrayEquals(normalize(strong.array()), parallelStrong.array());
+    assertEquals(parallelStrong.getInt(0), parallelStrong.getInt(499));
+  }
+
+  private static int[] normalize(int[] components) {
+    final int[] number = new int[components.length];
+    Arrays.fill(number, -1);
+    final int[] result = new int[components.length];
+    int count = 0;
+    for (int i = 0; i < components.length; i++) {
+      if (number[components[i]] < 0) {
+        number[components[i]] = count++;
+      }
+      result[i] = number[components[i]];
+    }
+    return result;
+  }
+
   private void assertEqualComponents(int[] expecteds, int[] actuals) {
     int n = expecteds.length;
     assertEquals(n, actuals.length);
@@ -22,16 +22,26 @@ import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import ch.ethz.sn.visone3.algorithms.AlgoProvider;
 import ch.ethz.sn.visone3.algorithms.Traversal;
 import ch.ethz.sn.visone3.algorithms.impl.TraversalImpl;
+import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.Mappings;
 import ch.ethz.sn.visone3.networks.DirectedGraph;
 import ch.ethz.sn.visone3.networks.DyadType;
 import ch.ethz.sn.visone3.networks.MatrixSource.OfDouble;
 import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.UndirectedGraph;
 import ch.ethz.sn.visone3.networks.WeightedNetwork;
+import ch.ethz.sn.visone3.networks.impl.ArrayDirectedNetwork;
 import ch.ethz.sn.visone3.networks.impl.AsciiDumper;
+import ch.ethz.sn.visone3.networks.impl.UndirectedNetworkImpl;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
 public class TraversalImplTest {
   private static final Traversal TRAVERSAL = AlgoProvider.getInstance().traversals();
 
@@ -60,5 +70,70 @@ public class TraversalImplTest {
     final Mapping.OfInt dfsn = TRAVERSAL.dfs(n, graph::getOutNeighbors, graph.getVertices(), TraversalImpl.Visitor.NULL);
     assertArrayEquals(new int[] { 0, 3, 4, 1, 2, 0 }, dfsn.array());
   }
-}
 
+  @Test
+  public void testBfsLevels() {
+    final double z = Double.NaN;
+    final double[][] adj = new double[][] { //
+      {z, z, z, 1, z, z}, //
+      {1, z, z, z, z, z}, //
+      {z, z, z, z, z, z}, //
+      {z, z, z, z, 1, z}, //
+      {z, 1, 1, 1, z, z}, //
+      {z, z, z, 1, z, z}, //
+    };
+    final DirectedGraph graph = OfDouble.fromAdjacency(adj, DyadType.DIRECTED).getNetwork()
+        .asDirectedGraph();
+    assertArrayEquals(new int[] { 0, 3, 3, 1, 2, -1 },
+        TRAVERSAL.bfsLevels(graph, Mappings.wrapUnmodifiableInt(0), false).array());
+    assertArrayEquals(new int[] { 0, 1, 1, 1, 0, 0 },
+        TRAVERSAL.bfsLevels(graph, Mappings.wrapUnmodifiableInt(5, 0, 4), true).array());
+
+    // large random graphs switch between top-down and bottom-up levels
+    final int n = 5000;
+    final Random rand = new Random(3);
+    final ArrayDirectedNetwork.Builder directed = new ArrayDirectedNetwork.Builder();
+    final UndirectedNetworkImpl.Builder undirected = new UndirectedNetworkImpl.Builder();
+    directed.ensureNode(n - 1);
+    undirected.ensureNode(n - 1);
+    for (int k = 0; k < 6 * n; k++) {
+      final int source = rand.nextInt(n);
+      final int target = rand.nextInt(n);
+      directed.addEdge(source, target);
+      undirected.addEdge(source, target);
+    }
+    final DirectedGraph directedGraph = directed.build().asDirectedGraph();
+    final UndirectedGraph undirectedGraph = undirected.build().asUndirectedGraph();
+    final ConstMapping.OfInt sources = Mappings.wrapUnmodifiableInt(7, 4000);
+    final int[] expectedDirected = levels(n, directedGraph::getOutNeighbors, sources);
+    final int[] expectedUndirected = levels(n, undirectedGraph::getNeighbors, sources);
+    for (final boolean parallel : new boolean[] { false, true }) {
+      assertArrayEquals(expectedDirected,
+          TRAVERSAL.bfsLevels(directedGraph, sources, parallel).array());
+      assertArrayEquals(expectedUndirected,
+          TRAVERSAL.bfsLevels(undirectedGraph, sources, parallel).array());
+    }
+  }
+
+  private static int[] levels(int n,
+      IntFunction<? extends Iterable<Integer>> neighbors,
+      ConstMapping.OfInt sources) {
+    final int[] levels = new int[n];
+    Arrays.fill(levels, -1);
+    final ArrayDeque<Integer> queue = new ArrayDeque<>();
+    for (int s : sources) {
+      levels[s] = 0;
+      queue.add(s);
+    }
+    while (!queue.isEmpty()) {
+      final int v = queue.poll();
+      for (int u : neighbors.apply(v)) {
+        if (levels[u] < 0) {
+          levels[u] = levels[v] + 1;
+          queue.add(u);
+        }
+      }
+    }
+    return levels;
+  }
+}
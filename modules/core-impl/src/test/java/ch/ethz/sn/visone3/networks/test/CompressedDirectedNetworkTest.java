@@ -0,0 +1,223 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.test;
+
+import static ch.ethz.sn.visone3.test.NetworkAsserts.assertNetwork;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.networks.AdjacencyCursor;
+import ch.ethz.sn.visone3.networks.DyadType;
+import ch.ethz.sn.visone3.networks.Edge;
+import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.NetworkProvider;
+import ch.ethz.sn.visone3.networks.ReorderableNetwork;
+import ch.ethz.sn.visone3.networks.impl.ArrayDirectedNetwork;
+import ch.ethz.sn.visone3.networks.impl.CompressedDirectedNetwork;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class CompressedDirectedNetworkTest {
+
+  private static final String SERVICE = "ch.ethz.sn.visone3.core-impl.networks.compressed";
+
+  private static final Integer[][] ADJ = new Integer[][] { //
+      { null, 1, null, 2, null }, //
+      { 3, null, null, null, null }, //
+      { null, 4, 5, 6, null }, //
+      { null, null, null, null, null }, //
+      { 7, 8, null, 9, 10 }, //
+  };
+
+  private static Network build(final int[] order, final PrimitiveList.OfInt weights) {
+    final NetworkBuilder builder = NetworkProvider.getInstance().builder(DyadType.DIRECTED,
+        SERVICE);
+    builder.ensureNode(ADJ.length - 1);
+    for (final int cell : order) {
+      final int s = cell / ADJ.length;
+      final int t = cell % ADJ.length;
+      if (ADJ[s][t] != null) {
+        assertEquals(weights.size(), builder.addEdge(s, t));
+        weights.addInt(ADJ[s][t]);
+      }
+    }
+    return builder.build();
+  }
+
+  @Test
+  public void testSortedInsertion() {
+    final int[] order = new int[ADJ.length * ADJ.length];
+    for (int i = 0; i < order.length; ++i) {
+      order[i] = i;
+    }
+    final PrimitiveList.OfInt weights = Mappings.newIntList();
+    final Network network = build(order, weights);
+    assertTrue(network instanceof CompressedDirectedNetwork);
+    assertTrue(((CompressedDirectedNetwork) network).hasImplicitEdgeIds());
+    assertNetwork(ADJ, network, weights);
+
+    final Edge e = network.asDirectedGraph().getEdge(4, 3);
+    assertEquals(9, weights.getInt(e.getIndex()));
+    assertNull(network.asDirectedGraph().getEdge(4, 2));
+    assertNull(network.asDirectedGraph().getEdge(3, 0));
+  }
+
+  @Test
+  public void testUnsortedInsertion() {
+    final int[] order = new int[ADJ.length * ADJ.length];
+    for (int i = 0; i < order.length; ++i) {
+      order[i] = (i * 7) % order.length;
+    }
+    final PrimitiveList.OfInt weights = Mappings.newIntList();
+    final Network network = build(order, weights);
+    assertFalse(((CompressedDirectedNetwork) network).hasImplicitEdgeIds());
+    assertNetwork(ADJ, network, weights);
+
+    final NetworkBuilder builder = network.builder();
+    assertEquals(0, builder.addEdge(1, 0));
+    assertEquals(1, builder.addEdge(0, 1));
+    assertEquals(-1, builder.addEdge(1, 0));
+    assertEquals(-2, builder.addEdge(0, 1));
+    assertEquals(2, builder.build().countDyadicIndices());
+  }
+
+  @Test
+  public void testAgainstArrays() {
+    final Random rand = new Random(42);
+    final int n = 2000;
+    final NetworkBuilder compressed = new CompressedDirectedNetwork.Builder();
+    final NetworkBuilder arrays = new ArrayDirectedNetwork.Builder();
+    compressed.ensureNode(n - 1);
+    arrays.ensureNode(n - 1);
+    for (int i = 0; i < 20 * n; ++i) {
+      final int s = rand.nextInt(n);
+      // mix local and long-range edges
+      final int t = rand.nextBoolean() ? rand.nextInt(n) : (s + rand.nextInt(100)) % n;
+      assertEquals(arrays.addEdge(s, t), compressed.addEdge(s, t));
+    }
+    final CompressedDirectedNetwork actual = assertSameEdges(arrays.build(),
+        compressed.build(), n);
+    assertFalse(actual.hasImplicitEdgeIds());
+    assertTrue(actual.countAdjacencyBytes() < 4L * actual.countDyadicIndices() * 4);
+  }
+
+  @Test
+  public void testSortedInsertionWithHubs() {
+    final Random rand = new Random(42);
+    final int n = 3000;
+    final NetworkBuilder compressed = new CompressedDirectedNetwork.Builder();
+    final NetworkBuilder arrays = new ArrayDirectedNetwork.Builder();
+    compressed.ensureNode(n - 1);
+    arrays.ensureNode(n - 1);
+    for (int s = 0; s < n; ++s) {
+      // hubs are adjacent to about two thirds of the vertices, so their lists have skip entries
+      final boolean hub = s % 100 == 0;
+      final int step = 1 + rand.nextInt(n);
+      int last = -1;
+      int lastIndex = -1;
+      for (int t = rand.nextInt(step); t < n; t += hub ? 1 + rand.nextInt(2) : step) {
+        lastIndex = arrays.addEdge(s, t);
+        assertEquals(lastIndex, compressed.addEdge(s, t));
+        last = t;
+      }
+      if (last >= 0) {
+        // repeating the last edge does not break the order
+        assertEquals(-lastIndex - 1, compressed.addEdge(s, last));
+      }
+    }
+    final CompressedDirectedNetwork actual = assertSameEdges(arrays.build(), compressed.build(),
+        n);
+    assertTrue(actual.hasImplicitEdgeIds());
+    for (int s = 0; s < n; s += 100) {
+      final boolean[] adjacent = new boolean[n];
+      actual.getOutNeighborStream(s).forEach(t -> adjacent[t] = true);
+      for (int t = 0; t < n; ++t) {
+        assertEquals(adjacent[t], actual.getEdge(s, t) != null);
+      }
+    }
+  }
+
+  private static CompressedDirectedNetwork assertSameEdges(final Network expected,
+      final Network network, final int n) {
+    final CompressedDirectedNetwork actual = (CompressedDirectedNetwork) network;
+    assertEquals(expected.countDyadicIndices(), actual.countDyadicIndices());
+    final int[] sources = new int[expected.countDyadicIndices()];
+    final int[] targets = new int[expected.countDyadicIndices()];
+    for (final Edge e : expected.asDirectedGraph().getEdges()) {
+      sources[e.getIndex()] = e.getSource();
+      targets[e.getIndex()] = e.getTarget();
+    }
+
+    for (int v = 0; v < n; ++v) {
+      assertEquals(expected.asDirectedGraph().getOutDegree(v), actual.getOutDegree(v));
+      assertEquals(expected.asDirectedGraph().getInDegree(v), actual.getInDegree(v));
+      for (final Edge e : expected.asDirectedGraph().getOutEdges(v)) {
+        assertEquals(e.getIndex(), actual.getEdge(v, e.getTarget()).getIndex());
+      }
+      final AdjacencyCursor cursor = actual.getCursor().reset(v);
+      int count = 0;
+      int previous = -1;
+      for (; count < actual.getInDegree(v); ++count) {
+        assertTrue(cursor.next());
+        assertEquals(v, targets[cursor.index()]);
+        assertEquals(sources[cursor.index()], cursor.target());
+        assertTrue(previous <= cursor.target());
+        previous = cursor.target();
+      }
+      previous = -1;
+      while (cursor.next()) {
+        assertEquals(v, sources[cursor.index()]);
+        assertEquals(targets[cursor.index()], cursor.target());
+        assertTrue(previous <= cursor.target());
+        previous = cursor.target();
+        ++count;
+      }
+      assertEquals(actual.getDegree(v), count);
+    }
+
+    final ReorderableNetwork copy = actual.reorderable();
+    int count = 0;
+    for (final Edge e : copy.asDirectedGraph().getEdges()) {
+      assertEquals(sources[e.getIndex()], e.getSource());
+      assertEquals(targets[e.getIndex()], e.getTarget());
+      ++count;
+    }
+    assertEquals(sources.length, count);
+    return actual;
+  }
+
+  @Test
+  public void testProvider() {
+    assertTrue(NetworkProvider.getInstance().builder(DyadType.DIRECTED)
+        .build() instanceof ArrayDirectedNetwork);
+    assertTrue(NetworkProvider.getInstance().builder(DyadType.DIRECTED, SERVICE)
+        .build() instanceof CompressedDirectedNetwork);
+    assertThrows(IllegalStateException.class,
+        () -> NetworkProvider.getInstance().builder(DyadType.UNDIRECTED, SERVICE));
+    assertThrows(IllegalStateException.class,
+        () -> NetworkProvider.getInstance().builder(DyadType.DIRECTED, "unknown"));
+  }
+}
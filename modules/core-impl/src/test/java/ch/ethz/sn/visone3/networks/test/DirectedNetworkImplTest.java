@@ -293,5 +293,33 @@ public class DirectedNetworkImplTest {
     assertThrows(UnsupportedOperationException.class, () -> network.asUndirectedGraph());
   }
 
-
+  @Test
+  public void testPermuteVertices() {
+    final Integer z = null;
+    final Integer[][] adj = new Integer[][] { //
+        { z, z, 2, z }, //
+        { 1, z, z, 1 }, //
+        { z, 2, z, 1 }, //
+        { 3, 2, 1, z }, //
+    };
+    final WeightedNetwork<? extends Integer, ? extends Mapping<? extends Integer>> wn = MatrixSource
+        .fromAdjacency(adj, false);
+    final int[] order = { 2, 0, 3, 1 };
+    final Integer[][] permuted = new Integer[4][4];
+    for (int k = 0; k < 4; ++k) {
+      for (int l = 0; l < 4; ++l) {
+        permuted[k][l] = adj[order[k]][order[l]];
+      }
+    }
+    final ReorderableNetwork network = wn.getNetwork().reorderable()
+        .permuteVertices(Mappings.wrapUnmodifiableInt(order));
+    // edge indices and thus the link weights are retained
+    assertNetwork(permuted, network, (Mapping.OfInt) wn.getWeight());
+    assertNetwork(adj, wn.getNetwork(), (Mapping.OfInt) wn.getWeight());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> network.permuteVertices(Mappings.wrapUnmodifiableInt(2, 0, 2, 1)));
+    assertThrows(IllegalArgumentException.class,
+        () -> network.permuteVertices(Mappings.wrapUnmodifiableInt(2, 0, 1)));
+  }
 }
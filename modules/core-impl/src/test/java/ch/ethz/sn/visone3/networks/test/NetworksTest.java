@@ -26,6 +26,7 @@ import ch.ethz.sn.visone3.networks.DyadType;
 import ch.ethz.sn.visone3.networks.MatrixSource;
 import ch.ethz.sn.visone3.networks.Network;
 import ch.ethz.sn.visone3.networks.Networks;
+import ch.ethz.sn.visone3.networks.VertexOrderings;
 import ch.ethz.sn.visone3.networks.WeightedNetwork;
 
 import org.junit.jupiter.api.Test;
@@ -128,4 +129,43 @@ public class NetworksTest {
         () -> Networks.requireVertexMapping(twomode, undirectedNodeMap, "tests"));
 
   }
+
+  @Test
+  public void testVertexOrderings() {
+    final Integer z = null;
+    // path 0 - 3 - 1 - 4 - 2
+    final Network path = MatrixSource.fromAdjacency(new Integer[][] { //
+        { z }, //
+        { z, z }, //
+        { z, z, z }, //
+        { 1, 1, z, z }, //
+        { z, 1, 1, z, z }, //
+    }, DyadType.UNDIRECTED).getNetwork();
+    assertEquals(Mappings.wrapUnmodifiableInt(1, 3, 4, 0, 2), VertexOrderings.byDegree(path));
+    assertEquals(Mappings.wrapUnmodifiableInt(2, 4, 1, 3, 0),
+        VertexOrderings.reverseCuthillMcKee(path));
+
+    // nodes 0, 1 and affiliations 2, 3, 4 stay in their domains
+    final Network twomode = MatrixSource.fromAdjacency(new Integer[][] { //
+        { z, 1, 1 }, //
+        { 1, z, z }, //
+    }, DyadType.TWO_MODE).getNetwork();
+    assertEquals(Mappings.wrapUnmodifiableInt(0, 1, 2, 3, 4), VertexOrderings.byDegree(twomode));
+    assertEquals(Mappings.wrapUnmodifiableInt(0, 1, 4, 3, 2),
+        VertexOrderings.reverseCuthillMcKee(twomode));
+
+    final ConstMapping.OfInt order = Mappings.wrapUnmodifiableInt(2, 4, 1, 3, 0);
+    assertEquals(Mappings.wrapUnmodifiableInt(4, 2, 0, 3, 1), VertexOrderings.inverse(order));
+    assertThrows(IllegalArgumentException.class,
+        () -> VertexOrderings.inverse(Mappings.wrapUnmodifiableInt(2, 4, 1, 2, 0)));
+    assertThrows(IllegalArgumentException.class,
+        () -> VertexOrderings.inverse(Mappings.wrapUnmodifiableInt(2, 5, 1, 3, 0)));
+
+    final ConstMapping.OfInt values = Mappings.wrapUnmodifiableInt(10, 11, 12, 13, 14);
+    final ConstMapping<Integer> reordered = VertexOrderings.toReordered(values, order);
+    assertEquals(Mappings.wrapUnmodifiableInt(12, 14, 11, 13, 10), reordered);
+    assertEquals(values, VertexOrderings.toOriginal(reordered, order));
+    assertThrows(IllegalArgumentException.class,
+        () -> VertexOrderings.toReordered(Mappings.wrapUnmodifiableInt(1, 2), order));
+  }
 }
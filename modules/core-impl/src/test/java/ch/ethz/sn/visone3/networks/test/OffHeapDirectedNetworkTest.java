@@ -0,0 +1,116 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.networks.test;
+
+import static ch.ethz.sn.visone3.test.NetworkAsserts.assertNetwork;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.networks.DyadType;
+import ch.ethz.sn.visone3.networks.Edge;
+import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.NetworkProvider;
+import ch.ethz.sn.visone3.networks.ReorderableNetwork;
+import ch.ethz.sn.visone3.networks.impl.OffHeapDirectedNetwork;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class OffHeapDirectedNetworkTest {
+
+  private static final String SERVICE = "ch.ethz.sn.visone3.core-impl.networks.offheap";
+
+  private static final Integer[][] ADJ = new Integer[][] { //
+      { null, 1, null, 2, null }, //
+      { 3, null, null, null, null }, //
+      { null, 4, 5, 6, null }, //
+      { null, null, null, null, null }, //
+      { 7, 8, null, 9, 10 }, //
+  };
+
+  @Test
+  public void testNetwork() throws IOException, ClassNotFoundException {
+    final NetworkBuilder builder = NetworkProvider.getInstance().builder(DyadType.DIRECTED,
+        SERVICE);
+    final PrimitiveList.OfInt weights = Mappings.newIntList();
+    builder.ensureNode(ADJ.length - 1);
+    for (int s = ADJ.length - 1; s >= 0; --s) {
+      for (int t = 0; t < ADJ.length; ++t) {
+        if (ADJ[s][t] != null) {
+          assertEquals(weights.size(), builder.addEdge(s, t));
+          weights.addInt(ADJ[s][t]);
+        }
+      }
+    }
+    assertEquals(-1, builder.addEdge(4, 0));
+    final Network network = builder.build();
+    assertTrue(network instanceof OffHeapDirectedNetwork);
+    assertNetwork(ADJ, network, weights);
+
+    final Edge e = network.asDirectedGraph().getEdge(4, 3);
+    assertEquals(9, weights.getInt(e.getIndex()));
+    assertNull(network.asDirectedGraph().getEdge(4, 2));
+
+    final ReorderableNetwork copy = network.reorderable();
+    assertNetwork(ADJ, copy, weights);
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(network);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()))) {
+      final OffHeapDirectedNetwork deserialized = (OffHeapDirectedNetwork) in.readObject();
+      assertEquals(network, deserialized);
+      assertNetwork(ADJ, deserialized, weights);
+      deserialized.close();
+    }
+
+    final OffHeapDirectedNetwork offHeap = (OffHeapDirectedNetwork) network;
+    assertFalse(offHeap.isClosed());
+    offHeap.close();
+    assertTrue(offHeap.isClosed());
+    offHeap.close();
+    assertEquals("{OffHeapDirectedNetwork,closed}", offHeap.toString());
+    assertThrows(IllegalStateException.class, () -> offHeap.getOutDegree(0));
+    assertThrows(IllegalStateException.class, () -> offHeap.getEdges().iterator());
+    // the on-heap copy is not affected
+    assertNetwork(ADJ, copy, weights);
+  }
+
+  @Test
+  public void testProvider() {
+    try (OffHeapDirectedNetwork network = (OffHeapDirectedNetwork) NetworkProvider.getInstance()
+        .builder(DyadType.DIRECTED, SERVICE).build()) {
+      assertEquals(0, network.countVertices());
+    }
+    assertThrows(IllegalStateException.class,
+        () -> NetworkProvider.getInstance().builder(DyadType.TWO_MODE, SERVICE));
+  }
+}
@@ -229,4 +229,30 @@ public class TwoModeNetworkImplTest {
     assertTrue(network != rereorderable && network.equals(rereorderable));
     assertThrows(UnsupportedOperationException.class, () -> network.asDirectedGraph());
   }
+
+  @Test
+  public void testPermuteVertices() {
+    final Integer z = null;
+    final Integer[][] adj = new Integer[][] { //
+        { z, 4, 5, z }, //
+        { 1, 1, z, z }, //
+        { z, 2, z, 3 }, //
+    };
+    final WeightedNetwork<? extends Integer, ? extends Mapping<? extends Integer>> wn = MatrixSource
+        .fromAdjacency(adj, true);
+    // nodes 0..2, affiliations 3..6
+    final int[] order = { 1, 2, 0, 6, 3, 5, 4 };
+    final Integer[][] permuted = new Integer[3][4];
+    for (int k = 0; k < 3; ++k) {
+      for (int l = 0; l < 4; ++l) {
+        permuted[k][l] = adj[order[k]][order[3 + l] - 3];
+      }
+    }
+    final ReorderableNetwork network = wn.getNetwork().reorderable()
+        .permuteVertices(Mappings.wrapUnmodifiableInt(order));
+    // edge indices and thus the link weights are retained
+    assertNetwork(permuted, network, (Mapping.OfInt) wn.getWeight());
+    assertThrows(IllegalArgumentException.class,
+        () -> network.permuteVertices(Mappings.wrapUnmodifiableInt(1, 2, 6, 0, 3, 5, 4)));
+  }
 }
@@ -283,4 +283,32 @@ public class UndirectedNetworkImplTest {
     assertTrue(network != rereorderable && network.equals(rereorderable));
     assertThrows(UnsupportedOperationException.class, () -> network.asDirectedGraph());
   }
+
+  @Test
+  public void testPermuteVertices() {
+    final Integer z = null;
+    final Integer[][] lower = new Integer[][] { //
+        { 1 }, //
+        { 0, z }, //
+        { 1, 1, z }, //
+        { z, 2, 3, 4 }, //
+    };
+    final Integer[][] adj = diagonal2square(lower, (n) -> new Integer[n][n]);
+    final WeightedNetwork<? extends Integer, ? extends Mapping<? extends Integer>> wn = MatrixSource
+        .fromAdjacency(lower, DyadType.UNDIRECTED);
+    final int[] order = { 3, 1, 0, 2 };
+    final Integer[][] permuted = new Integer[4][4];
+    for (int k = 0; k < 4; ++k) {
+      for (int l = 0; l < 4; ++l) {
+        permuted[k][l] = adj[order[k]][order[l]];
+      }
+    }
+    final ReorderableNetwork network = wn.getNetwork().reorderable()
+        .permuteVertices(Mappings.wrapUnmodifiableInt(order));
+    // edge indices and thus the link weights are retained
+    assertNetwork(permuted, network, (Mapping.OfInt) wn.getWeight());
+    assertEquals(2, network.asUndirectedGraph().countLoops());
+    assertThrows(IllegalArgumentException.class,
+        () -> network.permuteVertices(Mappings.wrapUnmodifiableInt(3, 1, 0, 4)));
+  }
 }
@@ -74,6 +74,18 @@ public interface Source<H> extends AutoCloseable {
      * Range describing and converging to double values.
      */
     Range<Double> DOUBLE = Range.of(double.class, 0., Double::parseDouble);
+    /**
+     * Range describing and converging to byte values.
+     */
+    Range<Byte> BYTE = Range.of(byte.class, (byte) 0, Byte::parseByte);
+    /**
+     * Range describing and converging to short integer values.
+     */
+    Range<Short> SHORT = Range.of(short.class, (short) 0, Short::parseShort);
+    /**
+     * Range describing and converging to float values.
+     */
+    Range<Float> FLOAT = Range.of(float.class, 0.f, Float::parseFloat);
     /**
      * Range describing and converging to string values.
      */
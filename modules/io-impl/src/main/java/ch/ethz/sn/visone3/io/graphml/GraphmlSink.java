@@ -23,28 +23,22 @@ import ch.ethz.sn.visone3.networks.Edge;
 import ch.ethz.sn.visone3.networks.Network;
 import ch.ethz.sn.visone3.networks.Networks;
 
-import org.w3c.dom.Attr;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.UnaryOperator;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 /**
  * Writes a network as GraphML file using the standards described by the GraphML Primer:
@@ -77,12 +71,20 @@ import javax.xml.transform.stream.StreamResult;
  *   ...
  * &lt;/graphml&gt;
  * </pre>
+ *
+ * <p>
+ * The document is streamed through an {@link XMLStreamWriter} directly from the network and the
+ * attribute mappings when the sink is closed, so no document tree is held in memory. Values of
+ * primitive mappings are compared to their defaults and formatted without boxing.
  */
 
 public class GraphmlSink extends AbstractSink implements AutoCloseable {
   private static final String PREFIX_NODE = "n";
   private static final String PREFIX_EDGE = "e";
   private static final String PREFIX_KEY = "k";
+  private static final String NAMESPACE = "http://graphml.graphdrawing.org/xmlns";
+  private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+  private static final String NEWLINE = System.lineSeparator();
 
   /**
    * Hints accepted by the graphml sink.
@@ -96,7 +98,6 @@ public class GraphmlSink extends AbstractSink implements AutoCloseable {
   }
 
   private final OutputStream out;
-  private final Document doc;
   private final Map<String, Object> graphDefault;
   private final Map<String, Object> nodeDefault;
   private final Map<String, Object> edgeDefault;
@@ -109,13 +110,16 @@ public class GraphmlSink extends AbstractSink implements AutoCloseable {
   private final UnaryOperator<String> keyIdGenerator = (name) -> PREFIX_KEY + keyToId.size();
   private boolean writeParseInfo = false;
   private Network graph;
+  private XMLStreamWriter writer;
+  // scratch space for formatting integers without intermediate strings
+  private final char[] digits = new char[20];
 
   /**
    * Constructs a new sink.
    * 
    * @param out the output stream to write to.
-   * @throws ParserConfigurationException if some exception occured while
-   *                                      constructing the XML document.
+   * @throws ParserConfigurationException not thrown by the streaming writer, but
+   *                                      kept for source compatibility.
    */
   public GraphmlSink(final OutputStream out) throws ParserConfigurationException {
     this.out = out;
@@ -124,9 +128,6 @@ public class GraphmlSink extends AbstractSink implements AutoCloseable {
     edgeDefault = new LinkedHashMap<>();
     edgeAttr = new LinkedHashMap<>();
     nodeAttr = new LinkedHashMap<>();
-    final DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-    final DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-    doc = docBuilder.newDocument();
   }
 
   @Override
@@ -161,143 +162,213 @@ public class GraphmlSink extends AbstractSink implements AutoCloseable {
         Networks.requireLinkMapping(graph, e.getValue());
       }
 
+      // the stream writer cannot declare a standalone document by itself
+      out.write(("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>" + NEWLINE)
+          .getBytes(StandardCharsets.UTF_8));
+      writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
       write();
-      // write the content into xml file
-      final Transformer transformer = TransformerFactory.newInstance().newTransformer();
-      transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-      transformer.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-      //initialize StreamResult with File object to save to file
-      final StreamResult result = new StreamResult(out);
-      final DOMSource source = new DOMSource(doc);
-      transformer.transform(source, result);
-    } catch (final TransformerException te) {
-      throw new IOException(te);
+      writer.writeCharacters(NEWLINE);
+      writer.flush();
+      writer.close();
+    } catch (final XMLStreamException xse) {
+      throw new IOException(xse);
     } finally {
+      writer = null;
       out.flush();
       out.close();
     }
   }
 
-  private void write() {
-    final Element root = writeHead(doc);
+  private void write() throws XMLStreamException {
+    writeHead();
     // writeKeysForDefaults(root);
-    writeGlobal(root);
-    writeKeys(root, GraphmlTokens.EDGE, edgeDefault, edgeAttr);
-    writeKeys(root, GraphmlTokens.NODE, nodeDefault, nodeAttr);
+    writeGlobal();
+    writeKeys(GraphmlTokens.EDGE, edgeDefault, edgeAttr);
+    writeKeys(GraphmlTokens.NODE, nodeDefault, nodeAttr);
     // graphstream (http://graphstream-project.org/) chokes on parse info
-    final Element graphElmnt = writeGraph(root);
-    writeNodes(graphElmnt);
-    writeEdges(graphElmnt);
+    writeGraph();
+    writeNodes();
+    writeEdges();
+    indent(1);
+    writer.writeEndElement();
+    indent(0);
+    writer.writeEndElement();
+  }
+
+  private void indent(final int depth) throws XMLStreamException {
+    writer.writeCharacters(NEWLINE);
+    for (int i = 0; i < depth; i++) {
+      writer.writeCharacters("  ");
+    }
   }
 
-  private void writeEdges(final Element graphElmnt) {
+  private void writeEdges() throws XMLStreamException {
+    final List<Column> columns = columns(GraphmlTokens.EDGE, edgeDefault, edgeAttr);
+    final int[] selected = new int[columns.size()];
     int index = 0;
-    Element edge;
     final Iterable<Edge> rel = graph.isDirected()
       ? graph.asDirectedGraph().getEdges()
       : graph.asUndirectedGraph().getEdges();
 
     for (final Edge r : rel) {
-      edge = graphElmnt.getOwnerDocument().createElement(GraphmlTokens.EDGE);
-      graphElmnt.appendChild(edge);
-      edge.setAttribute(GraphmlTokens.ID, PREFIX_EDGE + index);
-      edge.setAttribute(GraphmlTokens.SOURCE, PREFIX_NODE + r.getSource());
-      edge.setAttribute(GraphmlTokens.TARGET, PREFIX_NODE + r.getTarget());
-      writeDataFor(edge, GraphmlTokens.EDGE, edgeDefault, edgeAttr, index);
+      final int count = selectData(columns, index, selected);
+      indent(2);
+      if (count == 0) {
+        writer.writeEmptyElement(GraphmlTokens.EDGE);
+      } else {
+        writer.writeStartElement(GraphmlTokens.EDGE);
+      }
+      writeIdAttribute(GraphmlTokens.ID, PREFIX_EDGE, index);
+      writeIdAttribute(GraphmlTokens.SOURCE, PREFIX_NODE, r.getSource());
+      writeIdAttribute(GraphmlTokens.TARGET, PREFIX_NODE, r.getTarget());
+      writeDataFor(columns, index, selected, count);
       index++;
     }
   }
 
-  private void writeNodes(final Element graphElmnt) {
+  private void writeNodes() throws XMLStreamException {
+    final List<Column> columns = columns(GraphmlTokens.NODE, nodeDefault, nodeAttr);
+    final int[] selected = new int[columns.size()];
     final int n = graph.asRelation().countUnionDomain();
-    Element node;
     for (int i = 0; i < n; i++) {
-      node = graphElmnt.getOwnerDocument().createElement(GraphmlTokens.NODE);
-      graphElmnt.appendChild(node);
-      node.setAttribute(GraphmlTokens.ID, PREFIX_NODE + i);
-      writeDataFor(node, GraphmlTokens.NODE, nodeDefault, nodeAttr, i);
+      final int count = selectData(columns, i, selected);
+      indent(2);
+      if (count == 0) {
+        writer.writeEmptyElement(GraphmlTokens.NODE);
+      } else {
+        writer.writeStartElement(GraphmlTokens.NODE);
+      }
+      writeIdAttribute(GraphmlTokens.ID, PREFIX_NODE, i);
+      writeDataFor(columns, i, selected, count);
     }
   }
 
+  private void writeIdAttribute(final String name, final String prefix, final int index)
+      throws XMLStreamException {
+    final int start = formatDigits(index);
+    writer.writeAttribute(name,
+        new StringBuilder(prefix.length() + digits.length - start).append(prefix)
+            .append(digits, start, digits.length - start).toString());
+  }
+
   /**
-   * Writes attribute data.
-   * @param token The parent token type.
-   * @param index Index of the parent element.
+   * Determines the attributes to write for an element.
+   * @param index Index of the element.
+   * @param selected Receives the positions of the columns to write.
+   * @return the number of columns to write.
    */
-  private void writeDataFor(
-    final Element elem, final String token, final Map<String, Object> def,
-    final Map<String, ConstMapping<?>> map, final int index
-  ) {
-    for (final Map.Entry<String, ConstMapping<?>> e : map.entrySet()) {
-      final Object defValue = def.get(e.getKey());
-      final Object value = e.getValue().get(index);
-      // write if it exists and is not the default value
-      if (value != null && (!def.containsKey(e.getKey()) || !Objects.equals(value, defValue))) {
-        final Element data = doc.createElement(GraphmlTokens.DATA);
-        elem.appendChild(data);
-        data.setAttribute(GraphmlTokens.KEY, keyToId.get(e.getKey() + token));
-        data.appendChild(doc.createTextNode(value.toString()));
+  private static int selectData(final List<Column> columns, final int index,
+      final int[] selected) {
+    int count = 0;
+    for (int c = 0; c < selected.length; c++) {
+      if (columns.get(c).isWritten(index)) {
+        selected[count++] = c;
       }
     }
+    return count;
   }
 
   /**
-   * Writes the graph tag with the corresponding data.
+   * Writes attribute data and closes the parent element if it has any.
+   * @param index Index of the parent element.
    */
-  private Element writeGraph(final Element parent) {
-    final Element graphElmnt = parent.getOwnerDocument().createElement(GraphmlTokens.GRAPH);
-    parent.appendChild(graphElmnt);
+  private void writeDataFor(final List<Column> columns, final int index, final int[] selected,
+      final int count) throws XMLStreamException {
+    for (int k = 0; k < count; k++) {
+      final Column column = columns.get(selected[k]);
+      indent(3);
+      writer.writeStartElement(GraphmlTokens.DATA);
+      writer.writeAttribute(GraphmlTokens.KEY, column.keyId);
+      column.writeValue(this, index);
+      writer.writeEndElement();
+    }
+    if (count > 0) {
+      indent(2);
+      writer.writeEndElement();
+    }
+  }
 
-    final Attr attr = parent.getOwnerDocument().createAttribute(GraphmlTokens.EDGEDEFAULT);
+  private int formatDigits(final long value) {
+    // digits are produced right to left from the negated value, which also covers the minimum
+    int pos = digits.length;
+    long rem = value < 0 ? value : -value;
+    do {
+      digits[--pos] = (char) ('0' - rem % 10);
+      rem /= 10;
+    } while (rem != 0);
+    if (value < 0) {
+      digits[--pos] = '-';
+    }
+    return pos;
+  }
+
+  private void writeNumber(final long value) throws XMLStreamException {
+    final int start = formatDigits(value);
+    writer.writeCharacters(digits, start, digits.length - start);
+  }
+
+  /**
+   * Writes the graph tag with the corresponding data.
+   */
+  private void writeGraph() throws XMLStreamException {
+    indent(1);
+    writer.writeStartElement(GraphmlTokens.GRAPH);
     if (graph.isDirected()) {
-      attr.setValue(GraphmlTokens.DIRECTED);
+      writer.writeAttribute(GraphmlTokens.EDGEDEFAULT, GraphmlTokens.DIRECTED);
     } else {
-      attr.setValue(GraphmlTokens.UNDIRECTED);
+      writer.writeAttribute(GraphmlTokens.EDGEDEFAULT, GraphmlTokens.UNDIRECTED);
     }
-    graphElmnt.setAttributeNode(attr);
 
     // parse.nodes and parse.edges
     if (writeParseInfo) {
       final int n = graph.asRelation().countUnionDomain();
       final int m = graph.countDyadicIndices();
-      graphElmnt.setAttribute(GraphmlTokens.PARSE_NODES, String.valueOf(n));
-      graphElmnt.setAttribute(GraphmlTokens.PARSE_EDGES, String.valueOf(m));
       //parse.nodeids parse.edgeids
-      graphElmnt.setAttribute(GraphmlTokens.PARSE_EDGEIDS, GraphmlTokens.CANONICAL);
-      graphElmnt.setAttribute(GraphmlTokens.PARSE_NODEIDS, GraphmlTokens.CANONICAL);
+      writer.writeAttribute(GraphmlTokens.PARSE_EDGEIDS, GraphmlTokens.CANONICAL);
+      writer.writeAttribute(GraphmlTokens.PARSE_EDGES, String.valueOf(m));
+      writer.writeAttribute(GraphmlTokens.PARSE_NODEIDS, GraphmlTokens.CANONICAL);
+      writer.writeAttribute(GraphmlTokens.PARSE_NODES, String.valueOf(n));
       //parse.order
-      graphElmnt.setAttribute(GraphmlTokens.PARSE_ORDER, GraphmlTokens.NODESFIRST);
+      writer.writeAttribute(GraphmlTokens.PARSE_ORDER, GraphmlTokens.NODESFIRST);
     }
-    return graphElmnt;
   }
 
   /**
    * Graphml root element.
    */
-  private Element writeHead(final Document parent) {
-    final Element root = parent.createElement(GraphmlTokens.GRAPHML);
-    parent.appendChild(root);
-    root.setAttribute("xmlns", "http://graphml.graphdrawing.org/xmlns");
-    root.setAttribute("xmlns:xsi", "http://www.w3.org/2001/XMLSchema-instance");
-    root.setAttribute("xsi:schemaLocation",
-      "http://graphml.graphdrawing.org/xmlns "
-        + "http://graphml.graphdrawing.org/xmlns/1.0/graphml.xsd");
-    return root;
+  private void writeHead() throws XMLStreamException {
+    writer.writeStartElement(GraphmlTokens.GRAPHML);
+    writer.writeDefaultNamespace(NAMESPACE);
+    writer.writeNamespace("xsi", XSI_NAMESPACE);
+    writer.writeAttribute("xsi", XSI_NAMESPACE, "schemaLocation",
+      NAMESPACE + " " + "http://graphml.graphdrawing.org/xmlns/1.0/graphml.xsd");
   }
 
-  private void writeGlobal(final Element parent) {
+  private void writeGlobal() throws XMLStreamException {
     for (final Map.Entry<String, Object> e : graphDefault.entrySet()) {
-      final Element key = doc.createElement(GraphmlTokens.KEY);
-      parent.appendChild(key);
+      indent(1);
+      writer.writeStartElement(GraphmlTokens.KEY);
       final Class<?> ct = e.getValue().getClass();
-      key.setAttribute(GraphmlTokens.ATTR_TYPE, classToToken(ct));
-      key.setAttribute(GraphmlTokens.ID,
+      writer.writeAttribute(GraphmlTokens.ATTR_NAME, e.getKey());
+      writer.writeAttribute(GraphmlTokens.ATTR_TYPE, classToToken(ct));
+      writer.writeAttribute(GraphmlTokens.FOR, GraphmlTokens.GRAPH);
+      writer.writeAttribute(GraphmlTokens.ID,
         keyToId.computeIfAbsent(e.getKey() + GraphmlTokens.GRAPH, keyIdGenerator));
-      key.setAttribute(GraphmlTokens.FOR, GraphmlTokens.GRAPH);
-      key.setAttribute(GraphmlTokens.ATTR_NAME, e.getKey());
-      final Element def = doc.createElement(GraphmlTokens.DEFAULT);
-      key.appendChild(def);
-      def.appendChild(doc.createTextNode(e.getValue().toString()));
+      writeDefault(e.getValue());
+      indent(1);
+      writer.writeEndElement();
+    }
+  }
+
+  private void writeDefault(final Object value) throws XMLStreamException {
+    indent(2);
+    final String text = value.toString();
+    if (text.isEmpty()) {
+      writer.writeEmptyElement(GraphmlTokens.DEFAULT);
+    } else {
+      writer.writeStartElement(GraphmlTokens.DEFAULT);
+      writer.writeCharacters(text);
+      writer.writeEndElement();
     }
   }
 
@@ -305,34 +376,158 @@ public class GraphmlSink extends AbstractSink implements AutoCloseable {
    * Write the data key definitions.
    */
   private void writeKeys(
-    final Element parent, final String token, final Map<String, Object> def,
-    final Map<String, ConstMapping<?>> map
-  ) {
+    final String token, final Map<String, Object> def, final Map<String, ConstMapping<?>> map
+  ) throws XMLStreamException {
     // union over keys
     final Set<String> keys = new LinkedHashSet<>();
     keys.addAll(def.keySet());
     keys.addAll(map.keySet());
 
     for (final String ek : keys) {
-      final Element key = doc.createElement(GraphmlTokens.KEY);
-      parent.appendChild(key);
-      key.setAttribute(GraphmlTokens.ID, keyToId.computeIfAbsent(ek + token, keyIdGenerator));
-      key.setAttribute(GraphmlTokens.FOR, token);
-      key.setAttribute(GraphmlTokens.ATTR_NAME, ek);
-
-      if (def.containsKey(ek)) {
-        final Class<?> ct = def.get(ek).getClass();
-        key.setAttribute(GraphmlTokens.ATTR_TYPE, classToToken(ct));
+      indent(1);
+      final boolean hasDefault = def.containsKey(ek);
+      if (hasDefault) {
+        writer.writeStartElement(GraphmlTokens.KEY);
+      } else {
+        writer.writeEmptyElement(GraphmlTokens.KEY);
+      }
+      final Class<?> ct = hasDefault ? def.get(ek).getClass() : map.get(ek).getComponentType();
+      writer.writeAttribute(GraphmlTokens.ATTR_NAME, ek);
+      writer.writeAttribute(GraphmlTokens.ATTR_TYPE, classToToken(ct));
+      writer.writeAttribute(GraphmlTokens.FOR, token);
+      writer.writeAttribute(GraphmlTokens.ID, keyToId.computeIfAbsent(ek + token, keyIdGenerator));
+      if (hasDefault) {
         // put fix default values in key tags.
-        final Element defaultValue = doc.createElement(GraphmlTokens.DEFAULT);
-        key.appendChild(defaultValue);
-        final Object val = def.get(ek);
-        defaultValue.appendChild(doc.createTextNode(val.toString()));
+        writeDefault(def.get(ek));
+        indent(1);
+        writer.writeEndElement();
+      }
+    }
+  }
+
+  private List<Column> columns(final String token, final Map<String, Object> def,
+      final Map<String, ConstMapping<?>> map) {
+    final List<Column> columns = new ArrayList<>(map.size());
+    for (final Map.Entry<String, ConstMapping<?>> e : map.entrySet()) {
+      final String keyId = keyToId.get(e.getKey() + token);
+      final boolean hasDefault = def.containsKey(e.getKey());
+      final Object defValue = def.get(e.getKey());
+      final ConstMapping<?> mapping = e.getValue();
+      if (mapping instanceof ConstMapping.OfInt) {
+        columns.add(new IntColumn(keyId, (ConstMapping.OfInt) mapping, hasDefault, defValue));
+      } else if (mapping instanceof ConstMapping.OfLong) {
+        columns.add(new LongColumn(keyId, (ConstMapping.OfLong) mapping, hasDefault, defValue));
+      } else if (mapping instanceof ConstMapping.OfDouble) {
+        columns.add(
+            new DoubleColumn(keyId, (ConstMapping.OfDouble) mapping, hasDefault, defValue));
       } else {
-        final Class<?> ct = map.get(ek).getComponentType();
-        key.setAttribute(GraphmlTokens.ATTR_TYPE, classToToken(ct));
+        columns.add(new Column(keyId, mapping, hasDefault, defValue));
       }
     }
+    return columns;
+  }
+
+  /**
+   * Attribute column of nodes or edges, writing values that exist and differ from the default.
+   */
+  private static class Column {
+    final String keyId;
+    private final ConstMapping<?> mapping;
+    private final boolean hasDefault;
+    private final Object defValue;
+
+    Column(final String keyId, final ConstMapping<?> mapping, final boolean hasDefault,
+        final Object defValue) {
+      this.keyId = keyId;
+      this.mapping = mapping;
+      this.hasDefault = hasDefault;
+      this.defValue = defValue;
+    }
+
+    boolean isWritten(final int index) {
+      final Object value = mapping.get(index);
+      return value != null && (!hasDefault || !Objects.equals(value, defValue));
+    }
+
+    void writeValue(final GraphmlSink sink, final int index) throws XMLStreamException {
+      sink.writer.writeCharacters(mapping.get(index).toString());
+    }
+  }
+
+  private static final class IntColumn extends Column {
+    private final ConstMapping.OfInt mapping;
+    // whether the default is an integer that values have to be compared to
+    private final boolean compare;
+    private final int defValue;
+
+    IntColumn(final String keyId, final ConstMapping.OfInt mapping, final boolean hasDefault,
+        final Object defValue) {
+      super(keyId, mapping, hasDefault, defValue);
+      this.mapping = mapping;
+      compare = hasDefault && defValue instanceof Integer;
+      this.defValue = compare ? (Integer) defValue : 0;
+    }
+
+    @Override
+    boolean isWritten(final int index) {
+      return !compare || mapping.getInt(index) != defValue;
+    }
+
+    @Override
+    void writeValue(final GraphmlSink sink, final int index) throws XMLStreamException {
+      sink.writeNumber(mapping.getInt(index));
+    }
+  }
+
+  private static final class LongColumn extends Column {
+    private final ConstMapping.OfLong mapping;
+    // whether the default is a long integer that values have to be compared to
+    private final boolean compare;
+    private final long defValue;
+
+    LongColumn(final String keyId, final ConstMapping.OfLong mapping, final boolean hasDefault,
+        final Object defValue) {
+      super(keyId, mapping, hasDefault, defValue);
+      this.mapping = mapping;
+      compare = hasDefault && defValue instanceof Long;
+      this.defValue = compare ? (Long) defValue : 0;
+    }
+
+    @Override
+    boolean isWritten(final int index) {
+      return !compare || mapping.getLong(index) != defValue;
+    }
+
+    @Override
+    void writeValue(final GraphmlSink sink, final int index) throws XMLStreamException {
+      sink.writeNumber(mapping.getLong(index));
+    }
+  }
+
+  private static final class DoubleColumn extends Column {
+    private final ConstMapping.OfDouble mapping;
+    // whether the default is a double that values have to be compared to
+    private final boolean compare;
+    // compared bitwise like Double.equals, so that NaN equals NaN
+    private final long defBits;
+
+    DoubleColumn(final String keyId, final ConstMapping.OfDouble mapping,
+        final boolean hasDefault, final Object defValue) {
+      super(keyId, mapping, hasDefault, defValue);
+      this.mapping = mapping;
+      compare = hasDefault && defValue instanceof Double;
+      defBits = compare ? Double.doubleToLongBits((Double) defValue) : 0;
+    }
+
+    @Override
+    boolean isWritten(final int index) {
+      return !compare || Double.doubleToLongBits(mapping.getDouble(index)) != defBits;
+    }
+
+    @Override
+    void writeValue(final GraphmlSink sink, final int index) throws XMLStreamException {
+      sink.writer.writeCharacters(Double.toString(mapping.getDouble(index)));
+    }
   }
 
   @Override
@@ -374,13 +569,16 @@ public class GraphmlSink extends AbstractSink implements AutoCloseable {
   }
 
   private String classToToken(final Class<?> componentType) {
-    if (componentType == Integer.class || componentType == int.class) {
+    if (componentType == Integer.class || componentType == int.class
+        || componentType == Short.class || componentType == short.class
+        || componentType == Byte.class || componentType == byte.class) {
       return GraphmlTokens.INT;
     }
     if (componentType == String.class) {
       return GraphmlTokens.STRING;
     }
-    if (componentType == Double.class || componentType == double.class) {
+    if (componentType == Double.class || componentType == double.class
+        || componentType == Float.class || componentType == float.class) {
       return GraphmlTokens.DOUBLE;
     }
     return GraphmlTokens.STRING;
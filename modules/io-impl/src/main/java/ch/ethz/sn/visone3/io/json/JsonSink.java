@@ -23,36 +23,59 @@ import ch.ethz.sn.visone3.networks.DyadType;
 import ch.ethz.sn.visone3.networks.Edge;
 import ch.ethz.sn.visone3.networks.Network;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.util.HashMap;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Reads JSON graphs.
+ * Writes JSON graphs.
  *
  * <pre>
  * {
  *   "type": ""
  *   "nodes": [
- *     {...}
+ *     {"id": id, ...}
  *   ],
- *   "edges": [
+ *   "links": [
  *     {"source": id, "target": id, ...}
  *   ]
  * }
  * </pre>
+ *
+ * <p>
+ * The document is streamed from the network and the attribute mappings when the sink is closed.
+ * Values of primitive mappings are written without boxing, {@code null} values are omitted.
+ * Collections and arrays are written as JSON arrays, maps as JSON objects, and other values that
+ * are neither numbers nor booleans as strings.
  */
 public class JsonSink implements Sink {
-  private final BufferedWriter out;
+  private static final JsonFactory FACTORY = new JsonFactory();
+
+  /**
+   * Hints accepted by the JSON sink.
+   */
+  public enum Hint {
+    /**
+     * Boolean hint whether to compress the output with gzip.
+     */
+    GZIP
+  }
+
+  private final OutputStream out;
   private final Map<String, ConstMapping<?>> monadic;
   private final Map<String, ConstMapping<?>> dyadic;
   private Network incidence;
+  private boolean gzip = false;
   private boolean open = true;
 
   /**
@@ -64,9 +87,9 @@ public class JsonSink implements Sink {
    *           if an I/O error occurs
    */
   public JsonSink(final OutputStream out) throws IOException {
-    this.out = new BufferedWriter(new OutputStreamWriter(out));
-    monadic = new HashMap<>();
-    dyadic = new HashMap<>();
+    this.out = out;
+    monadic = new LinkedHashMap<>();
+    dyadic = new LinkedHashMap<>();
   }
 
   @Override
@@ -97,53 +120,137 @@ public class JsonSink implements Sink {
     }
   }
 
+  @Override
+  public void hint(final String key, final String value) {
+    final Hint hint = Hint.valueOf(key);
+    switch (hint) {
+      case GZIP:
+        gzip = Boolean.parseBoolean(value);
+        break;
+      default:
+        throw new IllegalArgumentException("unknown hint " + key);
+    }
+  }
+
   @Override
   public void close() throws IOException {
     if (open) {
-      final int n = incidence.asRelation().countUnionDomain();
-      final JSONArray nodes = new JSONArray();
-      for (int i = 0; i < n; i++) {
-        nodes.put(writeNode(i));
-      }
-      final JSONArray links = new JSONArray();
-      final Iterable<Edge> itr = (incidence.isDirected() ? incidence.asDirectedGraph().getEdges()
-          : incidence.asUndirectedGraph().getEdges());
-      // int index = 0;
-      for (final Edge e : itr) {
-        // edges might not be ordered in their index order, that a problem?
-        // if (e.getIndex() != index++) {
-        // throw new IllegalStateException("storage order");
-        // }
-        links.put(writeEdge(e));
+      open = false;
+      final OutputStream target = gzip ? new GZIPOutputStream(out) : out;
+      try (JsonGenerator gen = FACTORY.createGenerator(target, JsonEncoding.UTF8)) {
+        gen.writeStartObject();
+        gen.writeStringField(JsonSource.TYPE, (incidence.isDirected() ? DyadType.DIRECTED
+            : (incidence.isTwoMode() ? DyadType.TWO_MODE : DyadType.UNDIRECTED)).name());
+
+        final ConstMapping<?>[] nodeValues = monadic.values().toArray(new ConstMapping<?>[0]);
+        final String[] nodeNames = monadic.keySet().toArray(new String[0]);
+        // attributes with the same name replace the implicit fields
+        final boolean writeId = !monadic.containsKey("id");
+        final int n = incidence.asRelation().countUnionDomain();
+        gen.writeArrayFieldStart("nodes");
+        for (int i = 0; i < n; i++) {
+          gen.writeStartObject();
+          if (writeId) {
+            gen.writeNumberField("id", i);
+          }
+          writeValues(gen, nodeNames, nodeValues, i);
+          gen.writeEndObject();
+        }
+        gen.writeEndArray();
+
+        final ConstMapping<?>[] linkValues = dyadic.values().toArray(new ConstMapping<?>[0]);
+        final String[] linkNames = dyadic.keySet().toArray(new String[0]);
+        final boolean writeSource = !dyadic.containsKey("source");
+        final boolean writeTarget = !dyadic.containsKey("target");
+        final Iterable<Edge> itr = (incidence.isDirected() ? incidence.asDirectedGraph().getEdges()
+            : incidence.asUndirectedGraph().getEdges());
+        gen.writeArrayFieldStart("links");
+        for (final Edge e : itr) {
+          gen.writeStartObject();
+          if (writeSource) {
+            gen.writeNumberField("source", e.getSource());
+          }
+          if (writeTarget) {
+            gen.writeNumberField("target", e.getTarget());
+          }
+          writeValues(gen, linkNames, linkValues, e.getIndex());
+          gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
       }
-      final JSONObject graph = new JSONObject();
-      graph.put(JsonSource.TYPE, (incidence.isDirected() ? DyadType.DIRECTED
-          : (incidence.isTwoMode() ? DyadType.TWO_MODE : DyadType.UNDIRECTED)).name());
-      graph.put("nodes", nodes);
-      graph.put("links", links);
-      out.write(graph.toString());
-      out.flush();
-      out.close();
+      // the generator closes the gzip stream, which closes the underlying stream
     }
-    open = false;
   }
 
-  private JSONObject writeNode(final int index) throws IOException {
-    final JSONObject node = new JSONObject();
-    node.put("id", index);
-    for (final Map.Entry<String, ConstMapping<?>> e : monadic.entrySet()) {
-      node.put(e.getKey(), e.getValue().get(index));
+  private static void writeValues(final JsonGenerator gen, final String[] names,
+      final ConstMapping<?>[] values, final int index) throws IOException {
+    for (int k = 0; k < names.length; k++) {
+      final ConstMapping<?> mapping = values[k];
+      if (mapping instanceof ConstMapping.OfInt) {
+        gen.writeNumberField(names[k], ((ConstMapping.OfInt) mapping).getInt(index));
+      } else if (mapping instanceof ConstMapping.OfLong) {
+        gen.writeNumberField(names[k], ((ConstMapping.OfLong) mapping).getLong(index));
+      } else if (mapping instanceof ConstMapping.OfDouble) {
+        gen.writeNumberField(names[k], ((ConstMapping.OfDouble) mapping).getDouble(index));
+      } else if (mapping instanceof ConstMapping.OfByte) {
+        gen.writeNumberField(names[k], ((ConstMapping.OfByte) mapping).getByte(index));
+      } else if (mapping instanceof ConstMapping.OfShort) {
+        gen.writeNumberField(names[k], ((ConstMapping.OfShort) mapping).getShort(index));
+      } else if (mapping instanceof ConstMapping.OfFloat) {
+        gen.writeNumberField(names[k], ((ConstMapping.OfFloat) mapping).getFloat(index));
+      } else {
+        final Object value = mapping.get(index);
+        if (value != null) {
+          gen.writeFieldName(names[k]);
+          writeObject(gen, value);
+        }
+      }
     }
-    return node;
   }
 
-  private JSONObject writeEdge(final Edge eg) throws IOException {
-    final JSONObject edge = new JSONObject();
-    edge.put("target", eg.getTarget());
-    edge.put("source", eg.getSource());
-    for (final Map.Entry<String, ConstMapping<?>> e : dyadic.entrySet()) {
-      edge.put(e.getKey(), e.getValue().get(eg));
+  private static void writeObject(final JsonGenerator gen, final Object value)
+      throws IOException {
+    if (value == null) {
+      gen.writeNull();
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+        || value instanceof Byte) {
+      gen.writeNumber(((Number) value).longValue());
+    } else if (value instanceof Double) {
+      gen.writeNumber((Double) value);
+    } else if (value instanceof Float) {
+      // keep the shortest float representation instead of the widened double
+      gen.writeNumber((Float) value);
+    } else if (value instanceof BigInteger) {
+      gen.writeNumber((BigInteger) value);
+    } else if (value instanceof BigDecimal) {
+      gen.writeNumber((BigDecimal) value);
+    } else if (value instanceof Boolean) {
+      gen.writeBoolean((Boolean) value);
+    } else if (value instanceof Enum<?>) {
+      gen.writeString(((Enum<?>) value).name());
+    } else if (value instanceof Collection<?>) {
+      gen.writeStartArray();
+      for (final Object element : (Collection<?>) value) {
+        writeObject(gen, element);
+      }
+      gen.writeEndArray();
+    } else if (value instanceof Map<?, ?>) {
+      gen.writeStartObject();
+      for (final Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+        gen.writeFieldName(String.valueOf(e.getKey()));
+        writeObject(gen, e.getValue());
+      }
+      gen.writeEndObject();
+    } else if (value.getClass().isArray()) {
+      gen.writeStartArray();
+      final int length = Array.getLength(value);
+      for (int i = 0; i < length; i++) {
+        writeObject(gen, Array.get(value, i));
+      }
+      gen.writeEndArray();
+    } else {
+      gen.writeString(value.toString());
     }
-    return edge;
   }
 }
@@ -18,6 +18,8 @@
 package ch.ethz.sn.visone3.io.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import ch.ethz.sn.visone3.io.SourceFormat;
 import ch.ethz.sn.visone3.io.graphml.GraphmlSink;
@@ -113,6 +115,35 @@ public class GraphmlSinkTest {
     assertEquals(expected, string1);
   }
 
+  @Test
+  public void testWritePrimitiveAndEscapedValues() throws Exception {
+    final WeightedNetwork<Double, Mapping.OfDouble> network = OfDouble.fromAdjacency(adj,
+        DyadType.DIRECTED);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (GraphmlSink graphmlSink = new GraphmlSink(out)) {
+      graphmlSink.incidence(network.getNetwork());
+      graphmlSink.node("int", 0,
+          Mappings.newIntListFrom(Integer.MIN_VALUE, 0, Integer.MAX_VALUE));
+      graphmlSink.node("long", Mappings.newLongListFrom(Long.MIN_VALUE, -7L, Long.MAX_VALUE));
+      graphmlSink.node("double", -0.5, Mappings.newDoubleListFrom(-0.5, 1e-10, Double.NaN));
+      graphmlSink.link("label",
+          Mappings.newListFrom(String.class, "a&b", "<c>", null, "\"d\""));
+    }
+    final String string = out.toString("UTF-8");
+    assertTrue(string.contains("<data key=\"k1\">-2147483648</data>"));
+    assertTrue(string.contains("<data key=\"k1\">2147483647</data>"));
+    assertFalse(string.contains("<data key=\"k1\">0</data>"));
+    assertTrue(string.contains("<data key=\"k3\">-9223372036854775808</data>"));
+    assertTrue(string.contains("<data key=\"k3\">-7</data>"));
+    assertTrue(string.contains("<data key=\"k3\">9223372036854775807</data>"));
+    assertFalse(string.contains("<data key=\"k2\">-0.5</data>"));
+    assertTrue(string.contains("<data key=\"k2\">1.0E-10</data>"));
+    assertTrue(string.contains("<data key=\"k2\">NaN</data>"));
+    assertTrue(string.contains("<data key=\"k0\">a&amp;b</data>"));
+    assertTrue(string.contains("<data key=\"k0\">&lt;c&gt;</data>"));
+    assertTrue(string.contains("<edge id=\"e2\" source=\"n1\" target=\"n2\"/>"));
+  }
+
   @Test
   @Disabled // default value not matching -> is because default values aren't read as such
   public void testReadAndWriteOneMode() throws Exception {
@@ -29,10 +29,14 @@ import ch.ethz.sn.visone3.io.IoService;
 import ch.ethz.sn.visone3.io.Sink;
 import ch.ethz.sn.visone3.io.Source;
 import ch.ethz.sn.visone3.io.SourceFormat;
+import ch.ethz.sn.visone3.io.json.JsonSink;
 import ch.ethz.sn.visone3.lang.Mapping;
 import ch.ethz.sn.visone3.lang.Mappings;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.networks.DyadType;
 import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.NetworkProvider;
 import ch.ethz.sn.visone3.networks.impl.AsciiDumper;
 
 import org.junit.jupiter.api.Test;
@@ -40,8 +44,10 @@ import org.junit.jupiter.api.Test;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 public class JsonTest {
   @Test
@@ -186,4 +192,58 @@ public class JsonTest {
       }
     }
   }
+
+  @Test
+  public void testWriteCompressed() throws IOException {
+    final String FILE = "{\"vertices\": [" +
+      "{\"g\":1,\"s\":\"a\"}," +
+      "{\"g\":2}," +
+      "{\"g\":3,\"s\":\"c\\\"d\"}], \"edges\":[" +
+      "{\"source\":0,\"target\":1,\"value\":10000000000}," +
+      "{\"source\":1,\"target\":2,\"value\":2}," +
+      "{\"source\":2,\"target\":0,\"value\":-1}]," +
+      "\"type\":\"directed\"}";
+
+    final IoService jsonService = IoProvider.getService("json");
+
+    try (Source<?> conf = jsonService.newSource(new ByteArrayInputStream(FILE.getBytes()))) {
+      final SourceFormat source = conf.parse();
+      final Network network = source.incidence();
+
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (final Sink sink = jsonService.newSink(out)) {
+        sink.hint(JsonSink.Hint.GZIP.name(), "true");
+        sink.incidence(network);
+        source.monadic().forEach(sink::node);
+        source.dyadic().forEach(sink::link);
+      }
+
+      try (final Source<?> conf2 = jsonService.newSource(
+          new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())))) {
+        SourceFormat source2 = conf2.parse();
+        assertEquals(network, source2.incidence());
+        assertEquals(source.dyadic().get("value"), source2.dyadic().get("value"));
+        assertEquals(source.monadic().get("g"), source2.monadic().get("g"));
+        assertEquals(source.monadic().get("s"), source2.monadic().get("s"));
+      }
+    }
+  }
+
+  @Test
+  public void testWriteFloatsAndCollections() throws IOException {
+    final NetworkBuilder builder = NetworkProvider.getInstance().builder(DyadType.DIRECTED);
+    builder.ensureNode(1);
+    builder.addEdge(0, 1);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final Sink sink = IoProvider.getService("json").newSink(out)) {
+      sink.incidence(builder.build());
+      sink.node("f", Mappings.newListFrom(Float.class, 0.1f, null));
+      sink.node("a", Mappings.newListFrom(Object.class, new int[] { 1, 2 },
+          Arrays.asList("x", 3.5f)));
+    }
+    final String json = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    assertTrue(json.contains("\"f\":0.1,"), json);
+    assertTrue(json.contains("\"a\":[1,2]"), json);
+    assertTrue(json.contains("\"a\":[\"x\",3.5]"), json);
+  }
 }
@@ -281,4 +281,190 @@ public interface ConstMapping<W> extends Iterable<W>, Serializable {
     // return doubleStream().boxed();
     // }
   }
+
+  /**
+   * Immutable mapping interface specifically for bytes.
+   */
+  interface OfByte extends ConstMapping<Byte> {
+    @Override
+    default Class<Byte> getComponentType() {
+      return byte.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getByte(Indexed)} in order to skip unnecessary boxing/unboxing when
+     *             type is known
+     */
+    @Override
+    @Deprecated
+    default Byte get(final Indexed index) {
+      return get(index.getIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getByte(int)} in order to skip unnecessary boxing/unboxing when type
+     *             is known
+     */
+    @Override
+    @Deprecated
+    Byte get(int index);
+
+    /**
+     * Returns the element at this index.
+     * 
+     * @param index
+     *          the integer index
+     * @return the element
+     */
+    byte getByte(final int index);
+
+    /**
+     * Returns the element indexed by the argument.
+     * 
+     * @param index
+     *          the index
+     * @return the element at this index
+     */
+    default byte getByte(final Indexed index) {
+      return getByte(index.getIndex());
+    }
+
+    /**
+     * Constructs an {@link IntStream} on the elements in this mapping, widened to integers.
+     * 
+     * @return the stream
+     */
+    IntStream intStream();
+
+    @Override
+    byte[] toUnboxedArray();
+  }
+
+  /**
+   * Immutable mapping interface specifically for short integers.
+   */
+  interface OfShort extends ConstMapping<Short> {
+    @Override
+    default Class<Short> getComponentType() {
+      return short.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getShort(Indexed)} in order to skip unnecessary boxing/unboxing when
+     *             type is known
+     */
+    @Override
+    @Deprecated
+    default Short get(final Indexed index) {
+      return get(index.getIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getShort(int)} in order to skip unnecessary boxing/unboxing when type
+     *             is known
+     */
+    @Override
+    @Deprecated
+    Short get(int index);
+
+    /**
+     * Returns the element at this index.
+     * 
+     * @param index
+     *          the integer index
+     * @return the element
+     */
+    short getShort(final int index);
+
+    /**
+     * Returns the element indexed by the argument.
+     * 
+     * @param index
+     *          the index
+     * @return the element at this index
+     */
+    default short getShort(final Indexed index) {
+      return getShort(index.getIndex());
+    }
+
+    /**
+     * Constructs an {@link IntStream} on the elements in this mapping, widened to integers.
+     * 
+     * @return the stream
+     */
+    IntStream intStream();
+
+    @Override
+    short[] toUnboxedArray();
+  }
+
+  /**
+   * Immutable mapping interface specifically for floats.
+   */
+  interface OfFloat extends ConstMapping<Float> {
+    @Override
+    default Class<Float> getComponentType() {
+      return float.class;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getFloat(Indexed)} in order to skip unnecessary boxing/unboxing when
+     *             type is known
+     */
+    @Override
+    @Deprecated
+    default Float get(final Indexed index) {
+      return get(index.getIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getFloat(int)} in order to skip unnecessary boxing/unboxing when type
+     *             is known
+     */
+    @Override
+    @Deprecated
+    Float get(int index);
+
+    /**
+     * Returns the element at this index.
+     * 
+     * @param index
+     *          the integer index
+     * @return the element
+     */
+    float getFloat(final int index);
+
+    /**
+     * Returns the element indexed by the argument.
+     * 
+     * @param index
+     *          the index
+     * @return the element at this index
+     */
+    default float getFloat(final Indexed index) {
+      return getFloat(index.getIndex());
+    }
+
+    /**
+     * Constructs a {@link DoubleStream} on the elements in this mapping, widened to doubles.
+     * 
+     * @return the stream
+     */
+    DoubleStream doubleStream();
+
+    @Override
+    float[] toUnboxedArray();
+  }
 }
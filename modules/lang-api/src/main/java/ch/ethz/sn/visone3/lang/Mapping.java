@@ -209,4 +209,157 @@ public interface Mapping<W> extends ConstMapping<W> {
      */
     double[] array();
   }
+
+  /**
+   * Mutable mapping interface specifically for bytes.
+   */
+  interface OfByte extends Mapping<Byte>, ConstMapping.OfByte {
+    /**
+     * Sets the value at index {@code index}.
+     * 
+     * @param index
+     *          the index
+     * @param value
+     *          the value
+     * @return the previous value set at index
+     */
+    byte setByte(final int index, final byte value);
+
+    /**
+     * Sets the value at indexed argument {@code index}.
+     * 
+     * @param index
+     *          the indexed argument
+     * @param value
+     *          the value
+     * @return the previous value set at the indexed argument
+     */
+    default byte setByte(final Indexed index, final byte value) {
+      return setByte(index.getIndex(), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #setByte(Indexed, byte)} in order to skip unnecessary boxing/unboxing
+     *             when type is known
+     */
+    @Override
+    @Deprecated
+    default Byte set(Indexed index, Byte value) {
+      return set(index.getIndex(), value);
+    }
+
+    @Override
+    IntStream intStream();
+
+    /**
+     * Returns an array of the elements wrapped by this mapping.
+     * 
+     * @return the array
+     */
+    byte[] array();
+  }
+
+  /**
+   * Mutable mapping interface specifically for short integers.
+   */
+  interface OfShort extends Mapping<Short>, ConstMapping.OfShort {
+    /**
+     * Sets the value at index {@code index}.
+     * 
+     * @param index
+     *          the index
+     * @param value
+     *          the value
+     * @return the previous value set at index
+     */
+    short setShort(final int index, final short value);
+
+    /**
+     * Sets the value at indexed argument {@code index}.
+     * 
+     * @param index
+     *          the indexed argument
+     * @param value
+     *          the value
+     * @return the previous value set at the indexed argument
+     */
+    default short setShort(final Indexed index, final short value) {
+      return setShort(index.getIndex(), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #setShort(Indexed, short)} in order to skip unnecessary
+     *             boxing/unboxing when type is known
+     */
+    @Override
+    @Deprecated
+    default Short set(Indexed index, Short value) {
+      return set(index.getIndex(), value);
+    }
+
+    @Override
+    IntStream intStream();
+
+    /**
+     * Returns an array of the elements wrapped by this mapping.
+     * 
+     * @return the array
+     */
+    short[] array();
+  }
+
+  /**
+   * Mutable mapping interface specifically for floats.
+   */
+  interface OfFloat extends Mapping<Float>, ConstMapping.OfFloat {
+    /**
+     * Sets the value at index {@code index}.
+     * 
+     * @param index
+     *          the index
+     * @param value
+     *          the value
+     * @return the previous value set at index
+     */
+    float setFloat(final int index, final float value);
+
+    /**
+     * Sets the value at indexed argument {@code index}.
+     * 
+     * @param index
+     *          the indexed argument
+     * @param value
+     *          the value
+     * @return the previous value set at the indexed argument
+     */
+    default float setFloat(final Indexed index, final float value) {
+      return setFloat(index.getIndex(), value);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #setFloat(Indexed, float)} in order to skip unnecessary
+     *             boxing/unboxing when type is known
+     */
+    @Override
+    @Deprecated
+    default Float set(Indexed index, Float value) {
+      return set(index.getIndex(), value);
+    }
+
+    @Override
+    DoubleStream doubleStream();
+
+    /**
+     * Returns an array of the elements wrapped by this mapping.
+     * 
+     * @return the array
+     */
+    float[] array();
+  }
 }
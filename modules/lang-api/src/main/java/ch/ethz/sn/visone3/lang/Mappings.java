@@ -20,6 +20,8 @@ package ch.ethz.sn.visone3.lang;
 import ch.ethz.sn.visone3.lang.spi.LangProvider;
 import ch.ethz.sn.visone3.lang.spi.MappingsFacade;
 
+import java.util.Comparator;
+
 /**
  * Provides static methods to create and cast some common representations for mappings and primitive
  * lists.
@@ -211,6 +213,183 @@ public final class Mappings {
     return facade().newDoubleListOfSize(size);
   }
 
+  /**
+   * Create a new list of (unboxed) bytes.
+   *
+   * @return A primitive array list instance for bytes
+   */
+  public static PrimitiveList.OfByte newByteList() {
+    return facade().newByteList();
+  }
+
+  /**
+   * Create a new list of (unboxed) bytes with specified initial capacity.
+   *
+   * @param capacity
+   *          Initial capacity of the list
+   * @return A primitive array list instance for bytes
+   */
+  public static PrimitiveList.OfByte newByteList(int capacity) {
+    return facade().newByteList(capacity);
+  }
+
+  /**
+   * Create a new list of (unboxed) bytes, filled with the specified number of a given initial
+   * value.
+   *
+   * @param value
+   *          Initial value
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for bytes
+   */
+  public static PrimitiveList.OfByte newByteList(byte value, int size) {
+    return facade().newByteList(value, size);
+  }
+
+  /**
+   * Create a new list of (unboxed) bytes from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param values
+   *          Initial values
+   * @return A primitive array list instance for bytes
+   */
+  public static PrimitiveList.OfByte newByteList(byte[] values) {
+    return facade().newByteList(values);
+  }
+
+  /**
+   * Create a new list of (unboxed) bytes, filled with the specified number of zeros.
+   *
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for bytes
+   */
+  public static PrimitiveList.OfByte newByteListOfSize(int size) {
+    return facade().newByteListOfSize(size);
+  }
+
+  /**
+   * Create a new list of (unboxed) short integers.
+   *
+   * @return A primitive array list instance for short integers
+   */
+  public static PrimitiveList.OfShort newShortList() {
+    return facade().newShortList();
+  }
+
+  /**
+   * Create a new list of (unboxed) short integers with specified initial capacity.
+   *
+   * @param capacity
+   *          Initial capacity of the list
+   * @return A primitive array list instance for short integers
+   */
+  public static PrimitiveList.OfShort newShortList(int capacity) {
+    return facade().newShortList(capacity);
+  }
+
+  /**
+   * Create a new list of (unboxed) short integers, filled with the specified number of a given
+   * initial value.
+   *
+   * @param value
+   *          Initial value
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for short integers
+   */
+  public static PrimitiveList.OfShort newShortList(short value, int size) {
+    return facade().newShortList(value, size);
+  }
+
+  /**
+   * Create a new list of (unboxed) short integers from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param values
+   *          Initial values
+   * @return A primitive array list instance for short integers
+   */
+  public static PrimitiveList.OfShort newShortList(short[] values) {
+    return facade().newShortList(values);
+  }
+
+  /**
+   * Create a new list of (unboxed) short integers, filled with the specified number of zeros.
+   *
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for short integers
+   */
+  public static PrimitiveList.OfShort newShortListOfSize(int size) {
+    return facade().newShortListOfSize(size);
+  }
+
+  /**
+   * Create a new list of (unboxed) floats.
+   *
+   * @return A primitive array list instance for floats
+   */
+  public static PrimitiveList.OfFloat newFloatList() {
+    return facade().newFloatList();
+  }
+
+  /**
+   * Create a new list of (unboxed) floats with specified initial capacity.
+   *
+   * @param capacity
+   *          Initial capacity of the list
+   * @return A primitive array list instance for floats
+   */
+  public static PrimitiveList.OfFloat newFloatList(int capacity) {
+    return facade().newFloatList(capacity);
+  }
+
+  /**
+   * Create a new list of (unboxed) floats, filled with the specified number of a given initial
+   * value.
+   *
+   * @param value
+   *          Initial value
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for floats
+   */
+  public static PrimitiveList.OfFloat newFloatList(float value, int size) {
+    return facade().newFloatList(value, size);
+  }
+
+  /**
+   * Create a new list of (unboxed) floats from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param values
+   *          Initial values
+   * @return A primitive array list instance for floats
+   */
+  public static PrimitiveList.OfFloat newFloatList(float[] values) {
+    return facade().newFloatList(values);
+  }
+
+  /**
+   * Create a new list of (unboxed) floats, filled with the specified number of zeros.
+   *
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for floats
+   */
+  public static PrimitiveList.OfFloat newFloatListOfSize(int size) {
+    return facade().newFloatListOfSize(size);
+  }
+
   /**
    * Create an empty primitive list for the given component type.
    *
@@ -222,8 +401,8 @@ public final class Mappings {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   public static <T> PrimitiveList<T> newList(Class<T> componentType) {
     return facade().newList(componentType);
@@ -242,8 +421,8 @@ public final class Mappings {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   public static <T> PrimitiveList<T> newList(Class<T> componentType, int capacity) {
     return facade().newList(componentType, capacity);
@@ -264,8 +443,8 @@ public final class Mappings {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   public static <T> PrimitiveList<T> newList(Class<T> componentType, T value, int size) {
     return facade().newList(componentType, value, size);
@@ -308,8 +487,8 @@ public final class Mappings {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   public static <T> PrimitiveList<T> newListFromArray(Class<T> componentType, Object array) {
     return facade().newListFromArray(componentType, array);
@@ -329,8 +508,8 @@ public final class Mappings {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   public static <T> PrimitiveList<T> newListOfSize(Class<T> componentType, int size) {
     return facade().newListOfSize(componentType, size);
@@ -452,6 +631,48 @@ public final class Mappings {
     return newLongList(array);
   }
 
+  /**
+   * Create a new list of (unboxed) bytes from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param array
+   *          Initial values
+   * @return A primitive array list instance for bytes
+   */
+  public static PrimitiveList.OfByte newByteListFrom(final byte... array) {
+    return newByteList(array);
+  }
+
+  /**
+   * Create a new list of (unboxed) short integers from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param array
+   *          Initial values
+   * @return A primitive array list instance for short integers
+   */
+  public static PrimitiveList.OfShort newShortListFrom(final short... array) {
+    return newShortList(array);
+  }
+
+  /**
+   * Create a new list of (unboxed) floats from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param array
+   *          Initial values
+   * @return A primitive array list instance for floats
+   */
+  public static PrimitiveList.OfFloat newFloatListFrom(final float... array) {
+    return newFloatList(array);
+  }
+
   /**
    * Create a new primitive list for the given component type from the given
    * values.
@@ -537,6 +758,80 @@ public final class Mappings {
     return facade().repeated(value, count);
   }
 
+  /**
+   * Create a constant integer mapping with a copy of the given values stored outside the Java
+   * heap. The storage must be released by {@link OffHeapMapping#close()}.
+   * 
+   * @param values
+   *          The values
+   * @return An off-heap integer mapping holding a copy of {@code values}
+   */
+  public static OffHeapMapping.OfInt toOffHeapInt(ConstMapping.OfInt values) {
+    return facade().toOffHeapInt(values);
+  }
+
+  /**
+   * Create a constant long integer mapping with a copy of the given values stored outside the Java
+   * heap. The storage must be released by {@link OffHeapMapping#close()}.
+   * 
+   * @param values
+   *          The values
+   * @return An off-heap long integer mapping holding a copy of {@code values}
+   */
+  public static OffHeapMapping.OfLong toOffHeapLong(ConstMapping.OfLong values) {
+    return facade().toOffHeapLong(values);
+  }
+
+  /**
+   * Create a constant double mapping with a copy of the given values stored outside the Java heap.
+   * The storage must be released by {@link OffHeapMapping#close()}.
+   * 
+   * @param values
+   *          The values
+   * @return An off-heap double mapping holding a copy of {@code values}
+   */
+  public static OffHeapMapping.OfDouble toOffHeapDouble(ConstMapping.OfDouble values) {
+    return facade().toOffHeapDouble(values);
+  }
+
+  /**
+   * Returns a comparator ordering indexed objects, e.g., edges or relationships, by their values in
+   * the given mapping. For primitive mappings, the values are compared without boxing.
+   * 
+   * @param mapping
+   *          the mapping, e.g., edge weights
+   * @return the comparator
+   * @throws IllegalArgumentException
+   *           if the mapping's values are not comparable
+   */
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  public static Comparator<Indexed> comparingByValue(final ConstMapping<?> mapping) {
+    if (mapping instanceof ConstMapping.OfInt) {
+      final ConstMapping.OfInt values = (ConstMapping.OfInt) mapping;
+      return (lhs, rhs) -> Integer.compare(values.getInt(lhs), values.getInt(rhs));
+    } else if (mapping instanceof ConstMapping.OfLong) {
+      final ConstMapping.OfLong values = (ConstMapping.OfLong) mapping;
+      return (lhs, rhs) -> Long.compare(values.getLong(lhs), values.getLong(rhs));
+    } else if (mapping instanceof ConstMapping.OfDouble) {
+      final ConstMapping.OfDouble values = (ConstMapping.OfDouble) mapping;
+      return (lhs, rhs) -> Double.compare(values.getDouble(lhs), values.getDouble(rhs));
+    } else if (mapping instanceof ConstMapping.OfByte) {
+      final ConstMapping.OfByte values = (ConstMapping.OfByte) mapping;
+      return (lhs, rhs) -> Byte.compare(values.getByte(lhs), values.getByte(rhs));
+    } else if (mapping instanceof ConstMapping.OfShort) {
+      final ConstMapping.OfShort values = (ConstMapping.OfShort) mapping;
+      return (lhs, rhs) -> Short.compare(values.getShort(lhs), values.getShort(rhs));
+    } else if (mapping instanceof ConstMapping.OfFloat) {
+      final ConstMapping.OfFloat values = (ConstMapping.OfFloat) mapping;
+      return (lhs, rhs) -> Float.compare(values.getFloat(lhs), values.getFloat(rhs));
+    } else if (Comparable.class.isAssignableFrom(ClassUtils.wrap(mapping.getComponentType()))) {
+      final ConstMapping<? extends Comparable> values = //
+          (ConstMapping<? extends Comparable>) mapping;
+      return (lhs, rhs) -> values.get(lhs).compareTo(values.get(rhs));
+    }
+    throw new IllegalArgumentException("mapping values are not comparable");
+  }
+
   /**
    * Casts a mapping based on its element type in a type-safe way, throwing if the cast is
    * impermissible. This cast is suitable for accessing elements of the mapping.
@@ -0,0 +1,61 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.lang;
+
+/**
+ * Constant mapping whose values are stored outside the Java heap, so that the garbage collector
+ * only sees a small wrapper object irrespective of the mapping's size.
+ * 
+ * <p>
+ * The storage is released explicitly by {@link #close()}. Afterwards, any access to the values
+ * throws an {@link IllegalStateException}. Closing a mapping while it is accessed concurrently by
+ * another thread is not permitted.
+ */
+public interface OffHeapMapping extends AutoCloseable {
+
+  /**
+   * Releases the off-heap storage of this mapping. Subsequent calls have no effect.
+   */
+  @Override
+  void close();
+
+  /**
+   * Returns whether the off-heap storage of this mapping has been released.
+   * 
+   * @return true if the mapping has been closed, false otherwise.
+   */
+  boolean isClosed();
+
+  /**
+   * Constant integer mapping stored outside the Java heap.
+   */
+  interface OfInt extends ConstMapping.OfInt, OffHeapMapping {
+  }
+
+  /**
+   * Constant long integer mapping stored outside the Java heap.
+   */
+  interface OfLong extends ConstMapping.OfLong, OffHeapMapping {
+  }
+
+  /**
+   * Constant double mapping stored outside the Java heap.
+   */
+  interface OfDouble extends ConstMapping.OfDouble, OffHeapMapping {
+  }
+}
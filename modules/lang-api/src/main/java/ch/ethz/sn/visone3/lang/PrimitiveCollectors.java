@@ -141,7 +141,10 @@ public final class PrimitiveCollectors {
    * {@code long}, or {@code double}, returns a {@link PrimitiveCollector.OfInt},
    * {@link PrimitiveCollector.OfLong} or {@link PrimitiveCollector.OfDouble} that
    * collect into a {@link PrimitiveList.OfInt}, {@link PrimitiveList.OfLong} or
-   * {@link PrimitiveList.OfDouble}, respectively. If the component type is any
+   * {@link PrimitiveList.OfDouble}, respectively. For {@code byte}, {@code short}
+   * and {@code float}, returns a {@link PrimitiveCollector} that collects into a
+   * {@link PrimitiveList.OfByte}, {@link PrimitiveList.OfShort} or
+   * {@link PrimitiveList.OfFloat}. If the component type is any
    * other primitive type, throws an exception. For any other type, returns a
    * {@link PrimitiveCollector} that collects into a {@link PrimitiveList} for
    * that component type.
@@ -173,7 +176,10 @@ public final class PrimitiveCollectors {
    * {@code long}, or {@code double}, returns a {@link PrimitiveCollector.OfInt},
    * {@link PrimitiveCollector.OfLong} or {@link PrimitiveCollector.OfDouble} that
    * collect into a {@link PrimitiveList.OfInt}, {@link PrimitiveList.OfLong} or
-   * {@link PrimitiveList.OfDouble}, respectively. If the component type is any
+   * {@link PrimitiveList.OfDouble}, respectively. For {@code byte}, {@code short}
+   * and {@code float}, returns a {@link PrimitiveCollector} that collects into a
+   * {@link PrimitiveList.OfByte}, {@link PrimitiveList.OfShort} or
+   * {@link PrimitiveList.OfFloat}. If the component type is any
    * other primitive type, it produces a collector for the wrapper type. For any
    * other type, returns a {@link PrimitiveCollector} that collects into a
    * {@link PrimitiveList} for that component type.
@@ -287,4 +287,178 @@ public interface PrimitiveList<T> extends Mapping<T>, List<T> {
     @Override
     double getDouble(int index);
   }
+
+  /**
+   * List specifically for bytes.
+   */
+  interface OfByte extends PrimitiveList<Byte>, Mapping.OfByte {
+
+    /**
+     * {@inheritDoc} Provides direct access to data.
+     *
+     * @return a direct reference to the underlying array.
+     */
+    @Override
+    byte[] array();
+
+    /**
+     * Returns the internal array wrapped by this list, providing direct access to data.
+     * 
+     * <p>
+     * Note that this array can be larger than the number of elements if the list's capacity is
+     * greater than its size. If this is undesired, use {@link #array()} instead, which resizes the
+     * array if size and capacity differ.
+     * 
+     * @return a direct reference to the underlying array.
+     */
+    byte[] arrayQuick();
+
+    @Override
+    default Stream<Byte> stream() {
+      return intStream().mapToObj(x -> (byte) x);
+    }
+
+    @Override
+    IntStream intStream();
+
+    /**
+     * Appends the specified byte value to the end of the list.
+     * 
+     * @param value the byte value.
+     * @see #add(Object) for the boxed version.
+     */
+    void addByte(byte value);
+
+    @Override
+    byte setByte(int index, byte value);
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getByte(int)} in order to skip unnecessary boxing/unboxing when type
+     *             is known.
+     */
+    @Override
+    @Deprecated
+    Byte get(final int index);
+
+    @Override
+    byte getByte(int index);
+  }
+
+  /**
+   * List specifically for short integers.
+   */
+  interface OfShort extends PrimitiveList<Short>, Mapping.OfShort {
+
+    /**
+     * {@inheritDoc} Provides direct access to data.
+     *
+     * @return a direct reference to the underlying array.
+     */
+    @Override
+    short[] array();
+
+    /**
+     * Returns the internal array wrapped by this list, providing direct access to data.
+     * 
+     * <p>
+     * Note that this array can be larger than the number of elements if the list's capacity is
+     * greater than its size. If this is undesired, use {@link #array()} instead, which resizes the
+     * array if size and capacity differ.
+     * 
+     * @return a direct reference to the underlying array.
+     */
+    short[] arrayQuick();
+
+    @Override
+    default Stream<Short> stream() {
+      return intStream().mapToObj(x -> (short) x);
+    }
+
+    @Override
+    IntStream intStream();
+
+    /**
+     * Appends the specified short value to the end of the list.
+     * 
+     * @param value the short value.
+     * @see #add(Object) for the boxed version.
+     */
+    void addShort(short value);
+
+    @Override
+    short setShort(int index, short value);
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getShort(int)} in order to skip unnecessary boxing/unboxing when type
+     *             is known.
+     */
+    @Override
+    @Deprecated
+    Short get(final int index);
+
+    @Override
+    short getShort(int index);
+  }
+
+  /**
+   * List specifically for floats.
+   */
+  interface OfFloat extends PrimitiveList<Float>, Mapping.OfFloat {
+
+    /**
+     * {@inheritDoc} Provides direct access to data.
+     *
+     * @return a direct reference to the underlying array.
+     */
+    @Override
+    float[] array();
+
+    /**
+     * Returns the internal array wrapped by this list, providing direct access to data.
+     * 
+     * <p>
+     * Note that this array can be larger than the number of elements if the list's capacity is
+     * greater than its size. If this is undesired, use {@link #array()} instead, which resizes the
+     * array if size and capacity differ.
+     * 
+     * @return a direct reference to the underlying array.
+     */
+    float[] arrayQuick();
+
+    @Override
+    default Stream<Float> stream() {
+      return doubleStream().mapToObj(x -> (float) x);
+    }
+
+    @Override
+    DoubleStream doubleStream();
+
+    /**
+     * Appends the specified float value to the end of the list.
+     * 
+     * @param value the float value.
+     * @see #add(Object) for the boxed version.
+     */
+    void addFloat(float value);
+
+    @Override
+    float setFloat(int index, float value);
+
+    /**
+     * {@inheritDoc}
+     * 
+     * @deprecated use {@link #getFloat(int)} in order to skip unnecessary boxing/unboxing when type
+     *             is known.
+     */
+    @Override
+    @Deprecated
+    Float get(final int index);
+
+    @Override
+    float getFloat(int index);
+  }
 }
@@ -18,6 +18,7 @@ package ch.ethz.sn.visone3.lang.spi;
 
 import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.OffHeapMapping;
 import ch.ethz.sn.visone3.lang.PrimitiveCollector;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
 
@@ -173,6 +174,153 @@ public interface MappingsFacade {
    */
   PrimitiveList.OfDouble newDoubleListOfSize(int size);
 
+  /**
+   * Create a new list of (unboxed) bytes.
+   *
+   * @return A primitive array list instance for bytes
+   */
+  PrimitiveList.OfByte newByteList();
+
+  /**
+   * Create a new list of (unboxed) bytes with specified initial capacity.
+   *
+   * @param capacity
+   *          Initial capacity of the list
+   * @return A primitive array list instance for bytes
+   */
+  PrimitiveList.OfByte newByteList(int capacity);
+
+  /**
+   * Create a new list of (unboxed) bytes, filled with the specified number of a given initial
+   * value.
+   *
+   * @param value
+   *          Initial value
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for bytes
+   */
+  PrimitiveList.OfByte newByteList(byte value, int size);
+
+  /**
+   * Create a new list of (unboxed) bytes from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param values
+   *          Initial values
+   * @return A primitive array list instance for bytes
+   */
+  PrimitiveList.OfByte newByteList(byte[] values);
+
+  /**
+   * Create a new list of (unboxed) bytes, filled with the specified number of zeros.
+   *
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for bytes
+   */
+  PrimitiveList.OfByte newByteListOfSize(int size);
+
+  /**
+   * Create a new list of (unboxed) short integers.
+   *
+   * @return A primitive array list instance for short integers
+   */
+  PrimitiveList.OfShort newShortList();
+
+  /**
+   * Create a new list of (unboxed) short integers with specified initial capacity.
+   *
+   * @param capacity
+   *          Initial capacity of the list
+   * @return A primitive array list instance for short integers
+   */
+  PrimitiveList.OfShort newShortList(int capacity);
+
+  /**
+   * Create a new list of (unboxed) short integers, filled with the specified number of a given
+   * initial value.
+   *
+   * @param value
+   *          Initial value
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for short integers
+   */
+  PrimitiveList.OfShort newShortList(short value, int size);
+
+  /**
+   * Create a new list of (unboxed) short integers from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param values
+   *          Initial values
+   * @return A primitive array list instance for short integers
+   */
+  PrimitiveList.OfShort newShortList(short[] values);
+
+  /**
+   * Create a new list of (unboxed) short integers, filled with the specified number of zeros.
+   *
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for short integers
+   */
+  PrimitiveList.OfShort newShortListOfSize(int size);
+
+  /**
+   * Create a new list of (unboxed) floats.
+   *
+   * @return A primitive array list instance for floats
+   */
+  PrimitiveList.OfFloat newFloatList();
+
+  /**
+   * Create a new list of (unboxed) floats with specified initial capacity.
+   *
+   * @param capacity
+   *          Initial capacity of the list
+   * @return A primitive array list instance for floats
+   */
+  PrimitiveList.OfFloat newFloatList(int capacity);
+
+  /**
+   * Create a new list of (unboxed) floats, filled with the specified number of a given initial
+   * value.
+   *
+   * @param value
+   *          Initial value
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for floats
+   */
+  PrimitiveList.OfFloat newFloatList(float value, int size);
+
+  /**
+   * Create a new list of (unboxed) floats from the given values.
+   * 
+   * <p>
+   * Note: The list is allowed to reuse the storage of the passed array.
+   *
+   * @param values
+   *          Initial values
+   * @return A primitive array list instance for floats
+   */
+  PrimitiveList.OfFloat newFloatList(float[] values);
+
+  /**
+   * Create a new list of (unboxed) floats, filled with the specified number of zeros.
+   *
+   * @param size
+   *          Initial size
+   * @return A primitive array list instance for floats
+   */
+  PrimitiveList.OfFloat newFloatListOfSize(int size);
+
   /**
    * Create an empty primitive list for the given component type.
    *
@@ -184,8 +332,8 @@ public interface MappingsFacade {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   <T> PrimitiveList<T> newList(Class<T> componentType);
 
@@ -202,8 +350,8 @@ public interface MappingsFacade {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   <T> PrimitiveList<T> newList(Class<T> componentType, int capacity);
 
@@ -222,8 +370,8 @@ public interface MappingsFacade {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   <T> PrimitiveList<T> newList(Class<T> componentType, T value, int size);
 
@@ -262,8 +410,8 @@ public interface MappingsFacade {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   <T> PrimitiveList<T> newListFromArray(Class<T> componentType, Object array);
 
@@ -281,8 +429,8 @@ public interface MappingsFacade {
    * @throws UnsupportedOperationException if the component type is a primitive
    *                                       type for which no specialized primitive
    *                                       list is available (i.e., throws for all
-   *                                       primitive types but int, boolean and
-   *                                       double)
+   *                                       primitive types but int, long, double,
+   *                                       byte, short and float)
    */
   <T> PrimitiveList<T> newListOfSize(Class<T> componentType, int size);
 
@@ -405,6 +553,35 @@ public interface MappingsFacade {
    */
   ConstMapping.OfInt repeated(int value, int count);
 
+  /**
+   * Create a constant integer mapping with a copy of the given values stored outside the Java
+   * heap.
+   * 
+   * @param values
+   *          The values
+   * @return An off-heap integer mapping holding a copy of {@code values}
+   */
+  OffHeapMapping.OfInt toOffHeapInt(ConstMapping.OfInt values);
+
+  /**
+   * Create a constant long integer mapping with a copy of the given values stored outside the Java
+   * heap.
+   * 
+   * @param values
+   *          The values
+   * @return An off-heap long integer mapping holding a copy of {@code values}
+   */
+  OffHeapMapping.OfLong toOffHeapLong(ConstMapping.OfLong values);
+
+  /**
+   * Create a constant double mapping with a copy of the given values stored outside the Java heap.
+   * 
+   * @param values
+   *          The values
+   * @return An off-heap double mapping holding a copy of {@code values}
+   */
+  OffHeapMapping.OfDouble toOffHeapDouble(ConstMapping.OfDouble values);
+
   /**
    * Returns a {@link PrimitiveCollector.OfInt} that collects the input integers into a new
    * {@link PrimitiveList.OfInt}.
@@ -441,7 +618,10 @@ public interface MappingsFacade {
    * {@code long}, or {@code double}, returns a {@link PrimitiveCollector.OfInt},
    * {@link PrimitiveCollector.OfLong} or {@link PrimitiveCollector.OfDouble} that
    * collect into a {@link PrimitiveList.OfInt}, {@link PrimitiveList.OfLong} or
-   * {@link PrimitiveList.OfDouble}, respectively. If the component type is any
+   * {@link PrimitiveList.OfDouble}, respectively. For {@code byte}, {@code short}
+   * and {@code float}, returns a {@link PrimitiveCollector} that collects into a
+   * {@link PrimitiveList.OfByte}, {@link PrimitiveList.OfShort} or
+   * {@link PrimitiveList.OfFloat}. If the component type is any
    * other primitive type, throws an exception. For any other type, returns a
    * {@link PrimitiveCollector} that collects into a {@link PrimitiveList} for
    * that component type.
@@ -470,7 +650,10 @@ public interface MappingsFacade {
    * {@code long}, or {@code double}, returns a {@link PrimitiveCollector.OfInt},
    * {@link PrimitiveCollector.OfLong} or {@link PrimitiveCollector.OfDouble} that
    * collect into a {@link PrimitiveList.OfInt}, {@link PrimitiveList.OfLong} or
-   * {@link PrimitiveList.OfDouble}, respectively. If the component type is any
+   * {@link PrimitiveList.OfDouble}, respectively. For {@code byte}, {@code short}
+   * and {@code float}, returns a {@link PrimitiveCollector} that collects into a
+   * {@link PrimitiveList.OfByte}, {@link PrimitiveList.OfShort} or
+   * {@link PrimitiveList.OfFloat}. If the component type is any
    * other primitive type, it produces a collector for the wrapper type. For any
    * other type, returns a {@link PrimitiveCollector} that collects into a
    * {@link PrimitiveList} for that component type.
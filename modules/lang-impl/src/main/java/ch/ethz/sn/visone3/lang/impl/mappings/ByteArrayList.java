@@ -0,0 +1,232 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.lang.impl.mappings;
+
+import ch.ethz.sn.visone3.lang.PrimitiveList;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+final class ByteArrayList extends AbstractList<Byte> implements PrimitiveList.OfByte, RandomAccess {
+  /**
+   * Value set if the generic interface gets a {@code null}.
+   */
+  public static final byte NULL = Byte.MIN_VALUE;
+  private static final long serialVersionUID = 8151723046711218329L;
+  private int size;
+  private byte[] array;
+
+  ByteArrayList() {
+    this(PrimitiveListSettings.INITIAL_CAPACITY);
+  }
+
+  ByteArrayList(final int capacity) {
+    array = new byte[capacity];
+  }
+
+  ByteArrayList(final byte value, final int size) {
+    array = new byte[size];
+    this.size = size;
+    Arrays.fill(array, value);
+  }
+
+  ByteArrayList(final byte[] values) {
+    array = values;
+    size = values.length;
+  }
+
+  ByteArrayList(int size, boolean dummy) {
+    array = new byte[size];
+    this.size = size;
+  }
+
+  @Override
+  public Byte get(final int index) {
+    return getByte(index);
+  }
+
+  @Override
+  public byte[] array() {
+    if (array.length > size) {
+      ensureCapacity(size);
+    }
+    return array;
+  }
+
+  @Override
+  public byte[] arrayQuick() {
+    return array;
+  }
+
+  @Override
+  public IntStream intStream() {
+    final byte[] values = array;
+    return IntStream.range(0, size).map(i -> values[i]);
+  }
+
+  @Override
+  public void ensureCapacity(final int newSize) {
+    if (newSize < size) {
+      throw new IllegalArgumentException("cannot decrease capacity below size");
+    }
+    final byte[] tmp = new byte[newSize];
+    System.arraycopy(array, 0, tmp, 0, size);
+    array = tmp;
+  }
+
+  @Override
+  public void setSize(final Byte value, final int newSize) {
+    if (newSize > size) {
+      if (newSize > array.length) {
+        ensureCapacity(Math.max((int) (1 + PrimitiveListSettings.GROWTH * size), newSize));
+      }
+      Arrays.fill(array, size, newSize, unboxWithNull(value));
+    }
+    size = newSize;
+  }
+
+  private byte unboxWithNull(final Byte value) {
+    if (value != null) {
+      return value.byteValue();
+    }
+    return NULL;
+  }
+
+  @Override
+  public Byte set(final int index, final Byte element) {
+    return setByte(index, unboxWithNull(element));
+  }
+
+  @Override
+  public boolean add(final Byte value) {
+    addByte(unboxWithNull(value));
+    return true;
+  }
+
+  @Override
+  public void addByte(final byte value) {
+    if (size == array.length) {
+      ensureCapacity((int) (1 + PrimitiveListSettings.GROWTH * size));
+    }
+    array[size] = value;
+    ++size;
+  }
+
+  @Override
+  public void removeRange(final int begin, final int end) {
+    if (end < begin) {
+      throw new IllegalArgumentException("negative size index range");
+    }
+    final int length = end - begin;
+    if (length > 0 && (begin < 0 || end > size)) {
+      throw new IndexOutOfBoundsException("index range out of bounds");
+    }
+    System.arraycopy(array, end, array, begin, size - end);
+    size -= length;
+    if (Math.max(size,
+        PrimitiveListSettings.INITIAL_CAPACITY) < (PrimitiveListSettings.SHRINK * array.length)) {
+      ensureCapacity(size);
+    }
+  }
+
+  @Override
+  public Byte remove(final int index) {
+    byte value = getByte(index);
+    removeIndex(index);
+    return value;
+  }
+
+  @Override
+  public byte setByte(final int index, final byte value) {
+    if (index < size) {
+      byte old = array[index];
+      array[index] = value;
+      return old;
+    } else {
+      throw new IndexOutOfBoundsException(index + " >= " + size);
+    }
+  }
+
+  @Override
+  public byte getByte(final int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException();
+    }
+    return array[index];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("{size=").append(size).append(",[");
+    FormatterUtility.limited(sb, iterator(), 80);
+    sb.append("]}");
+    return sb.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < size; ++i) {
+      hashCode = 31 * hashCode + Byte.hashCode(array[i]);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof PrimitiveList.OfByte)) {
+      return false;
+    }
+    final PrimitiveList.OfByte list = (PrimitiveList.OfByte) other;
+    if (list.size() != size) {
+      return false;
+    }
+    for (int i = 0; i < size; ++i) {
+      if (getByte(i) != list.getByte(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public byte[] toUnboxedArray() {
+    return Arrays.copyOf(array, size);
+  }
+}
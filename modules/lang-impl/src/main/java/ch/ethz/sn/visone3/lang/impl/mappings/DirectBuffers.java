@@ -0,0 +1,132 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.lang.impl.mappings;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Allocates and frees direct buffers backing off-heap mappings.
+ */
+final class DirectBuffers {
+
+  private static final Deallocator DEALLOCATOR = findDeallocator();
+
+  private DirectBuffers() {
+  }
+
+  /**
+   * Base two logarithm of the maximum size of a segment in bytes. Direct buffers are indexed by
+   * int, so larger mappings are split into segments of 1 GiB.
+   */
+  private static final int SEGMENT_BYTES_SHIFT = 30;
+
+  /**
+   * Returns the base two logarithm of the number of values per segment.
+   * 
+   * @param bytesPerValue
+   *          the size of each value in bytes, a power of two.
+   * @return the shift to compute the segment of a value index.
+   */
+  static int segmentShift(final int bytesPerValue) {
+    return SEGMENT_BYTES_SHIFT - Integer.numberOfTrailingZeros(bytesPerValue);
+  }
+
+  /**
+   * Allocates segmented direct buffers in native byte order. Value {@code i} is stored in segment
+   * {@code i >>> segmentShift(bytesPerValue)}.
+   * 
+   * @param count
+   *          the number of values.
+   * @param bytesPerValue
+   *          the size of each value in bytes, a power of two.
+   * @return the direct buffers.
+   * @throws IllegalArgumentException
+   *           if the number of values is negative.
+   */
+  static ByteBuffer[] allocate(final int count, final int bytesPerValue) {
+    if (count < 0) {
+      throw new IllegalArgumentException("unsupported off-heap mapping size: " + count);
+    }
+    final int shift = segmentShift(bytesPerValue);
+    final long perSegment = 1L << shift;
+    final ByteBuffer[] segments = new ByteBuffer[(int) ((count + perSegment - 1) >>> shift)];
+    try {
+      for (int s = 0; s < segments.length; ++s) {
+        final int values = (int) Math.min(perSegment, count - s * perSegment);
+        segments[s] = ByteBuffer.allocateDirect(values * bytesPerValue)
+            .order(ByteOrder.nativeOrder());
+      }
+    } catch (OutOfMemoryError e) {
+      free(segments);
+      throw e;
+    }
+    return segments;
+  }
+
+  /**
+   * Frees the native memory of direct buffers immediately if the runtime permits, otherwise it is
+   * freed once the buffer objects are collected. The buffers must not be accessed afterwards.
+   * 
+   * @param buffers
+   *          the direct buffers, null entries are ignored.
+   */
+  static void free(final ByteBuffer[] buffers) {
+    if (DEALLOCATOR != null) {
+      for (ByteBuffer buffer : buffers) {
+        if (buffer == null) {
+          continue;
+        }
+        try {
+          DEALLOCATOR.free(buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+          // leave it to the garbage collector
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface Deallocator {
+    void free(ByteBuffer buffer) throws ReflectiveOperationException;
+  }
+
+  private static Deallocator findDeallocator() {
+    try {
+      // Java 9 and later
+      final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      final Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+      theUnsafe.setAccessible(true);
+      final Object unsafe = theUnsafe.get(null);
+      return buffer -> invokeCleaner.invoke(unsafe, buffer);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      // fall through
+    }
+    try {
+      // Java 8
+      final Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+      final Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+      return buffer -> clean.invoke(cleaner.invoke(buffer));
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.lang.impl.mappings;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.OffHeapMapping;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Constant double mapping backed by direct buffers of at most 1 GiB each.
+ */
+final class DirectDoubleMapping implements OffHeapMapping.OfDouble {
+  private static final long serialVersionUID = 2884402153370914221L;
+
+  private static final int SEGMENT_SHIFT = DirectBuffers.segmentShift(8);
+  private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+  private final int size;
+  private transient ByteBuffer[] storage;
+  private transient DoubleBuffer[] values;
+
+  DirectDoubleMapping(final ConstMapping.OfDouble source) {
+    size = source.size();
+    allocate();
+    final PrimitiveIterator.OfDouble itr = source.iterator();
+    for (int i = 0; i < size; ++i) {
+      store(values, i, itr.nextDouble());
+    }
+  }
+
+  private void allocate() {
+    storage = DirectBuffers.allocate(size, 8);
+    values = new DoubleBuffer[storage.length];
+    for (int s = 0; s < storage.length; ++s) {
+      values[s] = storage[s].asDoubleBuffer();
+    }
+  }
+
+  private static double load(final DoubleBuffer[] segments, final int index) {
+    return segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+  }
+
+  private static void store(final DoubleBuffer[] segments, final int index, final double value) {
+    segments[index >>> SEGMENT_SHIFT].put(index & SEGMENT_MASK, value);
+  }
+
+  private DoubleBuffer[] values() {
+    final DoubleBuffer[] result = values;
+    if (result == null) {
+      throw new IllegalStateException("off-heap mapping has been closed");
+    }
+    return result;
+  }
+
+  @Override
+  public void close() {
+    if (values != null) {
+      values = null;
+      DirectBuffers.free(storage);
+      storage = null;
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return values == null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public double getDouble(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return load(values(), index);
+  }
+
+  @Override
+  public Double get(final int index) {
+    return getDouble(index);
+  }
+
+  @Override
+  public PrimitiveIterator.OfDouble iterator() {
+    return new PrimitiveIterator.OfDouble() {
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public double nextDouble() {
+        if (index < size) {
+          return load(values(), index++);
+        }
+        throw new NoSuchElementException();
+      }
+    };
+  }
+
+  @Override
+  public DoubleStream doubleStream() {
+    return IntStream.range(0, size).mapToDouble(this::getDouble);
+  }
+
+  @Override
+  public Stream<Double> stream() {
+    return doubleStream().boxed();
+  }
+
+  @Override
+  public double[] toUnboxedArray() {
+    final double[] result = new double[size];
+    int offset = 0;
+    for (DoubleBuffer segment : values()) {
+      final int length = segment.capacity();
+      segment.duplicate().get(result, offset, length);
+      offset += length;
+    }
+    return result;
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    final DoubleBuffer[] source = values();
+    for (int i = 0; i < size; ++i) {
+      out.writeDouble(load(source, i));
+    }
+  }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    allocate();
+    for (int i = 0; i < size; ++i) {
+      store(values, i, in.readDouble());
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (final double value : this) {
+      hashCode = 31 * hashCode + Double.hashCode(value);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof ConstMapping.OfDouble)) {
+      return false;
+    }
+    final PrimitiveIterator.OfDouble e1 = iterator();
+    final PrimitiveIterator.OfDouble e2 = ((ConstMapping.OfDouble) other).iterator();
+    while (e1.hasNext() && e2.hasNext()) {
+      if (Double.compare(e1.nextDouble(), e2.nextDouble()) != 0) {
+        return false;
+      }
+    }
+    return !(e1.hasNext() || e2.hasNext());
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("{size=").append(size).append(",[");
+    FormatterUtility.limited(sb, iterator(), 80);
+    sb.append("]}");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.lang.impl.mappings;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.OffHeapMapping;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
+
+/**
+ * Constant integer mapping backed by direct buffers of at most 1 GiB each.
+ */
+final class DirectIntMapping extends IntMappingBase implements OffHeapMapping.OfInt {
+  private static final long serialVersionUID = 4181207337536018424L;
+
+  private static final int SEGMENT_SHIFT = DirectBuffers.segmentShift(4);
+  private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+  private final int size;
+  private transient ByteBuffer[] storage;
+  private transient IntBuffer[] values;
+
+  DirectIntMapping(final ConstMapping.OfInt source) {
+    size = source.size();
+    allocate();
+    final PrimitiveIterator.OfInt itr = source.iterator();
+    for (int i = 0; i < size; ++i) {
+      store(values, i, itr.nextInt());
+    }
+  }
+
+  private void allocate() {
+    storage = DirectBuffers.allocate(size, 4);
+    values = new IntBuffer[storage.length];
+    for (int s = 0; s < storage.length; ++s) {
+      values[s] = storage[s].asIntBuffer();
+    }
+  }
+
+  private static int load(final IntBuffer[] segments, final int index) {
+    return segments[index >>> SEGMENT_SHIFT].get(index & SEGMENT_MASK);
+  }
+
+  private static void store(final IntBuffer[] segments, final int index, final int value) {
+    segments[index >>> SEGMENT_SHIFT].put(index & SEGMENT_MASK, value);
+  }
+
+  private IntBuffer[] values() {
+    final IntBuffer[] result = values;
+    if (result == null) {
+      throw new IllegalStateException("off-heap mapping has been closed");
+    }
+    return result;
+  }
+
+  @Override
+  public void close() {
+    if (values != null) {
+      values = null;
+      DirectBuffers.free(storage);
+      storage = null;
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return values == null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public int getInt(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return load(values(), index);
+  }
+
+  @Override
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int index;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      public int nextInt() {
+        if (index < size) {
+          return load(values(), index++);
+        }
+        throw new NoSuchElementException();
+      }
+    };
+  }
+
+  @Override
+  public IntStream intStream() {
+    return IntStream.range(0, size).map(this::getInt);
+  }
+
+  @Override
+  public int[] toUnboxedArray() {
+    final int[] result = new int[size];
+    int offset = 0;
+    for (IntBuffer segment : values()) {
+      final int length = segment.capacity();
+      segment.duplicate().get(result, offset, length);
+      offset += length;
+    }
+    return result;
+  }
+
+  private void writeObject(final ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    final IntBuffer[] source = values();
+    for (int i = 0; i < size; ++i) {
+      out.writeInt(load(source, i));
+    }
+  }
+
+  private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    allocate();
+    for (int i = 0; i < size; ++i) {
+      store(values, i, in.readInt());
+    }
+  }
+}
@@ -0,0 +1,234 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.lang.impl.mappings;
+
+import ch.ethz.sn.visone3.lang.PrimitiveList;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+final class FloatArrayList extends AbstractList<Float>
+    implements PrimitiveList.OfFloat, RandomAccess {
+  /**
+   * Value set if the generic interface gets a {@code null}.
+   */
+  public static final float NULL = Float.NaN;
+  private static final long serialVersionUID = 6693041268011823417L;
+  private int size;
+  private float[] array;
+
+  FloatArrayList() {
+    this(PrimitiveListSettings.INITIAL_CAPACITY);
+  }
+
+  FloatArrayList(final int capacity) {
+    array = new float[capacity];
+  }
+
+  FloatArrayList(final float value, final int size) {
+    array = new float[size];
+    this.size = size;
+    Arrays.fill(array, value);
+  }
+
+  FloatArrayList(final float[] values) {
+    array = values;
+    size = values.length;
+  }
+
+  FloatArrayList(int size, boolean dummy) {
+    array = new float[size];
+    this.size = size;
+  }
+
+  @Override
+  public Float get(final int index) {
+    return getFloat(index);
+  }
+
+  @Override
+  public float[] array() {
+    if (array.length > size) {
+      ensureCapacity(size);
+    }
+    return array;
+  }
+
+  @Override
+  public float[] arrayQuick() {
+    return array;
+  }
+
+  @Override
+  public DoubleStream doubleStream() {
+    final float[] values = array;
+    return IntStream.range(0, size).mapToDouble(i -> values[i]);
+  }
+
+  @Override
+  public void ensureCapacity(final int newSize) {
+    if (newSize < size) {
+      throw new IllegalArgumentException("cannot decrease capacity below size");
+    }
+    final float[] tmp = new float[newSize];
+    System.arraycopy(array, 0, tmp, 0, size);
+    array = tmp;
+  }
+
+  @Override
+  public void setSize(final Float value, final int newSize) {
+    if (newSize > size) {
+      if (newSize > array.length) {
+        ensureCapacity(Math.max((int) (1 + PrimitiveListSettings.GROWTH * size), newSize));
+      }
+      Arrays.fill(array, size, newSize, unboxWithNull(value));
+    }
+    size = newSize;
+  }
+
+  private float unboxWithNull(final Float value) {
+    if (value != null) {
+      return value.floatValue();
+    }
+    return NULL;
+  }
+
+  @Override
+  public Float set(final int index, final Float element) {
+    return setFloat(index, unboxWithNull(element));
+  }
+
+  @Override
+  public boolean add(final Float value) {
+    addFloat(unboxWithNull(value));
+    return true;
+  }
+
+  @Override
+  public void addFloat(final float value) {
+    if (size == array.length) {
+      ensureCapacity((int) (1 + PrimitiveListSettings.GROWTH * size));
+    }
+    array[size] = value;
+    ++size;
+  }
+
+  @Override
+  public void removeRange(final int begin, final int end) {
+    if (end < begin) {
+      throw new IllegalArgumentException("negative size index range");
+    }
+    final int length = end - begin;
+    if (length > 0 && (begin < 0 || end > size)) {
+      throw new IndexOutOfBoundsException("index range out of bounds");
+    }
+    System.arraycopy(array, end, array, begin, size - end);
+    size -= length;
+    if (Math.max(size,
+        PrimitiveListSettings.INITIAL_CAPACITY) < (PrimitiveListSettings.SHRINK * array.length)) {
+      ensureCapacity(size);
+    }
+  }
+
+  @Override
+  public Float remove(final int index) {
+    float value = getFloat(index);
+    removeIndex(index);
+    return value;
+  }
+
+  @Override
+  public float setFloat(final int index, final float value) {
+    if (index < size) {
+      float old = array[index];
+      array[index] = value;
+      return old;
+    } else {
+      throw new IndexOutOfBoundsException(index + " >= " + size);
+    }
+  }
+
+  @Override
+  public float getFloat(final int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException();
+    }
+    return array[index];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("{size=").append(size).append(",[");
+    FormatterUtility.limited(sb, iterator(), 80);
+    sb.append("]}");
+    return sb.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < size; ++i) {
+      hashCode = 31 * hashCode + Float.hashCode(array[i]);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof PrimitiveList.OfFloat)) {
+      return false;
+    }
+    final PrimitiveList.OfFloat list = (PrimitiveList.OfFloat) other;
+    if (list.size() != size) {
+      return false;
+    }
+    for (int i = 0; i < size; ++i) {
+      if (Float.floatToRawIntBits(getFloat(i)) != Float.floatToRawIntBits(list.getFloat(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public float[] toUnboxedArray() {
+    return Arrays.copyOf(array, size);
+  }
+}
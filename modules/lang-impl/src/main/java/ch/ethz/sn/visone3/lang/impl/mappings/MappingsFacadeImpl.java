@@ -20,6 +20,7 @@ package ch.ethz.sn.visone3.lang.impl.mappings;
 import ch.ethz.sn.visone3.lang.ClassUtils;
 import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.OffHeapMapping;
 import ch.ethz.sn.visone3.lang.PrimitiveCollector;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
 import ch.ethz.sn.visone3.lang.spi.MappingsFacade;
@@ -105,6 +106,81 @@ public final class MappingsFacadeImpl implements MappingsFacade {
     return new DoubleArrayList(size, false);
   }
 
+  @Override
+  public PrimitiveList.OfByte newByteList() {
+    return new ByteArrayList();
+  }
+
+  @Override
+  public PrimitiveList.OfByte newByteList(int capacity) {
+    return new ByteArrayList(capacity);
+  }
+
+  @Override
+  public PrimitiveList.OfByte newByteList(byte value, int size) {
+    return new ByteArrayList(value, size);
+  }
+
+  @Override
+  public PrimitiveList.OfByte newByteList(byte[] values) {
+    return new ByteArrayList(values);
+  }
+
+  @Override
+  public PrimitiveList.OfByte newByteListOfSize(int size) {
+    return new ByteArrayList(size, false);
+  }
+
+  @Override
+  public PrimitiveList.OfShort newShortList() {
+    return new ShortArrayList();
+  }
+
+  @Override
+  public PrimitiveList.OfShort newShortList(int capacity) {
+    return new ShortArrayList(capacity);
+  }
+
+  @Override
+  public PrimitiveList.OfShort newShortList(short value, int size) {
+    return new ShortArrayList(value, size);
+  }
+
+  @Override
+  public PrimitiveList.OfShort newShortList(short[] values) {
+    return new ShortArrayList(values);
+  }
+
+  @Override
+  public PrimitiveList.OfShort newShortListOfSize(int size) {
+    return new ShortArrayList(size, false);
+  }
+
+  @Override
+  public PrimitiveList.OfFloat newFloatList() {
+    return new FloatArrayList();
+  }
+
+  @Override
+  public PrimitiveList.OfFloat newFloatList(int capacity) {
+    return new FloatArrayList(capacity);
+  }
+
+  @Override
+  public PrimitiveList.OfFloat newFloatList(float value, int size) {
+    return new FloatArrayList(value, size);
+  }
+
+  @Override
+  public PrimitiveList.OfFloat newFloatList(float[] values) {
+    return new FloatArrayList(values);
+  }
+
+  @Override
+  public PrimitiveList.OfFloat newFloatListOfSize(int size) {
+    return new FloatArrayList(size, false);
+  }
+
   /**
    * Create an empty primitive list for the given primitive component type.
    *
@@ -121,6 +197,12 @@ public final class MappingsFacadeImpl implements MappingsFacade {
       return (PrimitiveList<T>) newLongList();
     } else if (componentType == double.class) {
       return (PrimitiveList<T>) newDoubleList();
+    } else if (componentType == byte.class) {
+      return (PrimitiveList<T>) newByteList();
+    } else if (componentType == short.class) {
+      return (PrimitiveList<T>) newShortList();
+    } else if (componentType == float.class) {
+      return (PrimitiveList<T>) newFloatList();
     } else {
       return null;
     }
@@ -145,6 +227,12 @@ public final class MappingsFacadeImpl implements MappingsFacade {
       return (PrimitiveList<T>) newLongList(capacity);
     } else if (componentType == double.class) {
       return (PrimitiveList<T>) newDoubleList(capacity);
+    } else if (componentType == byte.class) {
+      return (PrimitiveList<T>) newByteList(capacity);
+    } else if (componentType == short.class) {
+      return (PrimitiveList<T>) newShortList(capacity);
+    } else if (componentType == float.class) {
+      return (PrimitiveList<T>) newFloatList(capacity);
     } else {
       return null;
     }
@@ -171,6 +259,12 @@ public final class MappingsFacadeImpl implements MappingsFacade {
       return (PrimitiveList<T>) newLongList((Long) value, size);
     } else if (componentType == double.class) {
       return (PrimitiveList<T>) newDoubleList((Double) value, size);
+    } else if (componentType == byte.class) {
+      return (PrimitiveList<T>) newByteList((Byte) value, size);
+    } else if (componentType == short.class) {
+      return (PrimitiveList<T>) newShortList((Short) value, size);
+    } else if (componentType == float.class) {
+      return (PrimitiveList<T>) newFloatList((Float) value, size);
     } else {
       return null;
     }
@@ -198,6 +292,12 @@ public final class MappingsFacadeImpl implements MappingsFacade {
       return (PrimitiveList<T>) newLongList((long[]) array);
     } else if (componentType == double.class) {
       return (PrimitiveList<T>) newDoubleList((double[]) array);
+    } else if (componentType == byte.class) {
+      return (PrimitiveList<T>) newByteList((byte[]) array);
+    } else if (componentType == short.class) {
+      return (PrimitiveList<T>) newShortList((short[]) array);
+    } else if (componentType == float.class) {
+      return (PrimitiveList<T>) newFloatList((float[]) array);
     } else {
       return null;
     }
@@ -221,6 +321,12 @@ public final class MappingsFacadeImpl implements MappingsFacade {
       return (PrimitiveList<T>) newLongListOfSize(size);
     } else if (componentType == double.class) {
       return (PrimitiveList<T>) newDoubleListOfSize(size);
+    } else if (componentType == byte.class) {
+      return (PrimitiveList<T>) newByteListOfSize(size);
+    } else if (componentType == short.class) {
+      return (PrimitiveList<T>) newShortListOfSize(size);
+    } else if (componentType == float.class) {
+      return (PrimitiveList<T>) newFloatListOfSize(size);
     } else {
       return null;
     }
@@ -429,6 +535,21 @@ public final class MappingsFacadeImpl implements MappingsFacade {
     return new ConstIntCopiesMapping(value, count);
   }
 
+  @Override
+  public OffHeapMapping.OfInt toOffHeapInt(ConstMapping.OfInt values) {
+    return new DirectIntMapping(values);
+  }
+
+  @Override
+  public OffHeapMapping.OfLong toOffHeapLong(ConstMapping.OfLong values) {
+    return new DirectLongMapping(values);
+  }
+
+  @Override
+  public OffHeapMapping.OfDouble toOffHeapDouble(ConstMapping.OfDouble values) {
+    return new DirectDoubleMapping(values);
+  }
+
   @Override
   public PrimitiveCollector.OfInt<?, PrimitiveList.OfInt> toIntList() {
     return PrimitiveCollector.OfInt.of(IntArrayList.COLLECTION_SUPPLIER,
@@ -450,6 +571,21 @@ public final class MappingsFacadeImpl implements MappingsFacade {
         PrimitiveList.OfDouble.class);
   }
 
+  private static PrimitiveCollector<Byte, ?, PrimitiveList.OfByte> toByteList() {
+    return PrimitiveCollector.of(ByteArrayList::new, PrimitiveList.OfByte::add,
+        PrimitiveList.OfByte::addAll, PrimitiveList.OfByte.class);
+  }
+
+  private static PrimitiveCollector<Short, ?, PrimitiveList.OfShort> toShortList() {
+    return PrimitiveCollector.of(ShortArrayList::new, PrimitiveList.OfShort::add,
+        PrimitiveList.OfShort::addAll, PrimitiveList.OfShort.class);
+  }
+
+  private static PrimitiveCollector<Float, ?, PrimitiveList.OfFloat> toFloatList() {
+    return PrimitiveCollector.of(FloatArrayList::new, PrimitiveList.OfFloat::add,
+        PrimitiveList.OfFloat::addAll, PrimitiveList.OfFloat.class);
+  }
+
   @SuppressWarnings("unchecked")
   private static <T> PrimitiveCollector<T, ?, PrimitiveList<T>> toReferenceList(
       Class<T> componentType) {
@@ -467,6 +603,15 @@ public final class MappingsFacadeImpl implements MappingsFacade {
       return (PrimitiveCollector<T, ?, ? extends PrimitiveList<T>>) toLongList();
     } else if (componentType == double.class) {
       return (PrimitiveCollector<T, ?, ? extends PrimitiveList<T>>) toDoubleList();
+    } else if (componentType == byte.class) {
+      return (PrimitiveCollector<T, ?, ? extends PrimitiveList<T>>) (PrimitiveCollector<?, ?, ?>) //
+          toByteList();
+    } else if (componentType == short.class) {
+      return (PrimitiveCollector<T, ?, ? extends PrimitiveList<T>>) (PrimitiveCollector<?, ?, ?>) //
+          toShortList();
+    } else if (componentType == float.class) {
+      return (PrimitiveCollector<T, ?, ? extends PrimitiveList<T>>) (PrimitiveCollector<?, ?, ?>) //
+          toFloatList();
     }
     return null;
   }
@@ -0,0 +1,233 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.lang.impl.mappings;
+
+import ch.ethz.sn.visone3.lang.PrimitiveList;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+final class ShortArrayList extends AbstractList<Short>
+    implements PrimitiveList.OfShort, RandomAccess {
+  /**
+   * Value set if the generic interface gets a {@code null}.
+   */
+  public static final short NULL = Short.MIN_VALUE;
+  private static final long serialVersionUID = -2742153008436377046L;
+  private int size;
+  private short[] array;
+
+  ShortArrayList() {
+    this(PrimitiveListSettings.INITIAL_CAPACITY);
+  }
+
+  ShortArrayList(final int capacity) {
+    array = new short[capacity];
+  }
+
+  ShortArrayList(final short value, final int size) {
+    array = new short[size];
+    this.size = size;
+    Arrays.fill(array, value);
+  }
+
+  ShortArrayList(final short[] values) {
+    array = values;
+    size = values.length;
+  }
+
+  ShortArrayList(int size, boolean dummy) {
+    array = new short[size];
+    this.size = size;
+  }
+
+  @Override
+  public Short get(final int index) {
+    return getShort(index);
+  }
+
+  @Override
+  public short[] array() {
+    if (array.length > size) {
+      ensureCapacity(size);
+    }
+    return array;
+  }
+
+  @Override
+  public short[] arrayQuick() {
+    return array;
+  }
+
+  @Override
+  public IntStream intStream() {
+    final short[] values = array;
+    return IntStream.range(0, size).map(i -> values[i]);
+  }
+
+  @Override
+  public void ensureCapacity(final int newSize) {
+    if (newSize < size) {
+      throw new IllegalArgumentException("cannot decrease capacity below size");
+    }
+    final short[] tmp = new short[newSize];
+    System.arraycopy(array, 0, tmp, 0, size);
+    array = tmp;
+  }
+
+  @Override
+  public void setSize(final Short value, final int newSize) {
+    if (newSize > size) {
+      if (newSize > array.length) {
+        ensureCapacity(Math.max((int) (1 + PrimitiveListSettings.GROWTH * size), newSize));
+      }
+      Arrays.fill(array, size, newSize, unboxWithNull(value));
+    }
+    size = newSize;
+  }
+
+  private short unboxWithNull(final Short value) {
+    if (value != null) {
+      return value.shortValue();
+    }
+    return NULL;
+  }
+
+  @Override
+  public Short set(final int index, final Short element) {
+    return setShort(index, unboxWithNull(element));
+  }
+
+  @Override
+  public boolean add(final Short value) {
+    addShort(unboxWithNull(value));
+    return true;
+  }
+
+  @Override
+  public void addShort(final short value) {
+    if (size == array.length) {
+      ensureCapacity((int) (1 + PrimitiveListSettings.GROWTH * size));
+    }
+    array[size] = value;
+    ++size;
+  }
+
+  @Override
+  public void removeRange(final int begin, final int end) {
+    if (end < begin) {
+      throw new IllegalArgumentException("negative size index range");
+    }
+    final int length = end - begin;
+    if (length > 0 && (begin < 0 || end > size)) {
+      throw new IndexOutOfBoundsException("index range out of bounds");
+    }
+    System.arraycopy(array, end, array, begin, size - end);
+    size -= length;
+    if (Math.max(size,
+        PrimitiveListSettings.INITIAL_CAPACITY) < (PrimitiveListSettings.SHRINK * array.length)) {
+      ensureCapacity(size);
+    }
+  }
+
+  @Override
+  public Short remove(final int index) {
+    short value = getShort(index);
+    removeIndex(index);
+    return value;
+  }
+
+  @Override
+  public short setShort(final int index, final short value) {
+    if (index < size) {
+      short old = array[index];
+      array[index] = value;
+      return old;
+    } else {
+      throw new IndexOutOfBoundsException(index + " >= " + size);
+    }
+  }
+
+  @Override
+  public short getShort(final int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException();
+    }
+    return array[index];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("{size=").append(size).append(",[");
+    FormatterUtility.limited(sb, iterator(), 80);
+    sb.append("]}");
+    return sb.toString();
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 1;
+    for (int i = 0; i < size; ++i) {
+      hashCode = 31 * hashCode + Short.hashCode(array[i]);
+    }
+    return hashCode;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other == this) {
+      return true;
+    }
+    if (!(other instanceof PrimitiveList.OfShort)) {
+      return false;
+    }
+    final PrimitiveList.OfShort list = (PrimitiveList.OfShort) other;
+    if (list.size() != size) {
+      return false;
+    }
+    for (int i = 0; i < size; ++i) {
+      if (getShort(i) != list.getShort(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public short[] toUnboxedArray() {
+    return Arrays.copyOf(array, size);
+  }
+}
@@ -30,10 +30,16 @@ import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.lang.Indexed;
 import ch.ethz.sn.visone3.lang.Mapping;
 import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.lang.OffHeapMapping;
 import ch.ethz.sn.visone3.lang.PrimitiveList;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -802,6 +808,116 @@ public class MappingsTest {
         Double.class, new Object[] { null, null, null });
   }
 
+  @Test
+  public void testByteList() {
+    PrimitiveList.OfByte list = Mappings.newByteListFrom((byte) 3, (byte) -7, (byte) 5);
+    checkMappingInternal(list, PrimitiveList.OfByte.class, byte.class,
+        new Object[] { (byte) 3, (byte) -7, (byte) 5 });
+    assertArrayEquals(new byte[] { 3, -7, 5 }, list.toUnboxedArray());
+    assertArrayEquals(new int[] { 3, -7, 5 }, list.intStream().toArray());
+    assertEquals(3, list.setByte(0, (byte) 4));
+    list.addByte((byte) 127);
+    assertTrue(list.add((byte) -128));
+    assertArrayEquals(new byte[] { 4, -7, 5, 127, -128 }, list.array());
+    assertEquals(Byte.valueOf((byte) 127), list.remove(3));
+    assertEquals(-128, list.getByte(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.getByte(4));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.setByte(-1, (byte) 0));
+    assertEquals(Mappings.newByteList(new byte[] { 4, -7, 5, -128 }), list);
+    assertNotEquals(Mappings.newShortList(new short[] { 4, -7, 5, -128 }), list);
+
+    checkMappingInternal(Mappings.newByteList((byte) 2, 3), PrimitiveList.OfByte.class,
+        byte.class, new Object[] { (byte) 2, (byte) 2, (byte) 2 });
+    checkMappingInternal(Mappings.newByteListOfSize(2), PrimitiveList.OfByte.class, byte.class,
+        new Object[] { (byte) 0, (byte) 0 });
+    checkMappingInternal(Mappings.newList(byte.class, 25), PrimitiveList.OfByte.class,
+        byte.class, new Object[] {});
+    checkMappingInternal(Mappings.newListFromArray(byte.class, new byte[] { 1, 2 }),
+        PrimitiveList.OfByte.class, byte.class, new Object[] { (byte) 1, (byte) 2 });
+    checkMapping(Mappings.newListOfSize(Byte.class, 2), PrimitiveList.class, Byte.class,
+        new Object[] { null, null });
+  }
+
+  @Test
+  public void testShortList() {
+    PrimitiveList.OfShort list = Mappings.newShortListFrom((short) 3, (short) -700, (short) 5);
+    checkMappingInternal(list, PrimitiveList.OfShort.class, short.class,
+        new Object[] { (short) 3, (short) -700, (short) 5 });
+    assertArrayEquals(new short[] { 3, -700, 5 }, list.toUnboxedArray());
+    assertArrayEquals(new int[] { 3, -700, 5 }, list.intStream().toArray());
+    assertEquals(3, list.setShort(0, (short) 4));
+    list.addShort(Short.MAX_VALUE);
+    assertTrue(list.add(Short.MIN_VALUE));
+    assertArrayEquals(new short[] { 4, -700, 5, Short.MAX_VALUE, Short.MIN_VALUE }, list.array());
+    list.removeRange(1, 3);
+    assertEquals(Short.MAX_VALUE, list.getShort(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.getShort(3));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.setShort(3, (short) 0));
+    assertEquals(Mappings.newShortList(new short[] { 4, Short.MAX_VALUE, Short.MIN_VALUE }),
+        list);
+
+    checkMappingInternal(Mappings.newShortList((short) 2, 3), PrimitiveList.OfShort.class,
+        short.class, new Object[] { (short) 2, (short) 2, (short) 2 });
+    checkMappingInternal(Mappings.newShortListOfSize(2), PrimitiveList.OfShort.class,
+        short.class, new Object[] { (short) 0, (short) 0 });
+    checkMappingInternal(Mappings.newListAutoboxing(short.class), PrimitiveList.OfShort.class,
+        short.class, new Object[] {});
+    checkMappingInternal(Mappings.newListFromArray(short.class, new short[] { 1, 2 }),
+        PrimitiveList.OfShort.class, short.class, new Object[] { (short) 1, (short) 2 });
+    checkMapping(Mappings.newListOfSize(Short.class, 2), PrimitiveList.class, Short.class,
+        new Object[] { null, null });
+  }
+
+  @Test
+  public void testFloatList() {
+    PrimitiveList.OfFloat list = Mappings.newFloatListFrom(1.5f, -2.25f, 4f);
+    checkMappingInternal(list, PrimitiveList.OfFloat.class, float.class,
+        new Object[] { 1.5f, -2.25f, 4f });
+    assertArrayEquals(new float[] { 1.5f, -2.25f, 4f }, list.toUnboxedArray());
+    assertArrayEquals(new double[] { 1.5, -2.25, 4. }, list.doubleStream().toArray());
+    assertEquals(1.5f, list.setFloat(0, 0.5f));
+    list.addFloat(Float.NaN);
+    assertTrue(list.add(8f));
+    assertArrayEquals(new float[] { 0.5f, -2.25f, 4f, Float.NaN, 8f }, list.array());
+    assertEquals(Float.valueOf(8f), list.remove(4));
+    assertTrue(Float.isNaN(list.getFloat(3)));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.getFloat(4));
+    assertThrows(IndexOutOfBoundsException.class, () -> list.setFloat(-1, 0f));
+    assertEquals(Mappings.newFloatList(new float[] { 0.5f, -2.25f, 4f, Float.NaN }), list);
+    assertNotEquals(Mappings.newDoubleList(new double[] { 0.5, -2.25, 4., Double.NaN }), list);
+
+    checkMappingInternal(Mappings.newFloatList(2f, 3), PrimitiveList.OfFloat.class,
+        float.class, new Object[] { 2f, 2f, 2f });
+    checkMappingInternal(Mappings.newFloatListOfSize(2), PrimitiveList.OfFloat.class,
+        float.class, new Object[] { 0f, 0f });
+    checkMappingInternal(Mappings.newList(float.class, 3f, 2), PrimitiveList.OfFloat.class,
+        float.class, new Object[] { 3f, 3f });
+    checkMappingInternal(Mappings.newListFromArray(float.class, new float[] { 1f, 2f }),
+        PrimitiveList.OfFloat.class, float.class, new Object[] { 1f, 2f });
+    checkMapping(Mappings.newListOfSize(Float.class, 2), PrimitiveList.class, Float.class,
+        new Object[] { null, null });
+  }
+
+  @Test
+  public void testComparingByValue() {
+    Indexed[] indices = IntStream.range(0, 4).mapToObj(i -> (Indexed) () -> i)
+        .toArray(Indexed[]::new);
+    Arrays.sort(indices,
+        Mappings.comparingByValue(Mappings.newByteListFrom((byte) 3, (byte) -1, (byte) 7,
+            (byte) 0)));
+    assertArrayEquals(new int[] { 1, 3, 0, 2 },
+        Arrays.stream(indices).mapToInt(Indexed::getIndex).toArray());
+    Arrays.sort(indices, Mappings.comparingByValue(Mappings.newFloatListFrom(2f, 1f, 0f, 3f)));
+    assertArrayEquals(new int[] { 2, 1, 0, 3 },
+        Arrays.stream(indices).mapToInt(Indexed::getIndex).toArray());
+    Arrays.sort(indices,
+        Mappings.comparingByValue(Mappings.newListFrom(String.class, "d", "c", "b", "a")));
+    assertArrayEquals(new int[] { 3, 2, 1, 0 },
+        Arrays.stream(indices).mapToInt(Indexed::getIndex).toArray());
+    assertThrows(IllegalArgumentException.class,
+        () -> Mappings.comparingByValue(Mappings.newList(Object.class)));
+  }
+
   @SuppressWarnings({ "unlikely-arg-type", "unchecked" })
   @Test
   public void testList() {
@@ -835,17 +951,17 @@ public class MappingsTest {
 
   @Test
   public void testNewListErrorOnUnboxing() {
-    assertThrows(UnsupportedOperationException.class, () -> Mappings.newList(short.class));
-    assertThrows(UnsupportedOperationException.class, () -> Mappings.newList(short.class, 20));
+    assertThrows(UnsupportedOperationException.class, () -> Mappings.newList(char.class));
+    assertThrows(UnsupportedOperationException.class, () -> Mappings.newList(char.class, 20));
     assertThrows(UnsupportedOperationException.class,
-        () -> Mappings.newList(short.class, (short) 4, (short) 5));
+        () -> Mappings.newList(char.class, (char) 4, (char) 5));
     assertThrows(IllegalArgumentException.class,
-        () -> Mappings.newList(short.class, new Short[] { (short) 3, (short) 5 }));
-    assertThrows(UnsupportedOperationException.class, () -> Mappings.newListOfSize(short.class, 5));
+        () -> Mappings.newList(char.class, new Character[] { (char) 3, (char) 5 }));
+    assertThrows(UnsupportedOperationException.class, () -> Mappings.newListOfSize(char.class, 5));
     assertThrows(UnsupportedOperationException.class,
-        () -> Mappings.newListFromArray(short.class, new short[] { (short) 3, (short) 5 }));
+        () -> Mappings.newListFromArray(char.class, new char[] { (char) 3, (char) 5 }));
     assertThrows(IllegalArgumentException.class,
-        () -> Mappings.newListFrom(short.class, (short) 3, (short) 5));
+        () -> Mappings.newListFrom(char.class, (char) 3, (char) 5));
   }
 
   @Test
@@ -857,14 +973,14 @@ public class MappingsTest {
   @Test
   public void testNewListAutoboxing() {
 
-    checkMapping(Mappings.newListAutoboxing(short.class), PrimitiveList.class, Short.class,
-        new Object[] {});
-    checkMapping(Mappings.newListAutoboxing(short.class, 25), PrimitiveList.class, Short.class,
+    checkMapping(Mappings.newListAutoboxing(char.class), PrimitiveList.class, Character.class,
         new Object[] {});
-    checkMapping(Mappings.newListAutoboxing(short.class, (short) 4, 5), PrimitiveList.class,
-        Short.class, new Object[] { (short) 4, (short) 4, (short) 4, (short) 4, (short) 4 });
-    checkMapping(Mappings.newListOfSizeAutoboxing(short.class, 3), PrimitiveList.class, Short.class,
-        new Object[] { null, null, null });
+    checkMapping(Mappings.newListAutoboxing(char.class, 25), PrimitiveList.class,
+        Character.class, new Object[] {});
+    checkMapping(Mappings.newListAutoboxing(char.class, (char) 4, 5), PrimitiveList.class,
+        Character.class, new Object[] { (char) 4, (char) 4, (char) 4, (char) 4, (char) 4 });
+    checkMapping(Mappings.newListOfSizeAutoboxing(char.class, 3), PrimitiveList.class,
+        Character.class, new Object[] { null, null, null });
   }
 
   @Test
@@ -927,6 +1043,48 @@ public class MappingsTest {
         Mappings.wrapUnmodifiableInt(new int[] { 1, 5, 6, 2, 3, 4 }));
   }
 
+  @Test
+  public void testOffHeapMappings() throws IOException, ClassNotFoundException {
+    OffHeapMapping.OfInt intMapping = checkIntMapping(
+        Mappings.toOffHeapInt(Mappings.wrapUnmodifiableInt(1, 5, 6, 2, 3)),
+        OffHeapMapping.OfInt.class, new Object[] { 1, 5, 6, 2, 3 });
+    assertEquals(Mappings.wrapUnmodifiableInt(1, 5, 6, 2, 3), intMapping);
+    OffHeapMapping.OfLong longMapping = checkLongMapping(
+        Mappings.toOffHeapLong(Mappings.newLongListFrom(4L, -1L, 1L << 40)),
+        OffHeapMapping.OfLong.class, new Object[] { 4L, -1L, 1L << 40 });
+    assertEquals(longMapping, Mappings.newLongListFrom(4L, -1L, 1L << 40));
+    OffHeapMapping.OfDouble doubleMapping = checkDoubleMapping(
+        Mappings.toOffHeapDouble(Mappings.newDoubleListFrom(0.5, Double.NaN, -3.)),
+        OffHeapMapping.OfDouble.class, new Object[] { 0.5, Double.NaN, -3. });
+    assertEquals(doubleMapping, Mappings.newDoubleListFrom(0.5, Double.NaN, -3.));
+    checkIntMapping(Mappings.toOffHeapInt(Mappings.intRange(0, 0)), OffHeapMapping.OfInt.class,
+        new Object[0]);
+
+    // serialization keeps the values off-heap
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(intMapping);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()))) {
+      OffHeapMapping.OfInt copy = (OffHeapMapping.OfInt) in.readObject();
+      assertEquals(intMapping, copy);
+      copy.close();
+    }
+
+    for (OffHeapMapping mapping : Arrays.asList(intMapping, longMapping, doubleMapping)) {
+      assertFalse(mapping.isClosed());
+      mapping.close();
+      assertTrue(mapping.isClosed());
+      mapping.close();
+      assertTrue(mapping.isClosed());
+    }
+    assertEquals(5, intMapping.size());
+    assertThrows(IllegalStateException.class, () -> intMapping.getInt(0));
+    assertThrows(IllegalStateException.class, () -> longMapping.iterator().nextLong());
+    assertThrows(IllegalStateException.class, () -> doubleMapping.toUnboxedArray());
+  }
+
   @Test
   public void testSafeCastConstMapping() {
     ConstMapping<?> map = Mappings.newIntList();
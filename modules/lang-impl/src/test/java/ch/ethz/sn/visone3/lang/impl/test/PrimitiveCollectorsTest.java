@@ -65,7 +65,7 @@ class PrimitiveCollectorsTest {
     assertEquals(PrimitiveList.OfDouble.class,
         PrimitiveCollectors.toList(double.class).resultType());
     assertThrows(UnsupportedOperationException.class,
-        () -> PrimitiveCollectors.toList(short.class));
+        () -> PrimitiveCollectors.toList(char.class));
     assertArrayEquals(new String[] { "quack", "bark", "moo", "bark", "woof" },
         PrimitiveCollectors.collect(Stream.of("quack", "bark", "moo", "bark", "woof"),
             PrimitiveCollectors.toListAutoboxing(String.class)).toArray(new String[0]));
@@ -86,13 +86,11 @@ class PrimitiveCollectorsTest {
             PrimitiveCollectors.toListAutoboxing(double.class)).toArray(new Double[0]));
     assertEquals(PrimitiveList.OfDouble.class,
         PrimitiveCollectors.toListAutoboxing(double.class).resultType());
-    assertArrayEquals(new Short[] { 5, 32, 4, 1, 2, 5, 3, 3 },
-        PrimitiveCollectors
-            .collect(Stream.of((short) 5, (short) 32, (short) 4, (short) 1, (short) 2, (short) 5,
-                (short) 3, (short) 3), PrimitiveCollectors.toListAutoboxing(short.class))
-            .toArray(new Short[0]));
+    assertArrayEquals(new Character[] { 'q', 'u', 'a', 'c', 'k' },
+        PrimitiveCollectors.collect(Stream.of('q', 'u', 'a', 'c', 'k'),
+            PrimitiveCollectors.toListAutoboxing(char.class)).toArray(new Character[0]));
     assertEquals(PrimitiveList.class,
-        PrimitiveCollectors.toListAutoboxing(short.class).resultType());
+        PrimitiveCollectors.toListAutoboxing(char.class).resultType());
   }
 
 }
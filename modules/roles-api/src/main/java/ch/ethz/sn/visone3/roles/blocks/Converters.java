@@ -128,6 +128,25 @@ public class Converters {
     return convert(IntDistanceMatrix.class, BinaryRelation.class, threshold);
   }
 
+  /**
+   * Converts distances into an equivalence by thresholding distances in both directions of
+   * comparison and closing transitively over the result. This is equivalent to, but considerably
+   * cheaper than, thresholding the distances by {@link #thresholdDistances(IntBinaryOperator)},
+   * symmetrizing the resulting binary relation and converting it by
+   * {@link #strongComponentsAsEquivalence()}.
+   * 
+   * @param threshold
+   *          a mapping such that node i is considered to be equivalent to j if their distance
+   *          doesn't exceed {@code threshold(i, j)} and their distance in the other direction
+   *          doesn't exceed {@code threshold(j, i)}, or if they are connected via a sequence of
+   *          such pairs
+   * @return the converter
+   */
+  public static RoleConverter<IntDistanceMatrix, ConstMapping.OfInt> //
+      thresholdDistancesAsEquivalence(IntBinaryOperator threshold) {
+    return convert(IntDistanceMatrix.class, ConstMapping.OfInt.class, threshold);
+  }
+
   /**
    * Always produces the single-class equivalence.
    * 
@@ -17,6 +17,9 @@
 
 package ch.ethz.sn.visone3.roles.blocks;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * This interface describes some operator that converts/transforms an object of type {@code T} to
  * type {@code U}.
@@ -37,6 +40,22 @@ public interface Operator<T, U> extends OperatorTraits {
    */
   U apply(T in);
 
+  /**
+   * Applies the operator to each of the given inputs.
+   * 
+   * <p>
+   * The inputs are processed concurrently by the operator. State that only
+   * depends on the network, such as ties sorted by a comparator, is prepared
+   * once by the first evaluation that needs it and shared by the others.
+   * 
+   * @param in
+   *          the inputs to apply the operator to
+   * @return the results of applying the operator, in the order of the inputs
+   */
+  default List<U> applyAll(List<? extends T> in) {
+    return in.parallelStream().map(this::apply).collect(Collectors.toList());
+  }
+
   /**
    * Releases any internal caches.
    */
@@ -17,6 +17,10 @@
 
 package ch.ethz.sn.visone3.roles.blocks;
 
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 import ch.ethz.sn.visone3.roles.spi.CompositionLoader;
 import ch.ethz.sn.visone3.roles.spi.CompositionService;
 
@@ -162,4 +166,44 @@ public class Operators {
       Operator<T, U> first, Operator<T, U>... rest) {
     return SERVICE.parallel(reducer, first, rest);
   }
+
+  /**
+   * Applies one operator definition to each of several networks (or other
+   * items), e.g., to a series of network snapshots.
+   * 
+   * <p>
+   * For each item, the operator is constructed once by the given factory
+   * function (typically through one of the builders offered by
+   * {@link RoleOperators} or {@link DistanceOperators}) and then applied to the
+   * input derived for this item. The items are processed concurrently.
+   * 
+   * <p>
+   * For example, the regular equivalences relative to the equivalences provided
+   * by {@code seedFor} can be computed for a list of networks as follows:
+   * 
+   * <pre>
+   * List&lt;Network&gt; networks = ...;
+   * Function&lt;Network, ConstMapping.OfInt&gt; seedFor = ...;
+   * List&lt;ConstMapping.OfInt&gt; results = Operators.applyToEach(networks,
+   *     network -&gt; RoleOperators.EQUIVALENCE.regular()
+   *         .of(NetworkView.fromNetworkRelation(network, Direction.OUTGOING)).make(),
+   *     seedFor);
+   * </pre>
+   * 
+   * @param items           the networks (or other items) to apply the
+   *                        operator definition to.
+   * @param operatorFactory produces the operator for an item.
+   * @param input           produces the input to the operator for an item.
+   * @param <N>             the type of the items.
+   * @param <T>             the input type of the operators.
+   * @param <U>             the result type of the operators.
+   * @return the results for the items, in the order of the items.
+   */
+  public static <N, T, U> List<U> applyToEach(List<? extends N> items,
+      Function<? super N, ? extends Operator<T, ? extends U>> operatorFactory,
+      Function<? super N, ? extends T> input) {
+    return items.parallelStream()
+        .map(item -> operatorFactory.apply(item).apply(input.apply(item)))
+        .collect(Collectors.toList());
+  }
 }
@@ -17,6 +17,9 @@
 
 package ch.ethz.sn.visone3.roles.blocks;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * This interface describes the fundamental operations supported by all commonly
  * used notions of roles: relative role ({@link #relative(Object)}), role
@@ -141,6 +144,91 @@ public interface RoleOperator<T> extends RoleConverter<T, T> {
     return in;
   }
 
+  /**
+   * Determines the role structures relative to each of the given input
+   * structures.
+   * 
+   * <p>
+   * The inputs are processed concurrently by this operator. State that only
+   * depends on the network, such as ties sorted by a comparator, is prepared
+   * once by the first evaluation that needs it and shared by the others.
+   * 
+   * @param in
+   *          the input role structures
+   * @return the role structures relative to the input structures, in the order
+   *         of the inputs
+   */
+  default List<T> relativeAll(List<? extends T> in) {
+    return in.parallelStream().map(this::relative).collect(Collectors.toList());
+  }
+
+  /**
+   * Determines the role restrictions of each of the given input role
+   * structures.
+   * 
+   * <p>
+   * The inputs are processed concurrently by this operator. State that only
+   * depends on the network, such as ties sorted by a comparator, is prepared
+   * once by the first evaluation that needs it and shared by the others.
+   * 
+   * @param in
+   *          the input role structures
+   * @return the role restrictions of the input structures, in the order of the
+   *         inputs
+   */
+  default List<T> restrictAll(List<? extends T> in) {
+    return in.parallelStream().map(this::restrict).collect(Collectors.toList());
+  }
+
+  /**
+   * Determines the role extensions of each of the given input role structures.
+   * 
+   * <p>
+   * The inputs are processed concurrently by this operator. State that only
+   * depends on the network, such as ties sorted by a comparator, is prepared
+   * once by the first evaluation that needs it and shared by the others.
+   * 
+   * @param in
+   *          the input role structures
+   * @return the role extensions of the input structures, in the order of the
+   *         inputs
+   */
+  default List<T> extendAll(List<? extends T> in) {
+    return in.parallelStream().map(this::extend).collect(Collectors.toList());
+  }
+
+  /**
+   * Determines the closures for each of the given input role structures.
+   * 
+   * <p>
+   * The inputs are processed concurrently by this operator. State that only
+   * depends on the network, such as ties sorted by a comparator, is prepared
+   * once by the first evaluation that needs it and shared by the others.
+   * 
+   * @param in
+   *          the input role structures
+   * @return the closures for the input structures, in the order of the inputs
+   */
+  default List<T> closureAll(List<? extends T> in) {
+    return in.parallelStream().map(this::closure).collect(Collectors.toList());
+  }
+
+  /**
+   * Determines the interiors of each of the given input role structures.
+   * 
+   * <p>
+   * The inputs are processed concurrently by this operator. State that only
+   * depends on the network, such as ties sorted by a comparator, is prepared
+   * once by the first evaluation that needs it and shared by the others.
+   * 
+   * @param in
+   *          the input role structures
+   * @return the interiors of the input structures, in the order of the inputs
+   */
+  default List<T> interiorAll(List<? extends T> in) {
+    return in.parallelStream().map(this::interior).collect(Collectors.toList());
+  }
+
   /**
    * Determines a role structure relative to a specified input structure.
    * 
@@ -211,4 +299,22 @@ public interface RoleOperator<T> extends RoleConverter<T, T> {
     return relativeCoarsening(in, toCoarsen);
   }
 
+  /**
+   * Determines the role structures relative to each of the given input
+   * structures.
+   * 
+   * <p>
+   * Prefer to use {@link #relativeAll(List)} instead.
+   * 
+   * @param in
+   *          the input role structures
+   * @return the role structures relative to the input structures, in the order
+   *         of the inputs
+   * @see #relativeAll(List)
+   */
+  @Override
+  default List<T> applyAll(List<? extends T> in) {
+    return relativeAll(in);
+  }
+
 }
@@ -24,6 +24,12 @@ import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
  * Builder base for distance operators, defining the signatures of functions for
  * specifying substitution costs.
  * 
+ * <p>
+ * On large networks, distance operators may process the nodes in parallel. The
+ * comparators and substitution costs passed to this builder may therefore be
+ * invoked concurrently from several threads and must be safe to do so, e.g.,
+ * by being stateless.
+ * 
  * @param <T> type used to represent ties.
  * @param <U> role structure type.
  * @param <V> the full builder type.
@@ -46,6 +52,9 @@ public interface DistanceOperatorBuilderBase<T, U, //
    * Note: Substitution cost of a tie by {@code null} is supposed to be the cost of failing to
    * substitute a tie.
    * 
+   * <p>
+   * The function may be invoked concurrently from several threads.
+   * 
    * @param substitutionCost
    *          the inherent cost in substituting the former tie by the latter
    * @return this builder (for chaining)
@@ -55,9 +64,54 @@ public interface DistanceOperatorBuilderBase<T, U, //
   /**
    * Sets costs for failing to substitute a tie.
    * 
+   * <p>
+   * The function may be invoked concurrently from several threads.
+   * 
    * @param substitutionCost
    *          the cost in failing to substitute the specified tie
    * @return this builder (for chaining)
    */
   V failCost(S substitutionCost);
+
+  /**
+   * Restricts the produced distance matrices to distances not exceeding the
+   * specified threshold. Larger distances are reported as
+   * {@link Integer#MAX_VALUE}, which allows for sparse representations of the
+   * produced distance matrices and for skipping the evaluation of pairs that are
+   * known to be far apart.
+   * 
+   * @param maxDistance
+   *          the largest distance that is retained
+   * @return this builder (for chaining)
+   * @throws IllegalArgumentException
+   *           if {@code maxDistance} is negative
+   */
+  V threshold(int maxDistance);
+
+  /**
+   * Approximates the produced distance matrices by evaluating distances only for
+   * candidate pairs of nodes that are likely to be close. The candidates are
+   * found by MinHash sketches and locality-sensitive hashing on a set describing
+   * each node: its neighbors for structural notions of role, the classes of its
+   * neighbors for regular notions of role relative to a role structure, and its
+   * degree band for weak notions of role. The distances of all other pairs are
+   * reported as {@link Integer#MAX_VALUE}.
+   * 
+   * <p>
+   * Two nodes whose sets have Jaccard similarity s are evaluated with
+   * probability {@code 1 - (1 - s^rows)^bands}. More bands raise the recall,
+   * more rows per band reduce the number of dissimilar candidates. Nodes with
+   * identical sets are always evaluated, unless more than a few hundred nodes
+   * agree on a band: such groups are split at random in each band, so that
+   * every node has a bounded number of candidates per band.
+   * 
+   * @param bands
+   *          the number of bands, at least one
+   * @param rows
+   *          the number of hash values per band, at least one
+   * @return this builder (for chaining)
+   * @throws IllegalArgumentException
+   *           if {@code bands} or {@code rows} is less than one
+   */
+  V approximate(int bands, int rows);
 }
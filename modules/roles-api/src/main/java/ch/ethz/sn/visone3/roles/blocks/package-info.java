@@ -102,5 +102,12 @@
  *         Converters.strongComponentsAsEquivalence()), // close on symmetric comparisons transitively
  *     RoleOperators.EQUIVALENCE.weak().of(networkView).make()); // and split off isolates
  * </pre>
+ * 
+ * <p>
+ * The inner composition of thresholding, symmetrization and strong components
+ * can also be expressed by the single converter
+ * {@code Converters.thresholdDistancesAsEquivalence((i, j) -> 1)}, which
+ * produces the same equivalence without materializing the intermediate binary
+ * relations.
  */
 package ch.ethz.sn.visone3.roles.blocks;
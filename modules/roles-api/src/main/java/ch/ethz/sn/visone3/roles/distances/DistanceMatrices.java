@@ -16,6 +16,10 @@
  */
 package ch.ethz.sn.visone3.roles.distances;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.IntBinaryOperator;
+
 import ch.ethz.sn.visone3.roles.spi.DistanceMatrixBuilderLoader;
 import ch.ethz.sn.visone3.roles.spi.DistanceMatrixBuilderService;
 
@@ -41,4 +45,266 @@ public class DistanceMatrices {
   public static IntDistanceMatrix fromMatrix(int[][] matrix) {
     return SERVICE.fromMatrix(matrix);
   }
+
+  /**
+   * Constructs a sparse distance matrix representation that retains only the
+   * distances not exceeding the specified threshold. All other distances are
+   * reported as {@link Integer#MAX_VALUE}.
+   * 
+   * @param matrix    the distance matrix.
+   * @param threshold the largest distance that is retained.
+   * @return the sparse distance matrix representation.
+   */
+  public static IntDistanceMatrix thresholded(IntDistanceMatrix matrix, int threshold) {
+    return SERVICE.thresholded(matrix, threshold);
+  }
+
+  /**
+   * Computes a sparse distance matrix representation that retains only the
+   * distances not exceeding the specified threshold. All other distances are
+   * reported as {@link Integer#MAX_VALUE}.
+   * 
+   * <p>
+   * The distance function is not evaluated for pairs whose lower bound already
+   * exceeds the threshold.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function computing the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function computing a lower bound on the distance between
+   *                    a pair of elements.
+   * @param threshold   the largest distance that is retained.
+   * @return the sparse distance matrix representation.
+   */
+  public static IntDistanceMatrix thresholded(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int threshold) {
+    return SERVICE.thresholded(size, distances, lowerBounds, threshold);
+  }
+
+  /**
+   * Lists, for each element, the {@code k} other elements at the smallest
+   * distances from it. Distances of {@link Integer#MAX_VALUE} are never listed,
+   * and ties are broken by increasing index.
+   * 
+   * <p>
+   * Sparse distance matrices are only searched among their stored distances, and
+   * the distances of role distance operators are evaluated with the distance to
+   * the current {@code k}-th nearest neighbor as bound, so that most pairs are
+   * given up early. The lists for different elements may be computed in
+   * parallel.
+   * 
+   * @param matrix the distance matrix.
+   * @param k      the maximum number of neighbors listed per element.
+   * @return the lists of nearest neighbors.
+   */
+  public static IntNeighborLists nearest(IntDistanceMatrix matrix, int k) {
+    return SERVICE.nearest(matrix, k);
+  }
+
+  /**
+   * Lists, for each element, the {@code k} other elements at the smallest
+   * distances from it. Distances of {@link Integer#MAX_VALUE} are never listed,
+   * and ties are broken by increasing index.
+   * 
+   * <p>
+   * The distance function is not evaluated for pairs whose lower bound shows
+   * that they cannot be among the {@code k} nearest neighbors. The lists for
+   * different elements may be computed in parallel, so both functions must be
+   * safe to call concurrently.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function computing the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function computing a lower bound on the distance between
+   *                    a pair of elements, or null if no lower bound is known.
+   * @param k           the maximum number of neighbors listed per element.
+   * @return the lists of nearest neighbors.
+   */
+  public static IntNeighborLists nearest(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int k) {
+    return SERVICE.nearest(size, distances, lowerBounds, k);
+  }
+
+  /**
+   * Lists, for each element, the other elements whose distances from it do not
+   * exceed the specified radius, ordered by increasing distance. Distances of
+   * {@link Integer#MAX_VALUE} are never listed.
+   * 
+   * <p>
+   * Sparse distance matrices are only searched among their stored distances, and
+   * the distances of role distance operators are evaluated with the radius as
+   * bound. The lists for different elements may be computed in parallel.
+   * 
+   * @param matrix the distance matrix.
+   * @param radius the largest distance that is listed.
+   * @return the lists of neighbors within the radius.
+   */
+  public static IntNeighborLists withinRadius(IntDistanceMatrix matrix, int radius) {
+    return SERVICE.withinRadius(matrix, radius);
+  }
+
+  /**
+   * Lists, for each element, the other elements whose distances from it do not
+   * exceed the specified radius, ordered by increasing distance. Distances of
+   * {@link Integer#MAX_VALUE} are never listed.
+   * 
+   * <p>
+   * The distance function is not evaluated for pairs whose lower bound already
+   * exceeds the radius. The lists for different elements may be computed in
+   * parallel, so both functions must be safe to call concurrently.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function computing the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function computing a lower bound on the distance between
+   *                    a pair of elements, or null if no lower bound is known.
+   * @param radius      the largest distance that is listed.
+   * @return the lists of neighbors within the radius.
+   */
+  public static IntNeighborLists withinRadius(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int radius) {
+    return SERVICE.withinRadius(size, distances, lowerBounds, radius);
+  }
+
+  /**
+   * Creates a file-backed distance matrix that is filled row by row through the
+   * returned writer. The file is memory-mapped, so the distances do not occupy
+   * heap memory.
+   * 
+   * <p>
+   * With one or two bytes per distance, distances saturate: the largest
+   * representable value of the cell width (255 or 65535, respectively) and all
+   * larger distances are read back as {@link Integer#MAX_VALUE}, and negative
+   * distances are rejected. With four bytes per distance, all integers are
+   * stored exactly.
+   * 
+   * @param file             the file to store the matrix in.
+   * @param size             the size of the domain.
+   * @param bytesPerDistance the number of bytes per stored distance (1, 2 or
+   *                         4).
+   * @return the writer for the rows of the matrix.
+   * @throws IOException              if the file cannot be created.
+   * @throws IllegalArgumentException if the cell width is not supported.
+   */
+  public static IntDistanceMatrixWriter fileWriter(Path file, int size, int bytesPerDistance)
+      throws IOException {
+    return SERVICE.fileWriter(file, size, bytesPerDistance);
+  }
+
+  /**
+   * Stores the distances of the specified matrix in a memory-mapped file and
+   * returns the file-backed distance matrix. Lazily computed distance matrices,
+   * such as the ones produced by role distance operators, are evaluated row by
+   * row without caching the distances in memory. Cell widths of one or two bytes
+   * saturate as described for {@link #fileWriter(Path, int, int)}.
+   * 
+   * @param matrix           the distance matrix.
+   * @param file             the file to store the matrix in.
+   * @param bytesPerDistance the number of bytes per stored distance (1, 2 or
+   *                         4).
+   * @return the file-backed distance matrix.
+   * @throws IOException              if the file cannot be written.
+   * @throws IllegalArgumentException if the cell width is not supported.
+   */
+  public static IntDistanceMatrix toFile(IntDistanceMatrix matrix, Path file,
+      int bytesPerDistance) throws IOException {
+    return SERVICE.toFile(matrix, file, bytesPerDistance);
+  }
+
+  /**
+   * Opens a distance matrix previously stored in a file by
+   * {@link #fileWriter(Path, int, int)} or
+   * {@link #toFile(IntDistanceMatrix, Path, int)}. The file is memory-mapped, so
+   * the distances do not occupy heap memory.
+   * 
+   * @param file the file the matrix is stored in.
+   * @return the file-backed distance matrix.
+   * @throws IOException if the file cannot be read or does not contain a
+   *                     distance matrix.
+   */
+  public static IntDistanceMatrix fromFile(Path file) throws IOException {
+    return SERVICE.fromFile(file);
+  }
+
+  /**
+   * Determines whether two distance matrices have the same domain size and
+   * contain the same distances.
+   * 
+   * @param matrix1 the first distance matrix.
+   * @param matrix2 the second distance matrix.
+   * @return true if the two matrices have the same domain size and contain the
+   *         same distances, otherwise false.
+   */
+  public static boolean equals(IntDistanceMatrix matrix1, IntDistanceMatrix matrix2) {
+    if (matrix1 == matrix2) {
+      return true;
+    }
+    if (matrix1 == null || matrix2 == null) {
+      return false;
+    }
+    final int size = matrix1.getDomainSize();
+    if (size != matrix2.getDomainSize()) {
+      return false;
+    }
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) {
+        if (matrix1.getDistance(i, j) != matrix2.getDistance(i, j)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Determines the hash code of a distance matrix.
+   * 
+   * @param matrix the distance matrix.
+   * @return the hash code.
+   */
+  public static int hashCode(IntDistanceMatrix matrix) {
+    final int size = matrix.getDomainSize();
+    int hash = 1;
+    for (int i = 0; i < size; ++i) {
+      int innerHash = 1;
+      for (int j = 0; j < size; ++j) {
+        innerHash = 31 * innerHash + matrix.getDistance(i, j);
+      }
+      hash = 31 * hash + innerHash;
+    }
+    return hash;
+  }
+
+  /**
+   * Produces a string representation of a distance matrix.
+   * 
+   * @param matrix the distance matrix.
+   * @return the string representation.
+   */
+  public static String toString(IntDistanceMatrix matrix) {
+    StringBuilder builder = new StringBuilder();
+    final int size = matrix.getDomainSize();
+    builder.append('{');
+    builder.append(size);
+    builder.append(", [");
+    if (size > 0) {
+      builder.append('[');
+    }
+    for (int i = 0; i < size; ++i) {
+      if (i > 0) {
+        builder.append("], [");
+      }
+      for (int j = 0; j < size; ++j) {
+        if (j > 0) {
+          builder.append(",");
+        }
+        builder.append(matrix.getDistance(i, j));
+      }
+    }
+    if (size > 0) {
+      builder.append(']');
+    }
+    builder.append("]}");
+    return builder.toString();
+  }
 }
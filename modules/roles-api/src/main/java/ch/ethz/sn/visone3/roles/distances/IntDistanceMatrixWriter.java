@@ -0,0 +1,67 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.distances;
+
+import java.io.IOException;
+
+/**
+ * Writes the rows of an integer distance matrix one block at a time, so that
+ * the matrix never has to be held in memory as a whole. Rows that are never
+ * written contain only zero distances.
+ */
+public interface IntDistanceMatrixWriter {
+
+  /**
+   * Returns the size of the domain.
+   * 
+   * @return the size.
+   */
+  public int getDomainSize();
+
+  /**
+   * Writes a single row of the matrix.
+   * 
+   * @param i         the row.
+   * @param distances the distances from {@code i} to all elements of the domain.
+   * @throws IllegalArgumentException if the number of distances does not match
+   *                                  the domain size or a distance cannot be
+   *                                  stored.
+   * @throws IllegalStateException    if the writer has already been finished.
+   */
+  public void writeRow(int i, int[] distances);
+
+  /**
+   * Writes a block of consecutive rows of the matrix.
+   * 
+   * @param firstRow the first row of the block.
+   * @param rows     the distances of each row in the block.
+   * @throws IllegalArgumentException if the number of distances in a row does
+   *                                  not match the domain size or a distance
+   *                                  cannot be stored.
+   * @throws IllegalStateException    if the writer has already been finished.
+   */
+  public void writeRows(int firstRow, int[][] rows);
+
+  /**
+   * Finishes writing, makes sure that all rows have been stored, and returns
+   * the written distance matrix.
+   * 
+   * @return the written distance matrix.
+   * @throws IOException if storing the rows fails.
+   */
+  public IntDistanceMatrix finish() throws IOException;
+}
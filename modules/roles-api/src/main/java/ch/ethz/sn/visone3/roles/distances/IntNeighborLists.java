@@ -0,0 +1,80 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.distances;
+
+/**
+ * Represents, for each element of a quadratic domain of a particular size, a
+ * list of other elements together with their distances from it. Each list is
+ * ordered by increasing distance, and elements at the same distance are ordered
+ * by increasing index.
+ */
+public interface IntNeighborLists {
+
+  /**
+   * Returns the size of the domain.
+   * 
+   * @return the size.
+   */
+  public int getDomainSize();
+
+  /**
+   * Returns the number of neighbors listed for {@code i}.
+   * 
+   * @param i the element.
+   * @return the number of neighbors of {@code i}.
+   */
+  public int countNeighbors(int i);
+
+  /**
+   * Returns the neighbor of {@code i} at the specified position in its list.
+   * 
+   * @param i   the element.
+   * @param pos the position in the list, between 0 (inclusive) and
+   *            {@code countNeighbors(i)} (exclusive).
+   * @return the neighbor at position {@code pos}.
+   */
+  public int getNeighbor(int i, int pos);
+
+  /**
+   * Returns the distance from {@code i} to its neighbor at the specified
+   * position in its list.
+   * 
+   * @param i   the element.
+   * @param pos the position in the list, between 0 (inclusive) and
+   *            {@code countNeighbors(i)} (exclusive).
+   * @return the distance from {@code i} to the neighbor at position
+   *         {@code pos}.
+   */
+  public int getDistance(int i, int pos);
+
+  /**
+   * Returns the neighbors of {@code i} as a new array, ordered as in the list.
+   * 
+   * @param i the element.
+   * @return the neighbors of {@code i}.
+   */
+  public int[] getNeighbors(int i);
+
+  /**
+   * Returns the distances from {@code i} to its neighbors as a new array,
+   * ordered as in the list.
+   * 
+   * @param i the element.
+   * @return the distances from {@code i} to its neighbors.
+   */
+  public int[] getDistances(int i);
+}
@@ -16,7 +16,13 @@
  */
 package ch.ethz.sn.visone3.roles.spi;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.IntBinaryOperator;
+
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrixWriter;
+import ch.ethz.sn.visone3.roles.distances.IntNeighborLists;
 
 /**
  * Service offering operations on distance matrices.
@@ -31,4 +37,127 @@ public interface DistanceMatrixBuilderService {
    * @return the distance matrix representation.
    */
   public IntDistanceMatrix fromMatrix(int[][] matrix);
+
+  /**
+   * Constructs a sparse distance matrix representation that retains only the
+   * distances not exceeding the specified threshold. All other distances are
+   * reported as {@link Integer#MAX_VALUE}.
+   * 
+   * @param matrix    the distance matrix.
+   * @param threshold the largest distance that is retained.
+   * @return the sparse distance matrix representation.
+   */
+  public IntDistanceMatrix thresholded(IntDistanceMatrix matrix, int threshold);
+
+  /**
+   * Computes a sparse distance matrix representation that retains only the
+   * distances not exceeding the specified threshold. All other distances are
+   * reported as {@link Integer#MAX_VALUE}. The distance function is not
+   * evaluated for pairs whose lower bound already exceeds the threshold.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function computing the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function computing a lower bound on the distance between
+   *                    a pair of elements.
+   * @param threshold   the largest distance that is retained.
+   * @return the sparse distance matrix representation.
+   */
+  public IntDistanceMatrix thresholded(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int threshold);
+
+  /**
+   * Lists, for each element, the {@code k} other elements at the smallest
+   * distances from it. Distances of {@link Integer#MAX_VALUE} are never listed,
+   * and ties are broken by increasing index.
+   * 
+   * @param matrix the distance matrix.
+   * @param k      the maximum number of neighbors listed per element.
+   * @return the lists of nearest neighbors.
+   */
+  public IntNeighborLists nearest(IntDistanceMatrix matrix, int k);
+
+  /**
+   * Lists, for each element, the {@code k} other elements at the smallest
+   * distances from it. Distances of {@link Integer#MAX_VALUE} are never listed,
+   * and ties are broken by increasing index. The distance function is not
+   * evaluated for pairs whose lower bound shows that they cannot be among the
+   * {@code k} nearest neighbors.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function computing the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function computing a lower bound on the distance between
+   *                    a pair of elements, or null if no lower bound is known.
+   * @param k           the maximum number of neighbors listed per element.
+   * @return the lists of nearest neighbors.
+   */
+  public IntNeighborLists nearest(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int k);
+
+  /**
+   * Lists, for each element, the other elements whose distances from it do not
+   * exceed the specified radius. Distances of {@link Integer#MAX_VALUE} are never
+   * listed.
+   * 
+   * @param matrix the distance matrix.
+   * @param radius the largest distance that is listed.
+   * @return the lists of neighbors within the radius.
+   */
+  public IntNeighborLists withinRadius(IntDistanceMatrix matrix, int radius);
+
+  /**
+   * Lists, for each element, the other elements whose distances from it do not
+   * exceed the specified radius. Distances of {@link Integer#MAX_VALUE} are never
+   * listed. The distance function is not evaluated for pairs whose lower bound
+   * already exceeds the radius.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function computing the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function computing a lower bound on the distance between
+   *                    a pair of elements, or null if no lower bound is known.
+   * @param radius      the largest distance that is listed.
+   * @return the lists of neighbors within the radius.
+   */
+  public IntNeighborLists withinRadius(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int radius);
+
+  /**
+   * Creates a file-backed distance matrix that is filled row by row through the
+   * returned writer.
+   * 
+   * @param file             the file to store the matrix in.
+   * @param size             the size of the domain.
+   * @param bytesPerDistance the number of bytes per stored distance (1, 2 or
+   *                         4).
+   * @return the writer for the rows of the matrix.
+   * @throws IOException if the file cannot be created.
+   */
+  public IntDistanceMatrixWriter fileWriter(Path file, int size, int bytesPerDistance)
+      throws IOException;
+
+  /**
+   * Stores the distances of the specified matrix in a file and returns the
+   * file-backed distance matrix.
+   * 
+   * @param matrix           the distance matrix.
+   * @param file             the file to store the matrix in.
+   * @param bytesPerDistance the number of bytes per stored distance (1, 2 or
+   *                         4).
+   * @return the file-backed distance matrix.
+   * @throws IOException if the file cannot be written.
+   */
+  public IntDistanceMatrix toFile(IntDistanceMatrix matrix, Path file, int bytesPerDistance)
+      throws IOException;
+
+  /**
+   * Opens a distance matrix previously stored in a file.
+   * 
+   * @param file the file the matrix is stored in.
+   * @return the file-backed distance matrix.
+   * @throws IOException if the file cannot be read or does not contain a
+   *                     distance matrix.
+   */
+  public IntDistanceMatrix fromFile(Path file) throws IOException;
 }
@@ -0,0 +1,41 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.spi;
+
+import java.util.NoSuchElementException;
+import java.util.ServiceLoader;
+
+/**
+ * Loader for the registered role result format service.
+ */
+public class RoleResultFormatLoader {
+
+  private RoleResultFormatLoader() {
+
+  }
+
+  /**
+   * Returns the registered role result format service.
+   * 
+   * @return the registered role result format service.
+   * @throws NoSuchElementException if no role result format service is
+   *                                registered.
+   */
+  public static RoleResultFormatService getService() {
+    return ServiceLoader.load(RoleResultFormatService.class).iterator().next();
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.spi;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
+import ch.ethz.sn.visone3.roles.structures.Ranking;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Service offering binary formats to store the results of role operators.
+ * Readers of streams must not consume bytes beyond the end of the result they
+ * read.
+ */
+public interface RoleResultFormatService {
+
+  /**
+   * Writes an equivalence to the output stream. The stream is flushed, but not
+   * closed.
+   * 
+   * @param equivalence the equivalence.
+   * @param out         the output stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  void writeEquivalence(ConstMapping.OfInt equivalence, OutputStream out) throws IOException;
+
+  /**
+   * Writes a binary relation to the output stream. The stream is flushed, but
+   * not closed.
+   * 
+   * @param relation the binary relation.
+   * @param out      the output stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  void writeRelation(BinaryRelation relation, OutputStream out) throws IOException;
+
+  /**
+   * Writes a ranking to the output stream. The stream is flushed, but not
+   * closed.
+   * 
+   * @param ranking the ranking.
+   * @param out     the output stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  void writeRanking(Ranking ranking, OutputStream out) throws IOException;
+
+  /**
+   * Writes a distance matrix to the output stream. Lazily computed distance
+   * matrices should be evaluated without filling their cache. The stream is
+   * flushed, but not closed.
+   * 
+   * @param matrix   the distance matrix.
+   * @param compress true if the blocks of rows should be deflated, false
+   *                 otherwise.
+   * @param out      the output stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  void writeDistances(IntDistanceMatrix matrix, boolean compress, OutputStream out)
+      throws IOException;
+
+  /**
+   * Reads an equivalence from the input stream.
+   * 
+   * @param in the input stream.
+   * @return the equivalence.
+   * @throws IOException if reading fails or the stream does not contain an
+   *                     equivalence.
+   */
+  Mapping.OfInt readEquivalence(InputStream in) throws IOException;
+
+  /**
+   * Reads an equivalence from a file.
+   * 
+   * @param file the file.
+   * @return the equivalence.
+   * @throws IOException if reading fails or the file does not contain an
+   *                     equivalence.
+   */
+  Mapping.OfInt readEquivalence(Path file) throws IOException;
+
+  /**
+   * Reads a binary relation or ranking from the input stream as a binary
+   * relation.
+   * 
+   * @param in the input stream.
+   * @return the binary relation.
+   * @throws IOException if reading fails or the stream does not contain a
+   *                     binary relation or ranking.
+   */
+  BinaryRelation readRelation(InputStream in) throws IOException;
+
+  /**
+   * Reads a binary relation or ranking from a file as a binary relation.
+   * 
+   * @param file the file.
+   * @return the binary relation.
+   * @throws IOException if reading fails or the file does not contain a binary
+   *                     relation or ranking.
+   */
+  BinaryRelation readRelation(Path file) throws IOException;
+
+  /**
+   * Reads a ranking from the input stream.
+   * 
+   * @param in the input stream.
+   * @return the ranking.
+   * @throws IOException if reading fails or the stream does not contain a
+   *                     ranking.
+   */
+  Ranking readRanking(InputStream in) throws IOException;
+
+  /**
+   * Reads a ranking from a file.
+   * 
+   * @param file the file.
+   * @return the ranking.
+   * @throws IOException if reading fails or the file does not contain a
+   *                     ranking.
+   */
+  Ranking readRanking(Path file) throws IOException;
+
+  /**
+   * Reads a distance matrix from the input stream.
+   * 
+   * @param in the input stream.
+   * @return the distance matrix.
+   * @throws IOException if reading fails or the stream does not contain a
+   *                     distance matrix.
+   */
+  IntDistanceMatrix readDistances(InputStream in) throws IOException;
+
+  /**
+   * Reads a distance matrix from a file.
+   * 
+   * @param file the file.
+   * @return the distance matrix.
+   * @throws IOException if reading fails or the file does not contain a
+   *                     distance matrix.
+   */
+  IntDistanceMatrix readDistances(Path file) throws IOException;
+
+  /**
+   * Reads a distance matrix from the input stream and stores it in a
+   * memory-mapped file instead of heap memory. The rows are decoded one at a
+   * time and written to the file as by
+   * {@link ch.ethz.sn.visone3.roles.distances.DistanceMatrices#fileWriter(Path, int, int)},
+   * so cell widths of one or two bytes saturate.
+   * 
+   * @param in               the input stream.
+   * @param target           the file to store the matrix in.
+   * @param bytesPerDistance the number of bytes per stored distance (1, 2 or
+   *                         4).
+   * @return the file-backed distance matrix.
+   * @throws IOException              if reading fails, the stream does not
+   *                                  contain a distance matrix or the target
+   *                                  file cannot be written.
+   * @throws IllegalArgumentException if the cell width is not supported or a
+   *                                  distance cannot be stored in it.
+   */
+  IntDistanceMatrix readDistances(InputStream in, Path target, int bytesPerDistance)
+      throws IOException;
+
+  /**
+   * Reads a distance matrix from a file and stores it in another memory-mapped
+   * file instead of heap memory. The rows are decoded one at a time and written
+   * to the target file as by
+   * {@link ch.ethz.sn.visone3.roles.distances.DistanceMatrices#fileWriter(Path, int, int)},
+   * so cell widths of one or two bytes saturate.
+   * 
+   * @param file             the file.
+   * @param target           the file to store the matrix in.
+   * @param bytesPerDistance the number of bytes per stored distance (1, 2 or
+   *                         4).
+   * @return the file-backed distance matrix.
+   * @throws IOException              if reading fails, the file does not
+   *                                  contain a distance matrix or the target
+   *                                  file cannot be written.
+   * @throws IllegalArgumentException if the cell width is not supported or a
+   *                                  distance cannot be stored in it.
+   */
+  IntDistanceMatrix readDistances(Path file, Path target, int bytesPerDistance)
+      throws IOException;
+}
@@ -0,0 +1,273 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.roles.util;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.networks.ReorderableNetwork;
+import ch.ethz.sn.visone3.networks.VertexOrderings;
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
+import ch.ethz.sn.visone3.roles.structures.Ranking;
+import ch.ethz.sn.visone3.roles.structures.RelationBase;
+import ch.ethz.sn.visone3.roles.structures.RelationBuilder;
+import ch.ethz.sn.visone3.roles.structures.RelationBuilders;
+
+import java.util.Arrays;
+
+/**
+ * Translates role inputs and results between a network and a copy with renumbered vertices.
+ *
+ * <p>
+ * Role operators can be run on a network whose vertices have been renumbered for better memory
+ * locality by {@link ReorderableNetwork#permuteVertices(ConstMapping.OfInt)}. The methods of this
+ * class translate the vertex-based inputs of the operators (equivalences, rankings, relations) to
+ * the renumbered network and their results back to the original vertex numbering. Link mappings
+ * need no translation, since renumbering retains the edge indices.
+ *
+ * <p>
+ * All methods take the vertex order passed to {@code permuteVertices}, i.e., vertex
+ * {@code order[k]} of the original network is vertex {@code k} of the renumbered network.
+ */
+public final class RoleReorderings {
+  private RoleReorderings() {
+  }
+
+  /**
+   * Translates an equivalence on the original network to the renumbered network.
+   *
+   * @param equivalence
+   *          the equivalence on the original network.
+   * @param order
+   *          the vertex order.
+   * @return the normalized equivalence on the renumbered network.
+   */
+  public static Mapping.OfInt toReordered(final ConstMapping.OfInt equivalence,
+      final ConstMapping.OfInt order) {
+    checkSize(equivalence.size(), checkPermutation(order));
+    final int[] result = new int[order.size()];
+    for (int k = 0; k < result.length; ++k) {
+      result[k] = equivalence.getInt(order.getInt(k));
+    }
+    return normalize(result);
+  }
+
+  /**
+   * Translates an equivalence on the renumbered network back to the original network.
+   *
+   * @param equivalence
+   *          the equivalence on the renumbered network.
+   * @param order
+   *          the vertex order.
+   * @return the normalized equivalence on the original network.
+   */
+  public static Mapping.OfInt toOriginal(final ConstMapping.OfInt equivalence,
+      final ConstMapping.OfInt order) {
+    checkSize(equivalence.size(), checkPermutation(order));
+    final int[] result = new int[order.size()];
+    for (int k = 0; k < result.length; ++k) {
+      result[order.getInt(k)] = equivalence.getInt(k);
+    }
+    return normalize(result);
+  }
+
+  /**
+   * Translates a ranking on the original network to the renumbered network.
+   *
+   * @param ranking
+   *          the ranking on the original network.
+   * @param order
+   *          the vertex order.
+   * @return the ranking on the renumbered network.
+   */
+  public static Ranking toReordered(final Ranking ranking, final ConstMapping.OfInt order) {
+    return relabel(ranking, VertexOrderings.inverse(order),
+        RelationBuilders.denseUnsafeRankingBuilder(order.size()));
+  }
+
+  /**
+   * Translates a ranking on the renumbered network back to the original network.
+   *
+   * @param ranking
+   *          the ranking on the renumbered network.
+   * @param order
+   *          the vertex order.
+   * @return the ranking on the original network.
+   */
+  public static Ranking toOriginal(final Ranking ranking, final ConstMapping.OfInt order) {
+    return relabel(ranking, checkPermutation(order),
+        RelationBuilders.denseUnsafeRankingBuilder(order.size()));
+  }
+
+  /**
+   * Translates a binary relation on the original network to the renumbered network.
+   *
+   * @param relation
+   *          the binary relation on the original network.
+   * @param order
+   *          the vertex order.
+   * @return the binary relation on the renumbered network.
+   */
+  public static BinaryRelation toReordered(final BinaryRelation relation,
+      final ConstMapping.OfInt order) {
+    return relabel(relation, VertexOrderings.inverse(order),
+        RelationBuilders.denseRelationBuilder(order.size()));
+  }
+
+  /**
+   * Translates a binary relation on the renumbered network back to the original network.
+   *
+   * @param relation
+   *          the binary relation on the renumbered network.
+   * @param order
+   *          the vertex order.
+   * @return the binary relation on the original network.
+   */
+  public static BinaryRelation toOriginal(final BinaryRelation relation,
+      final ConstMapping.OfInt order) {
+    return relabel(relation, checkPermutation(order),
+        RelationBuilders.denseRelationBuilder(order.size()));
+  }
+
+  /**
+   * Produces a view of a distance matrix on the renumbered network in terms of the original
+   * vertices. The view does not copy the distances, so row {@code i} of the view reads row
+   * {@code position[i]} of the underlying matrix.
+   *
+   * @param distances
+   *          the distance matrix on the renumbered network.
+   * @param order
+   *          the vertex order.
+   * @return the distance matrix on the original network.
+   */
+  public static IntDistanceMatrix toOriginal(final IntDistanceMatrix distances,
+      final ConstMapping.OfInt order) {
+    checkSize(distances.getDomainSize(), order);
+    return new RelabeledDistanceMatrix(distances, VertexOrderings.inverse(order).array());
+  }
+
+  /**
+   * Produces a view of a distance matrix on the original network in terms of the renumbered
+   * vertices. The view does not copy the distances.
+   *
+   * @param distances
+   *          the distance matrix on the original network.
+   * @param order
+   *          the vertex order.
+   * @return the distance matrix on the renumbered network.
+   */
+  public static IntDistanceMatrix toReordered(final IntDistanceMatrix distances,
+      final ConstMapping.OfInt order) {
+    checkSize(distances.getDomainSize(), order);
+    return new RelabeledDistanceMatrix(distances, checkPermutation(order).toUnboxedArray());
+  }
+
+  private static <T extends RelationBase> T relabel(final RelationBase relation,
+      final ConstMapping.OfInt newIds, final RelationBuilder<? extends T> builder) {
+    final int n = relation.domainSize();
+    checkSize(n, newIds);
+    for (int i = 0; i < n; ++i) {
+      final int newI = newIds.getInt(i);
+      for (final int j : relation.iterateInRelationFrom(i)) {
+        builder.add(newI, newIds.getInt(j));
+      }
+    }
+    return builder.build();
+  }
+
+  private static void checkSize(final int size, final ConstMapping.OfInt order) {
+    if (size != order.size()) {
+      throw new IllegalArgumentException(
+          "order size " + order.size() + " does not match domain size " + size);
+    }
+  }
+
+  private static ConstMapping.OfInt checkPermutation(final ConstMapping.OfInt order) {
+    VertexOrderings.inverse(order);
+    return order;
+  }
+
+  private static Mapping.OfInt normalize(final int[] equivalence) {
+    int maxClass = -1;
+    for (final int c : equivalence) {
+      maxClass = Math.max(maxClass, c);
+    }
+    final int[] classes = new int[maxClass + 1];
+    Arrays.fill(classes, -1);
+    int next = 0;
+    for (int i = 0; i < equivalence.length; ++i) {
+      final int c = equivalence[i];
+      if (classes[c] < 0) {
+        classes[c] = next++;
+      }
+      equivalence[i] = classes[c];
+    }
+    return Mappings.wrapModifiableInt(equivalence);
+  }
+
+  private static final class RelabeledDistanceMatrix implements IntDistanceMatrix {
+    private final IntDistanceMatrix distances;
+    private final int[] rows;
+
+    RelabeledDistanceMatrix(final IntDistanceMatrix distances, final int[] rows) {
+      this.distances = distances;
+      this.rows = rows;
+    }
+
+    @Override
+    public int getDomainSize() {
+      return rows.length;
+    }
+
+    @Override
+    public int getDistance(final int i, final int j) {
+      return distances.getDistance(rows[i], rows[j]);
+    }
+
+    @Override
+    public int[][] asMatrix() {
+      final int[][] result = new int[rows.length][rows.length];
+      for (int i = 0; i < rows.length; ++i) {
+        for (int j = 0; j < rows.length; ++j) {
+          result[i][j] = distances.getDistance(rows[i], rows[j]);
+        }
+      }
+      return result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (!(obj instanceof IntDistanceMatrix)) {
+        return false;
+      }
+      return DistanceMatrices.equals(this, (IntDistanceMatrix) obj);
+    }
+
+    @Override
+    public int hashCode() {
+      return DistanceMatrices.hashCode(this);
+    }
+
+    @Override
+    public String toString() {
+      return DistanceMatrices.toString(this);
+    }
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.roles.util;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.spi.RoleResultFormatLoader;
+import ch.ethz.sn.visone3.roles.spi.RoleResultFormatService;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
+import ch.ethz.sn.visone3.roles.structures.Ranking;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+/**
+ * Provides compact binary formats to store the results of role operators, that
+ * is, equivalences, rankings, binary relations and distance matrices, so that
+ * they can be passed between computations without recomputing them.
+ *
+ * <p>
+ * Each result starts with a header consisting of a magic number, the kind of
+ * the result, flags and the domain size. Integers are stored as variable-length
+ * quantities of seven bits per byte.
+ * <ul>
+ * <li>Equivalences store the class of each element.</li>
+ * <li>Binary relations and rankings store the row of each element either as a
+ * bitset or as a sorted list of column gaps, whichever is shorter.</li>
+ * <li>Distance matrices are stored in blocks of rows that are optionally
+ * deflated.</li>
+ * </ul>
+ * The content following the header is split into length-prefixed frames and
+ * ends with an empty frame. Reading a result from a stream consumes exactly the
+ * bytes of this result, so several results written to the same stream can be
+ * read one after another.
+ *
+ * <p>
+ * Results read from files are decoded from a memory-mapped view of the file.
+ * Distance matrices that should stay off-heap are better stored by
+ * {@link DistanceMatrices#toFile(IntDistanceMatrix, Path, int)}.
+ */
+public final class RoleResultFormats {
+
+  private RoleResultFormats() {
+  }
+
+  private static final RoleResultFormatService SERVICE = RoleResultFormatLoader.getService();
+
+  /**
+   * Writes an equivalence to the output stream. The stream is flushed, but not
+   * closed.
+   * 
+   * @param equivalence the equivalence.
+   * @param out         the output stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  public static void writeEquivalence(ConstMapping.OfInt equivalence, OutputStream out)
+      throws IOException {
+    SERVICE.writeEquivalence(equivalence, out);
+  }
+
+  /**
+   * Writes a binary relation to the output stream. The stream is flushed, but
+   * not closed.
+   * 
+   * @param relation the binary relation.
+   * @param out      the output stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  public static void writeRelation(BinaryRelation relation, OutputStream out)
+      throws IOException {
+    SERVICE.writeRelation(relation, out);
+  }
+
+  /**
+   * Writes a ranking to the output stream. The stream is flushed, but not
+   * closed.
+   * 
+   * @param ranking the ranking.
+   * @param out     the output stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  public static void writeRanking(Ranking ranking, OutputStream out) throws IOException {
+    SERVICE.writeRanking(ranking, out);
+  }
+
+  /**
+   * Writes a distance matrix to the output stream. Lazily computed distance
+   * matrices are evaluated row by row without filling their cache. The stream is
+   * flushed, but not closed.
+   * 
+   * @param matrix   the distance matrix.
+   * @param compress true if the blocks of rows should be deflated, false
+   *                 otherwise.
+   * @param out      the output stream.
+   * @throws IOException if writing to the stream fails.
+   */
+  public static void writeDistances(IntDistanceMatrix matrix, boolean compress,
+      OutputStream out) throws IOException {
+    SERVICE.writeDistances(matrix, compress, out);
+  }
+
+  /**
+   * Reads an equivalence from the input stream.
+   * 
+   * @param in the input stream.
+   * @return the equivalence.
+   * @throws IOException if reading fails or the stream does not contain an
+   *                     equivalence.
+   */
+  public static Mapping.OfInt readEquivalence(InputStream in) throws IOException {
+    return SERVICE.readEquivalence(in);
+  }
+
+  /**
+   * Reads an equivalence from a memory-mapped file.
+   * 
+   * @param file the file.
+   * @return the equivalence.
+   * @throws IOException if reading fails or the file does not contain an
+   *                     equivalence.
+   */
+  public static Mapping.OfInt readEquivalence(Path file) throws IOException {
+    return SERVICE.readEquivalence(file);
+  }
+
+  /**
+   * Reads a binary relation from the input stream. Stored rankings are read as
+   * binary relations as well.
+   * 
+   * @param in the input stream.
+   * @return the binary relation.
+   * @throws IOException if reading fails or the stream does not contain a
+   *                     binary relation or ranking.
+   */
+  public static BinaryRelation readRelation(InputStream in) throws IOException {
+    return SERVICE.readRelation(in);
+  }
+
+  /**
+   * Reads a binary relation from a memory-mapped file. Stored rankings are read
+   * as binary relations as well.
+   * 
+   * @param file the file.
+   * @return the binary relation.
+   * @throws IOException if reading fails or the file does not contain a binary
+   *                     relation or ranking.
+   */
+  public static BinaryRelation readRelation(Path file) throws IOException {
+    return SERVICE.readRelation(file);
+  }
+
+  /**
+   * Reads a ranking from the input stream.
+   * 
+   * @param in the input stream.
+   * @return the ranking.
+   * @throws IOException if reading fails or the stream does not contain a
+   *                     ranking.
+   */
+  public static Ranking readRanking(InputStream in) throws IOException {
+    return SERVICE.readRanking(in);
+  }
+
+  /**
+   * Reads a ranking from a memory-mapped file.
+   * 
+   * @param file the file.
+   * @return the ranking.
+   * @throws IOException if reading fails or the file does not contain a
+   *                     ranking.
+   */
+  public static Ranking readRanking(Path file) throws IOException {
+    return SERVICE.readRanking(file);
+  }
+
+  /**
+   * Reads a distance matrix from the input stream.
+   * 
+   * @param in the input stream.
+   * @return the distance matrix.
+   * @throws IOException if reading fails or the stream does not contain a
+   *                     distance matrix.
+   */
+  public static IntDistanceMatrix readDistances(InputStream in) throws IOException {
+    return SERVICE.readDistances(in);
+  }
+
+  /**
+   * Reads a distance matrix from a memory-mapped file.
+   * 
+   * @param file the file.
+   * @return the distance matrix.
+   * @throws IOException if reading fails or the file does not contain a
+   *                     distance matrix.
+   */
+  public static IntDistanceMatrix readDistances(Path file) throws IOException {
+    return SERVICE.readDistances(file);
+  }
+
+  /**
+   * Reads a distance matrix from the input stream and stores it in a
+   * memory-mapped file instead of heap memory. The rows are decoded one at a
+   * time and written to the file as by
+   * {@link DistanceMatrices#fileWriter(Path, int, int)}, so cell widths of one
+   * or two bytes saturate.
+   * 
+   * @param in               the input stream.
+   * @param target           the file to store the matrix in.
+   * @param bytesPerDistance the number of bytes per stored distance (1, 2 or
+   *                         4).
+   * @return the file-backed distance matrix.
+   * @throws IOException              if reading fails, the stream does not
+   *                                  contain a distance matrix or the target
+   *                                  file cannot be written.
+   * @throws IllegalArgumentException if the cell width is not supported or a
+   *                                  distance cannot be stored in it.
+   */
+  public static IntDistanceMatrix readDistances(InputStream in, Path target,
+      int bytesPerDistance) throws IOException {
+    return SERVICE.readDistances(in, target, bytesPerDistance);
+  }
+
+  /**
+   * Reads a distance matrix from a file and stores it in another memory-mapped
+   * file instead of heap memory. The rows are decoded one at a time and written
+   * to the target file as by
+   * {@link DistanceMatrices#fileWriter(Path, int, int)}, so cell widths of one
+   * or two bytes saturate.
+   * 
+   * @param file             the file.
+   * @param target           the file to store the matrix in.
+   * @param bytesPerDistance the number of bytes per stored distance (1, 2 or
+   *                         4).
+   * @return the file-backed distance matrix.
+   * @throws IOException              if reading fails, the file does not
+   *                                  contain a distance matrix or the target
+   *                                  file cannot be written.
+   * @throws IllegalArgumentException if the cell width is not supported or a
+   *                                  distance cannot be stored in it.
+   */
+  public static IntDistanceMatrix readDistances(Path file, Path target, int bytesPerDistance)
+      throws IOException {
+    return SERVICE.readDistances(file, target, bytesPerDistance);
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.roles.impl.algorithms;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.roles.position.NetworkView;
+
+/**
+ * Implements algorithms to compute role closures for equivalences.
+ * 
+ */
+public class ClosureAlgorithms {
+
+  private ClosureAlgorithms() {
+  }
+
+  /**
+   * Computes the regular closure of the given equivalence on an unweighted network, i.e., the
+   * finest regular equivalence that is coarser than the given equivalence.
+   * 
+   * <p>
+   * Instead of iterating the regular relative equivalence to a fixed point, the classes are
+   * maintained in a union-find structure. Each node's signature is the set of classes its ties
+   * point to, and nodes with equal signatures are merged. Whenever two classes merge, only the
+   * signatures of nodes with ties into the absorbed class change, so only these nodes are put on
+   * the worklist and looked up again.
+   * 
+   * @param n
+   *          number of nodes
+   * @param positionView
+   *          network from the point of view of the individual nodes
+   * @param equivalence
+   *          an equivalence on the vertices
+   * @return the regular closure of the given equivalence on the network.
+   */
+  public static Mapping.OfInt computeRegularClosure(int n, NetworkView<?, ?> positionView,
+      ConstMapping.OfInt equivalence) {
+    return new RegularClosure<>(n, positionView).compute(equivalence);
+  }
+
+  private static final class RegularClosure<T, U> {
+    private final int n;
+    private final NetworkView<T, U> positionView;
+    private final UnionFind classes;
+    // per class root, the label used in signatures and the number of members
+    private final int[] label;
+    private final int[] classSize;
+    // circular linked lists of the members of each class
+    private final int[] nextMember;
+    private final boolean[] queued;
+    private final FixedCapacityIntegerList worklist;
+    private final Map<Signature, Integer> signatures = new HashMap<>();
+
+    RegularClosure(int n, NetworkView<T, U> positionView) {
+      this.n = n;
+      this.positionView = positionView;
+      classes = new UnionFind(n);
+      label = new int[n];
+      classSize = new int[n];
+      nextMember = new int[n];
+      for (int i = 0; i < n; ++i) {
+        label[i] = i;
+        classSize[i] = 1;
+        nextMember[i] = i;
+      }
+      queued = new boolean[n];
+      worklist = new FixedCapacityIntegerList(n);
+    }
+
+    Mapping.OfInt compute(ConstMapping.OfInt equivalence) {
+      final ConstMapping.OfInt normalized = Equivalences.normalizePartition(equivalence);
+      final int[] representative = new int[n];
+      Arrays.fill(representative, -1);
+      for (int i = 0; i < n; ++i) {
+        final int cls = normalized.getInt(i);
+        if (representative[cls] < 0) {
+          representative[cls] = i;
+        } else {
+          merge(representative[cls], i);
+        }
+      }
+      // all signatures have to be looked up once, so discard the pending worklist
+      while (!worklist.isEmpty()) {
+        queued[worklist.poplast()] = false;
+      }
+      for (int i = 0; i < n; ++i) {
+        lookup(i);
+      }
+      while (!worklist.isEmpty()) {
+        final int node = worklist.poplast();
+        queued[node] = false;
+        lookup(node);
+      }
+
+      final int[] result = new int[n];
+      for (int i = 0; i < n; ++i) {
+        result[i] = classes.find(i);
+      }
+      return Mappings.wrapModifiableInt(Equivalences.normalizePartition(result));
+    }
+
+    private void lookup(int node) {
+      // a stored signature only consists of current labels if its node still has this signature,
+      // because a node's signature only changes when one of its labels is absorbed
+      final Integer other = signatures.putIfAbsent(signatureOf(node), node);
+      if (other != null) {
+        merge(node, other);
+      }
+    }
+
+    private Signature signatureOf(int node) {
+      final int[] targets = new int[positionView.countTies(node)];
+      int size = 0;
+      for (T tie : positionView.ties(node)) {
+        targets[size++] = label[classes.find(positionView.tieTarget(node, tie))];
+      }
+      Arrays.sort(targets);
+      int distinct = 0;
+      for (int i = 0; i < size; ++i) {
+        if (distinct == 0 || targets[distinct - 1] != targets[i]) {
+          targets[distinct++] = targets[i];
+        }
+      }
+      return new Signature(Arrays.copyOf(targets, distinct));
+    }
+
+    private void merge(int node1, int node2) {
+      final int root1 = classes.find(node1);
+      final int root2 = classes.find(node2);
+      if (root1 == root2) {
+        return;
+      }
+      // the merged class keeps the label of the larger class, so only the nodes
+      // with ties into the smaller class change their signatures; since a node's
+      // class at least doubles whenever it is absorbed, the inverse ties of each
+      // node are traversed at most logarithmically often
+      final int absorbed = classSize[root1] < classSize[root2] ? root1 : root2;
+      final int kept = absorbed == root1 ? root2 : root1;
+      final int root = classes.union(root1, root2);
+      label[root] = label[kept];
+      classSize[root] = classSize[root1] + classSize[root2];
+
+      // queue the nodes whose signature contains the label of the absorbed class
+      int member = absorbed;
+      do {
+        for (final U inverseTie : positionView.inverseTies(member)) {
+          final int source = positionView.inverseTieTarget(member, inverseTie);
+          if (!queued[source]) {
+            queued[source] = true;
+            worklist.addInt(source);
+          }
+        }
+        member = nextMember[member];
+      } while (member != absorbed);
+
+      // splice the member lists
+      final int tmp = nextMember[root1];
+      nextMember[root1] = nextMember[root2];
+      nextMember[root2] = tmp;
+    }
+  }
+
+  private static final class Signature {
+    private final int[] classes;
+    private final int hash;
+
+    Signature(int[] classes) {
+      this.classes = classes;
+      this.hash = Arrays.hashCode(classes);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof Signature && hash == ((Signature) obj).hash
+          && Arrays.equals(classes, ((Signature) obj).classes);
+    }
+  }
+}
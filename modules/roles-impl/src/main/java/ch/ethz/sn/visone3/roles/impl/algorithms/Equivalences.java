@@ -24,6 +24,7 @@ import java.util.Map;
 import java.util.PriorityQueue;
 import java.util.TreeMap;
 import java.util.function.BiPredicate;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import ch.ethz.sn.visone3.algorithms.AlgoProvider;
@@ -220,7 +221,8 @@ public class Equivalences {
 
   private static <T> void refiningRegularEquivalenceComparatorImpl(final NetworkView<?, T> positionView,
       final ConstMapping.OfInt equivalenceRelativeTo,
-      Comparator<? super T> comparatorExtension, final EquivalenceAlgorithmState state) {
+      Comparator<? super T> comparatorExtension, boolean presorted,
+      final EquivalenceAlgorithmState state) {
 
     // This color management ensures that the algorithm
     // needs at most 2n colors at once (colors 0 to 2n-1).
@@ -271,10 +273,13 @@ public class Equivalences {
         if (equivalenceRelativeTo.getInt(v) != expectedcolor) {
           break;
         }
+        Stream<? extends T> inverseTies = StreamSupport
+            .stream(positionView.inverseTies(v).spliterator(), false);
+        if (!presorted) {
+          inverseTies = inverseTies.sorted(comparatorExtension);
+        }
         @SuppressWarnings("unchecked")
-        T[] sortedForV = (T[]) StreamSupport
-            .stream(positionView.inverseTies(v).spliterator(), false).sorted(comparatorExtension)
-            .toArray();
+        T[] sortedForV = (T[]) inverseTies.toArray();
         sortedRelationships[v] = sortedForV;
         positions[v] = 0;
         if (sortedRelationships[v].length > 0) {
@@ -387,6 +392,36 @@ public class Equivalences {
   public static <V> Mapping.OfInt relativeRegularEquivalence(final int n,
       NetworkView<? extends V, ? extends V> positionView,
       ConstMapping.OfInt equivalenceRelativeTo, Comparator<? super V> comparator) {
+    return relativeRegularEquivalence(n, positionView, equivalenceRelativeTo, comparator,
+        sortInverseTies(n, positionView, comparator));
+  }
+
+  /**
+   * Computes the maximum relative regular equivalence for a network with ordinal data on links,
+   * reusing the inverse ties sorted in advance by {@link #sortInverseTies(int, NetworkView,
+   * Comparator)} for the same network and comparator.
+   *
+   * @param n
+   *          Number of nodes
+   * @param positionView
+   *          Network as viewed from the position of the individual nodes
+   * @param equivalenceRelativeTo
+   *          array that represents the equivalence the output equivalence should be regular
+   *          relative to, in the format expected by
+   *          {@link #relativeRegularEquivalence(int, NetworkView, ConstMapping.OfInt, Comparator)}
+   * @param comparator
+   *          Compares the relationships.
+   * @param sortedInverseTies
+   *          the inverse ties of positionView sorted by comparator.
+   * @param <V>
+   *          base type of represented ties.
+   * @return an array representing the maximum relative regular equivalence, as for
+   *         {@link #relativeRegularEquivalence(int, NetworkView, ConstMapping.OfInt, Comparator)}.
+   */
+  public static <V> Mapping.OfInt relativeRegularEquivalence(final int n,
+      NetworkView<? extends V, ? extends V> positionView,
+      ConstMapping.OfInt equivalenceRelativeTo, Comparator<? super V> comparator,
+      SortedInverseTies sortedInverseTies) {
     checkEquivalenceFormat(equivalenceRelativeTo, EQUIVALENCE_RELATIVE_TO);
 
     final int[] resEquivalence = new int[n];
@@ -396,7 +431,8 @@ public class Equivalences {
     final EquivalenceAlgorithmState state = new EquivalenceAlgorithmState(resEquivalence, counts,
         2 * n, 1);
 
-    refiningRegularEquivalenceImpl(n, positionView, equivalenceRelativeTo, comparator, state);
+    refiningRegularEquivalenceImpl(n, positionView, equivalenceRelativeTo, comparator,
+        sortedInverseTies, state);
 
     normalizePartition(state.getEquivalence(), state.getColorsMap());
 
@@ -439,6 +475,38 @@ public class Equivalences {
       NetworkView<? extends V, ? extends V> positionView,
       final ConstMapping.OfInt equivalenceRelativeTo, final ConstMapping.OfInt equivalenceToRefine,
       Comparator<? super V> comparator) {
+    return refiningRelativeRegularEquivalence(n, positionView, equivalenceRelativeTo,
+        equivalenceToRefine, comparator, sortInverseTies(n, positionView, comparator));
+  }
+
+  /**
+   * Computes the maximum relative regular equivalence refining another equivalence for a network
+   * with ordinal data on links, reusing the inverse ties sorted in advance by
+   * {@link #sortInverseTies(int, NetworkView, Comparator)} for the same network and comparator.
+   *
+   * @param n
+   *          Number of nodes
+   * @param positionView
+   *          Network as viewed from the position of the individual nodes
+   * @param equivalenceRelativeTo
+   *          array that represents the equivalence the output equivalence should be regular
+   *          relative to.
+   * @param equivalenceToRefine
+   *          array that represents the equivalence the output equivalence should refine.
+   * @param comparator
+   *          Compares the relationships.
+   * @param sortedInverseTies
+   *          the inverse ties of positionView sorted by comparator.
+   * @param <V>
+   *          base type of represented ties.
+   * @return an array representing the maximum relative equivalence that refines
+   *         equivalenceToRefine, as for {@link #refiningRelativeRegularEquivalence(int,
+   *         NetworkView, ConstMapping.OfInt, ConstMapping.OfInt, Comparator)}.
+   */
+  public static <V> Mapping.OfInt refiningRelativeRegularEquivalence(int n,
+      NetworkView<? extends V, ? extends V> positionView,
+      final ConstMapping.OfInt equivalenceRelativeTo, final ConstMapping.OfInt equivalenceToRefine,
+      Comparator<? super V> comparator, SortedInverseTies sortedInverseTies) {
     checkEquivalenceFormat(equivalenceRelativeTo, EQUIVALENCE_RELATIVE_TO);
     checkEquivalenceFormat(equivalenceToRefine, EQUIVALENCE_TO_REFINE);
 
@@ -453,7 +521,8 @@ public class Equivalences {
     final EquivalenceAlgorithmState state = new EquivalenceAlgorithmState(resEquivalence, counts,
         2 * n, maxColor + 1);
 
-    refiningRegularEquivalenceImpl(n, positionView, equivalenceRelativeTo, comparator, state);
+    refiningRegularEquivalenceImpl(n, positionView, equivalenceRelativeTo, comparator,
+        sortedInverseTies, state);
 
     normalizePartition(state.getEquivalence(), state.getColorsMap());
 
@@ -462,7 +531,8 @@ public class Equivalences {
 
   private static <V, T extends V, U extends V> void refiningRegularEquivalenceImpl(final int n,
       final NetworkView<T, U> positionView, ConstMapping.OfInt equivalenceRelativeTo,
-      Comparator<? super V> comparator, final EquivalenceAlgorithmState state) {
+      Comparator<? super V> comparator, SortedInverseTies sortedInverseTies,
+      final EquivalenceAlgorithmState state) {
 
     // Idea:
     // If two vertices have the same class, then the maximum edge class for
@@ -528,10 +598,12 @@ public class Equivalences {
 
           @Override
           public Iterable<? extends U> inverseTies(int node) {
-            return fromIterator(
-                StreamSupport.stream(positionView.inverseTies(node).spliterator(), false)
-                    .filter((r) -> includedEdges[positionView.uniqueInverseTieIndex(node, r)])
-                    .iterator());
+            // filtering the sorted inverse ties keeps them sorted
+            @SuppressWarnings("unchecked")
+            final U[] sorted = (U[]) sortedInverseTies.ties[node];
+            return fromIterator(Arrays.stream(sorted)
+                .filter((r) -> includedEdges[positionView.uniqueInverseTieIndex(node, r)])
+                .iterator());
           }
 
           @Override
@@ -583,7 +655,7 @@ public class Equivalences {
           public int maxUniqueTieIndex() {
             throw new UnsupportedOperationException();
           }
-        }, equivalenceRelativeTo, comparator, state);
+        }, equivalenceRelativeTo, comparator, true, state);
   }
 
   /**
@@ -1151,6 +1223,35 @@ public class Equivalences {
   public static <V> Mapping.OfInt relativeExactEquivalence(final int n,
       NetworkView<? extends V, ? extends V> positionView,
       final ConstMapping.OfInt equivalenceRelativeTo, Comparator<? super V> comparator) {
+    return relativeExactEquivalence(n, positionView, equivalenceRelativeTo, comparator,
+        sortInverseTies(n, positionView, comparator));
+  }
+
+  /**
+   * Computes the maximum relative exact equivalence for a network with ordinal data on links,
+   * reusing the inverse ties sorted in advance by {@link #sortInverseTies(int, NetworkView,
+   * Comparator)} for the same network and comparator.
+   *
+   * @param n
+   *          Number of nodes
+   * @param positionView
+   *          Network as viewed from the position of the individual nodes
+   * @param equivalenceRelativeTo
+   *          array that represents the equivalence the output equivalence should be exact
+   *          relative to.
+   * @param comparator
+   *          compares the ties.
+   * @param sortedInverseTies
+   *          the inverse ties of positionView sorted by comparator.
+   * @param <V>
+   *          base type of represented ties.
+   * @return an array representing the maximum relative exact equivalence, as for
+   *         {@link #relativeExactEquivalence(int, NetworkView, ConstMapping.OfInt, Comparator)}.
+   */
+  public static <V> Mapping.OfInt relativeExactEquivalence(final int n,
+      NetworkView<? extends V, ? extends V> positionView,
+      final ConstMapping.OfInt equivalenceRelativeTo, Comparator<? super V> comparator,
+      SortedInverseTies sortedInverseTies) {
     checkEquivalenceFormat(equivalenceRelativeTo, EQUIVALENCE_RELATIVE_TO);
 
     final int[] resEquivalence = new int[n];
@@ -1161,7 +1262,8 @@ public class Equivalences {
     final EquivalenceAlgorithmState state = new EquivalenceAlgorithmState(resEquivalence, counts,
         2 * m + n, 1);
 
-    refiningExactEquivalenceImpl(n, positionView, equivalenceRelativeTo, comparator, state);
+    refiningExactEquivalenceImpl(n, positionView, equivalenceRelativeTo, comparator,
+        sortedInverseTies, state);
 
     normalizePartition(state.getEquivalence(), state.getColorsMap());
 
@@ -1201,6 +1303,38 @@ public class Equivalences {
       final NetworkView<? extends V, ? extends V> positionView,
       final ConstMapping.OfInt equivalenceRelativeTo, final ConstMapping.OfInt equivalenceToRefine,
       Comparator<? super V> comparator) {
+    return refiningRelativeExactEquivalence(n, positionView, equivalenceRelativeTo,
+        equivalenceToRefine, comparator, sortInverseTies(n, positionView, comparator));
+  }
+
+  /**
+   * Computes the maximum relative exact equivalence that refines equivalenceToRefine for a network
+   * with ordinal data on links, reusing the inverse ties sorted in advance by
+   * {@link #sortInverseTies(int, NetworkView, Comparator)} for the same network and comparator.
+   *
+   * @param n
+   *          Number of nodes
+   * @param positionView
+   *          Network as viewed from the position of the individual nodes
+   * @param equivalenceRelativeTo
+   *          array that represents the equivalence the output equivalence should be exact
+   *          relative to.
+   * @param equivalenceToRefine
+   *          array that represents the equivalence the output equivalence should refine.
+   * @param comparator
+   *          compares the ties.
+   * @param sortedInverseTies
+   *          the inverse ties of positionView sorted by comparator.
+   * @param <V>
+   *          base type of represented ties.
+   * @return an array representing the maximum relative exact equivalence that refines
+   *         equivalenceToRefine, as for {@link #refiningRelativeExactEquivalence(int,
+   *         NetworkView, ConstMapping.OfInt, ConstMapping.OfInt, Comparator)}.
+   */
+  public static <V> Mapping.OfInt refiningRelativeExactEquivalence(final int n,
+      final NetworkView<? extends V, ? extends V> positionView,
+      final ConstMapping.OfInt equivalenceRelativeTo, final ConstMapping.OfInt equivalenceToRefine,
+      Comparator<? super V> comparator, SortedInverseTies sortedInverseTies) {
     checkEquivalenceFormat(equivalenceRelativeTo, EQUIVALENCE_RELATIVE_TO);
     checkEquivalenceFormat(equivalenceToRefine, EQUIVALENCE_TO_REFINE);
 
@@ -1216,7 +1350,8 @@ public class Equivalences {
     final EquivalenceAlgorithmState state = new EquivalenceAlgorithmState(resEquivalence, counts,
         2 * m + n, maxColor + 1);
 
-    refiningExactEquivalenceImpl(n, positionView, equivalenceRelativeTo, comparator, state);
+    refiningExactEquivalenceImpl(n, positionView, equivalenceRelativeTo, comparator,
+        sortedInverseTies, state);
 
     normalizePartition(state.getEquivalence(), state.getColorsMap());
 
@@ -1225,7 +1360,8 @@ public class Equivalences {
 
   private static <T> void refiningExactEquivalenceImpl(final int n,
       final NetworkView<?, T> positionView, final ConstMapping.OfInt equivalenceRelativeTo,
-      Comparator<? super T> comparator, final EquivalenceAlgorithmState state) {
+      Comparator<? super T> comparator, SortedInverseTies sortedInverseTies,
+      final EquivalenceAlgorithmState state) {
 
     // first, do some preprocessing on the equivalence
     // that the output equivalence should be relative to:
@@ -1260,8 +1396,7 @@ public class Equivalences {
           break;
         }
         @SuppressWarnings("unchecked")
-        T[] sortedForV = (T[]) StreamSupport
-            .stream(positionView.inverseTies(v).spliterator(), false).sorted(comparator).toArray();
+        T[] sortedForV = (T[]) sortedInverseTies.ties[v];
         sortedRelationships[v] = sortedForV;
         positions[v] = 0;
         if (sortedRelationships[v].length > 0) {
@@ -3907,4 +4042,41 @@ public class Equivalences {
     return Mappings.wrapModifiableInt(pcurr);
   }
 
+  /**
+   * Sorts the inverse ties of each node by the specified weak order on ties. Runs in O(m log m + n)
+   * time and needs O(m + n) space.
+   * 
+   * @param n
+   *          number of nodes
+   * @param positionView
+   *          network as viewed from the position of the individual nodes
+   * @param comparator
+   *          compares the ties.
+   * @param <V>
+   *          base type of represented ties.
+   * @return the sorted inverse ties.
+   */
+  public static <V> SortedInverseTies sortInverseTies(int n,
+      NetworkView<? extends V, ? extends V> positionView, Comparator<? super V> comparator) {
+    final Object[][] ties = new Object[n][];
+    for (int v = 0; v < n; ++v) {
+      ties[v] = StreamSupport.stream(positionView.inverseTies(v).spliterator(), false)
+          .sorted(comparator).toArray();
+    }
+    return new SortedInverseTies(ties);
+  }
+
+  /**
+   * The inverse ties of each node of a network sorted by a weak order on ties. The order does not
+   * depend on the equivalence that a relative regular or exact equivalence is computed for, so it
+   * can be reused for several such computations on the same network and comparator.
+   */
+  public static final class SortedInverseTies {
+
+    private final Object[][] ties;
+
+    private SortedInverseTies(Object[][] ties) {
+      this.ties = ties;
+    }
+  }
 }
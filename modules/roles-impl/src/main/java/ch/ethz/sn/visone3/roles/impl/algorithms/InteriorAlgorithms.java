@@ -17,7 +17,10 @@
 
 package ch.ethz.sn.visone3.roles.impl.algorithms;
 
+import java.util.AbstractList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 
 import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.lang.Mapping;
@@ -40,9 +43,12 @@ public class InteriorAlgorithms {
    * variant of it computes the exact interior of an unweighted network in O(m log n) time.
    * Furthermore, the regular interior of a weighted network with categorical edge weights and the
    * exact interior of a weighted network with categorical or ordinal scale is computed in O(m log^2
-   * n) time. However, extension of this algorithm to the regular interior of a weighted network
-   * with ordinal edge weights is unclear. Instead, it is implemented via the general iteration
-   * scheme, which yields a runtime of O(m n log n).
+   * n) time. The regular interior of a weighted network with ordinal edge weights is reduced to
+   * the unweighted case: Two nodes are regularly equivalent if and only if, for every weight rank
+   * r, they are regularly equivalent in the network of ties with rank at least r. Sorting the ties
+   * by decreasing rank makes each of these networks a prefix of every tie list, so the algorithm
+   * refines by all threshold networks at once in O(M log n) time, where M is the total number of
+   * ties over all threshold networks (at most R m for R distinct weight ranks).
    */
 
   int[] counts;
@@ -524,6 +530,70 @@ public class InteriorAlgorithms {
         InteriorAlgorithms::splitByBExact);
   }
 
+  /**
+   * Computes the regular interior on the given network with ordinal tie weights. Runs in O(M log n
+   * + m log m) time and needs O(M + m + n) additional space, where M is the total number of ties
+   * over all threshold networks, i.e., at most R m for R distinct tie weights.
+   * 
+   * @param n
+   *          number of nodes
+   * @param positionView
+   *          network from the point of view of the individual nodes
+   * @param equivalence
+   *          an equivalence on the vertices
+   * @param comparator
+   *          comparator imposing a weak order on the ties
+   * @param <V>
+   *          type of ties
+   * @return the regular interior of the given equivalence on the network.
+   */
+  public static <V> Mapping.OfInt computeRegularInterior(int n,
+      NetworkView<? extends V, ? extends V> positionView, ConstMapping.OfInt equivalence,
+      Comparator<? super V> comparator) {
+    return computeRegularInterior(n, thresholdNetworks(n, positionView, comparator),
+        equivalence);
+  }
+
+  /**
+   * Computes the regular interior on a network with ordinal tie weights, given by its threshold
+   * networks. Runs in O(M log n) time and needs O(M + n) additional space, where M is the total
+   * number of ties over all threshold networks.
+   * 
+   * @param n
+   *          number of nodes
+   * @param thresholdNetworks
+   *          the threshold networks, see
+   *          {@link #thresholdNetworks(int, NetworkView, Comparator)}
+   * @param equivalence
+   *          an equivalence on the vertices
+   * @return the regular interior of the given equivalence on the network.
+   */
+  public static Mapping.OfInt computeRegularInterior(int n, ThresholdNetworks thresholdNetworks,
+      ConstMapping.OfInt equivalence) {
+    return computeInterior(n, thresholdNetworks.views, equivalence,
+        InteriorAlgorithms::splitByBThreeway);
+  }
+
+  /**
+   * Constructs the threshold networks of a network with ordinal tie weights, i.e., for each
+   * distinct tie weight, the network of ties whose weight is at least as large. Runs in O(m log m +
+   * n) time and needs O(m + n) space, independently of the number of distinct tie weights.
+   * 
+   * @param n
+   *          number of nodes
+   * @param positionView
+   *          network from the point of view of the individual nodes
+   * @param comparator
+   *          comparator imposing a weak order on the ties
+   * @param <V>
+   *          type of ties
+   * @return the threshold networks.
+   */
+  public static <V> ThresholdNetworks thresholdNetworks(int n,
+      NetworkView<? extends V, ? extends V> positionView, Comparator<? super V> comparator) {
+    return new ThresholdNetworks(RankedTies.rank(n, positionView, comparator));
+  }
+
   private static Mapping.OfInt computeInterior(int n, NetworkView<?, ?>[] views,
       ConstMapping.OfInt equivalence, NewRefinementStep refStep) {
     int[] result = equivalence.intStream().toArray();
@@ -607,4 +677,274 @@ public class InteriorAlgorithms {
     Equivalences.normalizePartition(equivalence, colorstore);
   }
 
+  /**
+   * The threshold networks of a network with ordinal tie weights. Two nodes are regularly
+   * equivalent with respect to the weak order on ties if and only if they are regularly equivalent
+   * in every threshold network, so the regular interior refines by all of them at once. Can be
+   * reused for several interior computations on the same network.
+   */
+  public static final class ThresholdNetworks {
+
+    private final NetworkView<?, ?>[] views;
+
+    private ThresholdNetworks(RankedTies<?, ?> ties) {
+      views = new NetworkView<?, ?>[ties.countRanks()];
+      for (int r = 0; r < views.length; ++r) {
+        views[r] = new ThresholdNetworkView<>(ties, r);
+      }
+    }
+
+    /**
+     * Returns the number of threshold networks, i.e., the number of distinct tie weights.
+     * 
+     * @return the number of threshold networks.
+     */
+    public int size() {
+      return views.length;
+    }
+  }
+
+  /**
+   * The ties of a network ranked by the weak order on them. Unique tie indices are replaced by the
+   * position of the tie in the order of decreasing rank, and the (inverse) ties of each node are
+   * sorted by decreasing rank as well. Thus, the ties whose rank is at least some threshold
+   * constitute a prefix of each tie list, and their unique indices constitute a prefix of the
+   * unique indices.
+   */
+  private static final class RankedTies<T, U> {
+
+    private final NetworkView<T, U> base;
+    private final int[] positions;
+    private final int[] tieOffsets;
+    private final Object[] sortedTies;
+    private final int[] sortedTieRanks;
+    private final int[] inverseOffsets;
+    private final Object[] sortedInverseTies;
+    private final int[] sortedInverseRanks;
+    // prefix counts by rank: number of distinct and of inverse ties with rank at least r
+    private final int[] uniqueCounts;
+    private final int[] inverseCounts;
+
+    private RankedTies(NetworkView<T, U> base, int[] ranks, int numRanks) {
+      this.base = base;
+      final int n = base.countNodes();
+
+      // order unique indices by decreasing rank
+      uniqueCounts = new int[numRanks + 1];
+      final int[] present = new int[ranks.length];
+      for (int v = 0; v < n; ++v) {
+        for (U r : base.inverseTies(v)) {
+          final int index = base.uniqueInverseTieIndex(v, r);
+          if (present[index]++ == 0) {
+            ++uniqueCounts[ranks[index]];
+          }
+        }
+      }
+      for (int r = numRanks - 1; r >= 0; --r) {
+        uniqueCounts[r] += uniqueCounts[r + 1];
+      }
+      final int[] fill = Arrays.copyOfRange(uniqueCounts, 1, numRanks + 1);
+      positions = new int[ranks.length];
+      for (int index = 0; index < ranks.length; ++index) {
+        positions[index] = present[index] > 0 ? fill[ranks[index]]++ : -1;
+      }
+
+      tieOffsets = new int[n + 1];
+      inverseOffsets = new int[n + 1];
+      for (int v = 0; v < n; ++v) {
+        tieOffsets[v + 1] = tieOffsets[v] + base.countTies(v);
+        inverseOffsets[v + 1] = inverseOffsets[v] + base.countInverseTies(v);
+      }
+      sortedTies = new Object[tieOffsets[n]];
+      sortedTieRanks = new int[tieOffsets[n]];
+      sortedInverseTies = new Object[inverseOffsets[n]];
+      sortedInverseRanks = new int[inverseOffsets[n]];
+      inverseCounts = new int[numRanks + 1];
+      for (int v = 0; v < n; ++v) {
+        final int node = v;
+        int pos = tieOffsets[v];
+        for (T r : base.ties(v)) {
+          sortedTies[pos++] = r;
+        }
+        @SuppressWarnings("unchecked")
+        final Comparator<Object> tieOrder = Comparator
+            .comparingInt((Object r) -> positions[base.uniqueTieIndex(node, (T) r)]);
+        Arrays.sort(sortedTies, tieOffsets[v], tieOffsets[v + 1], tieOrder);
+        for (pos = tieOffsets[v]; pos < tieOffsets[v + 1]; ++pos) {
+          @SuppressWarnings("unchecked")
+          final T r = (T) sortedTies[pos];
+          sortedTieRanks[pos] = ranks[base.uniqueTieIndex(node, r)];
+        }
+
+        pos = inverseOffsets[v];
+        for (U r : base.inverseTies(v)) {
+          sortedInverseTies[pos++] = r;
+        }
+        @SuppressWarnings("unchecked")
+        final Comparator<Object> inverseOrder = Comparator
+            .comparingInt((Object r) -> positions[base.uniqueInverseTieIndex(node, (U) r)]);
+        Arrays.sort(sortedInverseTies, inverseOffsets[v], inverseOffsets[v + 1], inverseOrder);
+        for (pos = inverseOffsets[v]; pos < inverseOffsets[v + 1]; ++pos) {
+          @SuppressWarnings("unchecked")
+          final U r = (U) sortedInverseTies[pos];
+          sortedInverseRanks[pos] = ranks[base.uniqueInverseTieIndex(node, r)];
+          ++inverseCounts[sortedInverseRanks[pos]];
+        }
+      }
+      for (int r = numRanks - 1; r >= 0; --r) {
+        inverseCounts[r] += inverseCounts[r + 1];
+      }
+    }
+
+    static <V, T extends V, U extends V> RankedTies<T, U> rank(int n, NetworkView<T, U> view,
+        Comparator<? super V> comparator) {
+      // rank all ties by their unique index
+      final Object[] tiesByIndex = new Object[view.maxUniqueTieIndex()];
+      final PrimitiveList.OfInt indices = Mappings.newIntList();
+      for (int v = 0; v < n; ++v) {
+        for (U r : view.inverseTies(v)) {
+          final int index = view.uniqueInverseTieIndex(v, r);
+          if (tiesByIndex[index] == null) {
+            tiesByIndex[index] = r;
+            indices.addInt(index);
+          }
+        }
+      }
+      @SuppressWarnings("unchecked")
+      final Comparator<Object> tieComparator = (x, y) -> comparator.compare((V) x, (V) y);
+      final Integer[] order = indices.stream().toArray(Integer[]::new);
+      Arrays.sort(order, (x, y) -> tieComparator.compare(tiesByIndex[x], tiesByIndex[y]));
+      final int[] ranks = new int[tiesByIndex.length];
+      int numRanks = 0;
+      for (int i = 0; i < order.length; ++i) {
+        if (i > 0 && tieComparator.compare(tiesByIndex[order[i - 1]],
+            tiesByIndex[order[i]]) != 0) {
+          ++numRanks;
+        }
+        ranks[order[i]] = numRanks;
+      }
+      if (order.length > 0) {
+        ++numRanks;
+      }
+      return new RankedTies<>(view, ranks, numRanks);
+    }
+
+    int countRanks() {
+      return uniqueCounts.length - 1;
+    }
+
+    // length of the prefix of a list sorted by decreasing rank with rank at least the threshold
+    static int prefixLength(int[] sortedRanks, int begin, int end, int threshold) {
+      int low = begin;
+      int high = end;
+      while (low < high) {
+        final int mid = (low + high) >>> 1;
+        if (sortedRanks[mid] >= threshold) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low - begin;
+    }
+  }
+
+  /**
+   * View on the ties of a network whose weight rank is at least some threshold. It iterates over
+   * prefixes of the ranked tie lists.
+   */
+  private static final class ThresholdNetworkView<T, U> implements NetworkView<T, U> {
+
+    private final RankedTies<T, U> ties;
+    private final int threshold;
+
+    private ThresholdNetworkView(RankedTies<T, U> ties, int threshold) {
+      this.ties = ties;
+      this.threshold = threshold;
+    }
+
+    private static <E> List<E> prefix(Object[] sorted, int begin, int size) {
+      return new AbstractList<E>() {
+        @SuppressWarnings("unchecked")
+        @Override
+        public E get(int index) {
+          return (E) sorted[begin + index];
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+
+    @Override
+    public int countNodes() {
+      return ties.base.countNodes();
+    }
+
+    @Override
+    public Iterable<? extends T> ties(int node) {
+      return ThresholdNetworkView.<T>prefix(ties.sortedTies, ties.tieOffsets[node],
+          countTies(node));
+    }
+
+    @Override
+    public Iterable<? extends U> inverseTies(int node) {
+      return ThresholdNetworkView.<U>prefix(ties.sortedInverseTies, ties.inverseOffsets[node],
+          countInverseTies(node));
+    }
+
+    @Override
+    public int tieTarget(int node, T tie) {
+      return ties.base.tieTarget(node, tie);
+    }
+
+    @Override
+    public int inverseTieTarget(int node, U inverseTie) {
+      return ties.base.inverseTieTarget(node, inverseTie);
+    }
+
+    @Override
+    public int tieIndex(int node, T tie) {
+      return ties.base.tieIndex(node, tie);
+    }
+
+    @Override
+    public int inverseTieIndex(int node, U inverseTie) {
+      return ties.base.inverseTieIndex(node, inverseTie);
+    }
+
+    @Override
+    public int uniqueTieIndex(int node, T tie) {
+      return ties.positions[ties.base.uniqueTieIndex(node, tie)];
+    }
+
+    @Override
+    public int uniqueInverseTieIndex(int node, U inverseTie) {
+      return ties.positions[ties.base.uniqueInverseTieIndex(node, inverseTie)];
+    }
+
+    @Override
+    public int maxUniqueTieIndex() {
+      return ties.uniqueCounts[threshold];
+    }
+
+    @Override
+    public int countTies(int node) {
+      return RankedTies.prefixLength(ties.sortedTieRanks, ties.tieOffsets[node],
+          ties.tieOffsets[node + 1], threshold);
+    }
+
+    @Override
+    public int countInverseTies(int node) {
+      return RankedTies.prefixLength(ties.sortedInverseRanks, ties.inverseOffsets[node],
+          ties.inverseOffsets[node + 1], threshold);
+    }
+
+    @Override
+    public int countAllTies() {
+      return ties.inverseCounts[threshold];
+    }
+  }
 }
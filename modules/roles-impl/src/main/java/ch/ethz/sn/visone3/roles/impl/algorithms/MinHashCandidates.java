@@ -0,0 +1,215 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.impl.algorithms;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.lang.PrimitiveList;
+import ch.ethz.sn.visone3.roles.position.TransposableNetworkView;
+
+/**
+ * Implements the generation of candidate pairs of similar nodes by MinHash
+ * sketches and banded locality-sensitive hashing.
+ * 
+ * <p>
+ * Each node is described by a set of integer tokens (for example, the
+ * neighbors of the node or the classes of its neighbors). The sketch of a node
+ * consists of {@code bands * rows} minima of the tokens under independent hash
+ * functions, and two nodes become candidates if they agree on all
+ * {@code rows} minima of at least one band. Two nodes whose token sets have
+ * Jaccard similarity s are thus candidates with probability
+ * {@code 1 - (1 - s^rows)^bands}. Nodes with empty token sets are considered
+ * identical.
+ * 
+ * <p>
+ * To bound the number of candidates, a bucket of more than
+ * {@value #MAX_BUCKET_SIZE} nodes agreeing on a band is split into groups of at
+ * most this size, which are drawn anew for each band. So each band contributes
+ * fewer than {@value #MAX_BUCKET_SIZE} candidates per node, but nodes from a
+ * large bucket are only candidates if they fall into the same group in some
+ * band.
+ */
+public class MinHashCandidates {
+
+  // minimum number of nodes before sketches are computed in parallel
+  private static final int PARALLEL_NODES = 1 << 12;
+
+  /**
+   * Maximum number of nodes in a bucket whose pairs all become candidates.
+   */
+  public static final int MAX_BUCKET_SIZE = 1 << 8;
+
+  private MinHashCandidates() {
+  }
+
+  /**
+   * Returns, for each node, the sorted set of the classes of the targets of its
+   * ties.
+   * 
+   * @param <T>          type of ties.
+   * @param positionView network as viewed from the position of the individual
+   *                     nodes.
+   * @param classOf      function mapping each node to its class.
+   * @return the sets of target classes per node.
+   */
+  public static <T> int[][] targetClassSets(
+      TransposableNetworkView<T, ?> positionView, IntUnaryOperator classOf) {
+    final int n = positionView.countNodes();
+    final int[][] sets = new int[n][];
+    for (int i = 0; i < n; ++i) {
+      final int[] set = new int[positionView.countTies(i, i, i)];
+      int count = 0;
+      for (T r : positionView.ties(i, i, i)) {
+        set[count++] = classOf.applyAsInt(positionView.tieTarget(i, i, i, r));
+      }
+      sets[i] = distinct(set);
+    }
+    return sets;
+  }
+
+  /**
+   * Returns, for each node, a set of tokens describing its degree band. Nodes
+   * of equal degree obtain the same set, nodes whose degrees differ by one share
+   * one of their two tokens, and nodes whose degrees differ by two or more
+   * share none.
+   * 
+   * @param positionView network as viewed from the position of the individual
+   *                     nodes.
+   * @return the sets of degree tokens per node.
+   */
+  public static int[][] degreeBandSets(TransposableNetworkView<?, ?> positionView) {
+    final int n = positionView.countNodes();
+    final int[][] sets = new int[n][];
+    for (int i = 0; i < n; ++i) {
+      final int degree = positionView.countTies(i, i, i);
+      // even and odd tokens come from two interleaved bandings of width two
+      sets[i] = new int[] { 2 * (degree >>> 1), 2 * ((degree + 1) >>> 1) + 1 };
+    }
+    return sets;
+  }
+
+  /**
+   * Computes the candidate pairs of nodes whose token sets agree on all minima
+   * of at least one band of their MinHash sketches.
+   * 
+   * @param sets  the token set of each node.
+   * @param bands number of bands.
+   * @param rows  number of minima per band.
+   * @param seed  seed for the hash functions.
+   * @return for each node, the sorted array of its candidates, which always
+   *         includes the node itself.
+   */
+  public static int[][] candidates(int[][] sets, int bands, int rows, long seed) {
+    final int n = sets.length;
+    final PrimitiveList.OfInt[] candidates = new PrimitiveList.OfInt[n];
+    for (int i = 0; i < n; ++i) {
+      candidates[i] = Mappings.newIntList();
+      candidates[i].addInt(i);
+    }
+    final long[] keys = new long[n];
+    for (int band = 0; band < bands; ++band) {
+      final long bandSeed = mix(seed + band);
+      IntStream range = IntStream.range(0, n);
+      if (n >= PARALLEL_NODES) {
+        range = range.parallel();
+      }
+      // keep 32 bits of each band key next to the node, so that sorting groups
+      // the nodes into buckets; the rare spurious collisions only add candidates
+      range.forEach(i -> keys[i] = (bandKey(sets[i], rows, bandSeed) & 0xFFFFFFFF00000000L) | i);
+      Arrays.sort(keys);
+
+      // all pairs in a bucket are candidates, oversized buckets are split
+      int start = 0;
+      while (start < n) {
+        final long bucket = keys[start] >>> 32;
+        int end = start + 1;
+        while (end < n && keys[end] >>> 32 == bucket) {
+          ++end;
+        }
+        if (end - start > MAX_BUCKET_SIZE) {
+          shuffle(keys, start, end, bandSeed);
+        }
+        for (int group = start; group < end; group += MAX_BUCKET_SIZE) {
+          final int groupEnd = Math.min(group + MAX_BUCKET_SIZE, end);
+          for (int x = group; x < groupEnd; ++x) {
+            final PrimitiveList.OfInt list = candidates[(int) keys[x]];
+            for (int y = group; y < groupEnd; ++y) {
+              if (x != y) {
+                list.addInt((int) keys[y]);
+              }
+            }
+          }
+        }
+        start = end;
+      }
+    }
+    final int[][] result = new int[n][];
+    for (int i = 0; i < n; ++i) {
+      result[i] = distinct(candidates[i].toUnboxedArray());
+      candidates[i] = null;
+    }
+    return result;
+  }
+
+  private static long bandKey(int[] set, int rows, long bandSeed) {
+    long key = bandSeed;
+    for (int row = 0; row < rows; ++row) {
+      final long hashSeed = mix(bandSeed ^ (row + 1) * 0x9E3779B97F4A7C15L);
+      long min = Long.MAX_VALUE;
+      for (int token : set) {
+        min = Math.min(min, mix(hashSeed + token));
+      }
+      key = mix(key ^ min) + row;
+    }
+    return key;
+  }
+
+  private static void shuffle(long[] keys, int begin, int end, long bandSeed) {
+    // Fisher-Yates shuffle driven by the band's hash function
+    for (int pos = end - 1; pos > begin; --pos) {
+      final int other = begin
+          + (int) Long.remainderUnsigned(mix(bandSeed ^ keys[pos] ^ pos), pos - begin + 1);
+      final long tmp = keys[pos];
+      keys[pos] = keys[other];
+      keys[other] = tmp;
+    }
+  }
+
+  private static long mix(long x) {
+    // finalizer of the SplitMix64 generator
+    x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+    x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+    return x ^ (x >>> 31);
+  }
+
+  private static int[] distinct(int[] values) {
+    if (values.length == 0) {
+      return values;
+    }
+    Arrays.sort(values);
+    int count = 1;
+    for (int k = 1; k < values.length; ++k) {
+      if (values[k] != values[count - 1]) {
+        values[count++] = values[k];
+      }
+    }
+    return count == values.length ? values : Arrays.copyOf(values, count);
+  }
+}
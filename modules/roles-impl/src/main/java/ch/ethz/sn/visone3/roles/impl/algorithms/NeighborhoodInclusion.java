@@ -19,12 +19,17 @@ package ch.ethz.sn.visone3.roles.impl.algorithms;
 
 import java.util.Arrays;
 import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 /**
  * Implements algorithms for computing neighborhood inclusion preorders.
  */
 public class NeighborhoodInclusion {
 
+  // minimum number of nodes before incident edge dominations are iterated in parallel
+  private static final int PARALLEL_NODES = 1 << 10;
+
   private NeighborhoodInclusion() {
 
   }
@@ -109,21 +114,59 @@ public class NeighborhoodInclusion {
       EdgeDominationVisitor<T, U> visitor) {
 
     for (int i = 0; i < n; ++i) {
+      visitNode(i, forwardEdges, backwardEdges, edgeTarget, visitor);
+    }
+  }
 
-      visitor.startNode(i);
+  /**
+   * This algorithm iterates all incident edge dominations, processing the nodes
+   * in parallel on large networks. The nodes are split dynamically into portions,
+   * and each portion is reported to its own visitor, so visitors only have to
+   * keep per-node state, and the edge functions must be safe to call
+   * concurrently.
+   * 
+   * @param <T>           (forward) edge type.
+   * @param <U>           (backward) edge type.
+   * @param n             number of nodes.
+   * @param forwardEdges  function producing forward edges for a given node.
+   * @param backwardEdges function producing backward edges for a given node.
+   * @param edgeTarget    function computing the target of a forward edge.
+   * @param visitors      supplier of the visitors informed by the algorithm about
+   *                      found edge dominations, called once per portion of
+   *                      nodes.
+   */
+  public static <T, U> void iterateIncidentEdgeDominationsInParallel(int n,
+      IntFunction<? extends Iterable<? extends T>> forwardEdges,
+      IntFunction<? extends Iterable<? extends U>> backwardEdges, ToIntIntObjFunction<T> edgeTarget,
+      Supplier<? extends EdgeDominationVisitor<T, U>> visitors) {
+    IntStream nodes = IntStream.range(0, n);
+    if (n >= PARALLEL_NODES) {
+      nodes = nodes.parallel();
+    }
+    nodes.collect(visitors::get,
+        (visitor, i) -> visitNode(i, forwardEdges, backwardEdges, edgeTarget, visitor),
+        (lhs, rhs) -> {
+        });
+  }
 
-      for (T ri : forwardEdges.apply(i)) {
+  private static <T, U> void visitNode(int i,
+      IntFunction<? extends Iterable<? extends T>> forwardEdges,
+      IntFunction<? extends Iterable<? extends U>> backwardEdges, ToIntIntObjFunction<T> edgeTarget,
+      EdgeDominationVisitor<T, U> visitor) {
 
-        if (visitor.processEdge(ri)) {
-          int k = edgeTarget.applyAsInt(i, ri);
-          for (U rj : backwardEdges.apply(k)) {
-            visitor.matchEdge(i, ri, k, rj);
-          }
+    visitor.startNode(i);
+
+    for (T ri : forwardEdges.apply(i)) {
+
+      if (visitor.processEdge(ri)) {
+        int k = edgeTarget.applyAsInt(i, ri);
+        for (U rj : backwardEdges.apply(k)) {
+          visitor.matchEdge(i, ri, k, rj);
         }
       }
-
-      visitor.finishNode(i);
     }
+
+    visitor.finishNode(i);
   }
 
   /**
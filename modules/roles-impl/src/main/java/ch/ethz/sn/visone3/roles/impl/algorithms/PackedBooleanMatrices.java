@@ -0,0 +1,344 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.roles.impl.algorithms;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import ch.ethz.sn.visone3.roles.position.NetworkView;
+import ch.ethz.sn.visone3.roles.structures.RelationBase;
+
+/**
+ * Implements boolean matrix operations on matrices whose rows are packed into bitsets of 64-bit
+ * words.
+ * 
+ * <p>
+ * A matrix with r rows and c columns is represented as an array of r rows of
+ * {@code words(c)} words each, where bit {@code j & 63} of word {@code j >>> 6} in row
+ * {@code i} holds entry (i, j). Unused bits in the last word of each row are always zero.
+ */
+public class PackedBooleanMatrices {
+
+  // number of words of a row processed at once so that the rows of the right-hand side stay in
+  // cache
+  private static final int BLOCK_WORDS = 64;
+  // number of rows of the right-hand side combined into one lookup table by the Method of Four
+  // Russians
+  private static final int TABLE_BITS = 8;
+  // minimum number of row words in the result before rows are processed in parallel
+  private static final int PARALLEL_WORDS = 1 << 14;
+
+  private PackedBooleanMatrices() {
+  }
+
+  /**
+   * Returns the number of words needed to store a row with the given number of columns.
+   * 
+   * @param columns
+   *          number of columns.
+   * @return number of words per row.
+   */
+  public static int words(int columns) {
+    return (columns + 63) >>> 6;
+  }
+
+  /**
+   * Creates a matrix without any set entries.
+   * 
+   * @param rows
+   *          number of rows.
+   * @param columns
+   *          number of columns.
+   * @return the empty matrix.
+   */
+  public static long[][] create(int rows, int columns) {
+    return new long[rows][words(columns)];
+  }
+
+  /**
+   * Tests whether the specified entry is set.
+   * 
+   * @param matrix
+   *          the matrix.
+   * @param i
+   *          row index.
+   * @param j
+   *          column index.
+   * @return true if entry (i, j) is set, false otherwise.
+   */
+  public static boolean get(long[][] matrix, int i, int j) {
+    return (matrix[i][j >>> 6] & (1L << j)) != 0;
+  }
+
+  /**
+   * Sets the specified entry.
+   * 
+   * @param matrix
+   *          the matrix.
+   * @param i
+   *          row index.
+   * @param j
+   *          column index.
+   */
+  public static void set(long[][] matrix, int i, int j) {
+    matrix[i][j >>> 6] |= 1L << j;
+  }
+
+  /**
+   * Packs a relation into a square matrix whose row i holds the elements j with i related to j.
+   * 
+   * @param relation
+   *          the relation.
+   * @return the relation as a matrix.
+   */
+  public static long[][] fromRelation(RelationBase relation) {
+    final int n = relation.domainSize();
+    final long[][] result = create(n, n);
+    for (int i = 0; i < n; ++i) {
+      for (int j : relation.iterateInRelationFrom(i)) {
+        set(result, i, j);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Packs the transpose of a relation into a square matrix whose row j holds the elements i with
+   * i related to j.
+   * 
+   * @param relation
+   *          the relation.
+   * @return the transposed relation as a matrix.
+   */
+  public static long[][] fromTransposedRelation(RelationBase relation) {
+    final int n = relation.domainSize();
+    final long[][] result = create(n, n);
+    for (int j = 0; j < n; ++j) {
+      for (int i : relation.iterateInRelationTo(j)) {
+        set(result, j, i);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Packs the adjacency matrix of a network into a square matrix whose row i holds the targets of
+   * the ties of node i.
+   * 
+   * @param <T>
+   *          type of ties.
+   * @param n
+   *          number of nodes.
+   * @param positionView
+   *          network as viewed from the position of the individual nodes.
+   * @return the adjacency matrix.
+   */
+  public static <T> long[][] adjacency(int n, NetworkView<T, ?> positionView) {
+    final long[][] result = create(n, n);
+    for (int i = 0; i < n; ++i) {
+      for (T r : positionView.ties(i)) {
+        set(result, i, positionView.tieTarget(i, r));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Computes the transpose of a matrix.
+   * 
+   * @param matrix
+   *          the matrix.
+   * @param columns
+   *          number of columns of the matrix.
+   * @return the transposed matrix.
+   */
+  public static long[][] transpose(long[][] matrix, int columns) {
+    final long[][] result = create(columns, matrix.length);
+    for (int i = 0; i < matrix.length; ++i) {
+      final long[] row = matrix[i];
+      for (int w = 0; w < row.length; ++w) {
+        for (long word = row[w]; word != 0; word &= word - 1) {
+          set(result, (w << 6) + Long.numberOfTrailingZeros(word), i);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Computes the complement of a matrix in place.
+   * 
+   * @param matrix
+   *          the matrix.
+   * @param columns
+   *          number of columns of the matrix.
+   * @return the complemented matrix.
+   */
+  public static long[][] complement(long[][] matrix, int columns) {
+    final long lastMask = (columns & 63) == 0 ? -1L : (1L << columns) - 1;
+    for (long[] row : matrix) {
+      for (int w = 0; w < row.length; ++w) {
+        row[w] = ~row[w];
+      }
+      if (row.length > 0) {
+        row[row.length - 1] &= lastMask;
+      }
+    }
+    return matrix;
+  }
+
+  /**
+   * Computes the boolean product of two matrices, i.e., entry (i, j) of the result is set if there
+   * is some k such that entry (i, k) of the left-hand side and entry (k, j) of the right-hand side
+   * are set. Equivalently, row i of the result is the union of the rows of the right-hand side
+   * selected by row i of the left-hand side.
+   * 
+   * @implNote The product is computed on blocks of columns of the right-hand side. Sparse rows of
+   *           the left-hand side are processed by iterating over their set entries. If the
+   *           left-hand side is dense, rows of the right-hand side are combined into lookup tables
+   *           of all their unions by the Method of Four Russians. Large products are computed on
+   *           several rows in parallel.
+   * 
+   * @param lhs
+   *          left-hand side matrix.
+   * @param rhs
+   *          right-hand side matrix; its number of rows must be the number of columns of
+   *          {@code lhs}.
+   * @param columns
+   *          number of columns of the right-hand side.
+   * @return the boolean product.
+   */
+  public static long[][] multiply(long[][] lhs, long[][] rhs, int columns) {
+    final int rows = lhs.length;
+    final int words = words(columns);
+    final long[][] result = new long[rows][words];
+    if (rows == 0 || words == 0) {
+      return result;
+    }
+
+    long setEntries = 0;
+    for (long[] row : lhs) {
+      for (long word : row) {
+        setEntries += Long.bitCount(word);
+      }
+    }
+    // a lookup table pays off if the rows select more than one row per table on average
+    final boolean useTables = rhs.length >= 2 * TABLE_BITS
+        && setEntries * TABLE_BITS > (long) rows * rhs.length;
+
+    final int chunks;
+    if ((long) rows * words >= PARALLEL_WORDS) {
+      chunks = Math.min(rows, 4 * Runtime.getRuntime().availableProcessors());
+    } else {
+      chunks = 1;
+    }
+    IntStream chunkStream = IntStream.range(0, chunks);
+    if (chunks > 1) {
+      chunkStream = chunkStream.parallel();
+    }
+    chunkStream.forEach(chunk -> {
+      final int first = (int) ((long) rows * chunk / chunks);
+      final int last = (int) ((long) rows * (chunk + 1) / chunks);
+      if (useTables) {
+        multiplyWithTables(lhs, rhs, result, first, last, words);
+      } else {
+        multiplySparse(lhs, rhs, result, first, last, words);
+      }
+    });
+    return result;
+  }
+
+  private static void multiplySparse(long[][] lhs, long[][] rhs, long[][] result, int first,
+      int last, int words) {
+    for (int blockStart = 0; blockStart < words; blockStart += BLOCK_WORDS) {
+      final int blockEnd = Math.min(words, blockStart + BLOCK_WORDS);
+      for (int i = first; i < last; ++i) {
+        final long[] lhsRow = lhs[i];
+        final long[] resultRow = result[i];
+        for (int w = 0; w < lhsRow.length; ++w) {
+          for (long word = lhsRow[w]; word != 0; word &= word - 1) {
+            final long[] rhsRow = rhs[(w << 6) + Long.numberOfTrailingZeros(word)];
+            for (int v = blockStart; v < blockEnd; ++v) {
+              resultRow[v] |= rhsRow[v];
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private static void multiplyWithTables(long[][] lhs, long[][] rhs, long[][] result, int first,
+      int last, int words) {
+    final int tableSize = 1 << TABLE_BITS;
+    final long[][] table = new long[tableSize][BLOCK_WORDS];
+    for (int blockStart = 0; blockStart < words; blockStart += BLOCK_WORDS) {
+      final int blockEnd = Math.min(words, blockStart + BLOCK_WORDS);
+      final int blockWords = blockEnd - blockStart;
+      for (int groupStart = 0; groupStart < rhs.length; groupStart += TABLE_BITS) {
+        final int groupSize = Math.min(TABLE_BITS, rhs.length - groupStart);
+        // table[s] is the union of the rows selected by the bits of s
+        for (int s = 1; s < 1 << groupSize; ++s) {
+          final long[] entry = table[s];
+          final long[] previous = table[s & (s - 1)];
+          final long[] rhsRow = rhs[groupStart + Integer.numberOfTrailingZeros(s)];
+          for (int v = 0; v < blockWords; ++v) {
+            entry[v] = previous[v] | rhsRow[blockStart + v];
+          }
+        }
+        // groups never straddle words because TABLE_BITS divides 64
+        final int word = groupStart >>> 6;
+        final int shift = groupStart & 63;
+        final int mask = (1 << groupSize) - 1;
+        for (int i = first; i < last; ++i) {
+          final int s = (int) (lhs[i][word] >>> shift) & mask;
+          if (s != 0) {
+            final long[] entry = table[s];
+            final long[] resultRow = result[i];
+            for (int v = 0; v < blockWords; ++v) {
+              resultRow[blockStart + v] |= entry[v];
+            }
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Computes the boolean containment product of two matrices, i.e., entry (i, j) of the result is
+   * set if entry (k, j) of the right-hand side is set for all k such that entry (i, k) of the
+   * left-hand side is set. Equivalently, row i of the result is the intersection of the rows of
+   * the right-hand side selected by row i of the left-hand side.
+   * 
+   * @param lhs
+   *          left-hand side matrix.
+   * @param rhs
+   *          right-hand side matrix; its number of rows must be the number of columns of
+   *          {@code lhs}. It is left unchanged.
+   * @param columns
+   *          number of columns of the right-hand side.
+   * @return the boolean containment product.
+   */
+  public static long[][] multiplyContained(long[][] lhs, long[][] rhs, int columns) {
+    final long[][] complementedRhs = new long[rhs.length][];
+    for (int k = 0; k < rhs.length; ++k) {
+      complementedRhs[k] = Arrays.copyOf(rhs[k], rhs[k].length);
+    }
+    complement(complementedRhs, columns);
+    return complement(multiply(lhs, complementedRhs, columns), columns);
+  }
+}
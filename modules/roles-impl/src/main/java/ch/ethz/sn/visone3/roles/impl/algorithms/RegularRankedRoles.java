@@ -203,25 +203,23 @@ public class RegularRankedRoles {
   private static <T, U> BinaryRelationOrRanking rankedRegularRolesImpl(int n,
       NetworkView<T, U> positionView, RelationBase relationRelativeTo,
       RelationBase refinedRelation) {
-    // TODO: make lazy
-    boolean[][] dominated = new boolean[n][n];
-    for (int i = 0; i < n; ++i) {
-      for (int j : relationRelativeTo.iterateInRelationTo(i)) {
-        for (U r : positionView.inverseTies(i)) {
-          dominated[j][positionView.inverseTieTarget(i, r)] = true;
-        }
-      }
-    }
+    // i is dominated by j if every tie target x of i is related to some tie target u of j:
+    // reachable[j] = union of {x : x R u} over all tie targets u of j,
+    // dominated[x] = transpose of reachable,
+    // result[i] = intersection of dominated[x] over all tie targets x of i
+    final long[][] adjacency = PackedBooleanMatrices.adjacency(n, positionView);
+    final long[][] reachable = PackedBooleanMatrices.multiply(adjacency,
+        PackedBooleanMatrices.fromTransposedRelation(relationRelativeTo), n);
+    final long[][] dominated = PackedBooleanMatrices.transpose(reachable, n);
+    final long[][] dominating = PackedBooleanMatrices.multiplyContained(adjacency, dominated, n);
+
     RelationBuilder<? extends BinaryRelationOrRanking> builder = RelationBuilderServiceImpl
         .denseReducibleRelationOrRankingBuilder(n);
     for (int i = 0; i < n; ++i) {
-      loop: for (int j : refinedRelation.iterateInRelationFrom(i)) {
-        for (T r : positionView.ties(i)) {
-          if (!dominated[positionView.tieTarget(i, r)][j]) {
-            continue loop;
-          }
+      for (int j : refinedRelation.iterateInRelationFrom(i)) {
+        if (PackedBooleanMatrices.get(dominating, i, j)) {
+          builder.add(i, j);
         }
-        builder.add(i, j);
       }
     }
     return builder.build();
@@ -20,8 +20,12 @@ package ch.ethz.sn.visone3.roles.impl.algorithms;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.TreeSet;
 import java.util.function.BiPredicate;
+import java.util.function.IntBinaryOperator;
 import java.util.function.ToIntBiFunction;
 import java.util.function.ToIntFunction;
 import java.util.stream.Stream;
@@ -36,7 +40,9 @@ import ch.ethz.sn.visone3.networks.NetworkBuilder;
 import ch.ethz.sn.visone3.networks.NetworkProvider;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
 import ch.ethz.sn.visone3.roles.impl.structures.IntDistanceMatrixImpl;
+import ch.ethz.sn.visone3.roles.impl.structures.KeyedLowerBounds;
 import ch.ethz.sn.visone3.roles.impl.structures.LazyIntDistanceMatrixImpl;
+import ch.ethz.sn.visone3.roles.impl.structures.RowDefaultIntDistanceMatrixImpl;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
 import ch.ethz.sn.visone3.roles.position.TransposableNetworkView;
 import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
@@ -518,7 +524,7 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V> int regularRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntFunction<? super V> mismatchPenalty) {
+      ToIntFunction<? super V> mismatchPenalty, int bound) {
     int errsum = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
@@ -534,6 +540,9 @@ public class RoleDistanceAlgorithms {
       }
       if (!dominated) {
         errsum += mismatchPenalty.applyAsInt(ri);
+        if (errsum > bound) {
+          return errsum;
+        }
       }
     }
     return errsum;
@@ -544,8 +553,8 @@ public class RoleDistanceAlgorithms {
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
       ToIntFunction<? super V> mismatchPenalty) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> regularRolesDistanceRelativeToAt(i, j,
-        positionView, structureRelativeTo, comparator, mismatchPenalty));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> regularRolesDistanceRelativeToAt(i, j,
+        positionView, structureRelativeTo, comparator, mismatchPenalty, bound));
   }
 
   /**
@@ -574,31 +583,64 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V, U extends V> IntDistanceMatrix regularRolesDistanceRelativeToImpl(int n,
       NetworkView<T, U> positionView, ConstMapping.OfInt equivalenceRelativeTo,
       ToIntFunction<? super V> mismatchPenalty) {
-    // there is probably room for more laziness here
-    int[] sortedVertices = PrimitiveCollections.countingSort(equivalenceRelativeTo).array();
-    int classStart = 0;
-    boolean[][] dominated = new boolean[n][n];
+    // profile each node once: the classes its ties point to as a bitset, and the total penalty of
+    // its ties per target class
+    int numClasses = 0;
     for (int i = 0; i < n; ++i) {
-      int vert = sortedVertices[i];
-      int eqClass = equivalenceRelativeTo.getInt(vert);
-      if (equivalenceRelativeTo.getInt(sortedVertices[classStart]) != eqClass) {
-        classStart = i;
-      }
-      for (int j = classStart; j < n
-          && equivalenceRelativeTo.getInt(sortedVertices[j]) == eqClass; ++j) {
-        for (U r : positionView.inverseTies(vert)) {
-          int target = positionView.inverseTieTarget(vert, r);
-          dominated[sortedVertices[j]][target] = true;
+      numClasses = Math.max(numClasses, equivalenceRelativeTo.getInt(i) + 1);
+    }
+    final int words = (numClasses + 63) >>> 6;
+    final long[][] classSets = new long[n][];
+    final int[][] profileClasses = new int[n][];
+    final int[][] profilePenalties = new int[n][];
+    final boolean[] unitPenalties = new boolean[n];
+    final int[] classPenalties = new int[numClasses];
+    for (int i = 0; i < n; ++i) {
+      final long[] classSet = new long[words];
+      final PrimitiveList.OfInt classes = Mappings.newIntList();
+      for (T r : positionView.ties(i)) {
+        final int eqClass = equivalenceRelativeTo.getInt(positionView.tieTarget(i, r));
+        if ((classSet[eqClass >>> 6] & (1L << eqClass)) == 0) {
+          classSet[eqClass >>> 6] |= 1L << eqClass;
+          classes.addInt(eqClass);
         }
+        classPenalties[eqClass] += mismatchPenalty.applyAsInt(r);
+      }
+      final int[] classArray = classes.toUnboxedArray();
+      final int[] penalties = new int[classArray.length];
+      boolean unit = true;
+      for (int k = 0; k < classArray.length; ++k) {
+        penalties[k] = classPenalties[classArray[k]];
+        classPenalties[classArray[k]] = 0;
+        unit &= penalties[k] == 1;
       }
+      classSets[i] = classSet;
+      profileClasses[i] = classArray;
+      profilePenalties[i] = penalties;
+      unitPenalties[i] = unit;
     }
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> {
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> {
+      final long[] classSetJ = classSets[j];
+      final int[] classesI = profileClasses[i];
+      if (unitPenalties[i] && words < classesI.length) {
+        // each missing class costs one, so count them word by word
+        final long[] classSetI = classSets[i];
+        int errsum = 0;
+        for (int w = 0; w < words && errsum <= bound; ++w) {
+          errsum += Long.bitCount(classSetI[w] & ~classSetJ[w]);
+        }
+        return errsum;
+      }
+      final int[] penaltiesI = profilePenalties[i];
       int errsum = 0;
-      for (T r : positionView.ties(i)) {
-        int target = positionView.tieTarget(i, r);
-        if (!dominated[target][j]) {
-          errsum += mismatchPenalty.applyAsInt(r);
+      for (int k = 0; k < classesI.length; ++k) {
+        final int eqClass = classesI[k];
+        if ((classSetJ[eqClass >>> 6] & (1L << eqClass)) == 0) {
+          errsum += penaltiesI[k];
+          if (errsum > bound) {
+            return errsum;
+          }
         }
       }
       return errsum;
@@ -842,7 +884,7 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V> int regularRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntFunction<? super V> mismatchPenalty) {
+      ToIntFunction<? super V> mismatchPenalty, int bound) {
     int errsum = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
@@ -858,6 +900,9 @@ public class RoleDistanceAlgorithms {
       }
       if (!dominated) {
         errsum += mismatchPenalty.applyAsInt(ri);
+        if (errsum > bound) {
+          return errsum;
+        }
       }
     }
     return errsum;
@@ -887,8 +932,8 @@ public class RoleDistanceAlgorithms {
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
       ToIntFunction<? super V> mismatchPenalty) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> regularRolesDistanceRelativeToAt(i, j,
-        positionView, equivalenceRelativeTo, comparator, mismatchPenalty));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> regularRolesDistanceRelativeToAt(i, j,
+        positionView, equivalenceRelativeTo, comparator, mismatchPenalty, bound));
   }
 
   /**
@@ -1099,7 +1144,7 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V> int regularRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntBiFunction<? super V, ? super V> substitutionCost) {
+      ToIntBiFunction<? super V, ? super V> substitutionCost, int bound) {
 
     int costsum = 0;
     for (T ri : positionView.ties(i, j, i)) {
@@ -1117,6 +1162,9 @@ public class RoleDistanceAlgorithms {
         }
       }
       costsum += cost;
+      if (costsum > bound) {
+        return costsum;
+      }
     }
     return costsum;
   }
@@ -1126,8 +1174,8 @@ public class RoleDistanceAlgorithms {
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
       ToIntBiFunction<? super V, ? super V> substitutionCost) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> regularRolesDistanceRelativeToAt(i, j,
-        positionView, structureRelativeTo, comparator, substitutionCost));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> regularRolesDistanceRelativeToAt(i, j,
+        positionView, structureRelativeTo, comparator, substitutionCost, bound));
   }
 
   /**
@@ -1210,7 +1258,7 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V> int regularRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntBiFunction<? super V, ? super V> substitutionCost) {
+      ToIntBiFunction<? super V, ? super V> substitutionCost, int bound) {
     int costsum = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
@@ -1229,6 +1277,9 @@ public class RoleDistanceAlgorithms {
         }
       }
       costsum += cost;
+      if (costsum > bound) {
+        return costsum;
+      }
     }
     return costsum;
   }
@@ -1257,8 +1308,8 @@ public class RoleDistanceAlgorithms {
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
       ToIntBiFunction<? super V, ? super V> substitutionCost) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> regularRolesDistanceRelativeToAt(i, j,
-        positionView, equivalenceRelativeTo, comparator, substitutionCost));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> regularRolesDistanceRelativeToAt(i, j,
+        positionView, equivalenceRelativeTo, comparator, substitutionCost, bound));
   }
 
   /**
@@ -1444,25 +1495,38 @@ public class RoleDistanceAlgorithms {
 
   private static <V, T extends V> int exactRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
-      RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator) {
+      RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
+      int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
     }
     int degj = positionView.countTies(i, j, j);
+    if (degi - degj > bound) {
+      return degi - degj;
+    }
     NetworkBuilder builder = NetworkProvider.getInstance().builder(DyadType.UNDIRECTED);
     builder.ensureNode(degi + degj - 1);
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
+      boolean substitutable = false;
       int jpos = degi;
       for (T rj : positionView.ties(i, j, j)) {
         int rjtarget = positionView.tieTarget(i, j, j, rj);
         if (structureRelativeTo.contains(ritarget, rjtarget) && comparator.test(ri, rj)) {
           builder.addEdge(ipos, jpos);
+          substitutable = true;
         }
         ++jpos;
       }
+      if (!substitutable) {
+        ++lowerBound;
+      }
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return degi - BipartiteMatching.maximumMatchingSize(builder.build().asUndirectedGraph(),
@@ -1473,8 +1537,8 @@ public class RoleDistanceAlgorithms {
       TransposableNetworkView<T, ? extends V> positionView,
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> exactRolesDistanceRelativeToAt(i, j,
-        positionView, structureRelativeTo, comparator));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> exactRolesDistanceRelativeToAt(i, j,
+        positionView, structureRelativeTo, comparator, bound));
   }
 
   /**
@@ -1618,27 +1682,40 @@ public class RoleDistanceAlgorithms {
 
   private static <V, T extends V> int exactRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
-      ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator) {
+      ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
+      int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
     }
     int degj = positionView.countTies(i, j, j);
+    if (degi - degj > bound) {
+      return degi - degj;
+    }
     NetworkBuilder builder = NetworkProvider.getInstance().builder(DyadType.UNDIRECTED);
     builder.ensureNode(degi + degj - 1);
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
+      boolean substitutable = false;
       int jpos = degi;
       for (T rj : positionView.ties(i, j, j)) {
         int rjtarget = positionView.tieTarget(i, j, j, rj);
         if (equivalenceRelativeTo.getInt(ritarget) == equivalenceRelativeTo.getInt(rjtarget)) {
           if (comparator.test(ri, rj)) {
             builder.addEdge(ipos, jpos);
+            substitutable = true;
           }
         }
         ++jpos;
       }
+      if (!substitutable) {
+        ++lowerBound;
+      }
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return degi - BipartiteMatching.maximumMatchingSize(builder.build().asUndirectedGraph(),
@@ -1666,8 +1743,8 @@ public class RoleDistanceAlgorithms {
       TransposableNetworkView<? extends V, ? extends V> positionView,
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> exactRolesDistanceRelativeToAt(i, j,
-        positionView, equivalenceRelativeTo, comparator));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> exactRolesDistanceRelativeToAt(i, j,
+        positionView, equivalenceRelativeTo, comparator, bound));
   }
 
   /**
@@ -1876,7 +1953,7 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V> int exactRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntFunction<? super V> mismatchPenalty) {
+      ToIntFunction<? super V> mismatchPenalty, int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
@@ -1886,9 +1963,11 @@ public class RoleDistanceAlgorithms {
     PrimitiveList.OfInt weights = Mappings.newIntList();
     builder.ensureNode(degi + degj - 1);
     int maxErrSum = 0;
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
+      boolean substitutable = false;
       int penalty = mismatchPenalty.applyAsInt(ri);
       if (penalty > 0) {
         maxErrSum += penalty;
@@ -1897,11 +1976,18 @@ public class RoleDistanceAlgorithms {
           int rjtarget = positionView.tieTarget(i, j, j, rj);
           if (structureRelativeTo.contains(ritarget, rjtarget) && comparator.test(ri, rj)) {
             builder.addEdge(ipos, jpos);
+            substitutable = true;
             weights.add(penalty);
           }
           ++jpos;
         }
       }
+      if (!substitutable) {
+        lowerBound += penalty;
+      }
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return maxErrSum - WeightedBipartiteMatching.maximumMatchingWeight(
@@ -1914,8 +2000,8 @@ public class RoleDistanceAlgorithms {
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
       ToIntFunction<? super V> mismatchPenalty) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> exactRolesDistanceRelativeToAt(i, j,
-        positionView, structureRelativeTo, comparator, mismatchPenalty));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> exactRolesDistanceRelativeToAt(i, j,
+        positionView, structureRelativeTo, comparator, mismatchPenalty, bound));
   }
 
   /**
@@ -1997,7 +2083,7 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V> int exactRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntFunction<? super V> mismatchPenalty) {
+      ToIntFunction<? super V> mismatchPenalty, int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
@@ -2007,9 +2093,11 @@ public class RoleDistanceAlgorithms {
     PrimitiveList.OfInt weights = Mappings.newIntList();
     builder.ensureNode(degi + degj - 1);
     int maxErrSum = 0;
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
+      boolean substitutable = false;
       int penalty = mismatchPenalty.applyAsInt(ri);
       if (penalty > 0) {
         maxErrSum += penalty;
@@ -2019,12 +2107,19 @@ public class RoleDistanceAlgorithms {
           if (equivalenceRelativeTo.getInt(ritarget) == equivalenceRelativeTo.getInt(rjtarget)) {
             if (comparator.test(ri, rj)) {
               builder.addEdge(ipos, jpos);
+              substitutable = true;
               weights.add(penalty);
             }
           }
           ++jpos;
         }
       }
+      if (!substitutable) {
+        lowerBound += penalty;
+      }
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return maxErrSum - WeightedBipartiteMatching.maximumMatchingWeight(
@@ -2055,8 +2150,8 @@ public class RoleDistanceAlgorithms {
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
       ToIntFunction<? super V> mismatchPenalty) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> exactRolesDistanceRelativeToAt(i, j,
-        positionView, equivalenceRelativeTo, comparator, mismatchPenalty));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> exactRolesDistanceRelativeToAt(i, j,
+        positionView, equivalenceRelativeTo, comparator, mismatchPenalty, bound));
   }
 
   /**
@@ -2267,7 +2362,7 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V, U extends V> int exactRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, U> positionView, RelationBase structureRelativeTo,
       BiPredicate<? super V, ? super V> comparator,
-      ToIntBiFunction<? super V, ? super V> substitutionCost) {
+      ToIntBiFunction<? super V, ? super V> substitutionCost, int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
@@ -2277,10 +2372,12 @@ public class RoleDistanceAlgorithms {
     PrimitiveList.OfInt weights = Mappings.newIntList();
     builder.ensureNode(degi + degj - 1);
     int maxSubstCost = 0;
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
       int substFailureCost = substitutionCost.applyAsInt(ri, null);
+      int minCost = substFailureCost;
       maxSubstCost += substFailureCost;
       int jpos = degi;
       for (T rj : positionView.ties(j, j, j)) {
@@ -2289,11 +2386,16 @@ public class RoleDistanceAlgorithms {
           int substCost = substitutionCost.applyAsInt(ri, rj);
           if (substCost < substFailureCost) {
             builder.addEdge(ipos, jpos);
+            minCost = Math.min(minCost, substCost);
             weights.add(substFailureCost - substCost);
           }
         }
         ++jpos;
       }
+      lowerBound += minCost;
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return maxSubstCost - WeightedBipartiteMatching.maximumMatchingWeight(
@@ -2305,8 +2407,8 @@ public class RoleDistanceAlgorithms {
       BiPredicate<? super V, ? super V> comparator,
       ToIntBiFunction<? super V, ? super V> substitutionCost) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> exactRolesDistanceRelativeToAt(i, j,
-        positionView, structureRelativeTo, comparator, substitutionCost));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> exactRolesDistanceRelativeToAt(i, j,
+        positionView, structureRelativeTo, comparator, substitutionCost, bound));
   }
 
   /**
@@ -2392,7 +2494,7 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V> int exactRolesDistanceRelativeToAt(int i, int j,
       TransposableNetworkView<T, ? extends V> positionView,
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntBiFunction<? super V, ? super V> substitutionCost) {
+      ToIntBiFunction<? super V, ? super V> substitutionCost, int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
@@ -2402,10 +2504,12 @@ public class RoleDistanceAlgorithms {
     PrimitiveList.OfInt weights = Mappings.newIntList();
     builder.ensureNode(degi + degj - 1);
     int maxSubstCost = 0;
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
       int substFailureCost = substitutionCost.applyAsInt(ri, null);
+      int minCost = substFailureCost;
       if (substFailureCost > 0) {
         maxSubstCost += substFailureCost;
         int jpos = degi;
@@ -2416,6 +2520,7 @@ public class RoleDistanceAlgorithms {
               int substCost = substitutionCost.applyAsInt(ri, rj);
               if (substCost < substFailureCost) {
                 builder.addEdge(ipos, jpos);
+                minCost = Math.min(minCost, substCost);
                 weights.add(substFailureCost - substCost);
               }
             }
@@ -2423,6 +2528,10 @@ public class RoleDistanceAlgorithms {
           ++jpos;
         }
       }
+      lowerBound += minCost;
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return maxSubstCost - WeightedBipartiteMatching.maximumMatchingWeight(
@@ -2454,8 +2563,8 @@ public class RoleDistanceAlgorithms {
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
       ToIntBiFunction<? super V, ? super V> substitutionCost) {
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> exactRolesDistanceRelativeToAt(i, j,
-        positionView, equivalenceRelativeTo, comparator, substitutionCost));
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> exactRolesDistanceRelativeToAt(i, j,
+        positionView, equivalenceRelativeTo, comparator, substitutionCost, bound));
   }
 
   /**
@@ -2593,40 +2702,53 @@ public class RoleDistanceAlgorithms {
       return exactRolesDistanceRelativeToImpl(n, positionView, structureRelativeTo, comparator);
     }
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> {
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> {
       int degi = positionView.countTies(i, j, i);
       if (p >= degi) {
         return regularRolesDistanceRelativeToAt(i, j, positionView, structureRelativeTo, comparator,
-            e -> 1);
+            e -> 1, bound);
       }
       return pApproximateRegularRolesDistanceRelativeToAt(i, j, p, positionView,
-          structureRelativeTo, comparator);
+          structureRelativeTo, comparator, bound);
     });
   }
 
   private static <V, T extends V> int pApproximateRegularRolesDistanceRelativeToAt(int i, int j,
       int p, TransposableNetworkView<T, ? extends V> positionView,
-      RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator) {
+      RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
+      int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
     }
     int degj = positionView.countTies(i, j, j);
+    if (degi - (long) p * degj > bound) {
+      return degi - p * degj;
+    }
     NetworkBuilder builder = NetworkProvider.getInstance().builder(DyadType.UNDIRECTED);
     builder.ensureNode(degi + p * degj - 1);
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
+      boolean substitutable = false;
       int jpos = degi;
       for (T rj : positionView.ties(i, j, j)) {
         int rjtarget = positionView.tieTarget(i, j, j, rj);
         if (structureRelativeTo.contains(ritarget, rjtarget) && comparator.test(ri, rj)) {
+          substitutable = true;
           for (int q = 0; q < p; ++q) {
             builder.addEdge(ipos, jpos + q * degj);
           }
         }
         ++jpos;
       }
+      if (!substitutable) {
+        ++lowerBound;
+      }
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return degi - BipartiteMatching.maximumMatchingSize(builder.build().asUndirectedGraph(),
@@ -2768,35 +2890,42 @@ public class RoleDistanceAlgorithms {
       return exactRolesDistanceRelativeTo(n, positionView, equivalenceRelativeTo, comparator);
     }
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> {
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> {
       int degi = positionView.countTies(i, j, i);
       if (p >= degi) {
         return regularRolesDistanceRelativeToAt(i, j, positionView, equivalenceRelativeTo,
-            comparator, e -> 1);
+            comparator, e -> 1, bound);
       }
       return pApproximateRegularRolesDistanceRelativeToAt(i, j, p, positionView,
-          equivalenceRelativeTo, comparator);
+          equivalenceRelativeTo, comparator, bound);
     });
   }
 
   private static <V, T extends V> int pApproximateRegularRolesDistanceRelativeToAt(int i, int j,
       int p, TransposableNetworkView<T, ? extends V> positionView,
-      ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator) {
+      ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
+      int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
     }
     int degj = positionView.countTies(i, j, j);
+    if (degi - (long) p * degj > bound) {
+      return degi - p * degj;
+    }
     NetworkBuilder builder = NetworkProvider.getInstance().builder(DyadType.UNDIRECTED);
     builder.ensureNode(degi + p * degj - 1);
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
+      boolean substitutable = false;
       int jpos = degi;
       for (T rj : positionView.ties(i, j, j)) {
         int rjtarget = positionView.tieTarget(i, j, j, rj);
         if (equivalenceRelativeTo.getInt(ritarget) == equivalenceRelativeTo.getInt(rjtarget)) {
           if (comparator.test(ri, rj)) {
+            substitutable = true;
             for (int q = 0; q < p; ++q) {
               builder.addEdge(ipos, jpos + q * degj);
             }
@@ -2804,6 +2933,12 @@ public class RoleDistanceAlgorithms {
         }
         ++jpos;
       }
+      if (!substitutable) {
+        ++lowerBound;
+      }
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return degi - BipartiteMatching.maximumMatchingSize(builder.build().asUndirectedGraph(),
@@ -2957,21 +3092,21 @@ public class RoleDistanceAlgorithms {
           mismatchPenalty);
     }
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> {
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> {
       int degi = positionView.countTies(i, j, i);
       if (p >= degi) {
         return regularRolesDistanceRelativeToAt(i, j, positionView, structureRelativeTo, comparator,
-            mismatchPenalty);
+            mismatchPenalty, bound);
       }
       return pApproximateRegularRolesDistanceRelativeToAt(i, j, p, positionView,
-          structureRelativeTo, comparator, mismatchPenalty);
+          structureRelativeTo, comparator, mismatchPenalty, bound);
     });
   }
 
   private static <V, T extends V> int pApproximateRegularRolesDistanceRelativeToAt(int i, int j,
       int p, TransposableNetworkView<T, ? extends V> positionView,
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntFunction<? super V> mismatchPenalty) {
+      ToIntFunction<? super V> mismatchPenalty, int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
@@ -2981,9 +3116,11 @@ public class RoleDistanceAlgorithms {
     PrimitiveList.OfInt weights = Mappings.newIntList();
     builder.ensureNode(degi + p * degj - 1);
     int maxErrSum = 0;
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
+      boolean substitutable = false;
       int penalty = mismatchPenalty.applyAsInt(ri);
       if (penalty > 0) {
         maxErrSum += penalty;
@@ -2991,6 +3128,7 @@ public class RoleDistanceAlgorithms {
         for (T rj : positionView.ties(i, j, j)) {
           int rjtarget = positionView.tieTarget(i, j, j, rj);
           if (structureRelativeTo.contains(ritarget, rjtarget) && comparator.test(ri, rj)) {
+            substitutable = true;
             for (int q = 0; q < p; ++q) {
               builder.addEdge(ipos, jpos + q * degj);
               weights.add(penalty);
@@ -2999,6 +3137,12 @@ public class RoleDistanceAlgorithms {
           ++jpos;
         }
       }
+      if (!substitutable) {
+        lowerBound += penalty;
+      }
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return maxErrSum - WeightedBipartiteMatching.maximumMatchingWeight(
@@ -3152,21 +3296,21 @@ public class RoleDistanceAlgorithms {
           mismatchPenalty);
     }
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> {
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> {
       int degi = positionView.countTies(i, j, i);
       if (p >= degi) {
         return regularRolesDistanceRelativeToAt(i, j, positionView, equivalenceRelativeTo,
-            comparator, mismatchPenalty);
+            comparator, mismatchPenalty, bound);
       }
       return pApproximateRegularRolesDistanceRelativeToAt(i, j, p, positionView,
-          equivalenceRelativeTo, comparator, mismatchPenalty);
+          equivalenceRelativeTo, comparator, mismatchPenalty, bound);
     });
   }
 
   private static <V, T extends V> int pApproximateRegularRolesDistanceRelativeToAt(int i, int j,
       int p, TransposableNetworkView<T, ? extends V> positionView,
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntFunction<? super V> mismatchPenalty) {
+      ToIntFunction<? super V> mismatchPenalty, int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
@@ -3176,9 +3320,11 @@ public class RoleDistanceAlgorithms {
     PrimitiveList.OfInt weights = Mappings.newIntList();
     builder.ensureNode(degi + p * degj - 1);
     int maxErrSum = 0;
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
+      boolean substitutable = false;
       int penalty = mismatchPenalty.applyAsInt(ri);
       if (penalty > 0) {
         maxErrSum += penalty;
@@ -3187,6 +3333,7 @@ public class RoleDistanceAlgorithms {
           int rjtarget = positionView.tieTarget(i, j, j, rj);
           if (equivalenceRelativeTo.getInt(ritarget) == equivalenceRelativeTo.getInt(rjtarget)) {
             if (comparator.test(ri, rj)) {
+              substitutable = true;
               for (int q = 0; q < p; ++q) {
                 builder.addEdge(ipos, jpos + q * degj);
                 weights.add(penalty);
@@ -3196,6 +3343,12 @@ public class RoleDistanceAlgorithms {
           ++jpos;
         }
       }
+      if (!substitutable) {
+        lowerBound += penalty;
+      }
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return maxErrSum - WeightedBipartiteMatching.maximumMatchingWeight(
@@ -3349,21 +3502,21 @@ public class RoleDistanceAlgorithms {
           substitutionCost);
     }
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> {
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> {
       int degi = positionView.countTies(i, j, i);
       if (p >= degi) {
         return regularRolesDistanceRelativeToAt(i, j, positionView, structureRelativeTo, comparator,
-            substitutionCost);
+            substitutionCost, bound);
       }
       return pApproximateRegularRolesDistanceRelativeToAt(i, j, p, positionView,
-          structureRelativeTo, comparator, substitutionCost);
+          structureRelativeTo, comparator, substitutionCost, bound);
     });
   }
 
   private static <V, T extends V, U extends V> int pApproximateRegularRolesDistanceRelativeToAt(
       int i, int j, int p, TransposableNetworkView<T, U> positionView,
       RelationBase structureRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntBiFunction<? super V, ? super V> substitutionCost) {
+      ToIntBiFunction<? super V, ? super V> substitutionCost, int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
@@ -3373,10 +3526,12 @@ public class RoleDistanceAlgorithms {
     PrimitiveList.OfInt weights = Mappings.newIntList();
     builder.ensureNode(degi + p * degj - 1);
     int maxSubstCost = 0;
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
       int substFailureCost = substitutionCost.applyAsInt(ri, null);
+      int minCost = substFailureCost;
       maxSubstCost += substFailureCost;
       int jpos = degi;
       for (T rj : positionView.ties(j, j, j)) {
@@ -3384,6 +3539,7 @@ public class RoleDistanceAlgorithms {
         if (structureRelativeTo.contains(ritarget, rjtarget) && comparator.test(ri, rj)) {
           int substCost = substitutionCost.applyAsInt(ri, rj);
           if (substCost < substFailureCost) {
+            minCost = Math.min(minCost, substCost);
             for (int q = 0; q < p; ++q) {
               builder.addEdge(ipos, jpos + q * degj);
               weights.add(substFailureCost - substCost);
@@ -3392,6 +3548,10 @@ public class RoleDistanceAlgorithms {
         }
         ++jpos;
       }
+      lowerBound += minCost;
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return maxSubstCost - WeightedBipartiteMatching.maximumMatchingWeight(
@@ -3546,21 +3706,21 @@ public class RoleDistanceAlgorithms {
           substitutionCost);
     }
 
-    return new LazyIntDistanceMatrixImpl(n, (i, j) -> {
+    return new LazyIntDistanceMatrixImpl(n, (i, j, bound) -> {
       int degi = positionView.countTies(i, j, i);
       if (p >= degi) {
         return regularRolesDistanceRelativeToAt(i, j, positionView, equivalenceRelativeTo,
-            comparator, substitutionCost);
+            comparator, substitutionCost, bound);
       }
       return pApproximateRegularRolesDistanceRelativeToAt(i, j, p, positionView,
-          equivalenceRelativeTo, comparator, substitutionCost);
+          equivalenceRelativeTo, comparator, substitutionCost, bound);
     });
   }
 
   private static <V, T extends V> int pApproximateRegularRolesDistanceRelativeToAt(int i, int j,
       int p, TransposableNetworkView<T, ? extends V> positionView,
       ConstMapping.OfInt equivalenceRelativeTo, BiPredicate<? super V, ? super V> comparator,
-      ToIntBiFunction<? super V, ? super V> substitutionCost) {
+      ToIntBiFunction<? super V, ? super V> substitutionCost, int bound) {
     int degi = positionView.countTies(i, j, i);
     if (degi == 0) {
       return 0;
@@ -3570,10 +3730,12 @@ public class RoleDistanceAlgorithms {
     PrimitiveList.OfInt weights = Mappings.newIntList();
     builder.ensureNode(degi + p * degj - 1);
     int maxSubstCost = 0;
+    int lowerBound = 0;
     int ipos = 0;
     for (T ri : positionView.ties(i, j, i)) {
       int ritarget = positionView.tieTarget(i, j, i, ri);
       int substFailureCost = substitutionCost.applyAsInt(ri, null);
+      int minCost = substFailureCost;
       if (substFailureCost > 0) {
         maxSubstCost += substFailureCost;
         int jpos = degi;
@@ -3583,6 +3745,7 @@ public class RoleDistanceAlgorithms {
             if (comparator.test(ri, rj)) {
               int substCost = substitutionCost.applyAsInt(ri, rj);
               if (substCost < substFailureCost) {
+                minCost = Math.min(minCost, substCost);
                 for (int q = 0; q < p; ++q) {
                   builder.addEdge(ipos, jpos + q * degj);
                   weights.add(substFailureCost - substCost);
@@ -3593,12 +3756,135 @@ public class RoleDistanceAlgorithms {
           ++jpos;
         }
       }
+      lowerBound += minCost;
+      if (lowerBound > bound) {
+        return lowerBound;
+      }
       ++ipos;
     }
     return maxSubstCost - WeightedBipartiteMatching.maximumMatchingWeight(
         builder.build().asUndirectedGraph(), weights, Mappings.intRange(0, degi));
   }
 
+  /**
+   * Ties of a network ranked with respect to a weak order, such that equivalent
+   * ties share a rank and greater ties receive greater ranks.
+   */
+  private static final class RankedTies<V> {
+    final V[] ties;
+    final int[] ranks;
+    // per node, the indices of its ties in order of decreasing rank
+    final int[][] nodeTies;
+
+    @SuppressWarnings("unchecked")
+    RankedTies(int n, NetworkView<? extends V, ? extends V> positionView,
+        Comparator<? super V> comparator) {
+      List<V> tieList = new ArrayList<>();
+      PrimitiveList.OfInt owners = Mappings.newIntList();
+      int[] deg = new int[n];
+      for (int i = 0; i < n; ++i) {
+        for (V r : positionView.ties(i)) {
+          tieList.add(r);
+          owners.addInt(i);
+          ++deg[i];
+        }
+      }
+      ties = (V[]) tieList.toArray();
+      ranks = new int[ties.length];
+      Integer[] order = new Integer[ties.length];
+      for (int k = 0; k < order.length; ++k) {
+        order[k] = k;
+      }
+      Arrays.sort(order, (lhs, rhs) -> comparator.compare(ties[lhs], ties[rhs]));
+      int rank = 0;
+      for (int pos = 1; pos < order.length; ++pos) {
+        if (comparator.compare(ties[order[pos - 1]], ties[order[pos]]) < 0) {
+          ++rank;
+        }
+        ranks[order[pos]] = rank;
+      }
+      nodeTies = new int[n][];
+      for (int i = 0; i < n; ++i) {
+        nodeTies[i] = new int[deg[i]];
+        deg[i] = 0;
+      }
+      for (int pos = order.length - 1; pos >= 0; --pos) {
+        int owner = owners.getInt(order[pos]);
+        nodeTies[owner][deg[owner]++] = order[pos];
+      }
+    }
+  }
+
+  /**
+   * Profile of a node that fully determines its distances to all other nodes.
+   */
+  private static final class NodeProfile {
+    private final int[] values;
+
+    NodeProfile(int[] values) {
+      this.values = values;
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof NodeProfile && Arrays.equals(values, ((NodeProfile) obj).values);
+    }
+  }
+
+  /**
+   * Groups nodes with equal profiles into classes.
+   * 
+   * @param profiles        the profile of each node.
+   * @param representatives receives one node per class, indexed by class.
+   * @return the class of each node.
+   */
+  private static int[] groupByProfile(int[][] profiles, PrimitiveList.OfInt representatives) {
+    Map<NodeProfile, Integer> classes = new HashMap<>();
+    int[] classOf = new int[profiles.length];
+    for (int i = 0; i < profiles.length; ++i) {
+      Integer cls = classes.putIfAbsent(new NodeProfile(profiles[i]), classes.size());
+      if (cls == null) {
+        classOf[i] = representatives.size();
+        representatives.addInt(i);
+      } else {
+        classOf[i] = cls;
+      }
+    }
+    return classOf;
+  }
+
+  /**
+   * Expands the distances between classes of nodes with equal profiles to all
+   * pairs of nodes, sharing the computation of the rows of nodes in the same
+   * class.
+   */
+  private static IntDistanceMatrix expandClassDistances(int n, int[] classOf,
+      int[][] classDistance) {
+    int[][] distance = new int[n][];
+    int[] firstOfClass = new int[classDistance.length];
+    Arrays.fill(firstOfClass, -1);
+    for (int i = 0; i < n; ++i) {
+      int cls = classOf[i];
+      if (firstOfClass[cls] >= 0) {
+        distance[i] = distance[firstOfClass[cls]].clone();
+      } else {
+        int[] classRow = classDistance[cls];
+        int[] row = new int[n];
+        for (int j = 0; j < n; ++j) {
+          row[j] = classRow[classOf[j]];
+        }
+        distance[i] = row;
+        firstOfClass[cls] = i;
+      }
+    }
+    return new IntDistanceMatrixImpl(distance);
+  }
+
   /**
    * Computes the distance (substitution failure cost) between pairs of nodes
    * under the notion of weak roles on the given network.
@@ -3691,46 +3977,42 @@ public class RoleDistanceAlgorithms {
    */
   public static <V> IntDistanceMatrix weakEquivalenceDistance(int n, NetworkView<? extends V, ? extends V> positionView,
       Comparator<? super V> comparator, ToIntFunction<? super V> mismatchPenalty) {
-    @SuppressWarnings("unchecked")
-    V[] maximalRelationships = (V[]) new Object[n];
-    for (int i = 0; i < n; ++i) {
-      maximalRelationships[i] = StreamSupport.stream(positionView.ties(i).spliterator(), false)
-          .max(comparator).orElse(null);
+    RankedTies<V> ranked = new RankedTies<>(n, positionView, comparator);
+    int[] penalties = new int[ranked.ties.length];
+    for (int k = 0; k < penalties.length; ++k) {
+      penalties[k] = mismatchPenalty.applyAsInt(ranked.ties[k]);
     }
 
-    int[][] distance = new int[n][n];
+    // the distance to j only depends on the maximum rank among j's ties, so
+    // determine the distinct maximum ranks (-1 for nodes without ties)
+    int[] maxRank = new int[n];
+    for (int j = 0; j < n; ++j) {
+      int[] tiesj = ranked.nodeTies[j];
+      maxRank[j] = tiesj.length > 0 ? ranked.ranks[tiesj[0]] : -1;
+    }
+    int[] levels = Arrays.stream(maxRank).distinct().sorted().toArray();
+    int[] levelOf = new int[n];
+    for (int j = 0; j < n; ++j) {
+      levelOf[j] = Arrays.binarySearch(levels, maxRank[j]);
+    }
 
+    int[][] distance = new int[n][n];
+    int[] levelCost = new int[levels.length];
     for (int i = 0; i < n; ++i) {
-      @SuppressWarnings("unchecked")
-      V[] sortedRelationships = (V[]) StreamSupport
-          .stream(positionView.ties(i).spliterator(), false).sorted(comparator).toArray();
-      int[] cost = new int[sortedRelationships.length];
+      // prefix sums over i's ties in decreasing rank give the penalty of all
+      // ties that exceed each maximum rank
+      int[] tiesi = ranked.nodeTies[i];
+      int pos = 0;
       int errorCost = 0;
-      V previous = null;
-      int previousCost = 0;
-      for (int j = sortedRelationships.length - 1; j >= 0; --j) {
-        if (previous != null && comparator.compare(sortedRelationships[j], previous) < 0) {
-          previousCost = errorCost;
+      for (int level = levels.length - 1; level >= 0; --level) {
+        for (; pos < tiesi.length && ranked.ranks[tiesi[pos]] > levels[level]; ++pos) {
+          errorCost += penalties[tiesi[pos]];
         }
-        cost[j] = previousCost;
-        errorCost += mismatchPenalty.applyAsInt(sortedRelationships[j]);
-        previous = sortedRelationships[j];
+        levelCost[level] = errorCost;
       }
-
+      int[] row = distance[i];
       for (int j = 0; j < n; ++j) {
-        if (maximalRelationships[j] == null) {
-          distance[i][j] = errorCost;
-        } else {
-          int pos = Arrays.binarySearch(sortedRelationships, maximalRelationships[j], comparator);
-          if (pos < 0) {
-            pos = -pos - 2;
-          }
-          if (pos < 0) {
-            distance[i][j] = errorCost;
-          } else {
-            distance[i][j] = cost[pos];
-          }
-        }
+        row[j] = levelCost[levelOf[j]];
       }
     }
     return new IntDistanceMatrixImpl(distance);
@@ -4111,38 +4393,45 @@ public class RoleDistanceAlgorithms {
   public static <V> IntDistanceMatrix weakExactEquivalenceDistance(int n,
       NetworkView<? extends V, ? extends V> positionView, Comparator<? super V> comparator) {
 
-    @SuppressWarnings("unchecked")
-    V[][] sortedRelationships = (V[][]) new Object[n][];
-    Comparator<? super V> reversedComparator = comparator.reversed();
+    // the distances only depend on the ranks of the nodes' ties, so they are
+    // computed once per distinct rank profile
+    RankedTies<V> ranked = new RankedTies<>(n, positionView, comparator);
+    int[][] profiles = new int[n][];
     for (int i = 0; i < n; ++i) {
-      @SuppressWarnings("unchecked")
-      V[] sortedRelationshipsForI = (V[]) StreamSupport
-          .stream(positionView.ties(i).spliterator(), false).sorted(reversedComparator).toArray();
-      sortedRelationships[i] = sortedRelationshipsForI;
+      int[] tiesi = ranked.nodeTies[i];
+      int[] profile = new int[tiesi.length];
+      for (int k = 0; k < tiesi.length; ++k) {
+        profile[k] = ranked.ranks[tiesi[k]];
+      }
+      profiles[i] = profile;
     }
-
-    int[][] distance = new int[n][n];
-
-    for (int i = 0; i < n; ++i) {
-      int nilen = sortedRelationships[i].length;
-      for (int j = 0; j < n; ++j) {
-        if (i != j) {
-          int njlen = sortedRelationships[j].length;
+    PrimitiveList.OfInt representatives = Mappings.newIntList();
+    int[] classOf = groupByProfile(profiles, representatives);
+
+    int numClasses = representatives.size();
+    int[][] classDistance = new int[numClasses][numClasses];
+    for (int ci = 0; ci < numClasses; ++ci) {
+      int[] ranksi = profiles[representatives.getInt(ci)];
+      int nilen = ranksi.length;
+      for (int cj = 0; cj < numClasses; ++cj) {
+        if (ci != cj) {
+          int[] ranksj = profiles[representatives.getInt(cj)];
+          int njlen = ranksj.length;
           int nj = 0, ni = 0;
           int errors = 0;
           for (; ni < nilen && nj < njlen; ++ni) {
-            if (comparator.compare(sortedRelationships[i][ni], sortedRelationships[j][nj]) <= 0) {
+            if (ranksi[ni] <= ranksj[nj]) {
               ++nj;
             } else {
               ++errors;
             }
           }
-          distance[i][j] = errors + nilen - ni;
+          classDistance[ci][cj] = errors + nilen - ni;
         }
       }
     }
 
-    return new IntDistanceMatrixImpl(distance);
+    return expandClassDistances(n, classOf, classDistance);
   }
 
   /**
@@ -4510,29 +4799,104 @@ public class RoleDistanceAlgorithms {
       NetworkView<? extends V, ? extends V> positionView, Comparator<? super V> comparator,
       ToIntFunction<? super V> mismatchPenalty) {
 
-    int[][] distance = new int[n][n];
+    // the distances only depend on the ranks and penalties of the nodes' ties,
+    // so they are computed once per distinct profile
+    RankedTies<V> ranked = new RankedTies<>(n, positionView, comparator);
+    int[] penalties = new int[ranked.ties.length];
+    for (int k = 0; k < penalties.length; ++k) {
+      penalties[k] = mismatchPenalty.applyAsInt(ranked.ties[k]);
+    }
+    int[][] profiles = new int[n][];
     for (int i = 0; i < n; ++i) {
-      @SuppressWarnings("unchecked")
-      V[] iRelationshipsSortedByPenalty = (V[]) StreamSupport
-          .stream(positionView.ties(i).spliterator(), false)
-          .sorted(Comparator.comparingInt(mismatchPenalty)).toArray();
-      for (int j = 0; j < n; ++j) {
-        TreeSet<V> jRelationshipsSortedByComparator = new TreeSet<>(comparator);
-        positionView.ties(j).forEach(r -> jRelationshipsSortedByComparator.add(r));
+      // ties by decreasing penalty, then by decreasing rank (stable sort)
+      int[] tiesi = ranked.nodeTies[i];
+      Integer[] order = new Integer[tiesi.length];
+      for (int k = 0; k < tiesi.length; ++k) {
+        order[k] = tiesi[k];
+      }
+      Arrays.sort(order, (lhs, rhs) -> Integer.compare(penalties[rhs], penalties[lhs]));
+      int[] profile = new int[2 * tiesi.length];
+      for (int k = 0; k < tiesi.length; ++k) {
+        profile[2 * k] = penalties[order[k]];
+        profile[2 * k + 1] = ranked.ranks[order[k]];
+      }
+      profiles[i] = profile;
+    }
+    PrimitiveList.OfInt representatives = Mappings.newIntList();
+    int[] classOf = groupByProfile(profiles, representatives);
+
+    int numClasses = representatives.size();
+    // equivalent ties of j can substitute only once, so keep distinct ranks
+    int[][] ascendingRanks = new int[numClasses][];
+    int maxDegree = 0;
+    for (int cls = 0; cls < numClasses; ++cls) {
+      int[] tiesj = ranked.nodeTies[representatives.getInt(cls)];
+      int[] ranksj = new int[tiesj.length];
+      int distinct = 0;
+      for (int k = tiesj.length - 1; k >= 0; --k) {
+        int rank = ranked.ranks[tiesj[k]];
+        if (distinct == 0 || ranksj[distinct - 1] != rank) {
+          ranksj[distinct++] = rank;
+        }
+      }
+      ascendingRanks[cls] = Arrays.copyOf(ranksj, distinct);
+      maxDegree = Math.max(maxDegree, distinct);
+    }
+
+    // each tie of i, by decreasing penalty, is substituted by the smallest
+    // remaining tie of j that is not less than it; nextFree skips over the
+    // already used ties of j
+    int[] nextFree = new int[maxDegree + 1];
+    int[][] classDistance = new int[numClasses][numClasses];
+    for (int ci = 0; ci < numClasses; ++ci) {
+      int[] profilei = profiles[representatives.getInt(ci)];
+      // nodes with equal profiles may differ, as equivalent ties of j collapse
+      for (int cj = 0; cj < numClasses; ++cj) {
+        int[] ranksj = ascendingRanks[cj];
+        for (int k = 0; k <= ranksj.length; ++k) {
+          nextFree[k] = k;
+        }
         int totalPenalty = 0;
-        for (int k = iRelationshipsSortedByPenalty.length - 1; k >= 0; --k) {
-          V ri = iRelationshipsSortedByPenalty[k];
-          V rj = jRelationshipsSortedByComparator.ceiling(ri);
-          if (rj == null) {
-            totalPenalty += mismatchPenalty.applyAsInt(ri);
+        for (int k = 0; k < profilei.length; k += 2) {
+          int pos = lowerBound(ranksj, profilei[k + 1]);
+          int free = findFree(nextFree, pos);
+          if (free == ranksj.length) {
+            totalPenalty += profilei[k];
           } else {
-            jRelationshipsSortedByComparator.remove(rj);
+            nextFree[free] = free + 1;
           }
-          distance[i][j] = totalPenalty;
         }
+        classDistance[ci][cj] = totalPenalty;
       }
     }
-    return new IntDistanceMatrixImpl(distance);
+
+    return expandClassDistances(n, classOf, classDistance);
+  }
+
+  private static int lowerBound(int[] sorted, int value) {
+    int lo = 0, hi = sorted.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (sorted[mid] < value) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  private static int findFree(int[] nextFree, int pos) {
+    int root = pos;
+    while (nextFree[root] != root) {
+      root = nextFree[root];
+    }
+    while (nextFree[pos] != root) {
+      int next = nextFree[pos];
+      nextFree[pos] = root;
+      pos = next;
+    }
+    return root;
   }
 
   /**
@@ -5221,31 +5585,104 @@ public class RoleDistanceAlgorithms {
     return strongStructuralEquivalenceDistanceImpl(n, positionView, comparator, mismatchPenalty);
   }
 
+  /**
+   * Rows of a structural distance matrix in which each row defaults to the total
+   * penalty of the row's node and only the distances to its co-neighbors are
+   * stored.
+   */
+  private static final class CoNeighborRows {
+    private static final int[] EMPTY = new int[0];
+
+    final int[] defaults;
+    final int[][] columns;
+    final int[][] distances;
+
+    CoNeighborRows(int n) {
+      defaults = new int[n];
+      columns = new int[n][];
+      distances = new int[n][];
+    }
+
+    IntDistanceMatrix toMatrix() {
+      return new RowDefaultIntDistanceMatrixImpl(defaults, columns, distances);
+    }
+  }
+
+  /**
+   * Accumulates the improvements over the total penalty of the current node for
+   * each of its co-neighbors, i.e., the nodes sharing a neighbor with it, and
+   * stores the resulting row when the node is finished.
+   */
+  private abstract static class CoNeighborDistanceVisitor<T, U>
+      implements NeighborhoodInclusion.EdgeDominationVisitor<T, U> {
+
+    private final CoNeighborRows rows;
+    private final int[] improvements;
+    private final boolean[] touched;
+    private final PrimitiveList.OfInt touchedList = Mappings.newIntList();
+    int currNode;
+    int totalPenalty;
+
+    CoNeighborDistanceVisitor(CoNeighborRows rows) {
+      this.rows = rows;
+      improvements = new int[rows.defaults.length];
+      touched = new boolean[rows.defaults.length];
+    }
+
+    void improve(int j, int improvement) {
+      if (!touched[j]) {
+        touched[j] = true;
+        touchedList.addInt(j);
+      }
+      improvements[j] += improvement;
+    }
+
+    @Override
+    public void startNode(int i) {
+      currNode = i;
+      totalPenalty = 0;
+    }
+
+    @Override
+    public void finishNode(int i) {
+      int[] coNeighbors = touchedList.toUnboxedArray();
+      Arrays.sort(coNeighbors);
+      int count = 0;
+      for (int j : coNeighbors) {
+        if (improvements[j] != 0) {
+          ++count;
+        }
+      }
+      int[] columns = count == 0 ? CoNeighborRows.EMPTY : new int[count];
+      int[] distances = count == 0 ? CoNeighborRows.EMPTY : new int[count];
+      int pos = 0;
+      for (int j : coNeighbors) {
+        if (improvements[j] != 0) {
+          columns[pos] = j;
+          distances[pos] = totalPenalty - improvements[j];
+          ++pos;
+        }
+        improvements[j] = 0;
+        touched[j] = false;
+      }
+      touchedList.clear();
+      rows.defaults[i] = totalPenalty;
+      rows.columns[i] = columns;
+      rows.distances[i] = distances;
+    }
+  }
+
   private static <T, U> IntDistanceMatrix strongStructuralEquivalenceDistanceImpl(int n,
       NetworkView<T, U> positionView, BiPredicate<? super T, ? super U> comparator,
       ToIntFunction<? super T> mismatchPenalty) {
 
-    int[][] distance = new int[n][n];
+    CoNeighborRows rows = new CoNeighborRows(n);
 
-    NeighborhoodInclusion.iterateIncidentEdgeDominations(n, positionView::ties,
+    NeighborhoodInclusion.iterateIncidentEdgeDominationsInParallel(n, positionView::ties,
         positionView::inverseTies, positionView::tieTarget,
-        new NeighborhoodInclusion.EdgeDominationVisitor<T, U>() {
-
-          int totalPenalty, penalty;
-          int[] errorImprovement = new int[n];
-
-          @Override
-          public void startNode(int i) {
-            totalPenalty = 0;
-          }
+        () -> new CoNeighborDistanceVisitor<T, U>(rows) {
 
-          @Override
-          public void finishNode(int i) {
-            for (int j = 0; j < n; ++j) {
-              distance[i][j] = totalPenalty - errorImprovement[j];
-              errorImprovement[j] = 0;
-            }
-          }
+          int penalty;
 
           @Override
           public boolean processEdge(T r) {
@@ -5257,12 +5694,12 @@ public class RoleDistanceAlgorithms {
           @Override
           public void matchEdge(int source, T edge, int middle, U matchedby) {
             if (comparator.test(edge, matchedby)) {
-              errorImprovement[positionView.inverseTieTarget(middle, matchedby)] += penalty;
+              improve(positionView.inverseTieTarget(middle, matchedby), penalty);
             }
           }
         });
 
-    return new IntDistanceMatrixImpl(distance);
+    return rows.toMatrix();
   }
 
   /**
@@ -5489,27 +5926,13 @@ public class RoleDistanceAlgorithms {
       NetworkView<T, U> positionView, BiPredicate<? super T, ? super U> comparator,
       ToIntBiFunction<? super T, ? super U> substitutionCost) {
 
-    int[][] distance = new int[n][n];
+    CoNeighborRows rows = new CoNeighborRows(n);
 
-    NeighborhoodInclusion.iterateIncidentEdgeDominations(n, positionView::ties,
+    NeighborhoodInclusion.iterateIncidentEdgeDominationsInParallel(n, positionView::ties,
         positionView::inverseTies, positionView::tieTarget,
-        new NeighborhoodInclusion.EdgeDominationVisitor<T, U>() {
-
-          int totalPenalty, penalty;
-          int[] errorImprovement = new int[n];
-
-          @Override
-          public void startNode(int i) {
-            totalPenalty = 0;
-          }
+        () -> new CoNeighborDistanceVisitor<T, U>(rows) {
 
-          @Override
-          public void finishNode(int i) {
-            for (int j = 0; j < n; ++j) {
-              distance[i][j] = totalPenalty - errorImprovement[j];
-              errorImprovement[j] = 0;
-            }
-          }
+          int penalty;
 
           @Override
           public boolean processEdge(T r) {
@@ -5521,13 +5944,13 @@ public class RoleDistanceAlgorithms {
           @Override
           public void matchEdge(int source, T edge, int middle, U matchedby) {
             if (comparator.test(edge, matchedby)) {
-              errorImprovement[positionView.inverseTieTarget(middle, matchedby)] += Math.max(0,
-                  penalty - substitutionCost.applyAsInt(edge, matchedby));
+              improve(positionView.inverseTieTarget(middle, matchedby),
+                  Math.max(0, penalty - substitutionCost.applyAsInt(edge, matchedby)));
             }
           }
         });
 
-    return new IntDistanceMatrixImpl(distance);
+    return rows.toMatrix();
   }
 
   /**
@@ -5755,47 +6178,63 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V, U extends V> IntDistanceMatrix weakStructuralEquivalenceDistanceImpl(
       int n, NetworkView<T, U> positionView, BiPredicate<? super V, ? super V> comparator,
       ToIntFunction<? super V> mismatchPenalty) {
-    int[][] distance = new int[n][n];
+    // loops are matched against the loops of all other nodes at the end of each row
     @SuppressWarnings("unchecked")
     T[] loops = (T[]) new Object[n];
-    PrimitiveList.OfInt loopsList = Mappings.newIntList(n);
+    int[] loopCounts = new int[n];
+    PrimitiveList.OfInt loopNodes = Mappings.newIntList();
+    for (int i = 0; i < n; ++i) {
+      for (T r : positionView.ties(i)) {
+        if (positionView.tieTarget(i, r) == i) {
+          loops[i] = r;
+          if (loopCounts[i]++ == 0) {
+            loopNodes.addInt(i);
+          }
+        }
+      }
+    }
+    CoNeighborRows rows = new CoNeighborRows(n);
 
-    NeighborhoodInclusion.iterateIncidentEdgeDominations(n, positionView::ties,
+    NeighborhoodInclusion.iterateIncidentEdgeDominationsInParallel(n, positionView::ties,
         positionView::inverseTies, positionView::tieTarget,
-        new NeighborhoodInclusion.EdgeDominationVisitor<T, U>() {
+        () -> new CoNeighborDistanceVisitor<T, U>(rows) {
 
-          int totalPenalty, penalty;
-          int[] errorImprovement = new int[n];
-          int currNode;
+          int penalty;
           @SuppressWarnings("unchecked")
           U[] inverseTies = (U[]) new Object[n];
 
           @Override
           public void startNode(int i) {
-            totalPenalty = 0;
-            currNode = i;
+            super.startNode(i);
             for (U inverseTie : positionView.inverseTies(i)) {
-              final int target = positionView.inverseTieTarget(i, inverseTie);
-              inverseTies[target] = inverseTie;
+              inverseTies[positionView.inverseTieTarget(i, inverseTie)] = inverseTie;
             }
           }
 
           @Override
           public void finishNode(int i) {
-            for (int j = 0; j < n; ++j) {
-              distance[i][j] = totalPenalty - errorImprovement[j];
-              errorImprovement[j] = 0;
-              inverseTies[j] = null;
+            for (U inverseTie : positionView.inverseTies(i)) {
+              inverseTies[positionView.inverseTieTarget(i, inverseTie)] = null;
             }
+            if (loopCounts[i] > 0) {
+              T ri = loops[i];
+              int loopPenalty = mismatchPenalty.applyAsInt(ri);
+              totalPenalty += loopCounts[i] * loopPenalty;
+              for (int j : loopNodes) {
+                T rj = loops[j];
+                if (comparator.test(ri, rj)) {
+                  improve(j, loopCounts[i] * loopPenalty);
+                }
+              }
+            }
+            super.finishNode(i);
           }
 
           @Override
           public boolean processEdge(T r) {
-            // memorize loop and skip it for now
+            // skip loops, they are handled when finishing the node
             final int target = positionView.tieTarget(currNode, r);
             if (target == currNode) {
-              loopsList.addInt(currNode);
-              loops[currNode] = r;
               return false;
             }
             penalty = mismatchPenalty.applyAsInt(r);
@@ -5804,7 +6243,7 @@ public class RoleDistanceAlgorithms {
             // handle reciprocation
             U inverseTie = inverseTies[target];
             if (inverseTie != null && comparator.test(r, inverseTie)) {
-              errorImprovement[target] += penalty;
+              improve(target, penalty);
             }
             return true;
           }
@@ -5819,23 +6258,12 @@ public class RoleDistanceAlgorithms {
             }
 
             if (comparator.test(edge, matchedby)) {
-              errorImprovement[j] += penalty;
+              improve(j, penalty);
             }
           }
         });
 
-    // handle loops
-    for (int i : loopsList) {
-      T ri = loops[i];
-      int penalty = mismatchPenalty.applyAsInt(ri);
-      for (int j = 0; j < n; ++j) {
-        T rj = loops[j];
-        if (rj == null || !comparator.test(ri, rj)) {
-          distance[i][j] += penalty;
-        }
-      }
-    }
-    return new IntDistanceMatrixImpl(distance);
+    return rows.toMatrix();
   }
 
   /**
@@ -6068,26 +6496,34 @@ public class RoleDistanceAlgorithms {
   private static <V, T extends V, U extends V> IntDistanceMatrix weakStructuralEquivalenceDistanceImpl(int n,
       NetworkView<T, U> positionView, BiPredicate<? super V, ? super V> comparator,
       ToIntBiFunction<? super V, ? super V> substitutionCost) {
-
-    int[][] distance = new int[n][n];
+    // loops are matched against the loops of all other nodes at the end of each row
     @SuppressWarnings("unchecked")
     T[] loops = (T[]) new Object[n];
-    PrimitiveList.OfInt loopsList = Mappings.newIntList(n);
+    int[] loopCounts = new int[n];
+    PrimitiveList.OfInt loopNodes = Mappings.newIntList();
+    for (int i = 0; i < n; ++i) {
+      for (T r : positionView.ties(i)) {
+        if (positionView.tieTarget(i, r) == i) {
+          loops[i] = r;
+          if (loopCounts[i]++ == 0) {
+            loopNodes.addInt(i);
+          }
+        }
+      }
+    }
+    CoNeighborRows rows = new CoNeighborRows(n);
 
-    NeighborhoodInclusion.iterateIncidentEdgeDominations(n, positionView::ties,
+    NeighborhoodInclusion.iterateIncidentEdgeDominationsInParallel(n, positionView::ties,
         positionView::inverseTies, positionView::tieTarget,
-        new NeighborhoodInclusion.EdgeDominationVisitor<T, U>() {
+        () -> new CoNeighborDistanceVisitor<T, U>(rows) {
 
-          int totalPenalty, penalty;
-          int[] errorImprovement = new int[n];
-          int currNode;
+          int penalty;
           @SuppressWarnings("unchecked")
           U[] inverseTies = (U[]) new Object[n];
 
           @Override
           public void startNode(int i) {
-            totalPenalty = 0;
-            currNode = i;
+            super.startNode(i);
             for (U inverseTie : positionView.inverseTies(i)) {
               inverseTies[positionView.inverseTieTarget(i, inverseTie)] = inverseTie;
             }
@@ -6095,30 +6531,39 @@ public class RoleDistanceAlgorithms {
 
           @Override
           public void finishNode(int i) {
-            for (int j = 0; j < n; ++j) {
-              distance[i][j] = totalPenalty - errorImprovement[j];
-              errorImprovement[j] = 0;
-              inverseTies[j] = null;
+            for (U inverseTie : positionView.inverseTies(i)) {
+              inverseTies[positionView.inverseTieTarget(i, inverseTie)] = null;
             }
+            if (loopCounts[i] > 0) {
+              T ri = loops[i];
+              int loopPenalty = substitutionCost.applyAsInt(ri, null);
+              totalPenalty += loopCounts[i] * loopPenalty;
+              for (int j : loopNodes) {
+                T rj = loops[j];
+                if (comparator.test(ri, rj)) {
+                  int cost = Math.min(loopPenalty, substitutionCost.applyAsInt(ri, rj));
+                  improve(j, loopCounts[i] * (loopPenalty - cost));
+                }
+              }
+            }
+            super.finishNode(i);
           }
 
           @Override
           public boolean processEdge(T r) {
-            // memorize loop and skip it otherwise
+            // skip loops, they are handled when finishing the node
             final int target = positionView.tieTarget(currNode, r);
             if (target == currNode) {
-              loopsList.addInt(currNode);
-              loops[currNode] = r;
               return false;
             }
             penalty = substitutionCost.applyAsInt(r, null);
             totalPenalty += penalty;
+
             // handle reciprocation
             U inverseTie = inverseTies[target];
             if (inverseTie != null && comparator.test(r, inverseTie)) {
-              errorImprovement[target] += Math.max(0,
-                  penalty - substitutionCost.applyAsInt(r, inverseTie));
-              ;
+              improve(target, Math.max(0,
+                  penalty - substitutionCost.applyAsInt(r, inverseTie)));
             }
             return true;
           }
@@ -6133,27 +6578,13 @@ public class RoleDistanceAlgorithms {
             }
 
             if (comparator.test(edge, matchedby)) {
-              errorImprovement[j] += Math.max(0,
-                  penalty - substitutionCost.applyAsInt(edge, matchedby));
-              ;
+              improve(j, Math.max(0,
+                  penalty - substitutionCost.applyAsInt(edge, matchedby)));
             }
           }
         });
 
-    // handle loops
-    for (int i : loopsList) {
-      T ri = loops[i];
-      int penalty = substitutionCost.applyAsInt(ri, null);
-      for (int j = 0; j < n; ++j) {
-        T rj = loops[j];
-        if (rj == null || !comparator.test(ri, rj)) {
-          distance[i][j] += penalty;
-        } else {
-          distance[i][j] += Math.min(penalty, substitutionCost.applyAsInt(ri, rj));
-        }
-      }
-    }
-    return new IntDistanceMatrixImpl(distance);
+    return rows.toMatrix();
   }
 
   /**
@@ -6297,4 +6728,70 @@ public class RoleDistanceAlgorithms {
     });
   }
 
+  /**
+   * Returns lower bounds on the distance (total unit substitution failure cost)
+   * between pairs of nodes under the notion of regular roles of a degree of
+   * strictness {@code p}, which hold irrespective of the role structure the
+   * distances are relative to and of any comparator restricting the
+   * substitutions.
+   * 
+   * <p>
+   * Since each tie of {@code j} can substitute at most {@code p} ties of
+   * {@code i}, at least {@code deg(i) - p * deg(j)} ties of {@code i} cannot be
+   * substituted. For {@code p >= n}, this degenerates to requiring that
+   * {@code j} has no ties at all.
+   * 
+   * @param p            degree of strictness in substitution.
+   * @param n            number of nodes.
+   * @param positionView network as viewed from the position of the individual
+   *                     nodes.
+   * @return function computing a lower bound on the distance for each pair of
+   *         nodes.
+   */
+  public static KeyedLowerBounds unitCostDistanceLowerBounds(int p, int n,
+      NetworkView<?, ?> positionView) {
+    final int[] degrees = new int[n];
+    for (int i = 0; i < n; ++i) {
+      degrees[i] = positionView.countTies(i);
+    }
+    // the bounds decrease with the degree of j, so the degree serves as key
+    if (p >= n) {
+      return new KeyedLowerBounds() {
+
+        @Override
+        public int applyAsInt(int i, int j) {
+          return degrees[j] == 0 ? degrees[i] : 0;
+        }
+
+        @Override
+        public int key(int j) {
+          return Math.min(degrees[j], 1);
+        }
+
+        @Override
+        public int minKey(int i, int threshold) {
+          return degrees[i] <= threshold ? 0 : 1;
+        }
+      };
+    }
+    return new KeyedLowerBounds() {
+
+      @Override
+      public int applyAsInt(int i, int j) {
+        return (int) Math.max(0L, degrees[i] - (long) p * degrees[j]);
+      }
+
+      @Override
+      public int key(int j) {
+        return degrees[j];
+      }
+
+      @Override
+      public int minKey(int i, int threshold) {
+        final long excess = degrees[i] - (long) threshold;
+        return excess <= 0 ? 0 : (int) ((excess + p - 1) / p);
+      }
+    };
+  }
+
 }
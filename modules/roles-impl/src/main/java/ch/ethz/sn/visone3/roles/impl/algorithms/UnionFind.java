@@ -84,14 +84,15 @@ public class UnionFind {
    * 
    * @param element1 the first element
    * @param element2 the second element.
+   * @return the parent of the merged component.
    */
-  public void union(final int element1, final int element2) {
+  public int union(final int element1, final int element2) {
     final int parent1 = find(element1);
     final int parent2 = find(element2);
 
     // check if the elements are already in the same set
     if (parent1 == parent2) {
-      return;
+      return parent1;
     }
 
     groups--;
@@ -99,11 +100,14 @@ public class UnionFind {
     final int rank2 = rankMap[parent2];
     if (rank1 > rank2) {
       parentMap[parent2] = parent1;
+      return parent1;
     } else if (rank1 < rank2) {
       parentMap[parent1] = parent2;
+      return parent2;
     } else {
       parentMap[parent2] = parent1;
       rankMap[parent1] = rank1 + 1;
+      return parent1;
     }
   }
 }
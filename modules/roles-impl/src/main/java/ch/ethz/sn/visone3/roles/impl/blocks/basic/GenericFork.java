@@ -34,7 +34,7 @@ class GenericFork<T, U> implements Operator<T, U> {
   private Operator<T, U> second;
   private Reducer<U> combinator;
   private final boolean constant;
-  private U cache = null;
+  private final ResultCache<U> cache = new ResultCache<>();
 
   @Override
   public boolean isIsotone() {
@@ -59,49 +59,34 @@ class GenericFork<T, U> implements Operator<T, U> {
   }
 
   private U getLeft(T in) {
-    boolean ownsCache = !isConstant() && first.isConstant();
-    if (ownsCache && cache != null) {
-      return cache;
+    if (!isConstant() && first.isConstant()) {
+      return cache.get(() -> first.apply(in), first::releaseCache);
     }
-    U leftResult = first.apply(in);
-    if (ownsCache) {
-      cache = leftResult;
-      first.releaseCache();
-    }
-    return leftResult;
+    return first.apply(in);
   }
 
   private U getRight(T in) {
-    boolean ownsCache = !isConstant() && second.isConstant();
-    if (ownsCache && cache != null) {
-      return cache;
-    }
-    U rightResult = second.apply(in);
-    if (ownsCache) {
-      cache = rightResult;
-      second.releaseCache();
+    if (!isConstant() && second.isConstant()) {
+      return cache.get(() -> second.apply(in), second::releaseCache);
     }
-    return rightResult;
+    return second.apply(in);
   }
 
   @Override
   public U apply(T in) {
-    if (isConstant() && cache != null) {
-      return cache;
-    }
-    U result = combinator.combine(getLeft(in), getRight(in));
     if (isConstant()) {
-      cache = result;
-      first.releaseCache();
-      second.releaseCache();
-      combinator.releaseCache();
+      return cache.get(() -> combinator.combine(getLeft(in), getRight(in)), () -> {
+        first.releaseCache();
+        second.releaseCache();
+        combinator.releaseCache();
+      });
     }
-    return result;
+    return combinator.combine(getLeft(in), getRight(in));
   }
 
   @Override
   public void releaseCache() {
-    cache = null;
+    cache.clear();
     first.releaseCache();
     second.releaseCache();
     combinator.releaseCache();
@@ -31,7 +31,7 @@ class GenericOperatorAdapter<T, U, V> implements Operator<T, V> {
   private Operator<T, ? extends U> inner;
   private Operator<U, V> translator;
   private final boolean constant;
-  private V cache = null;
+  private final ResultCache<V> cache = new ResultCache<>();
 
   @Override
   public boolean isIsotone() {
@@ -55,21 +55,18 @@ class GenericOperatorAdapter<T, U, V> implements Operator<T, V> {
 
   @Override
   public V apply(T in) {
-    if (cache != null) {
-      return cache;
-    }
-    V result = translator.apply(inner.apply(in));
     if (isConstant()) {
-      cache = result;
-      inner.releaseCache();
-      translator.releaseCache();
+      return cache.get(() -> translator.apply(inner.apply(in)), () -> {
+        inner.releaseCache();
+        translator.releaseCache();
+      });
     }
-    return result;
+    return translator.apply(inner.apply(in));
   }
 
   @Override
   public void releaseCache() {
-    cache = null;
+    cache.clear();
     inner.releaseCache();
     translator.releaseCache();
   }
@@ -32,8 +32,8 @@ class GenericRoleConverterAdapter<T, U, V> implements RoleConverter<T, V> {
   private Operator<T, ? extends U> inner;
   private RoleConverter<U, V> converter;
   private final boolean constant;
-  private U innerCache = null;
-  private V cache = null;
+  private final ResultCache<U> innerCache = new ResultCache<>();
+  private final ResultCache<V> cache = new ResultCache<>();
 
   @Override
   public boolean isIsotone() {
@@ -56,28 +56,21 @@ class GenericRoleConverterAdapter<T, U, V> implements RoleConverter<T, V> {
   }
 
   private U applyInner(T in) {
-    if (innerCache != null) {
-      return innerCache;
-    }
-    U innerResult = inner.apply(in);
     if (isConstant()) {
-      innerCache = innerResult;
+      return innerCache.get(() -> inner.apply(in));
     }
-    return innerResult;
+    return inner.apply(in);
   }
 
   @Override
   public V convert(T in) {
-    if (cache != null) {
-      return cache;
-    }
-    V result = converter.convert(applyInner(in));
     if (isConstant()) {
-      cache = result;
-      inner.releaseCache();
-      converter.releaseCache();
+      return cache.get(() -> converter.convert(applyInner(in)), () -> {
+        inner.releaseCache();
+        converter.releaseCache();
+      });
     }
-    return result;
+    return converter.convert(applyInner(in));
   }
 
   @Override
@@ -92,8 +85,8 @@ class GenericRoleConverterAdapter<T, U, V> implements RoleConverter<T, V> {
 
   @Override
   public void releaseCache() {
-    innerCache = null;
-    cache = null;
+    innerCache.clear();
+    cache.clear();
     inner.releaseCache();
     converter.releaseCache();
   }
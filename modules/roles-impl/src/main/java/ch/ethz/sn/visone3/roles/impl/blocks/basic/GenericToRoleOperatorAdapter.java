@@ -33,8 +33,8 @@ class GenericToRoleOperatorAdapter<T, U> implements RoleOperator<T> {
   private Operator<T, ? extends U> innerOp;
   private RoleConverter<U, T> translator;
   private final boolean constant;
-  private U innerCache = null;
-  private T cache = null;
+  private final ResultCache<U> innerCache = new ResultCache<>();
+  private final ResultCache<T> cache = new ResultCache<>();
 
   @Override
   public boolean isIsotone() {
@@ -57,28 +57,18 @@ class GenericToRoleOperatorAdapter<T, U> implements RoleOperator<T> {
   }
 
   private U applyInner(T in) {
-    if (innerCache != null) {
-      return innerCache;
-    }
-    U innerResult = innerOp.apply(in);
     if (isConstant()) {
-      innerCache = innerResult;
-      innerOp.releaseCache();
+      return innerCache.get(() -> innerOp.apply(in), innerOp::releaseCache);
     }
-    return innerResult;
+    return innerOp.apply(in);
   }
 
   @Override
   public T relative(T in) {
-    if (cache != null) {
-      return cache;
-    }
-    T result = translator.convert(applyInner(in));
     if (isConstant()) {
-      cache = result;
-      translator.releaseCache();
+      return cache.get(() -> translator.convert(applyInner(in)), translator::releaseCache);
     }
-    return result;
+    return translator.convert(applyInner(in));
   }
 
   @Override
@@ -93,8 +83,8 @@ class GenericToRoleOperatorAdapter<T, U> implements RoleOperator<T> {
 
   @Override
   public void releaseCache() {
-    innerCache = null;
-    cache = null;
+    innerCache.clear();
+    cache.clear();
     innerOp.releaseCache();
     translator.releaseCache();
   }
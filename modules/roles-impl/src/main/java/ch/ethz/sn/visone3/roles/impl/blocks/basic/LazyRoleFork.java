@@ -33,7 +33,7 @@ class LazyRoleFork<T> implements RoleOperator<T> {
   private RoleReducer<T> combinator;
   private final boolean constant;
 
-  private T cache = null;
+  private final ResultCache<T> cache = new ResultCache<>();
 
   @Override
   public boolean isIsotone() {
@@ -58,44 +58,29 @@ class LazyRoleFork<T> implements RoleOperator<T> {
   }
 
   private T getLeft(T in) {
-    boolean ownsCache = !isConstant() && first.isConstant();
-    if (ownsCache && cache != null) {
-      return cache;
+    if (!isConstant() && first.isConstant()) {
+      return cache.get(() -> first.relative(in), first::releaseCache);
     }
-    T leftResult = first.relative(in);
-    if (ownsCache) {
-      cache = leftResult;
-      first.releaseCache();
-    }
-    return leftResult;
+    return first.relative(in);
   }
 
   private T getRight(T in) {
-    boolean ownsCache = !isConstant() && second.isConstant();
-    if (ownsCache && cache != null) {
-      return cache;
-    }
-    T rightResult = second.relative(in);
-    if (ownsCache) {
-      cache = rightResult;
-      second.releaseCache();
+    if (!isConstant() && second.isConstant()) {
+      return cache.get(() -> second.relative(in), second::releaseCache);
     }
-    return rightResult;
+    return second.relative(in);
   }
 
   @Override
   public T relative(T in) {
-    if (isConstant() && cache != null) {
-      return cache;
-    }
-    T result = combinator.combineLazily(getLeft(in), getRight(in));
     if (isConstant()) {
-      cache = result;
-      first.releaseCache();
-      second.releaseCache();
-      combinator.releaseCache();
+      return cache.get(() -> combinator.combineLazily(getLeft(in), getRight(in)), () -> {
+        first.releaseCache();
+        second.releaseCache();
+        combinator.releaseCache();
+      });
     }
-    return result;
+    return combinator.combineLazily(getLeft(in), getRight(in));
   }
 
   @Override
@@ -116,7 +101,7 @@ class LazyRoleFork<T> implements RoleOperator<T> {
 
   @Override
   public void releaseCache() {
-    cache = null;
+    cache.clear();
     first.releaseCache();
     second.releaseCache();
     combinator.releaseCache();
@@ -0,0 +1,72 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.roles.impl.blocks.basic;
+
+import java.util.function.Supplier;
+
+/**
+ * Holds the result of a constant part of a composed operator. The result is
+ * computed at most once, even if the composed operator is evaluated from
+ * several threads at the same time.
+ *
+ * @param <T> the type of the result.
+ */
+final class ResultCache<T> {
+
+  private volatile T result;
+
+  /**
+   * Returns the cached result, computing it first if there is none.
+   *
+   * @param computation computes the result.
+   * @return the result.
+   */
+  T get(Supplier<? extends T> computation) {
+    return get(computation, () -> {
+    });
+  }
+
+  /**
+   * Returns the cached result, computing it first if there is none.
+   *
+   * @param computation computes the result.
+   * @param onComputed  invoked once after the result has been computed and
+   *                    cached, e.g., to release the caches of the parts.
+   * @return the result.
+   */
+  T get(Supplier<? extends T> computation, Runnable onComputed) {
+    T value = result;
+    if (value == null) {
+      synchronized (this) {
+        value = result;
+        if (value == null) {
+          value = result = computation.get();
+          onComputed.run();
+        }
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Discards the cached result.
+   */
+  void clear() {
+    result = null;
+  }
+}
@@ -35,8 +35,8 @@ class RoleAdapter<T, U> implements RoleOperator<T> {
   private Operator<T, ? extends U> to;
   private RoleConverter<? super U, T> back;
   private final boolean constant;
-  private U innerCache = null;
-  private T cache = null;
+  private final ResultCache<U> innerCache = new ResultCache<>();
+  private final ResultCache<T> cache = new ResultCache<>();
 
   @Override
   public boolean isIsotone() {
@@ -61,29 +61,21 @@ class RoleAdapter<T, U> implements RoleOperator<T> {
   }
 
   private U applyInner(T in) {
-    if (innerCache != null) {
-      return innerCache;
-    }
-    U innerResult = inner.relative(to.apply(in));
     if (isConstant()) {
-      innerCache = innerResult;
-      to.releaseCache();
-      inner.releaseCache();
+      return innerCache.get(() -> inner.relative(to.apply(in)), () -> {
+        to.releaseCache();
+        inner.releaseCache();
+      });
     }
-    return innerResult;
+    return inner.relative(to.apply(in));
   }
 
   @Override
   public T relative(T in) {
-    if (cache != null) {
-      return cache;
-    }
-    T result = back.convert(applyInner(in));
     if (isConstant()) {
-      cache = result;
-      back.releaseCache();
+      return cache.get(() -> back.convert(applyInner(in)), back::releaseCache);
     }
-    return result;
+    return back.convert(applyInner(in));
   }
 
   @Override
@@ -98,8 +90,8 @@ class RoleAdapter<T, U> implements RoleOperator<T> {
 
   @Override
   public void releaseCache() {
-    innerCache = null;
-    cache = null;
+    innerCache.clear();
+    cache.clear();
     to.releaseCache();
     inner.releaseCache();
     back.releaseCache();
@@ -29,7 +29,8 @@ class RoleSequence<T> implements RoleOperator<T> {
 
   private RoleOperator<T> first, second;
   private final boolean constant;
-  private T innerCache = null, cache = null;
+  private final ResultCache<T> innerCache = new ResultCache<>();
+  private final ResultCache<T> cache = new ResultCache<>();
 
   @Override
   public boolean isIsotone() {
@@ -52,28 +53,18 @@ class RoleSequence<T> implements RoleOperator<T> {
   }
 
   private T applyInner(T in) {
-    if (innerCache != null) {
-      return innerCache;
-    }
-    T innerResult = first.relative(in);
     if (isConstant()) {
-      innerCache = innerResult;
-      first.releaseCache();
+      return innerCache.get(() -> first.relative(in), first::releaseCache);
     }
-    return innerResult;
+    return first.relative(in);
   }
 
   @Override
   public T relative(T in) {
-    if (cache != null) {
-      return cache;
-    }
-    T result = second.relative(applyInner(in));
     if (isConstant()) {
-      cache = result;
-      second.releaseCache();
+      return cache.get(() -> second.relative(applyInner(in)), second::releaseCache);
     }
-    return result;
+    return second.relative(applyInner(in));
   }
 
   @Override
@@ -88,8 +79,8 @@ class RoleSequence<T> implements RoleOperator<T> {
 
   @Override
   public void releaseCache() {
-    cache = null;
-    innerCache = null;
+    cache.clear();
+    innerCache.clear();
     first.releaseCache();
     second.releaseCache();
   }
@@ -19,6 +19,7 @@ package ch.ethz.sn.visone3.roles.impl.blocks.converters;
 
 import ch.ethz.sn.visone3.roles.blocks.RoleConverter;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.structures.LazyIntDistanceMatrixImpl;
 import ch.ethz.sn.visone3.roles.impl.structures.LazyUncachedBinaryRelationMatrixImpl;
 import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
 import ch.ethz.sn.visone3.roles.structures.BinaryRelations;
@@ -55,6 +56,16 @@ class DistanceThresholder implements RoleConverter<IntDistanceMatrix, BinaryRela
 
   @Override
   public BinaryRelation convert(IntDistanceMatrix in) {
+    if (in instanceof LazyIntDistanceMatrixImpl) {
+      // only ask whether the distance exceeds the threshold, which allows the
+      // evaluation to stop early
+      final LazyIntDistanceMatrixImpl lazy = (LazyIntDistanceMatrixImpl) in;
+      return new LazyUncachedBinaryRelationMatrixImpl(in.getDomainSize(),
+          (i, j) -> {
+            int th = threshold.applyAsInt(i, j);
+            return th == Integer.MAX_VALUE || lazy.getDistanceBounded(i, j, th) <= th;
+          });
+    }
     return new LazyUncachedBinaryRelationMatrixImpl(in.getDomainSize(),
         (i, j) -> {
           int th = threshold.applyAsInt(i, j);
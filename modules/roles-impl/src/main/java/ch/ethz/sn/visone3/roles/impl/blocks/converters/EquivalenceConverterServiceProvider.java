@@ -16,8 +16,11 @@
  */
 package ch.ethz.sn.visone3.roles.impl.blocks.converters;
 
+import java.util.function.IntBinaryOperator;
+
 import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.roles.blocks.RoleConverter;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
 import ch.ethz.sn.visone3.roles.spi.ConverterService;
 import ch.ethz.sn.visone3.roles.structures.RelationBase;
 
@@ -35,6 +38,10 @@ public class EquivalenceConverterServiceProvider implements ConverterService {
         return new EquivalenceFromWeakComponents();
       } else if (argument == null && RelationBase.class.isAssignableFrom(source)) {
         return new EquivalenceFromStrongComponents();
+      } else if (argument instanceof IntBinaryOperator
+          && IntDistanceMatrix.class.isAssignableFrom(source)) {
+        return (RoleConverter<T, U>) new EquivalenceFromThresholdedDistances(
+            (IntBinaryOperator) argument);
       }
     }
     return null;
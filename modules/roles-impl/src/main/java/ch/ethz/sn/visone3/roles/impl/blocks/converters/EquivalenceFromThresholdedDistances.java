@@ -0,0 +1,128 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.impl.blocks.converters;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.ConstMapping.OfInt;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.roles.blocks.RoleConverter;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.Equivalences;
+import ch.ethz.sn.visone3.roles.impl.algorithms.UnionFind;
+import ch.ethz.sn.visone3.roles.impl.structures.LazyIntDistanceMatrixImpl;
+
+/**
+ * Converts distances into the equivalence formed by the connected components of
+ * the symmetrized thresholded distances. This is equivalent to thresholding the
+ * distances, symmetrizing the resulting binary relation and taking its strongly
+ * connected components, but does not materialize any intermediate relation and
+ * never compares pairs that are already known to be in the same component.
+ */
+class EquivalenceFromThresholdedDistances
+    implements RoleConverter<IntDistanceMatrix, ConstMapping.OfInt> {
+
+  private final IntBinaryOperator threshold;
+
+  public EquivalenceFromThresholdedDistances(IntBinaryOperator threshold) {
+    this.threshold = threshold;
+  }
+
+  @Override
+  public boolean isIsotone() {
+    return true;
+  }
+
+  @Override
+  public boolean isNonincreasing() {
+    return false;
+  }
+
+  @Override
+  public boolean isNondecreasing() {
+    return false;
+  }
+
+  @Override
+  public boolean isConstant() {
+    return false;
+  }
+
+  private boolean isWithinThreshold(IntDistanceMatrix in, int i, int j) {
+    final int th = threshold.applyAsInt(i, j);
+    if (th == Integer.MAX_VALUE) {
+      return true;
+    }
+    if (in instanceof LazyIntDistanceMatrixImpl) {
+      return ((LazyIntDistanceMatrixImpl) in).getDistanceBounded(i, j, th) <= th;
+    }
+    return in.getDistance(i, j) <= th;
+  }
+
+  private ConstMapping.OfInt translateImpl(IntDistanceMatrix in, UnionFind components) {
+    final int n = in.getDomainSize();
+    for (int i = 0; i < n; ++i) {
+      for (int j = i + 1; j < n; ++j) {
+        if (components.find(i) != components.find(j) && isWithinThreshold(in, i, j)
+            && isWithinThreshold(in, j, i)) {
+          components.union(i, j);
+        }
+      }
+    }
+    final int[] result = new int[n];
+    for (int i = 0; i < n; ++i) {
+      result[i] = components.find(i);
+    }
+    return Mappings.wrapUnmodifiableInt(Equivalences.normalizePartition(result));
+  }
+
+  @Override
+  public OfInt convert(IntDistanceMatrix in) {
+    return translateImpl(in, new UnionFind(in.getDomainSize()));
+  }
+
+  @Override
+  public OfInt convertRefining(IntDistanceMatrix in, OfInt toRefine) {
+    return Equivalences.infimum(convert(in), toRefine);
+  }
+
+  @Override
+  public OfInt convertCoarsening(IntDistanceMatrix in, OfInt toCoarsen) {
+    // start from the classes to coarsen, so that pairs within them are never
+    // compared
+    final int n = in.getDomainSize();
+    final UnionFind components = new UnionFind(n);
+    int maxColor = -1;
+    for (int color : toCoarsen) {
+      maxColor = Math.max(maxColor, color);
+    }
+    final int[] representatives = new int[maxColor + 1];
+    Arrays.fill(representatives, -1);
+    for (int i = 0; i < n; ++i) {
+      final int color = toCoarsen.getInt(i);
+      if (representatives[color] < 0) {
+        representatives[color] = i;
+      } else {
+        components.union(representatives[color], i);
+      }
+    }
+    return translateImpl(in, components);
+  }
+
+}
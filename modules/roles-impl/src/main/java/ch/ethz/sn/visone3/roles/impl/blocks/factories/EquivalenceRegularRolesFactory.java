@@ -23,6 +23,7 @@ import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.roles.blocks.RoleOperator;
 import ch.ethz.sn.visone3.roles.blocks.builders.RoleOperatorBuilder;
 import ch.ethz.sn.visone3.roles.blocks.factories.EquitableLooseRoleOperatorBuilderFactory;
+import ch.ethz.sn.visone3.roles.impl.algorithms.ClosureAlgorithms;
 import ch.ethz.sn.visone3.roles.impl.algorithms.Equivalences;
 import ch.ethz.sn.visone3.roles.impl.algorithms.InteriorAlgorithms;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
@@ -58,6 +59,11 @@ class EquivalenceRegularRolesFactory
           public ConstMapping.OfInt interior(ConstMapping.OfInt in) {
             return InteriorAlgorithms.computeRegularInterior(numNodes, positionView, in);
           }
+
+          @Override
+          public ConstMapping.OfInt closure(ConstMapping.OfInt in) {
+            return ClosureAlgorithms.computeRegularClosure(numNodes, positionView, in);
+          }
         } : new EquivalenceIsotoneRoleOperatorBase() {
 
           @Override
@@ -83,29 +89,83 @@ class EquivalenceRegularRolesFactory
       RoleOperator<ConstMapping.OfInt> makeConcrete(Comparator<? super T> comparator) {
         return !exact ? new EquivalenceIsotoneRoleOperatorBase() {
 
+          // the sorted inverse ties are built on first use and shared by later calls
+          private volatile Equivalences.SortedInverseTies sortedInverseTies;
+
+          private Equivalences.SortedInverseTies sortedInverseTies() {
+            Equivalences.SortedInverseTies ties = sortedInverseTies;
+            if (ties == null) {
+              synchronized (this) {
+                ties = sortedInverseTies;
+                if (ties == null) {
+                  ties = sortedInverseTies = Equivalences.sortInverseTies(numNodes, positionView,
+                      comparator);
+                }
+              }
+            }
+            return ties;
+          }
+
           @Override
           public ConstMapping.OfInt relativeRefining(ConstMapping.OfInt in,
               ConstMapping.OfInt toRefine) {
             return Equivalences.refiningRelativeRegularEquivalence(numNodes, positionView, in,
-                toRefine, comparator);
+                toRefine, comparator, sortedInverseTies());
           }
 
           @Override
           public ConstMapping.OfInt relative(ConstMapping.OfInt in) {
-            return Equivalences.relativeRegularEquivalence(numNodes, positionView, in, comparator);
+            return Equivalences.relativeRegularEquivalence(numNodes, positionView, in, comparator,
+                sortedInverseTies());
+          }
+
+          // the threshold networks are built on first use and shared by later calls
+          private volatile InteriorAlgorithms.ThresholdNetworks thresholdNetworks;
+
+          @Override
+          public ConstMapping.OfInt interior(ConstMapping.OfInt in) {
+            InteriorAlgorithms.ThresholdNetworks networks = thresholdNetworks;
+            if (networks == null) {
+              synchronized (this) {
+                networks = thresholdNetworks;
+                if (networks == null) {
+                  networks = thresholdNetworks = InteriorAlgorithms.thresholdNetworks(numNodes,
+                      positionView, comparator);
+                }
+              }
+            }
+            return InteriorAlgorithms.computeRegularInterior(numNodes, networks, in);
           }
         } : new EquivalenceIsotoneRoleOperatorBase() {
 
+          // the sorted inverse ties are built on first use and shared by later calls
+          private volatile Equivalences.SortedInverseTies sortedInverseTies;
+
+          private Equivalences.SortedInverseTies sortedInverseTies() {
+            Equivalences.SortedInverseTies ties = sortedInverseTies;
+            if (ties == null) {
+              synchronized (this) {
+                ties = sortedInverseTies;
+                if (ties == null) {
+                  ties = sortedInverseTies = Equivalences.sortInverseTies(numNodes, positionView,
+                      comparator);
+                }
+              }
+            }
+            return ties;
+          }
+
           @Override
           public ConstMapping.OfInt relativeRefining(ConstMapping.OfInt in,
               ConstMapping.OfInt toRefine) {
             return Equivalences.refiningRelativeExactEquivalence(numNodes, positionView, in,
-                toRefine, comparator);
+                toRefine, comparator, sortedInverseTies());
           }
 
           @Override
           public ConstMapping.OfInt relative(ConstMapping.OfInt in) {
-            return Equivalences.relativeExactEquivalence(numNodes, positionView, in, comparator);
+            return Equivalences.relativeExactEquivalence(numNodes, positionView, in, comparator,
+                sortedInverseTies());
           }
         };
       }
@@ -20,6 +20,7 @@ package ch.ethz.sn.visone3.roles.impl.blocks.factories.dist;
 import ch.ethz.sn.visone3.roles.blocks.Operator;
 import ch.ethz.sn.visone3.roles.blocks.builders.DistanceOperatorBuilder;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.position.TransposableNetworkView;
 import ch.ethz.sn.visone3.roles.util.PartialComparator;
 
 import java.util.Comparator;
@@ -31,6 +32,10 @@ abstract class AbstractDistanceOperatorBuilder<T, U> extends
     AbstractDistanceOperatorBuilderBase<T, U, DistanceOperatorBuilder<T, U>, Comparator<? super T>, PartialComparator<? super T>, BiPredicate<? super T, ? super T>, ToIntBiFunction<? super T, ? super T>, ToIntFunction<? super T>>
     implements DistanceOperatorBuilder<T, U> {
 
+  AbstractDistanceOperatorBuilder(TransposableNetworkView<? extends T, ? extends T> positionView) {
+    super(positionView);
+  }
+
   abstract Operator<U, IntDistanceMatrix> makeConcrete(Comparator<? super T> comparator);
 
   abstract Operator<U, IntDistanceMatrix> makeConcrete(
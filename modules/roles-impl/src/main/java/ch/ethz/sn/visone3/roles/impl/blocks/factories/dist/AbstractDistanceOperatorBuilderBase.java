@@ -17,10 +17,15 @@
 
 package ch.ethz.sn.visone3.roles.impl.blocks.factories.dist;
 
+import java.util.function.IntBinaryOperator;
+
 import ch.ethz.sn.visone3.roles.blocks.Operator;
 import ch.ethz.sn.visone3.roles.blocks.builders.DistanceOperatorBuilderBase;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.MinHashCandidates;
 import ch.ethz.sn.visone3.roles.impl.blocks.factories.AbstractOperatorBuilderBase;
+import ch.ethz.sn.visone3.roles.impl.structures.SparseIntDistanceMatrixImpl;
+import ch.ethz.sn.visone3.roles.position.TransposableNetworkView;
 
 abstract class AbstractDistanceOperatorBuilderBase<T, U, V extends DistanceOperatorBuilderBase<T, U, V, W, X, Y, Z, AA>, W, X, Y, Z, AA>
     extends AbstractOperatorBuilderBase<T, Operator<U, IntDistanceMatrix>, V, W, X, Y>
@@ -28,6 +33,18 @@ abstract class AbstractDistanceOperatorBuilderBase<T, U, V extends DistanceOpera
 
   protected Z cost;
   protected AA penalty;
+  protected int threshold = Integer.MAX_VALUE;
+  protected int approximationBands;
+  protected int approximationRows;
+  private final TransposableNetworkView<? extends T, ? extends T> positionView;
+
+  // fixed seed so that approximations are reproducible
+  private static final long APPROXIMATION_SEED = 0x5DEECE66DL;
+
+  AbstractDistanceOperatorBuilderBase(
+      TransposableNetworkView<? extends T, ? extends T> positionView) {
+    this.positionView = positionView;
+  }
 
   @SuppressWarnings("unchecked")
   @Override
@@ -45,8 +62,134 @@ abstract class AbstractDistanceOperatorBuilderBase<T, U, V extends DistanceOpera
     return (V) this;
   }
 
+  @SuppressWarnings("unchecked")
+  @Override
+  public V threshold(int maxDistance) {
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("threshold must be non-negative");
+    }
+    threshold = maxDistance;
+    return (V) this;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public V approximate(int bands, int rows) {
+    if (bands < 1 || rows < 1) {
+      throw new IllegalArgumentException("bands and rows must be positive");
+    }
+    approximationBands = bands;
+    approximationRows = rows;
+    return (V) this;
+  }
+
   @Override
   public Operator<U, IntDistanceMatrix> make() {
+    final AbstractDistanceOperatorBuilderBase<T, U, V, W, X, Y, Z, AA> pairwise = //
+        approximationBands > 0 ? pairwiseBuilder() : null;
+    final Operator<U, IntDistanceMatrix> operator;
+    if (pairwise != null) {
+      pairwise.weakComp = weakComp;
+      pairwise.partialComp = partialComp;
+      pairwise.biPred = biPred;
+      pairwise.cost = cost;
+      pairwise.penalty = penalty;
+      operator = pairwise.makeUnthresholded();
+    } else {
+      operator = makeUnthresholded();
+    }
+    final int maxDistance = threshold;
+    final IntBinaryOperator lowerBounds = thresholdLowerBounds();
+    if (approximationBands > 0) {
+      final int bands = approximationBands;
+      final int rows = approximationRows;
+      return new TraitsAdjustableOperator<U, IntDistanceMatrix>(operator) {
+
+        @Override
+        public IntDistanceMatrix apply(U in) {
+          final int[][] candidates = MinHashCandidates.candidates(approximationSets(in), bands,
+              rows, APPROXIMATION_SEED);
+          return SparseIntDistanceMatrixImpl.restrict(operator.apply(in), candidates,
+              maxDistance == Integer.MAX_VALUE ? null : lowerBounds, maxDistance);
+        }
+
+        // the candidates depend on the input unless the operator is constant,
+        // so monotonicity is only retained for constant operators
+
+        @Override
+        public boolean isIsotone() {
+          return operator.isConstant() && super.isIsotone();
+        }
+
+        @Override
+        public boolean isNonincreasing() {
+          return operator.isConstant() && super.isNonincreasing();
+        }
+
+        @Override
+        public boolean isNondecreasing() {
+          return operator.isConstant() && super.isNondecreasing();
+        }
+
+        @Override
+        public void releaseCache() {
+          operator.releaseCache();
+        }
+      };
+    }
+    if (maxDistance == Integer.MAX_VALUE) {
+      return operator;
+    }
+    return new TraitsAdjustableOperator<U, IntDistanceMatrix>(operator) {
+
+      @Override
+      public IntDistanceMatrix apply(U in) {
+        return SparseIntDistanceMatrixImpl.threshold(operator.apply(in), lowerBounds,
+            maxDistance);
+      }
+
+      @Override
+      public void releaseCache() {
+        operator.releaseCache();
+      }
+    };
+  }
+
+  /**
+   * Returns lower bounds on the distances produced by the operator under the
+   * current settings, or null if no useful lower bounds are known.
+   * 
+   * @return the lower bounds, or null.
+   */
+  IntBinaryOperator thresholdLowerBounds() {
+    return null;
+  }
+
+  /**
+   * Returns, for each node, the set of tokens whose similarity between nodes
+   * guides the candidate generation in approximate mode. By default, these are
+   * the neighbors of each node.
+   * 
+   * @param in the role structure the distances are computed for.
+   * @return the token sets per node.
+   */
+  int[][] approximationSets(U in) {
+    return MinHashCandidates.targetClassSets(positionView, x -> x);
+  }
+
+  /**
+   * Returns a builder for the same distances on the same network whose
+   * operators evaluate pairs of nodes lazily, or null if the operators of this
+   * builder already do so. In approximate mode, the operator is made by this
+   * builder instead, so that only the candidate pairs are evaluated.
+   * 
+   * @return the builder for lazily evaluating operators, or null.
+   */
+  AbstractDistanceOperatorBuilderBase<T, U, V, W, X, Y, Z, AA> pairwiseBuilder() {
+    return null;
+  }
+
+  private Operator<U, IntDistanceMatrix> makeUnthresholded() {
     if (cost != null) {
       if (weakComp != null) {
         return makeConcreteSubstWeak(weakComp, cost);
@@ -20,6 +20,7 @@ package ch.ethz.sn.visone3.roles.impl.blocks.factories.dist;
 import ch.ethz.sn.visone3.roles.blocks.OperatorTraits;
 import ch.ethz.sn.visone3.roles.blocks.builders.GenericDistanceOperatorBuilder;
 import ch.ethz.sn.visone3.roles.impl.blocks.factories.IsotoneOperatorTraits;
+import ch.ethz.sn.visone3.roles.position.TransposableNetworkView;
 import ch.ethz.sn.visone3.roles.util.PartialComparator;
 
 import java.util.Comparator;
@@ -34,6 +35,11 @@ abstract class AbstractGenericDistanceOperatorBuilder<T, U> extends
 
   OperatorTraits traits = new IsotoneOperatorTraits();
 
+  AbstractGenericDistanceOperatorBuilder(
+      TransposableNetworkView<? extends T, ? extends T> positionView) {
+    super(positionView);
+  }
+
   @Override
   public GenericDistanceOperatorBuilder<T, U> traits(OperatorTraits traits) {
     this.traits = traits;
@@ -18,6 +18,7 @@ package ch.ethz.sn.visone3.roles.impl.blocks.factories.dist;
 
 import java.util.Comparator;
 import java.util.function.BiPredicate;
+import java.util.function.IntBinaryOperator;
 import java.util.function.ToIntBiFunction;
 import java.util.function.ToIntFunction;
 
@@ -26,6 +27,7 @@ import ch.ethz.sn.visone3.roles.blocks.Operator;
 import ch.ethz.sn.visone3.roles.blocks.builders.DistanceOperatorBuilder;
 import ch.ethz.sn.visone3.roles.blocks.factories.VariableDistanceBuilderFactory;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.MinHashCandidates;
 import ch.ethz.sn.visone3.roles.impl.algorithms.RoleDistanceAlgorithms;
 import ch.ethz.sn.visone3.roles.impl.blocks.factories.VariableBuilderFactoryBase;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
@@ -40,7 +42,20 @@ class EquivalenceRegularRolesDistanceFactory
   public <T> DistanceOperatorBuilder<T, ConstMapping.OfInt> of(NetworkView<? extends T, ? extends T> positionView) {
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, ConstMapping.OfInt>() {
+    return new AbstractDistanceOperatorBuilder<T, ConstMapping.OfInt>(positionView) {
+
+      @Override
+      int[][] approximationSets(ConstMapping.OfInt in) {
+        return MinHashCandidates.targetClassSets(positionView, in::getInt);
+      }
+
+      @Override
+      IntBinaryOperator thresholdLowerBounds() {
+        if (cost != null || penalty != null) {
+          return null;
+        }
+        return RoleDistanceAlgorithms.unitCostDistanceLowerBounds(p, numNodes, positionView);
+      }
 
       @Override
       Operator<ConstMapping.OfInt, IntDistanceMatrix> makeConcrete() {
@@ -253,7 +268,12 @@ class EquivalenceRegularRolesDistanceFactory
 
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, ConstMapping.OfInt>() {
+    return new AbstractDistanceOperatorBuilder<T, ConstMapping.OfInt>(positionView) {
+
+      @Override
+      int[][] approximationSets(ConstMapping.OfInt in) {
+        return MinHashCandidates.targetClassSets(positionView, in::getInt);
+      }
 
       @Override
       Operator<ConstMapping.OfInt, IntDistanceMatrix> makeConcrete() {
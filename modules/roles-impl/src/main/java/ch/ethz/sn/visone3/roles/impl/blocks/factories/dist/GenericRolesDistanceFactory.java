@@ -26,6 +26,7 @@ import ch.ethz.sn.visone3.roles.blocks.Operator;
 import ch.ethz.sn.visone3.roles.blocks.builders.GenericDistanceOperatorBuilder;
 import ch.ethz.sn.visone3.roles.blocks.factories.GenericDistanceBuilderFactory;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.MinHashCandidates;
 import ch.ethz.sn.visone3.roles.impl.algorithms.RoleDistanceAlgorithms;
 import ch.ethz.sn.visone3.roles.impl.blocks.factories.VariableBuilderFactoryBase;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
@@ -40,7 +41,12 @@ class GenericRolesDistanceFactory<U>
   public <T> GenericDistanceOperatorBuilder<T, U> of(NetworkView<? extends T, ? extends T> positionView) {
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractGenericDistanceOperatorBuilder<T, U>() {
+    return new AbstractGenericDistanceOperatorBuilder<T, U>(positionView) {
+
+      @Override
+      int[][] approximationSets(U in) {
+        return MinHashCandidates.degreeBandSets(positionView);
+      }
 
       @Override
       Operator<U, IntDistanceMatrix> makeConcrete() {
@@ -418,7 +424,12 @@ class GenericRolesDistanceFactory<U>
 
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractGenericDistanceOperatorBuilder<T, U>() {
+    return new AbstractGenericDistanceOperatorBuilder<T, U>(positionView) {
+
+      @Override
+      int[][] approximationSets(U in) {
+        return MinHashCandidates.degreeBandSets(positionView);
+      }
 
       @Override
       Operator<U, IntDistanceMatrix> makeConcrete() {
@@ -37,7 +37,7 @@ class GenericStrongStructuralRolesDistanceFactory<U>
   public <T> DistanceOperatorBuilder<T, U> of(NetworkView<? extends T, ? extends T> positionView) {
 
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, U>() {
+    return new AbstractDistanceOperatorBuilder<T, U>(positionView) {
 
       @Override
       Operator<U, IntDistanceMatrix> makeConcrete() {
@@ -133,7 +133,7 @@ class GenericStrongStructuralRolesDistanceFactory<U>
       return of((NetworkView<? extends T, ? extends T>) positionView);
     }
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, U>() {
+    return new AbstractDistanceOperatorBuilder<T, U>(positionView) {
 
       @Override
       Operator<U, IntDistanceMatrix> makeConcrete() {
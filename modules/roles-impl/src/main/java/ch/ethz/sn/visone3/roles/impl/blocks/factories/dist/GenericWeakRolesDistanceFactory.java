@@ -25,6 +25,7 @@ import ch.ethz.sn.visone3.roles.blocks.Operator;
 import ch.ethz.sn.visone3.roles.blocks.builders.DistanceOperatorBuilder;
 import ch.ethz.sn.visone3.roles.blocks.factories.VariableDistanceBuilderFactory;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.MinHashCandidates;
 import ch.ethz.sn.visone3.roles.impl.algorithms.RoleDistanceAlgorithms;
 import ch.ethz.sn.visone3.roles.impl.blocks.factories.VariableBuilderFactoryBase;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
@@ -39,7 +40,18 @@ class GenericWeakRolesDistanceFactory<U>
   public <T> DistanceOperatorBuilder<T, U> of(NetworkView<? extends T, ? extends T> positionView) {
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, U>() {
+    return new AbstractDistanceOperatorBuilder<T, U>(positionView) {
+
+      @Override
+      int[][] approximationSets(U in) {
+        return MinHashCandidates.degreeBandSets(positionView);
+      }
+
+      @Override
+      AbstractDistanceOperatorBuilder<T, U> pairwiseBuilder() {
+        // the kernels on network views compute all distances at once
+        return transposableOf(positionView);
+      }
 
       @Override
       Operator<U, IntDistanceMatrix> makeConcrete() {
@@ -230,10 +242,19 @@ class GenericWeakRolesDistanceFactory<U>
     if (positionView instanceof NetworkView) {
       return of((NetworkView<? extends T, ? extends T>) positionView);
     }
+    return transposableOf(positionView);
+  }
 
+  private <T> AbstractDistanceOperatorBuilder<T, U> transposableOf(
+      TransposableNetworkView<? extends T, ? extends T> positionView) {
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, U>() {
+    return new AbstractDistanceOperatorBuilder<T, U>(positionView) {
+
+      @Override
+      int[][] approximationSets(U in) {
+        return MinHashCandidates.degreeBandSets(positionView);
+      }
 
       @Override
       Operator<U, IntDistanceMatrix> makeConcrete() {
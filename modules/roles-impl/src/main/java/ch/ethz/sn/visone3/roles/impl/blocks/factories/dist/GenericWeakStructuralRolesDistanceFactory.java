@@ -35,7 +35,7 @@ class GenericWeakStructuralRolesDistanceFactory<U> implements DistanceBuilderFac
   @Override
   public <T> DistanceOperatorBuilder<T, U> of(NetworkView<? extends T, ? extends T> positionView) {
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, U>() {
+    return new AbstractDistanceOperatorBuilder<T, U>(positionView) {
 
       @Override
       Operator<U, IntDistanceMatrix> makeConcrete() {
@@ -128,7 +128,7 @@ class GenericWeakStructuralRolesDistanceFactory<U> implements DistanceBuilderFac
       return of((NetworkView<? extends T, ? extends T>) positionView);
     }
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, U>() {
+    return new AbstractDistanceOperatorBuilder<T, U>(positionView) {
 
       @Override
       Operator<U, IntDistanceMatrix> makeConcrete() {
@@ -18,13 +18,17 @@ package ch.ethz.sn.visone3.roles.impl.blocks.factories.dist;
 
 import java.util.Comparator;
 import java.util.function.BiPredicate;
+import java.util.function.IntBinaryOperator;
 import java.util.function.ToIntBiFunction;
 import java.util.function.ToIntFunction;
 
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.roles.blocks.Converters;
 import ch.ethz.sn.visone3.roles.blocks.Operator;
 import ch.ethz.sn.visone3.roles.blocks.builders.DistanceOperatorBuilder;
 import ch.ethz.sn.visone3.roles.blocks.factories.VariableDistanceBuilderFactory;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.MinHashCandidates;
 import ch.ethz.sn.visone3.roles.impl.algorithms.RoleDistanceAlgorithms;
 import ch.ethz.sn.visone3.roles.impl.blocks.factories.VariableBuilderFactoryBase;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
@@ -40,7 +44,22 @@ class RankedRegularRolesDistanceFactory
   public <T> DistanceOperatorBuilder<T, Ranking> of(NetworkView<? extends T, ? extends T> positionView) {
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, Ranking>() {
+    return new AbstractDistanceOperatorBuilder<T, Ranking>(positionView) {
+
+      @Override
+      int[][] approximationSets(Ranking in) {
+        final ConstMapping.OfInt classes = Converters.strongComponentsAsEquivalence()
+            .apply(in.asBinaryRelation());
+        return MinHashCandidates.targetClassSets(positionView, classes::getInt);
+      }
+
+      @Override
+      IntBinaryOperator thresholdLowerBounds() {
+        if (cost != null || penalty != null) {
+          return null;
+        }
+        return RoleDistanceAlgorithms.unitCostDistanceLowerBounds(p, numNodes, positionView);
+      }
 
       @Override
       Operator<Ranking, IntDistanceMatrix> makeConcrete() {
@@ -250,7 +269,14 @@ class RankedRegularRolesDistanceFactory
 
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, Ranking>() {
+    return new AbstractDistanceOperatorBuilder<T, Ranking>(positionView) {
+
+      @Override
+      int[][] approximationSets(Ranking in) {
+        final ConstMapping.OfInt classes = Converters.strongComponentsAsEquivalence()
+            .apply(in.asBinaryRelation());
+        return MinHashCandidates.targetClassSets(positionView, classes::getInt);
+      }
 
       @Override
       Operator<Ranking, IntDistanceMatrix> makeConcrete() {
@@ -18,13 +18,17 @@ package ch.ethz.sn.visone3.roles.impl.blocks.factories.dist;
 
 import java.util.Comparator;
 import java.util.function.BiPredicate;
+import java.util.function.IntBinaryOperator;
 import java.util.function.ToIntBiFunction;
 import java.util.function.ToIntFunction;
 
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.roles.blocks.Converters;
 import ch.ethz.sn.visone3.roles.blocks.Operator;
 import ch.ethz.sn.visone3.roles.blocks.builders.DistanceOperatorBuilder;
 import ch.ethz.sn.visone3.roles.blocks.factories.VariableDistanceBuilderFactory;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.MinHashCandidates;
 import ch.ethz.sn.visone3.roles.impl.algorithms.RoleDistanceAlgorithms;
 import ch.ethz.sn.visone3.roles.impl.blocks.factories.VariableBuilderFactoryBase;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
@@ -41,7 +45,21 @@ class RelationalRegularRolesDistanceFactory
 
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, BinaryRelation>() {
+    return new AbstractDistanceOperatorBuilder<T, BinaryRelation>(positionView) {
+
+      @Override
+      int[][] approximationSets(BinaryRelation in) {
+        final ConstMapping.OfInt classes = Converters.strongComponentsAsEquivalence().apply(in);
+        return MinHashCandidates.targetClassSets(positionView, classes::getInt);
+      }
+
+      @Override
+      IntBinaryOperator thresholdLowerBounds() {
+        if (cost != null || penalty != null) {
+          return null;
+        }
+        return RoleDistanceAlgorithms.unitCostDistanceLowerBounds(p, numNodes, positionView);
+      }
 
       @Override
       Operator<BinaryRelation, IntDistanceMatrix> makeConcrete() {
@@ -253,7 +271,13 @@ class RelationalRegularRolesDistanceFactory
 
     final int p = getPValue();
     final int numNodes = positionView.countNodes();
-    return new AbstractDistanceOperatorBuilder<T, BinaryRelation>() {
+    return new AbstractDistanceOperatorBuilder<T, BinaryRelation>(positionView) {
+
+      @Override
+      int[][] approximationSets(BinaryRelation in) {
+        final ConstMapping.OfInt classes = Converters.strongComponentsAsEquivalence().apply(in);
+        return MinHashCandidates.targetClassSets(positionView, classes::getInt);
+      }
 
       @Override
       Operator<BinaryRelation, IntDistanceMatrix> makeConcrete() {
@@ -0,0 +1,36 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.impl.structures;
+
+/**
+ * Represents a distance function for two integer arguments that may stop
+ * evaluating as soon as the distance is known to exceed some upper bound.
+ */
+@FunctionalInterface
+public interface BoundedIntBinaryOperator {
+
+  /**
+   * Evaluates the distance function.
+   * 
+   * @param x     first argument.
+   * @param y     second argument.
+   * @param bound the upper bound.
+   * @return the exact distance if it does not exceed the bound, otherwise some
+   *         value larger than the bound.
+   */
+  int applyAsInt(int x, int y, int bound);
+}
@@ -16,7 +16,13 @@
  */
 package ch.ethz.sn.visone3.roles.impl.structures;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.IntBinaryOperator;
+
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrixWriter;
+import ch.ethz.sn.visone3.roles.distances.IntNeighborLists;
 import ch.ethz.sn.visone3.roles.spi.DistanceMatrixBuilderService;
 
 /**
@@ -29,4 +35,53 @@ public class DistanceMatrixBuilderServiceImpl implements DistanceMatrixBuilderSe
     return new IntDistanceMatrixImpl(matrix);
   }
 
+  @Override
+  public IntDistanceMatrix thresholded(IntDistanceMatrix matrix, int threshold) {
+    return SparseIntDistanceMatrixImpl.threshold(matrix, threshold);
+  }
+
+  @Override
+  public IntDistanceMatrix thresholded(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int threshold) {
+    return SparseIntDistanceMatrixImpl.compute(size, distances, lowerBounds, threshold);
+  }
+
+  @Override
+  public IntNeighborLists nearest(IntDistanceMatrix matrix, int k) {
+    return IntNeighborListsImpl.nearest(matrix, k);
+  }
+
+  @Override
+  public IntNeighborLists nearest(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int k) {
+    return IntNeighborListsImpl.nearest(size, distances, lowerBounds, k);
+  }
+
+  @Override
+  public IntNeighborLists withinRadius(IntDistanceMatrix matrix, int radius) {
+    return IntNeighborListsImpl.withinRadius(matrix, radius);
+  }
+
+  @Override
+  public IntNeighborLists withinRadius(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int radius) {
+    return IntNeighborListsImpl.withinRadius(size, distances, lowerBounds, radius);
+  }
+
+  @Override
+  public IntDistanceMatrixWriter fileWriter(Path file, int size, int bytesPerDistance)
+      throws IOException {
+    return MappedIntDistanceMatrixImpl.create(file, size, bytesPerDistance);
+  }
+
+  @Override
+  public IntDistanceMatrix toFile(IntDistanceMatrix matrix, Path file, int bytesPerDistance)
+      throws IOException {
+    return MappedIntDistanceMatrixImpl.store(matrix, file, bytesPerDistance);
+  }
+
+  @Override
+  public IntDistanceMatrix fromFile(Path file) throws IOException {
+    return MappedIntDistanceMatrixImpl.open(file);
+  }
 }
@@ -16,6 +16,7 @@
  */
 package ch.ethz.sn.visone3.roles.impl.structures;
 
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
 
 /**
@@ -54,71 +55,32 @@ public class IntDistanceMatrixImpl implements IntDistanceMatrix {
     if (!(obj instanceof IntDistanceMatrix)) {
       return false;
     }
-    return distancesEqual(this, (IntDistanceMatrix) obj);
+    return DistanceMatrices.equals(this, (IntDistanceMatrix) obj);
   }
 
   @Override
   public int hashCode() {
-    return hashCode(this);
+    return DistanceMatrices.hashCode(this);
   }
 
   @Override
   public String toString() {
-    return toString(this);
+    return DistanceMatrices.toString(this);
   }
 
-  static boolean distancesEqual(IntDistanceMatrix matrix1, IntDistanceMatrix matrix2) {
-    final int size = matrix1.getDomainSize();
-    if (size != matrix2.getDomainSize()) {
-      return false;
-    }
-    for (int i = 0; i < size; ++i) {
-      for (int j = 0; j < size; ++j) {
-        if (matrix1.getDistance(i, j) != matrix2.getDistance(i, j)) {
-          return false;
-        }
-      }
-    }
-    return true;
-  }
-
-  static int hashCode(IntDistanceMatrix matrix) {
-    final int size = matrix.getDomainSize();
-    int hash = 1;
-    for (int i = 0; i < size; ++i) {
-      int innerHash = 1;
-      for (int j = 0; j < size; ++j) {
-        innerHash = 31 * innerHash + matrix.getDistance(i, j);
-      }
-      hash = 31 * hash + innerHash;
-    }
-    return hash;
-  }
-
-  static String toString(IntDistanceMatrix matrix) {
-    StringBuilder builder = new StringBuilder();
-    final int size = matrix.getDomainSize();
-    builder.append('{');
-    builder.append(size);
-    builder.append(", [");
-    if (size > 0) {
-      builder.append('[');
-    }
-    for (int i = 0; i < size; ++i) {
-      if (i > 0) {
-        builder.append("], [");
-      }
-      for (int j = 0; j < size; ++j) {
-        if (j > 0) {
-          builder.append(",");
-        }
-        builder.append(matrix.getDistance(i, j));
-      }
-    }
-    if (size > 0) {
-      builder.append(']');
-    }
-    builder.append("]}");
-    return builder.toString();
+  /**
+   * Returns whether the distances of the specified matrix can safely be queried
+   * from multiple threads at once. For lazy matrices, this refers to evaluating
+   * distances without filling the cache.
+   * 
+   * @param matrix the distance matrix.
+   * @return true if concurrent queries are known to be safe.
+   */
+  static boolean supportsConcurrentReads(IntDistanceMatrix matrix) {
+    return matrix instanceof IntDistanceMatrixImpl || matrix instanceof SparseIntDistanceMatrixImpl
+        || matrix instanceof RowDefaultIntDistanceMatrixImpl
+        || matrix instanceof MappedIntDistanceMatrixImpl
+        || matrix instanceof LazyIntDistanceMatrixImpl
+            && ((LazyIntDistanceMatrixImpl) matrix).isBounded();
   }
 }
@@ -0,0 +1,389 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.impl.structures;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.distances.IntNeighborLists;
+
+/**
+ * Compact implementation of neighbor lists. The lists of all elements are
+ * stored one after the other in a pair of arrays (neighbors and their
+ * distances), together with the start position of each element's list.
+ */
+public class IntNeighborListsImpl implements IntNeighborLists {
+
+  // minimum domain size before the lists are computed in parallel
+  private static final int PARALLEL_SIZE = 1 << 10;
+
+  private final int[] listStarts_;
+  private final int[] neighbors_;
+  private final int[] distances_;
+
+  private IntNeighborListsImpl(int[] listStarts, int[] neighbors, int[] distances) {
+    listStarts_ = listStarts;
+    neighbors_ = neighbors;
+    distances_ = distances;
+  }
+
+  /**
+   * Computes, for each element, the list of the {@code k} other elements at the
+   * smallest distances from it. Distances of {@link Integer#MAX_VALUE} are never
+   * listed, and ties are broken by increasing index.
+   * 
+   * @param matrix the distance matrix.
+   * @param k      the maximum number of neighbors listed per element.
+   * @return the lists of nearest neighbors.
+   * @throws IllegalArgumentException if {@code k} is negative.
+   */
+  public static IntNeighborListsImpl nearest(IntDistanceMatrix matrix, int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("negative number of neighbors");
+    }
+    return search(matrix, k, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Computes, for each element, the list of the {@code k} other elements at the
+   * smallest distances from it. Distances of {@link Integer#MAX_VALUE} are never
+   * listed, and ties are broken by increasing index.
+   * 
+   * <p>
+   * If a lower bound function is provided, distances are only evaluated for
+   * pairs whose lower bound does not rule them out as one of the {@code k}
+   * nearest neighbors. Both functions must be safe to call concurrently.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function which computes the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function which computes a lower bound on the distance
+   *                    between a pair of elements, or null if no lower bound is
+   *                    known.
+   * @param k           the maximum number of neighbors listed per element.
+   * @return the lists of nearest neighbors.
+   * @throws IllegalArgumentException if {@code k} is negative.
+   */
+  public static IntNeighborListsImpl nearest(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("negative number of neighbors");
+    }
+    return compute(size, (i, j, bound) -> distances.applyAsInt(i, j), lowerBounds, true, k,
+        Integer.MAX_VALUE);
+  }
+
+  /**
+   * Computes, for each element, the list of the other elements whose distances
+   * from it do not exceed the specified radius. Distances of
+   * {@link Integer#MAX_VALUE} are never listed.
+   * 
+   * @param matrix the distance matrix.
+   * @param radius the largest distance that is listed.
+   * @return the lists of neighbors within the radius.
+   */
+  public static IntNeighborListsImpl withinRadius(IntDistanceMatrix matrix, int radius) {
+    return search(matrix, Integer.MAX_VALUE, radius);
+  }
+
+  /**
+   * Computes, for each element, the list of the other elements whose distances
+   * from it do not exceed the specified radius. Distances of
+   * {@link Integer#MAX_VALUE} are never listed.
+   * 
+   * <p>
+   * If a lower bound function is provided, distances are only evaluated for
+   * pairs whose lower bound does not exceed the radius. Both functions must be
+   * safe to call concurrently.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function which computes the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function which computes a lower bound on the distance
+   *                    between a pair of elements, or null if no lower bound is
+   *                    known.
+   * @param radius      the largest distance that is listed.
+   * @return the lists of neighbors within the radius.
+   */
+  public static IntNeighborListsImpl withinRadius(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int radius) {
+    return compute(size, (i, j, bound) -> distances.applyAsInt(i, j), lowerBounds, true,
+        Integer.MAX_VALUE, radius);
+  }
+
+  private static IntNeighborListsImpl search(IntDistanceMatrix matrix, int k, int radius) {
+    final int size = matrix.getDomainSize();
+    final int limit = Math.min(radius, Integer.MAX_VALUE - 1);
+    if (matrix instanceof SparseIntDistanceMatrixImpl) {
+      // only the stored distances can be listed
+      final SparseIntDistanceMatrixImpl sparse = (SparseIntDistanceMatrixImpl) matrix;
+      return collect(size, true, i -> {
+        final int start = sparse.rowStart(i);
+        final long[] row = new long[sparse.rowStart(i + 1) - start];
+        int count = 0;
+        for (int pos = 0; pos < row.length; ++pos) {
+          final int j = sparse.storedColumn(start + pos);
+          final int dist = sparse.storedDistance(start + pos);
+          if (j != i && dist <= limit) {
+            row[count++] = pack(dist, j);
+          }
+        }
+        Arrays.sort(row, 0, count);
+        return Arrays.copyOf(row, Math.min(count, k));
+      });
+    }
+    if (matrix instanceof RowDefaultIntDistanceMatrixImpl) {
+      final RowDefaultIntDistanceMatrixImpl rowDefault = (RowDefaultIntDistanceMatrixImpl) matrix;
+      return collect(size, true, i -> rowDefaultList(rowDefault, i, k, limit));
+    }
+    if (matrix instanceof LazyIntDistanceMatrixImpl) {
+      // evaluate the role distance kernels only up to the distance that is still
+      // of interest, without filling the dense cache
+      final LazyIntDistanceMatrixImpl lazy = (LazyIntDistanceMatrixImpl) matrix;
+      return compute(size, lazy::evaluate, null,
+          IntDistanceMatrixImpl.supportsConcurrentReads(lazy), k, radius);
+    }
+    return compute(size, (i, j, bound) -> matrix.getDistance(i, j), null,
+        IntDistanceMatrixImpl.supportsConcurrentReads(matrix), k, radius);
+  }
+
+  private static long[] rowDefaultList(RowDefaultIntDistanceMatrixImpl matrix, int i, int k,
+      int limit) {
+    final int size = matrix.getDomainSize();
+    final int[] columns = matrix.storedColumns(i);
+    final int[] distances = matrix.storedDistances(i);
+    final int rowDefault = matrix.getRowDefault(i);
+    long[] stored = new long[columns.length];
+    int count = 0;
+    boolean storedSelf = false;
+    for (int pos = 0; pos < columns.length; ++pos) {
+      if (columns[pos] == i) {
+        storedSelf = true;
+      } else if (distances[pos] <= limit) {
+        stored[count++] = pack(distances[pos], columns[pos]);
+      }
+    }
+    Arrays.sort(stored, 0, count);
+    if (rowDefault > limit) {
+      return Arrays.copyOf(stored, Math.min(count, k));
+    }
+    // the stored distances differ from the default, so the columns with the
+    // default distance form a contiguous block in the list
+    final int defaultCount = size - columns.length - (storedSelf ? 0 : 1);
+    final long[] list = new long[(int) Math.min(k, (long) count + defaultCount)];
+    final long defaultKey = pack(rowDefault, 0);
+    int storedPos = 0;
+    int pos = 0;
+    while (pos < list.length && storedPos < count && stored[storedPos] < defaultKey) {
+      list[pos++] = stored[storedPos++];
+    }
+    int columnPos = 0;
+    for (int j = 0; j < size && pos < list.length; ++j) {
+      if (columnPos < columns.length && columns[columnPos] == j) {
+        ++columnPos;
+      } else if (j != i) {
+        list[pos++] = pack(rowDefault, j);
+      }
+    }
+    while (pos < list.length) {
+      list[pos++] = stored[storedPos++];
+    }
+    return list;
+  }
+
+  private static IntNeighborListsImpl compute(int size, BoundedIntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, boolean concurrent, int k, int radius) {
+    final int limit = Math.min(radius, Integer.MAX_VALUE - 1);
+    if (k == 0) {
+      return collect(size, false, i -> new long[0]);
+    }
+    if (k >= size - 1) {
+      // all candidates within the radius are listed
+      return collect(size, concurrent, i -> {
+        long[] row = new long[Math.max(size - 1, 0)];
+        int count = 0;
+        for (int j = 0; j < size; ++j) {
+          if (j == i || lowerBounds != null && lowerBounds.applyAsInt(i, j) > limit) {
+            continue;
+          }
+          final int dist = distances.applyAsInt(i, j, limit);
+          if (dist <= limit) {
+            row[count++] = pack(dist, j);
+          }
+        }
+        Arrays.sort(row, 0, count);
+        return Arrays.copyOf(row, count);
+      });
+    }
+    return collect(size, concurrent, i -> {
+      // max-heap of the k nearest candidates found so far; since candidates are
+      // visited by increasing index, a later candidate has to be strictly closer
+      // to replace the farthest one
+      final long[] heap = new long[k];
+      int count = 0;
+      int bound = limit;
+      for (int j = 0; j < size; ++j) {
+        if (j == i || lowerBounds != null && lowerBounds.applyAsInt(i, j) > bound) {
+          continue;
+        }
+        final int dist = distances.applyAsInt(i, j, bound);
+        if (dist > bound) {
+          continue;
+        }
+        if (count < k) {
+          siftUp(heap, count++, pack(dist, j));
+        } else {
+          siftDown(heap, count, pack(dist, j));
+        }
+        if (count == k) {
+          bound = (int) Math.max(Math.min(limit, (heap[0] >> 32) - 1), Integer.MIN_VALUE);
+        }
+      }
+      final long[] row = Arrays.copyOf(heap, count);
+      Arrays.sort(row);
+      return row;
+    });
+  }
+
+  private static void siftUp(long[] heap, int pos, long key) {
+    while (pos > 0) {
+      final int parent = (pos - 1) >>> 1;
+      if (heap[parent] >= key) {
+        break;
+      }
+      heap[pos] = heap[parent];
+      pos = parent;
+    }
+    heap[pos] = key;
+  }
+
+  private static void siftDown(long[] heap, int count, long key) {
+    // replaces the maximum by the specified key
+    int pos = 0;
+    while (true) {
+      int child = 2 * pos + 1;
+      if (child >= count) {
+        break;
+      }
+      if (child + 1 < count && heap[child + 1] > heap[child]) {
+        ++child;
+      }
+      if (heap[child] <= key) {
+        break;
+      }
+      heap[pos] = heap[child];
+      pos = child;
+    }
+    heap[pos] = key;
+  }
+
+  private static long pack(int dist, int j) {
+    return ((long) dist << 32) | j;
+  }
+
+  private static IntNeighborListsImpl collect(int size, boolean concurrent,
+      IntFunction<long[]> lists) {
+    final long[][] rows = new long[size][];
+    IntStream range = IntStream.range(0, size);
+    if (concurrent && size >= PARALLEL_SIZE) {
+      range = range.parallel();
+    }
+    range.forEach(i -> rows[i] = lists.apply(i));
+
+    final int[] listStarts = new int[size + 1];
+    long total = 0;
+    for (int i = 0; i < size; ++i) {
+      total += rows[i].length;
+      if (total > Integer.MAX_VALUE - 8) {
+        throw new IllegalArgumentException("too many neighbors");
+      }
+      listStarts[i + 1] = (int) total;
+    }
+    final int[] neighbors = new int[(int) total];
+    final int[] distances = new int[neighbors.length];
+    for (int i = 0; i < size; ++i) {
+      int pos = listStarts[i];
+      for (long key : rows[i]) {
+        neighbors[pos] = (int) key;
+        distances[pos] = (int) (key >> 32);
+        ++pos;
+      }
+      rows[i] = null;
+    }
+    return new IntNeighborListsImpl(listStarts, neighbors, distances);
+  }
+
+  @Override
+  public int getDomainSize() {
+    return listStarts_.length - 1;
+  }
+
+  @Override
+  public int countNeighbors(int i) {
+    return listStarts_[i + 1] - listStarts_[i];
+  }
+
+  @Override
+  public int getNeighbor(int i, int pos) {
+    return neighbors_[position(i, pos)];
+  }
+
+  @Override
+  public int getDistance(int i, int pos) {
+    return distances_[position(i, pos)];
+  }
+
+  private int position(int i, int pos) {
+    if (pos < 0 || pos >= countNeighbors(i)) {
+      throw new IndexOutOfBoundsException(Integer.toString(pos));
+    }
+    return listStarts_[i] + pos;
+  }
+
+  @Override
+  public int[] getNeighbors(int i) {
+    return Arrays.copyOfRange(neighbors_, listStarts_[i], listStarts_[i + 1]);
+  }
+
+  @Override
+  public int[] getDistances(int i) {
+    return Arrays.copyOfRange(distances_, listStarts_[i], listStarts_[i + 1]);
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder();
+    sb.append('{');
+    for (int i = 0; i < getDomainSize(); ++i) {
+      if (i > 0) {
+        sb.append(", ");
+      }
+      sb.append(i).append("=[");
+      for (int pos = listStarts_[i]; pos < listStarts_[i + 1]; ++pos) {
+        if (pos > listStarts_[i]) {
+          sb.append(", ");
+        }
+        sb.append(neighbors_[pos]).append(':').append(distances_[pos]);
+      }
+      sb.append(']');
+    }
+    return sb.append('}').toString();
+  }
+}
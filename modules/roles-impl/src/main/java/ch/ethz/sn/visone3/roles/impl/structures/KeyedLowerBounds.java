@@ -0,0 +1,48 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.impl.structures;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Lower bounds on the distances between pairs of elements that do not increase
+ * with a key of the second element. The pairs of a row whose lower bound does
+ * not exceed a threshold are thus exactly those whose second element has a key
+ * of at least some minimum, so they can be enumerated without visiting the
+ * other pairs.
+ */
+public interface KeyedLowerBounds extends IntBinaryOperator {
+
+  /**
+   * Returns the key of an element as the second element of a pair.
+   * 
+   * @param j the element.
+   * @return the key.
+   */
+  int key(int j);
+
+  /**
+   * Returns the smallest key such that the lower bound on the distance from the
+   * specified element to any element with at least this key does not exceed the
+   * threshold.
+   * 
+   * @param i         the first element.
+   * @param threshold the threshold.
+   * @return the minimum key.
+   */
+  int minKey(int i, int threshold);
+}
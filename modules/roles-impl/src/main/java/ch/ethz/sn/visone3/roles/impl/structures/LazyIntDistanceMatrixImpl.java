@@ -17,20 +17,45 @@
 package ch.ethz.sn.visone3.roles.impl.structures;
 
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
 
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
 
 /**
  * Lazy implementation of a distance matrix with dense cache. Each entry is
  * computed lazily by evaluating a provided function, but the result of this
  * evaluation is stored and then returned when requested later.
+ * 
+ * <p>
+ * Bounded requests are memoized separately in per-row caches, which hold both
+ * exact distances and the knowledge that a distance exceeds some bound. A row
+ * cache is sparse while few entries of the row have been requested and becomes
+ * dense once a sparse table would take more space than a dense row.
+ * 
+ * <p>
+ * Bounded requests may be issued concurrently: row caches are created
+ * atomically and each row cache is locked while it is accessed, while the
+ * distances themselves are evaluated outside of the lock. Requests for exact
+ * distances and {@link #asMatrix()} fill the dense cache and must not be issued
+ * concurrently. On large domains, {@link #asMatrix()} fills the rows in parallel
+ * if the distance function supports bounded evaluation.
  */
 public class LazyIntDistanceMatrixImpl implements IntDistanceMatrix {
 
+  // marks entries that have not been evaluated yet
+  private static final int UNKNOWN = Integer.MIN_VALUE;
+
+  // minimum domain size before the rows of the dense cache are filled in parallel
+  private static final int PARALLEL_SIZE = 1 << 9;
+
   private int[][] mat_;
   private final int size_;
   private IntBinaryOperator lazyEvaluator_;
+  private BoundedIntBinaryOperator boundedEvaluator_;
+  private AtomicReferenceArray<RowCache> boundedRows_;
   private int unevaluatedCount_;
 
   /**
@@ -45,6 +70,21 @@ public class LazyIntDistanceMatrixImpl implements IntDistanceMatrix {
     lazyEvaluator_ = lazyEvaluator;
   }
 
+  /**
+   * Constructs the lazy distance matrix with dense cache from a distance
+   * function supporting bounded evaluation.
+   * 
+   * @param size          the size of the domain.
+   * @param lazyEvaluator function which computes the distance between a pair of
+   *                      elements on request, possibly stopping early if the
+   *                      distance exceeds a given bound.
+   */
+  public LazyIntDistanceMatrixImpl(int size, BoundedIntBinaryOperator lazyEvaluator) {
+    this(size, (i, j) -> lazyEvaluator.applyAsInt(i, j, Integer.MAX_VALUE));
+    boundedEvaluator_ = lazyEvaluator;
+    boundedRows_ = new AtomicReferenceArray<>(size);
+  }
+
   @Override
   public int getDomainSize() {
     return size_;
@@ -55,57 +95,235 @@ public class LazyIntDistanceMatrixImpl implements IntDistanceMatrix {
     if (mat_ == null) {
       mat_ = new int[size_][size_];
       for (int[] row : mat_) {
-        Arrays.fill(row, Integer.MIN_VALUE);
+        Arrays.fill(row, UNKNOWN);
       }
       unevaluatedCount_ = size_ * size_;
     }
-    if (mat_[i][j] == Integer.MIN_VALUE) {
-      mat_[i][j] = lazyEvaluator_.applyAsInt(i, j);
+    if (mat_[i][j] == UNKNOWN) {
+      final RowCache row = boundedRows_ != null ? boundedRows_.get(i) : null;
+      final int cached = row != null ? row.get(j) : UNKNOWN;
+      mat_[i][j] = cached >= 0 ? cached : lazyEvaluator_.applyAsInt(i, j);
       --unevaluatedCount_;
     }
     return mat_[i][j];
   }
 
+  /**
+   * Returns the distance between a pair of elements if it does not exceed the
+   * specified bound, otherwise some value larger than the bound. Unlike
+   * {@link #getDistance(int, int)}, this may stop evaluating the distance early
+   * and does not allocate the dense cache. Both exact distances and the outcome
+   * that a distance exceeds the bound are memoized, so repeated requests for the
+   * same pair and a bound that is not larger are answered without evaluation.
+   * This method may be called concurrently.
+   * 
+   * @param i     the first element.
+   * @param j     the second element.
+   * @param bound the upper bound.
+   * @return the distance if it does not exceed the bound, otherwise some value
+   *         larger than the bound.
+   */
+  public int getDistanceBounded(int i, int j, int bound) {
+    if (boundedEvaluator_ == null || bound == Integer.MAX_VALUE) {
+      return getDistance(i, j);
+    }
+    if (mat_ != null && mat_[i][j] != UNKNOWN) {
+      return mat_[i][j];
+    }
+    RowCache row = boundedRows_.get(i);
+    if (row == null) {
+      boundedRows_.compareAndSet(i, null, new RowCache());
+      row = boundedRows_.get(i);
+    }
+    // exact distances are stored as is, "exceeds b" is stored as ~b
+    final int cached = row.get(j);
+    if (cached >= 0) {
+      return cached;
+    } else if (cached != UNKNOWN && bound <= ~cached) {
+      return ~cached + 1;
+    }
+    final int dist = boundedEvaluator_.applyAsInt(i, j, bound);
+    if (dist <= bound) {
+      if (dist >= 0) {
+        row.put(j, dist, size_);
+      }
+    } else if (bound >= 0) {
+      row.put(j, ~bound, size_);
+    }
+    return dist;
+  }
+
+  /**
+   * Returns the distance between a pair of elements if it does not exceed the
+   * specified bound, otherwise some value larger than the bound, without caching
+   * it. If the distance has already been cached, the cached value is returned.
+   * 
+   * @param i     the first element.
+   * @param j     the second element.
+   * @param bound the upper bound.
+   * @return the distance if it does not exceed the bound, otherwise some value
+   *         larger than the bound.
+   */
+  int evaluate(int i, int j, int bound) {
+    if (mat_ != null && mat_[i][j] != UNKNOWN) {
+      return mat_[i][j];
+    }
+    if (boundedEvaluator_ != null) {
+      return boundedEvaluator_.applyAsInt(i, j, bound);
+    }
+    return lazyEvaluator_.applyAsInt(i, j);
+  }
+
+  /**
+   * Returns whether the distances are computed by a function supporting bounded
+   * evaluation. Such functions are expected to be safe to call concurrently.
+   * 
+   * @return true if the distance function supports bounded evaluation.
+   */
+  boolean isBounded() {
+    return boundedEvaluator_ != null;
+  }
+
   @Override
   public int[][] asMatrix() {
     if (mat_ == null) {
       final int n = size_;
       mat_ = new int[n][n];
-      for (int i = 0; i < n; ++i) {
+      rows().forEach(i -> {
+        final int[] row = mat_[i];
         for (int j = 0; j < n; ++j) {
-          mat_[i][j] = lazyEvaluator_.applyAsInt(i, j);
+          row[j] = lazyEvaluator_.applyAsInt(i, j);
         }
-      }
+      });
       unevaluatedCount_ = 0;
     } else if (unevaluatedCount_ != 0) {
       final int n = size_;
-      for (int i = 0; i < n; ++i) {
+      rows().forEach(i -> {
+        final int[] row = mat_[i];
         for (int j = 0; j < n; ++j) {
-          if (mat_[i][j] == Integer.MIN_VALUE) {
-            mat_[i][j] = lazyEvaluator_.applyAsInt(i, j);
+          if (row[j] == UNKNOWN) {
+            row[j] = lazyEvaluator_.applyAsInt(i, j);
           }
         }
-      }
+      });
       unevaluatedCount_ = 0;
     }
     return mat_;
   }
 
+  // the rows to fill, in parallel on large domains if the distance function may
+  // be called concurrently
+  private IntStream rows() {
+    final IntStream rows = IntStream.range(0, size_);
+    return boundedEvaluator_ != null && size_ >= PARALLEL_SIZE ? rows.parallel() : rows;
+  }
+
   @Override
   public boolean equals(Object obj) {
     if (!(obj instanceof IntDistanceMatrix)) {
       return false;
     }
-    return IntDistanceMatrixImpl.distancesEqual(this, (IntDistanceMatrix) obj);
+    return DistanceMatrices.equals(this, (IntDistanceMatrix) obj);
   }
 
   @Override
   public int hashCode() {
-    return IntDistanceMatrixImpl.hashCode(this);
+    return DistanceMatrices.hashCode(this);
   }
 
   @Override
   public String toString() {
-    return IntDistanceMatrixImpl.toString(this);
+    return DistanceMatrices.toString(this);
+  }
+
+  /**
+   * Memoizes bounded evaluations of one row. Entries are kept in an
+   * open-addressing table while few columns have been requested and in a dense
+   * array afterwards. Accesses are synchronized on the row cache.
+   */
+  private static final class RowCache {
+    private static final int EMPTY = -1;
+
+    private int[] keys_ = newKeys(8);
+    private int[] values_ = new int[8];
+    private int count_;
+    private int[] dense_;
+
+    private static int[] newKeys(int capacity) {
+      final int[] keys = new int[capacity];
+      Arrays.fill(keys, EMPTY);
+      return keys;
+    }
+
+    private static int slot(int key, int mask) {
+      final int hash = key * 0x9E3779B9;
+      return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    synchronized int get(int j) {
+      if (dense_ != null) {
+        return dense_[j];
+      }
+      final int mask = keys_.length - 1;
+      for (int pos = slot(j, mask);; pos = (pos + 1) & mask) {
+        if (keys_[pos] == j) {
+          return values_[pos];
+        } else if (keys_[pos] == EMPTY) {
+          return UNKNOWN;
+        }
+      }
+    }
+
+    synchronized void put(int j, int value, int size) {
+      if (dense_ != null) {
+        dense_[j] = value;
+        return;
+      }
+      final int mask = keys_.length - 1;
+      int pos = slot(j, mask);
+      while (keys_[pos] != EMPTY && keys_[pos] != j) {
+        pos = (pos + 1) & mask;
+      }
+      if (keys_[pos] == EMPTY) {
+        keys_[pos] = j;
+        ++count_;
+      }
+      values_[pos] = value;
+      if (2 * count_ > keys_.length) {
+        grow(size);
+      }
+    }
+
+    private void grow(int size) {
+      final int[] keys = keys_;
+      final int[] values = values_;
+      final int capacity = 2 * keys.length;
+      if (2L * capacity >= size) {
+        // two tables of the doubled capacity would not be smaller than a dense row
+        dense_ = new int[size];
+        Arrays.fill(dense_, UNKNOWN);
+        for (int pos = 0; pos < keys.length; ++pos) {
+          if (keys[pos] != EMPTY) {
+            dense_[keys[pos]] = values[pos];
+          }
+        }
+        keys_ = null;
+        values_ = null;
+        return;
+      }
+      keys_ = newKeys(capacity);
+      values_ = new int[capacity];
+      final int mask = capacity - 1;
+      for (int k = 0; k < keys.length; ++k) {
+        if (keys[k] != EMPTY) {
+          int pos = slot(keys[k], mask);
+          while (keys_[pos] != EMPTY) {
+            pos = (pos + 1) & mask;
+          }
+          keys_[pos] = keys[k];
+          values_[pos] = values[k];
+        }
+      }
+    }
   }
 }
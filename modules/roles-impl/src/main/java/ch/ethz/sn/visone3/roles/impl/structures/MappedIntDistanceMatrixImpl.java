@@ -0,0 +1,349 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.impl.structures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrixWriter;
+
+/**
+ * File-backed implementation of an integer distance matrix. The distances are
+ * stored row by row in a memory-mapped file with one, two or four bytes per
+ * distance, so they do not occupy heap memory. Narrow cells saturate: their
+ * largest value stands for all distances that do not fit and is reported as
+ * {@link Integer#MAX_VALUE}.
+ * 
+ * <p>
+ * The file starts with a header of 16 bytes (magic number, bytes per distance
+ * and domain size as little-endian integers), followed by the rows. The rows
+ * are mapped in segments of at most 1 GiB, and no row spans two segments.
+ */
+public class MappedIntDistanceMatrixImpl implements IntDistanceMatrix {
+
+  private static final int MAGIC = 0x4D44524E;
+  private static final int HEADER_BYTES = 16;
+  private static final long SEGMENT_BYTES = 1L << 30;
+  // minimum domain size before rows are evaluated in parallel when storing a
+  // matrix
+  private static final int PARALLEL_SIZE = 1 << 10;
+  // number of rows evaluated as one block when storing a matrix
+  private static final int BLOCK_ROWS = 64;
+
+  private final int size_;
+  private final int width_;
+  private final int rowBytes_;
+  private final int rowsPerSegment_;
+  private final ByteBuffer[] segments_;
+
+  private MappedIntDistanceMatrixImpl(int size, int width, ByteBuffer[] segments) {
+    size_ = size;
+    width_ = width;
+    rowBytes_ = size * width;
+    rowsPerSegment_ = rowsPerSegment(size, width);
+    segments_ = segments;
+  }
+
+  private static int rowsPerSegment(int size, int width) {
+    return (int) Math.max(1, Math.min(size, SEGMENT_BYTES / Math.max(1L * size * width, 1)));
+  }
+
+  private static void checkWidth(int width) {
+    if (width != 1 && width != 2 && width != 4) {
+      throw new IllegalArgumentException("unsupported number of bytes per distance: " + width);
+    }
+  }
+
+  private static ByteBuffer[] map(FileChannel channel, FileChannel.MapMode mode, int size,
+      int width) throws IOException {
+    final long rowBytes = (long) size * width;
+    if (rowBytes > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("rows too large");
+    }
+    final int rowsPerSegment = rowsPerSegment(size, width);
+    final ByteBuffer[] segments = new ByteBuffer[(size + rowsPerSegment - 1) / rowsPerSegment];
+    for (int s = 0; s < segments.length; ++s) {
+      final int rows = Math.min(rowsPerSegment, size - s * rowsPerSegment);
+      final MappedByteBuffer segment = channel.map(mode,
+          HEADER_BYTES + (long) s * rowsPerSegment * rowBytes, rows * rowBytes);
+      segments[s] = segment.order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return segments;
+  }
+
+  /**
+   * Creates a file-backed distance matrix whose rows are written through the
+   * returned writer. Existing contents of the file are discarded.
+   * 
+   * @param file  the file to store the matrix in.
+   * @param size  the size of the domain.
+   * @param width the number of bytes per distance (1, 2 or 4).
+   * @return the writer for the rows of the matrix.
+   * @throws IOException              if the file cannot be created.
+   * @throws IllegalArgumentException if the number of bytes per distance is not
+   *                                  supported.
+   */
+  public static IntDistanceMatrixWriter create(Path file, int size, int width)
+      throws IOException {
+    checkWidth(width);
+    if (size < 0) {
+      throw new IllegalArgumentException("negative size");
+    }
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      header.putInt(MAGIC).putInt(width).putInt(size).putInt(0).flip();
+      while (header.hasRemaining()) {
+        channel.write(header, header.position());
+      }
+      // mappings stay valid after the channel has been closed
+      return new Writer(new MappedIntDistanceMatrixImpl(size, width,
+          map(channel, FileChannel.MapMode.READ_WRITE, size, width)));
+    }
+  }
+
+  /**
+   * Stores the distances of the specified matrix in a file and returns the
+   * file-backed distance matrix. Lazily computed matrices are evaluated without
+   * filling their cache, bounded by the largest distance the cells can hold.
+   * 
+   * @param matrix the distance matrix.
+   * @param file   the file to store the matrix in.
+   * @param width  the number of bytes per distance (1, 2 or 4).
+   * @return the file-backed distance matrix.
+   * @throws IOException              if the file cannot be written.
+   * @throws IllegalArgumentException if the number of bytes per distance is not
+   *                                  supported or a distance is negative and the
+   *                                  cells are narrower than four bytes.
+   */
+  public static IntDistanceMatrix store(IntDistanceMatrix matrix, Path file, int width)
+      throws IOException {
+    final int size = matrix.getDomainSize();
+    final Writer writer = (Writer) create(file, size, width);
+    final int limit = width == 4 ? Integer.MAX_VALUE : saturationCode(width) - 1;
+    final IntBinaryOperator distances;
+    if (matrix instanceof LazyIntDistanceMatrixImpl) {
+      final LazyIntDistanceMatrixImpl lazy = (LazyIntDistanceMatrixImpl) matrix;
+      distances = (i, j) -> lazy.evaluate(i, j, limit);
+    } else {
+      distances = matrix::getDistance;
+    }
+    IntStream blocks = IntStream.range(0, (size + BLOCK_ROWS - 1) / BLOCK_ROWS);
+    if (size >= PARALLEL_SIZE && IntDistanceMatrixImpl.supportsConcurrentReads(matrix)) {
+      blocks = blocks.parallel();
+    }
+    blocks.forEach(block -> {
+      final int first = block * BLOCK_ROWS;
+      final int[] row = new int[size];
+      for (int i = first; i < Math.min(size, first + BLOCK_ROWS); ++i) {
+        for (int j = 0; j < size; ++j) {
+          row[j] = distances.applyAsInt(i, j);
+        }
+        writer.writeRow(i, row);
+      }
+    });
+    return writer.finish();
+  }
+
+  /**
+   * Opens a distance matrix previously stored in a file.
+   * 
+   * @param file the file the matrix is stored in.
+   * @return the file-backed distance matrix.
+   * @throws IOException if the file cannot be read or does not contain a
+   *                     distance matrix.
+   */
+  public static MappedIntDistanceMatrixImpl open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+      while (header.hasRemaining()) {
+        if (channel.read(header, header.position()) < 0) {
+          throw new IOException("truncated distance matrix header");
+        }
+      }
+      header.flip();
+      final int magic = header.getInt();
+      final int width = header.getInt();
+      final int size = header.getInt();
+      if (magic != MAGIC || (width != 1 && width != 2 && width != 4) || size < 0) {
+        throw new IOException("not a distance matrix file");
+      }
+      if (channel.size() < HEADER_BYTES + (long) size * size * width) {
+        throw new IOException("truncated distance matrix");
+      }
+      return new MappedIntDistanceMatrixImpl(size, width,
+          map(channel, FileChannel.MapMode.READ_ONLY, size, width));
+    }
+  }
+
+  private static int saturationCode(int width) {
+    return (1 << (8 * width)) - 1;
+  }
+
+  /**
+   * Returns the number of bytes per stored distance.
+   * 
+   * @return the number of bytes per distance.
+   */
+  public int getBytesPerDistance() {
+    return width_;
+  }
+
+  @Override
+  public int getDomainSize() {
+    return size_;
+  }
+
+  @Override
+  public int getDistance(int i, int j) {
+    if (i < 0 || i >= size_) {
+      throw new IndexOutOfBoundsException(Integer.toString(i));
+    }
+    if (j < 0 || j >= size_) {
+      throw new IndexOutOfBoundsException(Integer.toString(j));
+    }
+    final ByteBuffer segment = segments_[i / rowsPerSegment_];
+    final int index = (i % rowsPerSegment_) * rowBytes_ + j * width_;
+    switch (width_) {
+      case 1: {
+        final int code = segment.get(index) & 0xFF;
+        return code == 0xFF ? Integer.MAX_VALUE : code;
+      }
+      case 2: {
+        final int code = segment.getShort(index) & 0xFFFF;
+        return code == 0xFFFF ? Integer.MAX_VALUE : code;
+      }
+      default:
+        return segment.getInt(index);
+    }
+  }
+
+  private void putRow(int i, int[] distances) {
+    if (i < 0 || i >= size_) {
+      throw new IndexOutOfBoundsException(Integer.toString(i));
+    }
+    if (distances.length != size_) {
+      throw new IllegalArgumentException("row length does not match domain size");
+    }
+    final ByteBuffer segment = segments_[i / rowsPerSegment_];
+    int index = (i % rowsPerSegment_) * rowBytes_;
+    if (width_ == 4) {
+      for (int dist : distances) {
+        segment.putInt(index, dist);
+        index += 4;
+      }
+      return;
+    }
+    final int saturation = saturationCode(width_);
+    for (int dist : distances) {
+      if (dist < 0) {
+        throw new IllegalArgumentException("negative distance");
+      }
+      final int code = Math.min(dist, saturation);
+      if (width_ == 1) {
+        segment.put(index, (byte) code);
+      } else {
+        segment.putShort(index, (short) code);
+      }
+      index += width_;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @implNote This materializes the full matrix on the heap and thus requires
+   *           quadratic memory.
+   */
+  @Override
+  public int[][] asMatrix() {
+    final int[][] mat = new int[size_][size_];
+    for (int i = 0; i < size_; ++i) {
+      for (int j = 0; j < size_; ++j) {
+        mat[i][j] = getDistance(i, j);
+      }
+    }
+    return mat;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof IntDistanceMatrix)) {
+      return false;
+    }
+    return DistanceMatrices.equals(this, (IntDistanceMatrix) obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return DistanceMatrices.hashCode(this);
+  }
+
+  @Override
+  public String toString() {
+    return DistanceMatrices.toString(this);
+  }
+
+  private static class Writer implements IntDistanceMatrixWriter {
+
+    private final MappedIntDistanceMatrixImpl matrix_;
+    private volatile boolean finished_;
+
+    Writer(MappedIntDistanceMatrixImpl matrix) {
+      matrix_ = matrix;
+    }
+
+    @Override
+    public int getDomainSize() {
+      return matrix_.size_;
+    }
+
+    @Override
+    public void writeRow(int i, int[] distances) {
+      if (finished_) {
+        throw new IllegalStateException("writer has already been finished");
+      }
+      matrix_.putRow(i, distances);
+    }
+
+    @Override
+    public void writeRows(int firstRow, int[][] rows) {
+      for (int k = 0; k < rows.length; ++k) {
+        writeRow(firstRow + k, rows[k]);
+      }
+    }
+
+    @Override
+    public IntDistanceMatrix finish() throws IOException {
+      finished_ = true;
+      for (ByteBuffer segment : matrix_.segments_) {
+        ((MappedByteBuffer) segment).force();
+      }
+      return matrix_;
+    }
+  }
+}
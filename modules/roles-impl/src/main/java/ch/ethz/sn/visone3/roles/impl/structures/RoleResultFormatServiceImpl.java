@@ -0,0 +1,631 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.roles.impl.structures;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrixWriter;
+import ch.ethz.sn.visone3.roles.spi.RoleResultFormatService;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
+import ch.ethz.sn.visone3.roles.structures.Ranking;
+import ch.ethz.sn.visone3.roles.structures.RelationBase;
+import ch.ethz.sn.visone3.roles.structures.RelationBuilder;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.function.IntBinaryOperator;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Service implementing compact binary formats for the results of role
+ * operators, that is, equivalences, rankings, binary relations and distance
+ * matrices.
+ *
+ * <p>
+ * Each result starts with a header consisting of a magic number, the kind of
+ * the result, flags and the domain size. Integers are stored as variable-length
+ * quantities of seven bits per byte.
+ * <ul>
+ * <li>Equivalences store the class of each element.</li>
+ * <li>Binary relations and rankings store the row of each element either as a
+ * bitset or as a sorted list of column gaps, whichever is shorter.</li>
+ * <li>Distance matrices are stored in blocks of rows that are optionally
+ * deflated.</li>
+ * </ul>
+ * The content following the header is split into frames of at most
+ * {@value #FRAME_SIZE} bytes, each preceded by its length, and ends with an
+ * empty frame. Readers thus read each frame with a single request of known
+ * length and never consume bytes beyond the end of a result, so that several
+ * results can be read one after another from the same unbuffered stream.
+ */
+public class RoleResultFormatServiceImpl implements RoleResultFormatService {
+
+  private static final int MAGIC = 0x4E525253;
+  private static final int KIND_EQUIVALENCE = 1;
+  private static final int KIND_RELATION = 2;
+  private static final int KIND_RANKING = 3;
+  private static final int KIND_DISTANCES = 4;
+  private static final int FLAG_COMPRESSED = 1;
+  private static final int ROWS_PER_BLOCK = 64;
+  private static final int FRAME_SIZE = 1 << 16;
+
+  @Override
+  public void writeEquivalence(ConstMapping.OfInt equivalence, OutputStream out)
+      throws IOException {
+    final Output output = new Output(out);
+    final int size = equivalence.size();
+    output.writeHeader(KIND_EQUIVALENCE, 0, size);
+    for (int i = 0; i < size; i++) {
+      output.writeVarint(zigzag(equivalence.getInt(i)));
+    }
+    output.finish();
+  }
+
+  @Override
+  public void writeRelation(BinaryRelation relation, OutputStream out)
+      throws IOException {
+    writeRelationBase(relation, KIND_RELATION, out);
+  }
+
+  @Override
+  public void writeRanking(Ranking ranking, OutputStream out) throws IOException {
+    writeRelationBase(ranking, KIND_RANKING, out);
+  }
+
+  @Override
+  public void writeDistances(IntDistanceMatrix matrix, boolean compress,
+      OutputStream out) throws IOException {
+    final IntBinaryOperator distances;
+    if (matrix instanceof LazyIntDistanceMatrixImpl) {
+      // evaluate without filling the dense cache
+      final LazyIntDistanceMatrixImpl lazy = (LazyIntDistanceMatrixImpl) matrix;
+      distances = (i, j) -> lazy.evaluate(i, j, Integer.MAX_VALUE);
+    } else {
+      distances = matrix::getDistance;
+    }
+    final Output output = new Output(out);
+    final int size = matrix.getDomainSize();
+    output.writeHeader(KIND_DISTANCES, compress ? FLAG_COMPRESSED : 0, size);
+    final Deflater deflater = compress ? new Deflater() : null;
+    final Output raw = compress ? new Output(null) : output;
+    final Output packed = compress ? new Output(null) : null;
+    final byte[] buffer = compress ? new byte[1 << 13] : null;
+    try {
+      for (int start = 0; start < size; start += ROWS_PER_BLOCK) {
+        final int end = Math.min(size, start + ROWS_PER_BLOCK);
+        for (int i = start; i < end; i++) {
+          for (int j = 0; j < size; j++) {
+            raw.writeVarint(zigzag(distances.applyAsInt(i, j)));
+          }
+        }
+        if (compress) {
+          deflater.reset();
+          deflater.setInput(raw.bytes, 0, raw.count);
+          deflater.finish();
+          while (!deflater.finished()) {
+            packed.write(buffer, 0, deflater.deflate(buffer));
+          }
+          output.writeVarint(raw.count);
+          output.writeVarint(packed.count);
+          output.write(packed.bytes, 0, packed.count);
+          raw.count = 0;
+          packed.count = 0;
+        }
+      }
+    } finally {
+      if (deflater != null) {
+        deflater.end();
+      }
+    }
+    output.finish();
+  }
+
+  @Override
+  public Mapping.OfInt readEquivalence(InputStream in) throws IOException {
+    return readEquivalence(new StreamInput(in));
+  }
+
+  @Override
+  public Mapping.OfInt readEquivalence(Path file) throws IOException {
+    return readEquivalence(map(file));
+  }
+
+  @Override
+  public BinaryRelation readRelation(InputStream in) throws IOException {
+    return readRelation(new StreamInput(in));
+  }
+
+  @Override
+  public BinaryRelation readRelation(Path file) throws IOException {
+    return readRelation(map(file));
+  }
+
+  @Override
+  public Ranking readRanking(InputStream in) throws IOException {
+    return readRanking(new StreamInput(in));
+  }
+
+  @Override
+  public Ranking readRanking(Path file) throws IOException {
+    return readRanking(map(file));
+  }
+
+  @Override
+  public IntDistanceMatrix readDistances(InputStream in) throws IOException {
+    return readDistances(new StreamInput(in), null, 4);
+  }
+
+  @Override
+  public IntDistanceMatrix readDistances(Path file) throws IOException {
+    return readDistances(map(file), null, 4);
+  }
+
+  @Override
+  public IntDistanceMatrix readDistances(InputStream in, Path target, int bytesPerDistance)
+      throws IOException {
+    return readDistances(new StreamInput(in), target, bytesPerDistance);
+  }
+
+  @Override
+  public IntDistanceMatrix readDistances(Path file, Path target, int bytesPerDistance)
+      throws IOException {
+    return readDistances(map(file), target, bytesPerDistance);
+  }
+
+  private static void writeRelationBase(RelationBase relation, int kind, OutputStream out)
+      throws IOException {
+    final Output output = new Output(out);
+    final int size = relation.domainSize();
+    output.writeHeader(kind, 0, size);
+    final byte[] bits = new byte[(size + 7) >>> 3];
+    int[] row = new int[16];
+    for (int i = 0; i < size; i++) {
+      int count = 0;
+      for (PrimitiveIterator.OfInt it = relation.iterateInRelationFrom(i).iterator(); it
+          .hasNext();) {
+        if (count == row.length) {
+          row = Arrays.copyOf(row, 2 * count);
+        }
+        row[count++] = it.nextInt();
+      }
+      // every gap takes at least one byte, so rows with many pairs are shorter as bitsets
+      final boolean dense = 8L * count >= size;
+      output.writeVarint(((long) count << 1) | (dense ? 1 : 0));
+      if (dense) {
+        Arrays.fill(bits, (byte) 0);
+        for (int k = 0; k < count; k++) {
+          bits[row[k] >>> 3] |= (byte) (1 << (row[k] & 7));
+        }
+        output.write(bits, 0, bits.length);
+      } else {
+        Arrays.sort(row, 0, count);
+        int previous = -1;
+        for (int k = 0; k < count; k++) {
+          output.writeVarint(row[k] - previous - 1);
+          previous = row[k];
+        }
+      }
+    }
+    output.finish();
+  }
+
+  private static Mapping.OfInt readEquivalence(Input source) throws IOException {
+    final int size = source.readHeader(KIND_EQUIVALENCE, KIND_EQUIVALENCE);
+    final FramedInput input = new FramedInput(source);
+    final int[] classes = new int[size];
+    for (int i = 0; i < size; i++) {
+      classes[i] = unzigzag(input.readVarint());
+    }
+    input.finish();
+    return Mappings.wrapModifiableInt(classes);
+  }
+
+  private static BinaryRelation readRelation(Input source) throws IOException {
+    final int size = source.readHeader(KIND_RELATION, KIND_RANKING);
+    final RelationBuilder<? extends BinaryRelation> builder = new BinaryRelationMatrixImpl.Builder(
+        size);
+    readRows(new FramedInput(source), size, builder);
+    return builder.build();
+  }
+
+  private static Ranking readRanking(Input source) throws IOException {
+    final int size = source.readHeader(KIND_RANKING, KIND_RANKING);
+    // the stored relation already is reflexive and transitive
+    final RelationBuilder<? extends Ranking> builder = new BinaryRelationMatrixImpl.Builder(size);
+    readRows(new FramedInput(source), size, builder);
+    return builder.build();
+  }
+
+  private static void readRows(FramedInput input, int size, RelationBuilder<?> builder)
+      throws IOException {
+    final byte[] bits = new byte[(size + 7) >>> 3];
+    for (int i = 0; i < size; i++) {
+      final long header = input.readVarint();
+      final long count = header >>> 1;
+      if (count > size) {
+        throw new IOException("invalid row length");
+      }
+      if ((header & 1) != 0) {
+        input.readFully(bits, 0, bits.length);
+        for (int j = 0; j < size; j++) {
+          if ((bits[j >>> 3] & (1 << (j & 7))) != 0) {
+            builder.add(i, j);
+          }
+        }
+      } else {
+        long column = -1;
+        for (long k = 0; k < count; k++) {
+          column += input.readVarint() + 1;
+          if (column >= size) {
+            throw new IOException("invalid column index");
+          }
+          builder.add(i, (int) column);
+        }
+      }
+    }
+    input.finish();
+  }
+
+  // decodes the rows into a heap matrix if target is null, otherwise into a file-backed matrix
+  // stored in target, so that only one row is held in memory at a time
+  private static IntDistanceMatrix readDistances(Input source, Path target, int width)
+      throws IOException {
+    final int size = source.readHeader(KIND_DISTANCES, KIND_DISTANCES);
+    final boolean compressed = (source.flags & FLAG_COMPRESSED) != 0;
+    final FramedInput input = new FramedInput(source);
+    final int[][] distances = target == null ? new int[size][] : null;
+    final IntDistanceMatrixWriter writer = target == null ? null
+        : MappedIntDistanceMatrixImpl.create(target, size, width);
+    final int[] buffer = target == null ? null : new int[size];
+    final Inflater inflater = compressed ? new Inflater() : null;
+    try {
+      for (int start = 0; start < size; start += ROWS_PER_BLOCK) {
+        final int end = Math.min(size, start + ROWS_PER_BLOCK);
+        Input block = input;
+        if (compressed) {
+          final long rawLength = input.readVarint();
+          final long packedLength = input.readVarint();
+          if (rawLength > Integer.MAX_VALUE || packedLength > Integer.MAX_VALUE) {
+            throw new IOException("invalid block length");
+          }
+          final byte[] packed = new byte[(int) packedLength];
+          input.readFully(packed, 0, packed.length);
+          final byte[] raw = new byte[(int) rawLength];
+          inflater.reset();
+          inflater.setInput(packed);
+          try {
+            if (inflater.inflate(raw) != raw.length || !inflater.finished()) {
+              throw new IOException("invalid compressed block");
+            }
+          } catch (DataFormatException ex) {
+            throw new IOException(ex);
+          }
+          block = new BufferInput(ByteBuffer.wrap(raw));
+        }
+        for (int i = start; i < end; i++) {
+          final int[] row = target == null ? new int[size] : buffer;
+          for (int j = 0; j < size; j++) {
+            row[j] = unzigzag(block.readVarint());
+          }
+          if (target == null) {
+            distances[i] = row;
+          } else {
+            writer.writeRow(i, row);
+          }
+        }
+      }
+    } finally {
+      if (inflater != null) {
+        inflater.end();
+      }
+    }
+    input.finish();
+    return target == null ? new IntDistanceMatrixImpl(distances) : writer.finish();
+  }
+
+  private static Input map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("file too large to map");
+      }
+      // the mapping stays valid after the channel is closed
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+          channel.size());
+      return new BufferInput(buffer);
+    }
+  }
+
+  private static long zigzag(int value) {
+    return ((value << 1) ^ (value >> 31)) & 0xffffffffL;
+  }
+
+  private static int unzigzag(long value) throws IOException {
+    if (value > 0xffffffffL) {
+      throw new IOException("integer out of range");
+    }
+    final int bits = (int) value;
+    return (bits >>> 1) ^ -(bits & 1);
+  }
+
+  private static int putVarint(byte[] bytes, int pos, long value) {
+    while ((value & ~0x7fL) != 0) {
+      bytes[pos++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    bytes[pos++] = (byte) value;
+    return pos;
+  }
+
+  /**
+   * Collects the content of a result and writes it in frames to the underlying
+   * stream, or keeps it in memory if there is no underlying stream.
+   */
+  private static final class Output {
+    private final OutputStream out;
+    byte[] bytes;
+    int count;
+
+    Output(OutputStream out) {
+      this.out = out;
+      bytes = new byte[out != null ? FRAME_SIZE : 1 << 12];
+    }
+
+    void writeHeader(int kind, int flags, int size) throws IOException {
+      final byte[] header = new byte[11];
+      header[0] = (byte) (MAGIC >>> 24);
+      header[1] = (byte) (MAGIC >>> 16);
+      header[2] = (byte) (MAGIC >>> 8);
+      header[3] = (byte) MAGIC;
+      header[4] = (byte) kind;
+      header[5] = (byte) flags;
+      out.write(header, 0, putVarint(header, 6, size));
+    }
+
+    void write(int b) throws IOException {
+      if (count == bytes.length) {
+        spill();
+      }
+      bytes[count++] = (byte) b;
+    }
+
+    void write(byte[] data, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (count == bytes.length) {
+          spill();
+        }
+        final int chunk = Math.min(length, bytes.length - count);
+        System.arraycopy(data, offset, bytes, count, chunk);
+        count += chunk;
+        offset += chunk;
+        length -= chunk;
+      }
+    }
+
+    void writeVarint(long value) throws IOException {
+      while ((value & ~0x7fL) != 0) {
+        write((int) (value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      write((int) value);
+    }
+
+    private void spill() throws IOException {
+      if (out == null) {
+        bytes = Arrays.copyOf(bytes, 2 * bytes.length);
+      } else {
+        writeFrame();
+      }
+    }
+
+    private void writeFrame() throws IOException {
+      if (count > 0) {
+        final byte[] length = new byte[5];
+        out.write(length, 0, putVarint(length, 0, count));
+        out.write(bytes, 0, count);
+        count = 0;
+      }
+    }
+
+    /**
+     * Writes the remaining content and the terminating empty frame, and flushes
+     * the underlying stream.
+     */
+    void finish() throws IOException {
+      writeFrame();
+      out.write(0);
+      out.flush();
+    }
+  }
+
+  private abstract static class Input {
+    int flags;
+
+    abstract int read() throws IOException;
+
+    abstract void readFully(byte[] bytes, int offset, int length) throws IOException;
+
+    int readHeader(int minKind, int maxKind) throws IOException {
+      int magic = 0;
+      for (int i = 0; i < 4; i++) {
+        magic = (magic << 8) | read();
+      }
+      final int kind = read();
+      if (magic != MAGIC || kind < minKind || kind > maxKind) {
+        throw new IOException("unexpected role result format");
+      }
+      flags = read();
+      final long size = readVarint();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("invalid domain size");
+      }
+      return (int) size;
+    }
+
+    long readVarint() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final int b = read();
+        value |= (long) (b & 0x7f) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new IOException("malformed variable-length integer");
+    }
+  }
+
+  /**
+   * Reads from a stream without buffering, so that no bytes beyond the requested
+   * ones are consumed.
+   */
+  private static final class StreamInput extends Input {
+    private final InputStream in;
+
+    StreamInput(InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    int read() throws IOException {
+      final int b = in.read();
+      if (b < 0) {
+        throw new EOFException();
+      }
+      return b;
+    }
+
+    @Override
+    void readFully(byte[] bytes, int offset, int length) throws IOException {
+      while (length > 0) {
+        final int read = in.read(bytes, offset, length);
+        if (read < 0) {
+          throw new EOFException();
+        }
+        offset += read;
+        length -= read;
+      }
+    }
+  }
+
+  private static final class BufferInput extends Input {
+    private final ByteBuffer buffer;
+
+    BufferInput(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    int read() throws IOException {
+      if (!buffer.hasRemaining()) {
+        throw new EOFException();
+      }
+      return buffer.get() & 0xff;
+    }
+
+    @Override
+    void readFully(byte[] bytes, int offset, int length) throws IOException {
+      try {
+        buffer.get(bytes, offset, length);
+      } catch (BufferUnderflowException ex) {
+        throw new EOFException();
+      }
+    }
+  }
+
+  /**
+   * Reads the framed content of a result, fetching one frame at a time from the
+   * underlying input.
+   */
+  private static final class FramedInput extends Input {
+    private final Input source;
+    private byte[] frame = new byte[0];
+    private int pos;
+    private int limit;
+    private boolean ended;
+
+    FramedInput(Input source) {
+      this.source = source;
+    }
+
+    @Override
+    int read() throws IOException {
+      if (pos == limit) {
+        nextFrame();
+      }
+      return frame[pos++] & 0xff;
+    }
+
+    @Override
+    void readFully(byte[] bytes, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (pos == limit) {
+          nextFrame();
+        }
+        final int chunk = Math.min(length, limit - pos);
+        System.arraycopy(frame, pos, bytes, offset, chunk);
+        pos += chunk;
+        offset += chunk;
+        length -= chunk;
+      }
+    }
+
+    private void nextFrame() throws IOException {
+      if (ended) {
+        throw new EOFException();
+      }
+      final long length = source.readVarint();
+      if (length == 0) {
+        ended = true;
+        throw new EOFException();
+      } else if (length > FRAME_SIZE) {
+        throw new IOException("invalid frame length");
+      }
+      if (frame.length < length) {
+        frame = new byte[FRAME_SIZE];
+      }
+      source.readFully(frame, 0, (int) length);
+      pos = 0;
+      limit = (int) length;
+    }
+
+    /**
+     * Checks that the content has been read completely and consumes the
+     * terminating empty frame.
+     */
+    void finish() throws IOException {
+      if (pos != limit || !ended && source.readVarint() != 0) {
+        throw new IOException("unexpected data after the end of the result");
+      }
+      ended = true;
+    }
+  }
+}
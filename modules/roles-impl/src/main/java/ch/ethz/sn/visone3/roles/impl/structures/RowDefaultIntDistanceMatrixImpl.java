@@ -0,0 +1,150 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.roles.impl.structures;
+
+import java.util.Arrays;
+
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+
+/**
+ * Sparse implementation of an integer distance matrix in which each row has a
+ * default distance. Only the distances that differ from their row's default are
+ * stored row by row (sorted column indices and their distances).
+ */
+public class RowDefaultIntDistanceMatrixImpl implements IntDistanceMatrix {
+
+  private final int[] rowDefaults_;
+  private final int[][] rowColumns_;
+  private final int[][] rowDistances_;
+
+  /**
+   * Constructs the distance matrix. The arrays are used directly and not copied.
+   * 
+   * @param rowDefaults  the default distance of each row.
+   * @param rowColumns   for each row, the sorted columns whose distances differ
+   *                     from the row's default.
+   * @param rowDistances for each row, the distances for the columns in
+   *                     {@code rowColumns}.
+   */
+  public RowDefaultIntDistanceMatrixImpl(int[] rowDefaults, int[][] rowColumns,
+      int[][] rowDistances) {
+    rowDefaults_ = rowDefaults;
+    rowColumns_ = rowColumns;
+    rowDistances_ = rowDistances;
+  }
+
+  /**
+   * Returns the default distance of the specified row.
+   * 
+   * @param i the row.
+   * @return the default distance of row {@code i}.
+   */
+  public int getRowDefault(int i) {
+    return rowDefaults_[i];
+  }
+
+  /**
+   * Returns the sorted columns of the specified row whose distances differ from
+   * the row's default. The returned array must not be modified.
+   * 
+   * @param i the row.
+   * @return the columns with stored distances.
+   */
+  int[] storedColumns(int i) {
+    return rowColumns_[i];
+  }
+
+  /**
+   * Returns the stored distances of the specified row, in the order of
+   * {@link #storedColumns(int)}. The returned array must not be modified.
+   * 
+   * @param i the row.
+   * @return the stored distances.
+   */
+  int[] storedDistances(int i) {
+    return rowDistances_[i];
+  }
+
+  /**
+   * Returns the number of distances stored in this matrix.
+   * 
+   * @return the number of stored distances.
+   */
+  public long countStored() {
+    long count = 0;
+    for (int[] columns : rowColumns_) {
+      count += columns.length;
+    }
+    return count;
+  }
+
+  @Override
+  public int getDomainSize() {
+    return rowDefaults_.length;
+  }
+
+  @Override
+  public int getDistance(int i, int j) {
+    if (j < 0 || j >= rowDefaults_.length) {
+      throw new IndexOutOfBoundsException(Integer.toString(j));
+    }
+    final int pos = Arrays.binarySearch(rowColumns_[i], j);
+    return pos >= 0 ? rowDistances_[i][pos] : rowDefaults_[i];
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @implNote This materializes the full matrix and thus requires quadratic
+   *           memory.
+   */
+  @Override
+  public int[][] asMatrix() {
+    final int size = rowDefaults_.length;
+    final int[][] mat = new int[size][size];
+    for (int i = 0; i < size; ++i) {
+      final int[] row = mat[i];
+      Arrays.fill(row, rowDefaults_[i]);
+      final int[] columns = rowColumns_[i];
+      final int[] distances = rowDistances_[i];
+      for (int pos = 0; pos < columns.length; ++pos) {
+        row[columns[pos]] = distances[pos];
+      }
+    }
+    return mat;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof IntDistanceMatrix)) {
+      return false;
+    }
+    return DistanceMatrices.equals(this, (IntDistanceMatrix) obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return DistanceMatrices.hashCode(this);
+  }
+
+  @Override
+  public String toString() {
+    return DistanceMatrices.toString(this);
+  }
+}
@@ -0,0 +1,419 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.impl.structures;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+
+/**
+ * Sparse implementation of an integer distance matrix. Only the distances not
+ * exceeding some threshold are stored row by row in compressed form (sorted
+ * column indices and their distances), all other distances are reported as
+ * {@link Integer#MAX_VALUE}.
+ */
+public class SparseIntDistanceMatrixImpl implements IntDistanceMatrix {
+
+  private final int size_;
+  private final int threshold_;
+  private final int[] rowStarts_;
+  private final int[] columns_;
+  private final int[] distances_;
+
+  private SparseIntDistanceMatrixImpl(int size, int threshold, int[] rowStarts, int[] columns,
+      int[] distances) {
+    size_ = size;
+    threshold_ = threshold;
+    rowStarts_ = rowStarts;
+    columns_ = columns;
+    distances_ = distances;
+  }
+
+  /**
+   * Constructs a sparse distance matrix that keeps only the distances of the
+   * specified matrix not exceeding the threshold.
+   * 
+   * @param matrix    the distance matrix.
+   * @param threshold the largest distance that is retained.
+   * @return the sparse distance matrix.
+   */
+  public static SparseIntDistanceMatrixImpl threshold(IntDistanceMatrix matrix, int threshold) {
+    return threshold(matrix, null, threshold);
+  }
+
+  /**
+   * Constructs a sparse distance matrix that keeps only the distances of the
+   * specified matrix not exceeding the threshold.
+   * 
+   * <p>
+   * If a lower bound function is provided, distances are only queried for pairs
+   * whose lower bound does not exceed the threshold.
+   * 
+   * @param matrix      the distance matrix.
+   * @param lowerBounds function which computes a lower bound on the distance
+   *                    between a pair of elements, or null if no lower bound is
+   *                    known.
+   * @param threshold   the largest distance that is retained.
+   * @return the sparse distance matrix.
+   */
+  public static SparseIntDistanceMatrixImpl threshold(IntDistanceMatrix matrix,
+      IntBinaryOperator lowerBounds, int threshold) {
+    if (matrix instanceof SparseIntDistanceMatrixImpl) {
+      // only the stored distances can be retained
+      SparseIntDistanceMatrixImpl sparse = (SparseIntDistanceMatrixImpl) matrix;
+      return sparse.threshold_ <= threshold ? sparse : sparse.filter(threshold);
+    }
+    if (matrix instanceof RowDefaultIntDistanceMatrixImpl) {
+      // only rows whose default is retained have to be enumerated in full
+      return threshold((RowDefaultIntDistanceMatrixImpl) matrix, threshold);
+    }
+    if (matrix instanceof LazyIntDistanceMatrixImpl) {
+      // avoid allocating the dense cache of the lazy matrix, and stop evaluating
+      // distances once they are known to exceed the threshold
+      LazyIntDistanceMatrixImpl lazy = (LazyIntDistanceMatrixImpl) matrix;
+      return compute(matrix.getDomainSize(), (i, j) -> lazy.evaluate(i, j, threshold),
+          lowerBounds, threshold);
+    }
+    return compute(matrix.getDomainSize(), matrix::getDistance, lowerBounds, threshold);
+  }
+
+  private SparseIntDistanceMatrixImpl filter(int threshold) {
+    int count = 0;
+    for (int pos = 0; pos < distances_.length; ++pos) {
+      if (distances_[pos] <= threshold) {
+        ++count;
+      }
+    }
+    final int[] rowStarts = new int[size_ + 1];
+    final int[] columns = new int[count];
+    final int[] dists = new int[count];
+    count = 0;
+    for (int i = 0; i < size_; ++i) {
+      for (int pos = rowStarts_[i]; pos < rowStarts_[i + 1]; ++pos) {
+        if (distances_[pos] <= threshold) {
+          columns[count] = columns_[pos];
+          dists[count] = distances_[pos];
+          ++count;
+        }
+      }
+      rowStarts[i + 1] = count;
+    }
+    return new SparseIntDistanceMatrixImpl(size_, threshold, rowStarts, columns, dists);
+  }
+
+  private static SparseIntDistanceMatrixImpl threshold(RowDefaultIntDistanceMatrixImpl matrix,
+      int threshold) {
+    final int size = matrix.getDomainSize();
+    final int[] rowStarts = new int[size + 1];
+    long count = 0;
+    for (int i = 0; i < size; ++i) {
+      if (matrix.getRowDefault(i) <= threshold) {
+        count += size;
+      } else {
+        for (int dist : matrix.storedDistances(i)) {
+          if (dist <= threshold) {
+            ++count;
+          }
+        }
+      }
+    }
+    if (count > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("too many distances below threshold");
+    }
+    final int[] columns = new int[(int) count];
+    final int[] dists = new int[columns.length];
+    int pos = 0;
+    for (int i = 0; i < size; ++i) {
+      final int[] rowColumns = matrix.storedColumns(i);
+      final int[] rowDistances = matrix.storedDistances(i);
+      final int rowDefault = matrix.getRowDefault(i);
+      int k = 0;
+      for (int j = 0; j < size; ++j) {
+        // skip columns with the default distance if that is not retained
+        if (rowDefault > threshold) {
+          if (k == rowColumns.length) {
+            break;
+          }
+          j = rowColumns[k];
+        }
+        final int dist = k < rowColumns.length && rowColumns[k] == j ? rowDistances[k++]
+            : rowDefault;
+        if (dist <= threshold) {
+          columns[pos] = j;
+          dists[pos] = dist;
+          ++pos;
+        }
+      }
+      rowStarts[i + 1] = pos;
+    }
+    return new SparseIntDistanceMatrixImpl(size, threshold, rowStarts,
+        Arrays.copyOf(columns, pos), Arrays.copyOf(dists, pos));
+  }
+
+  /**
+   * Computes a sparse distance matrix that keeps only the distances not
+   * exceeding the threshold.
+   * 
+   * <p>
+   * If a lower bound function is provided, distances are only evaluated for
+   * pairs whose lower bound does not exceed the threshold. For
+   * {@link KeyedLowerBounds}, only these pairs are visited at all.
+   * 
+   * @param size        the size of the domain.
+   * @param distances   function which computes the distance between a pair of
+   *                    elements.
+   * @param lowerBounds function which computes a lower bound on the distance
+   *                    between a pair of elements, or null if no lower bound is
+   *                    known.
+   * @param threshold   the largest distance that is retained.
+   * @return the sparse distance matrix.
+   */
+  public static SparseIntDistanceMatrixImpl compute(int size, IntBinaryOperator distances,
+      IntBinaryOperator lowerBounds, int threshold) {
+    // with keyed lower bounds, the candidates of each row are the elements with
+    // the largest keys
+    final KeyedLowerBounds keyed = lowerBounds instanceof KeyedLowerBounds
+        ? (KeyedLowerBounds) lowerBounds
+        : null;
+    int[] byKey = null;
+    int[] sortedKeys = null;
+    int[] candidates = null;
+    if (keyed != null) {
+      final long[] order = new long[size];
+      for (int j = 0; j < size; ++j) {
+        order[j] = ((long) keyed.key(j) << 32) | j;
+      }
+      Arrays.sort(order);
+      byKey = new int[size];
+      sortedKeys = new int[size];
+      for (int k = 0; k < size; ++k) {
+        byKey[k] = (int) order[k];
+        sortedKeys[k] = (int) (order[k] >> 32);
+      }
+      candidates = new int[size];
+    }
+
+    final int[] rowStarts = new int[size + 1];
+    int[] columns = new int[Math.max(size, 1)];
+    int[] dists = new int[columns.length];
+    int count = 0;
+    for (int i = 0; i < size; ++i) {
+      int numCandidates = size;
+      if (keyed != null) {
+        final int start = firstAtLeast(sortedKeys, keyed.minKey(i, threshold));
+        numCandidates = size - start;
+        if (numCandidates < size) {
+          System.arraycopy(byKey, start, candidates, 0, numCandidates);
+          Arrays.sort(candidates, 0, numCandidates);
+        }
+      }
+      for (int k = 0; k < numCandidates; ++k) {
+        final int j = numCandidates < size ? candidates[k] : k;
+        if (keyed == null && lowerBounds != null && lowerBounds.applyAsInt(i, j) > threshold) {
+          continue;
+        }
+        final int dist = distances.applyAsInt(i, j);
+        if (dist <= threshold) {
+          if (count == columns.length) {
+            final int newLength = (int) Math.min(Integer.MAX_VALUE - 8, 2L * count);
+            columns = Arrays.copyOf(columns, newLength);
+            dists = Arrays.copyOf(dists, newLength);
+          }
+          columns[count] = j;
+          dists[count] = dist;
+          ++count;
+        }
+      }
+      rowStarts[i + 1] = count;
+    }
+    return new SparseIntDistanceMatrixImpl(size, threshold, rowStarts,
+        Arrays.copyOf(columns, count), Arrays.copyOf(dists, count));
+  }
+
+  private static int firstAtLeast(int[] sorted, int value) {
+    int lo = 0;
+    int hi = sorted.length;
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (sorted[mid] < value) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Constructs a sparse distance matrix that keeps only the distances of the
+   * specified matrix for the given candidate pairs that do not exceed the
+   * threshold. Distances are only queried for candidate pairs.
+   * 
+   * <p>
+   * If a lower bound function is provided, distances are only queried for
+   * candidate pairs whose lower bound does not exceed the threshold.
+   * 
+   * @param matrix      the distance matrix.
+   * @param candidates  for each row, the sorted columns of the candidate pairs.
+   * @param lowerBounds function which computes a lower bound on the distance
+   *                    between a pair of elements, or null if no lower bound is
+   *                    known.
+   * @param threshold   the largest distance that is retained.
+   * @return the sparse distance matrix.
+   */
+  public static SparseIntDistanceMatrixImpl restrict(IntDistanceMatrix matrix, int[][] candidates,
+      IntBinaryOperator lowerBounds, int threshold) {
+    final IntBinaryOperator distances;
+    if (matrix instanceof LazyIntDistanceMatrixImpl) {
+      final LazyIntDistanceMatrixImpl lazy = (LazyIntDistanceMatrixImpl) matrix;
+      distances = (i, j) -> lazy.evaluate(i, j, threshold);
+    } else {
+      distances = matrix::getDistance;
+    }
+    final int size = matrix.getDomainSize();
+    final int[] rowStarts = new int[size + 1];
+    long total = 0;
+    for (int[] row : candidates) {
+      total += row.length;
+    }
+    if (total > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("too many candidate pairs");
+    }
+    final int[] columns = new int[(int) total];
+    final int[] dists = new int[columns.length];
+    int count = 0;
+    for (int i = 0; i < size; ++i) {
+      for (int j : candidates[i]) {
+        if (lowerBounds != null && lowerBounds.applyAsInt(i, j) > threshold) {
+          continue;
+        }
+        final int dist = distances.applyAsInt(i, j);
+        if (dist <= threshold) {
+          columns[count] = j;
+          dists[count] = dist;
+          ++count;
+        }
+      }
+      rowStarts[i + 1] = count;
+    }
+    return new SparseIntDistanceMatrixImpl(size, threshold, rowStarts,
+        Arrays.copyOf(columns, count), Arrays.copyOf(dists, count));
+  }
+
+  /**
+   * Returns the largest distance that is retained by this matrix.
+   * 
+   * @return the threshold.
+   */
+  public int getThreshold() {
+    return threshold_;
+  }
+
+  /**
+   * Returns the number of distances stored in this matrix.
+   * 
+   * @return the number of stored distances.
+   */
+  public int countStored() {
+    return rowStarts_[size_];
+  }
+
+  /**
+   * Returns the position of the first stored distance of the specified row. The
+   * distances of row {@code i} are stored at the positions from
+   * {@code rowStart(i)} (inclusive) to {@code rowStart(i + 1)} (exclusive).
+   * 
+   * @param i the row.
+   * @return the position of the row's first stored distance.
+   */
+  int rowStart(int i) {
+    return rowStarts_[i];
+  }
+
+  /**
+   * Returns the column of the distance stored at the specified position.
+   * 
+   * @param pos the position.
+   * @return the column.
+   */
+  int storedColumn(int pos) {
+    return columns_[pos];
+  }
+
+  /**
+   * Returns the distance stored at the specified position.
+   * 
+   * @param pos the position.
+   * @return the distance.
+   */
+  int storedDistance(int pos) {
+    return distances_[pos];
+  }
+
+  @Override
+  public int getDomainSize() {
+    return size_;
+  }
+
+  @Override
+  public int getDistance(int i, int j) {
+    if (j < 0 || j >= size_) {
+      throw new IndexOutOfBoundsException(Integer.toString(j));
+    }
+    final int pos = Arrays.binarySearch(columns_, rowStarts_[i], rowStarts_[i + 1], j);
+    return pos >= 0 ? distances_[pos] : Integer.MAX_VALUE;
+  }
+
+  /**
+   * {@inheritDoc}
+   * 
+   * @implNote This materializes the full matrix and thus requires quadratic
+   *           memory.
+   */
+  @Override
+  public int[][] asMatrix() {
+    final int[][] mat = new int[size_][size_];
+    for (int i = 0; i < size_; ++i) {
+      final int[] row = mat[i];
+      Arrays.fill(row, Integer.MAX_VALUE);
+      for (int pos = rowStarts_[i]; pos < rowStarts_[i + 1]; ++pos) {
+        row[columns_[pos]] = distances_[pos];
+      }
+    }
+    return mat;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (!(obj instanceof IntDistanceMatrix)) {
+      return false;
+    }
+    return DistanceMatrices.equals(this, (IntDistanceMatrix) obj);
+  }
+
+  @Override
+  public int hashCode() {
+    return DistanceMatrices.hashCode(this);
+  }
+
+  @Override
+  public String toString() {
+    return DistanceMatrices.toString(this);
+  }
+}
@@ -16,9 +16,17 @@
  */
 package ch.ethz.sn.visone3.roles.test.blocks;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.function.BiPredicate;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -35,13 +43,19 @@ import ch.ethz.sn.visone3.networks.Direction;
 import ch.ethz.sn.visone3.networks.DyadType;
 import ch.ethz.sn.visone3.networks.MatrixSource;
 import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.NetworkBuilder;
+import ch.ethz.sn.visone3.networks.NetworkProvider;
 import ch.ethz.sn.visone3.networks.Relation;
 import ch.ethz.sn.visone3.networks.Relationship;
 import ch.ethz.sn.visone3.networks.WeightedNetwork;
+import ch.ethz.sn.visone3.roles.blocks.Converters;
 import ch.ethz.sn.visone3.roles.blocks.DistanceOperators;
+import ch.ethz.sn.visone3.roles.blocks.Operator;
+import ch.ethz.sn.visone3.roles.blocks.builders.DistanceOperatorBuilder;
 import ch.ethz.sn.visone3.roles.blocks.factories.VariableDistanceBuilderFactory;
 import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.MinHashCandidates;
 import ch.ethz.sn.visone3.roles.impl.structures.LazyIntDistanceMatrixImpl;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
 import ch.ethz.sn.visone3.roles.position.TransposableNetworkView;
@@ -154,6 +168,39 @@ public class DistanceOperatorsTest {
     };
   }
 
+  private static TransposableNetworkView<Relationship, Relationship> outgoingView(
+      Network network) {
+    return new TransposableNetworkView<Relationship, Relationship>() {
+
+      private Relation rel = network.asRelation();
+
+      @Override
+      public int countNodes() {
+        return rel.countUnionDomain();
+      }
+
+      @Override
+      public Iterable<? extends Relationship> ties(int lhsComparison, int rhsComparison, int node) {
+        return rel.getRelationshipsFrom(node);
+      }
+
+      @Override
+      public int tieTarget(int lhsComparison, int rhsComparison, int node, Relationship tie) {
+        return tie.getRight();
+      }
+
+      @Override
+      public int tieIndex(int lhsComparison, int rhsComparison, int node, Relationship tie) {
+        return tie.getIndex();
+      }
+
+      @Override
+      public int countTies(int lhsComparison, int rhsComparison, int node) {
+        return rel.countRelationshipsFrom(node);
+      }
+    };
+  }
+
   @Test
   public void testStrongStructuralDistanceBlocks() {
 
@@ -6804,6 +6851,416 @@ public class DistanceOperatorsTest {
         () -> DistanceOperators.BINARYRELATION.weak().strictness(2), relInput, predRelInputView);
   }
 
+  @Test
+  public void testStructuralDistancesOnCoNeighbors() {
+    checkStructuralDistancesOnCoNeighbors(new Random(13), false);
+  }
+
+  @Test
+  public void testStructuralDistancesOnCoNeighborsWithLoops() {
+    // with loops on a large share of the nodes
+    checkStructuralDistancesOnCoNeighbors(new Random(19), true);
+  }
+
+  private static void checkStructuralDistancesOnCoNeighbors(Random rand, boolean loops) {
+    // just above the threshold for parallel processing
+    final int n = 1200;
+    final NetworkBuilder builder = NetworkProvider.getInstance().builder(DyadType.DIRECTED);
+    for (int i = 0; i < n; ++i) {
+      builder.ensureNode(i);
+    }
+    final Set<Long> edges = new HashSet<>();
+    for (int i = 0; i < n; ++i) {
+      final int degree = rand.nextInt(5);
+      for (int k = 0; k < degree; ++k) {
+        // pick targets from a small window so that nodes share neighbors
+        final int target = Math.floorMod(i + rand.nextInt(21) - 10, n);
+        if (edges.add((long) i * n + target)) {
+          builder.addEdge(i, target);
+        }
+        if (rand.nextInt(4) == 0 && edges.add((long) target * n + i)) {
+          builder.addEdge(target, i);
+        }
+      }
+      if (loops && rand.nextInt(3) == 0 && edges.add((long) i * n + i)) {
+        builder.addEdge(i, i);
+      }
+    }
+    final Network network = builder.build();
+    final NetworkView<Relationship, Relationship> view = NetworkView
+        .fromNetworkRelation(network, Direction.OUTGOING);
+    final ConstMapping.OfInt input = Mappings.newIntListOfSize(n);
+    final ToIntFunction<Relationship> failCostOp = r -> 1 + r.getRight() % 3;
+    final ToIntBiFunction<Relationship, Relationship> substCostOp = (ri, rj) -> rj == null
+        ? 1 + ri.getRight() % 3
+        : Math.abs(ri.getRight() % 3 - rj.getRight() % 3);
+    // ties, including loops, are only compatible if their endpoints agree modulo two
+    final BiPredicate<Relationship, Relationship> compOp = (ri, rj) -> (ri.getLeft()
+        + ri.getRight()) % 2 == (rj.getLeft() + rj.getRight()) % 2;
+
+    // the reference view does not swap the compared nodes, since the weak structural
+    // distance on transposable views already does so itself
+    checkSampledDistances(rand, n, view, outgoingView(network),
+        Arrays.asList(v -> DistanceOperators.EQUIVALENCE.strongStructural().of(v).make()
+            .apply(input),
+            v -> DistanceOperators.EQUIVALENCE.strongStructural().of(v).failCost(failCostOp)
+                .make().apply(input),
+            v -> DistanceOperators.EQUIVALENCE.strongStructural().of(v).substCost(substCostOp)
+                .make().apply(input),
+            v -> DistanceOperators.EQUIVALENCE.weakStructural().of(v).make().apply(input),
+            v -> DistanceOperators.EQUIVALENCE.weakStructural().of(v).failCost(failCostOp)
+                .make().apply(input),
+            v -> DistanceOperators.EQUIVALENCE.weakStructural().of(v).substCost(substCostOp)
+                .make().apply(input),
+            v -> DistanceOperators.EQUIVALENCE.weakStructural().of(v).compPredicate(compOp)
+                .failCost(failCostOp).make().apply(input),
+            v -> DistanceOperators.EQUIVALENCE.weakStructural().of(v).compPredicate(compOp)
+                .substCost(substCostOp).make().apply(input)));
+  }
+
+  @Test
+  public void testWeakDistancesByTieProfiles() {
+    final Random rand = new Random(17);
+    final int n = 120;
+    final Integer[][] adj = new Integer[n][n];
+    for (int i = 0; i < n; ++i) {
+      // few distinct degrees, so that many nodes share the same profile
+      for (int k = rand.nextInt(4); k > 0; --k) {
+        adj[i][rand.nextInt(n)] = 1;
+      }
+    }
+    final Network network = MatrixSource.fromAdjacency(adj, DyadType.DIRECTED).getNetwork();
+    final NetworkView<Relationship, Relationship> view = NetworkView
+        .fromNetworkRelation(network, Direction.OUTGOING);
+    final ConstMapping.OfInt input = Mappings.newIntListOfSize(n);
+    // several ties share the same value
+    final Comparator<Relationship> comp = Comparator.comparingInt(r -> r.getIndex() % 4);
+    final ToIntFunction<Relationship> failCostOp = r -> 1 + r.getIndex() % 3;
+
+    final List<Function<TransposableNetworkView<Relationship, Relationship>, //
+        IntDistanceMatrix>> ops = Arrays.asList(
+            v -> DistanceOperators.EQUIVALENCE.weak().of(v).compWeak(comp).make().apply(input),
+            v -> DistanceOperators.EQUIVALENCE.weak().of(v).compWeak(comp).failCost(failCostOp)
+                .make().apply(input),
+            v -> DistanceOperators.EQUIVALENCE.weak().strictness(1).of(v).compWeak(comp).make()
+                .apply(input),
+            v -> DistanceOperators.EQUIVALENCE.weak().strictness(1).of(v).compWeak(comp)
+                .failCost(failCostOp).make().apply(input));
+    for (Function<TransposableNetworkView<Relationship, Relationship>, //
+        IntDistanceMatrix> op : ops) {
+      final IntDistanceMatrix actual = op.apply(view);
+      final IntDistanceMatrix expected = op.apply(outgoingView(network));
+      for (int i = 0; i < n; ++i) {
+        for (int j = 0; j < n; ++j) {
+          assertEquals(expected.getDistance(i, j), actual.getDistance(i, j));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testWeightedWeaklyEquitableDistancesOnEquivalentTies() {
+    final Random rand = new Random(29);
+    final int n = 60;
+    final Integer[][] adj = new Integer[n][n];
+    for (int i = 0; i < n; ++i) {
+      for (int k = rand.nextInt(5); k > 0; --k) {
+        adj[i][rand.nextInt(n)] = 1;
+      }
+    }
+    final Network network = MatrixSource.fromAdjacency(adj, DyadType.DIRECTED).getNetwork();
+    final NetworkView<Relationship, Relationship> view = NetworkView
+        .fromNetworkRelation(network, Direction.OUTGOING);
+    final ConstMapping.OfInt input = Mappings.newIntListOfSize(n);
+
+    // all ties are equivalent, so j offers a single substitute, which is taken
+    // by the tie of i with the largest penalty
+    final Comparator<Relationship> comp = (lhs, rhs) -> 0;
+    final ToIntFunction<Relationship> failCostOp = r -> 1 + r.getRight() % 5;
+    final int[] totalPenalty = new int[n];
+    final int[] maxPenalty = new int[n];
+    for (int i = 0; i < n; ++i) {
+      for (Relationship r : view.ties(i)) {
+        totalPenalty[i] += failCostOp.applyAsInt(r);
+        maxPenalty[i] = Math.max(maxPenalty[i], failCostOp.applyAsInt(r));
+      }
+    }
+    for (TransposableNetworkView<Relationship, Relationship> v : Arrays
+        .<TransposableNetworkView<Relationship, Relationship>>asList(view,
+            outgoingView(network))) {
+      final IntDistanceMatrix weighted = DistanceOperators.EQUIVALENCE.weaklyEquitable().of(v)
+          .compWeak(comp).failCost(failCostOp).make().apply(input);
+      for (int i = 0; i < n; ++i) {
+        for (int j = 0; j < n; ++j) {
+          final int expected = view.countTies(j) > 0 ? totalPenalty[i] - maxPenalty[i]
+              : totalPenalty[i];
+          assertEquals(expected, weighted.getDistance(i, j));
+        }
+      }
+    }
+
+    // with pairwise distinct ties and unit penalties, the weighted distances
+    // agree with the unweighted ones
+    final Comparator<Relationship> distinctComp = Comparator.comparingInt(r -> r.getIndex());
+    for (TransposableNetworkView<Relationship, Relationship> v : Arrays
+        .<TransposableNetworkView<Relationship, Relationship>>asList(view,
+            outgoingView(network))) {
+      final IntDistanceMatrix unweighted = DistanceOperators.EQUIVALENCE.weaklyEquitable()
+          .of(v).compWeak(distinctComp).make().apply(input);
+      final IntDistanceMatrix weighted = DistanceOperators.EQUIVALENCE.weaklyEquitable().of(v)
+          .compWeak(distinctComp).failCost(r -> 1).make().apply(input);
+      for (int i = 0; i < n; ++i) {
+        for (int j = 0; j < n; ++j) {
+          assertEquals(unweighted.getDistance(i, j), weighted.getDistance(i, j));
+        }
+      }
+    }
+  }
+
+  private static void checkSampledDistances(Random rand, int n,
+      TransposableNetworkView<Relationship, Relationship> view,
+      TransposableNetworkView<Relationship, Relationship> reference,
+      List<Function<TransposableNetworkView<Relationship, Relationship>, IntDistanceMatrix>> ops) {
+    for (Function<TransposableNetworkView<Relationship, Relationship>, //
+        IntDistanceMatrix> op : ops) {
+      final IntDistanceMatrix sparse = op.apply(view);
+      final IntDistanceMatrix expected = op.apply(reference);
+      for (int sample = 0; sample < 5000; ++sample) {
+        final int i = rand.nextInt(n);
+        // mostly sample co-neighbors
+        final int j = sample % 4 == 0 ? rand.nextInt(n)
+            : Math.floorMod(i + rand.nextInt(41) - 20, n);
+        assertEquals(expected.getDistance(i, j), sparse.getDistance(i, j));
+      }
+      for (int threshold = 0; threshold < 3; ++threshold) {
+        assertEquals(DistanceMatrices.thresholded(n, sparse::getDistance, null, threshold),
+            DistanceMatrices.thresholded(sparse, threshold));
+      }
+    }
+  }
+
+  @Test
+  public void testApproximateDistances() {
+    final Random rand = new Random(31);
+    final int n = 200;
+    final Integer[][] adj = new Integer[n][n];
+    for (int i = 0; i < n; i += 2) {
+      // odd nodes copy the ties of their even predecessor
+      for (int j = 0; j < n; ++j) {
+        adj[i][j] = adj[i + 1][j] = rand.nextInt(20) == 0 ? 1 : null;
+      }
+    }
+    final Network network = MatrixSource.fromAdjacency(adj, DyadType.DIRECTED).getNetwork();
+    final NetworkView<Relationship, Relationship> view = NetworkView
+        .fromNetworkRelation(network, Direction.OUTGOING);
+    final int[] classes = new int[n];
+    for (int i = 0; i < n; ++i) {
+      classes[i] = rand.nextInt(6);
+    }
+    final ConstMapping.OfInt input = Mappings.wrapUnmodifiableInt(classes);
+
+    final List<Supplier<DistanceOperatorBuilder<Relationship, ConstMapping.OfInt>>> builders = //
+        Arrays.asList(() -> DistanceOperators.EQUIVALENCE.strongStructural().of(view),
+            () -> DistanceOperators.EQUIVALENCE.weakStructural().of(view),
+            () -> DistanceOperators.EQUIVALENCE.regular().of(view),
+            () -> DistanceOperators.EQUIVALENCE.regular().of(view).failCost(r -> 2),
+            () -> DistanceOperators.EQUIVALENCE.weak().of(view));
+    for (Supplier<DistanceOperatorBuilder<Relationship, ConstMapping.OfInt>> builder : builders) {
+      final IntDistanceMatrix exact = builder.get().make().apply(input);
+      for (int threshold : new int[] { 2, Integer.MAX_VALUE }) {
+        final IntDistanceMatrix approx = builder.get().approximate(8, 2).threshold(threshold)
+            .make().apply(input);
+        assertEquals(n, approx.getDomainSize());
+        int found = 0;
+        for (int i = 0; i < n; ++i) {
+          // each node and its copy have identical sets and are always evaluated
+          final int copy = i ^ 1;
+          assertEquals(exact.getDistance(i, i), approx.getDistance(i, i));
+          assertEquals(exact.getDistance(i, copy) <= threshold ? exact.getDistance(i, copy)
+              : Integer.MAX_VALUE, approx.getDistance(i, copy));
+          for (int j = 0; j < n; ++j) {
+            final int dist = approx.getDistance(i, j);
+            if (dist != Integer.MAX_VALUE) {
+              assertEquals(exact.getDistance(i, j), dist);
+              assertTrue(dist <= threshold);
+              ++found;
+            }
+          }
+        }
+        // the approximation evaluates only a fraction of all pairs
+        assertTrue(found >= n && found < n * n);
+      }
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> DistanceOperators.EQUIVALENCE.regular().of(view).approximate(0, 1));
+  }
+
+  @Test
+  public void testApproximateDistancesOnLargeBuckets() {
+    // all nodes have degree one, so they share their degree band
+    final int n = 2000;
+    final Integer[][] adj = new Integer[n][n];
+    for (int i = 0; i < n; ++i) {
+      adj[i][(i + 1) % n] = 1;
+    }
+    final Network network = MatrixSource.fromAdjacency(adj, DyadType.DIRECTED).getNetwork();
+    final NetworkView<Relationship, Relationship> view = NetworkView
+        .fromNetworkRelation(network, Direction.OUTGOING);
+    final ConstMapping.OfInt input = Mappings.newIntList(0, n);
+    final int bands = 4;
+    for (int strictness : new int[] { 1, 2, n }) {
+      final IntDistanceMatrix exact = DistanceOperators.EQUIVALENCE.weak().strictness(strictness)
+          .of(view).make().apply(input);
+      final IntDistanceMatrix approx = DistanceOperators.EQUIVALENCE.weak()
+          .strictness(strictness).of(view).approximate(bands, 1).make().apply(input);
+      for (int i = 0; i < n; ++i) {
+        int found = 0;
+        for (int j = 0; j < n; ++j) {
+          final int dist = approx.getDistance(i, j);
+          if (dist != Integer.MAX_VALUE) {
+            assertEquals(exact.getDistance(i, j), dist);
+            ++found;
+          }
+        }
+        // the bucket of all nodes is split into groups in each band
+        assertTrue(found > 1 && found <= bands * (MinHashCandidates.MAX_BUCKET_SIZE - 1) + 1);
+      }
+    }
+  }
+
+  @Test
+  public void testRegularDistanceClassProfiles() {
+    final Random rand = new Random(3);
+    final int n = 150;
+    final Integer[][] adj = new Integer[n][n];
+    for (int i = 0; i < n; ++i) {
+      for (int j = 0; j < n; ++j) {
+        adj[i][j] = rand.nextInt(10) == 0 ? 1 + rand.nextInt(3) : null;
+      }
+    }
+    final Network network = MatrixSource.fromAdjacency(adj, DyadType.DIRECTED).getNetwork();
+    final NetworkView<Relationship, Relationship> view = NetworkView
+        .fromNetworkRelation(network, Direction.OUTGOING);
+    for (int numClasses : new int[] { 1, 10, 100 }) {
+      final int[] classes = new int[n];
+      for (int i = 0; i < n; ++i) {
+        classes[i] = rand.nextInt(numClasses);
+      }
+      final ConstMapping.OfInt eqInput = Mappings.wrapUnmodifiableInt(classes);
+      final BinaryRelation relInput = BinaryRelations.fromEquivalence(eqInput);
+      OperatorTestUtilities.checkOperator(DistanceOperators.EQUIVALENCE.regular().of(view).make(),
+          eqInput, DistanceOperators.BINARYRELATION.regular().of(view).make().apply(relInput),
+          true, false, false, false, () -> {
+          });
+      OperatorTestUtilities.checkOperator(
+          DistanceOperators.EQUIVALENCE.regular().of(view).failCost(Relationship::getRight)
+              .make(),
+          eqInput, DistanceOperators.BINARYRELATION.regular().of(view)
+              .failCost(Relationship::getRight).make().apply(relInput),
+          true, false, false, false, () -> {
+          });
+    }
+  }
+
+  @Test
+  public void testThresholdedDistanceBlocks() {
+    final Network network = createNetwork3();
+    final NetworkView<Relationship, Relationship> view = NetworkView
+        .fromNetworkRelation(network, Direction.OUTGOING);
+    final ConstMapping.OfInt eqInput = Mappings.wrapUnmodifiableInt(0, 0, 0, 0, 0, 0, 1, 1, 2,
+        3, 1, 1, 2, 3, 1);
+    final Ranking rankInput = Rankings.fromEquivalence(eqInput);
+    final BinaryRelation relInput = BinaryRelations.fromEquivalence(eqInput);
+    final int n = network.asRelation().countUnionDomain();
+    for (int threshold = 0; threshold < 4; ++threshold) {
+      for (int p = 1; p <= n; p += 2) {
+        OperatorTestUtilities.checkOperator(
+            DistanceOperators.EQUIVALENCE.regular().strictness(p).of(view).threshold(threshold)
+                .make(),
+            eqInput, thresholded(DistanceOperators.EQUIVALENCE.regular().strictness(p).of(view)
+                .make().apply(eqInput), threshold),
+            true, false, false, false, () -> {
+            });
+        OperatorTestUtilities.checkOperator(
+            DistanceOperators.RANKING.regular().strictness(p).of(view).threshold(threshold)
+                .make(),
+            rankInput, thresholded(DistanceOperators.RANKING.regular().strictness(p).of(view)
+                .make().apply(rankInput), threshold),
+            true, false, false, false, () -> {
+            });
+        OperatorTestUtilities.checkOperator(
+            DistanceOperators.BINARYRELATION.regular().strictness(p).of(view)
+                .threshold(threshold).make(),
+            relInput, thresholded(DistanceOperators.BINARYRELATION.regular().strictness(p)
+                .of(view).make().apply(relInput), threshold),
+            true, false, false, false, () -> {
+            });
+      }
+      OperatorTestUtilities.checkOperator(
+          DistanceOperators.EQUIVALENCE.weak().of(view).failCost(r -> 2).threshold(threshold)
+              .make(),
+          eqInput, thresholded(DistanceOperators.EQUIVALENCE.weak().of(view).failCost(r -> 2)
+              .make().apply(eqInput), threshold),
+          true, true, false, false, () -> {
+          });
+    }
+    assertThrows(IllegalArgumentException.class,
+        () -> DistanceOperators.EQUIVALENCE.regular().of(view).threshold(-1));
+  }
+
+  @Test
+  public void testBoundedDistanceEvaluation() {
+    final Network network = createNetwork3();
+    final NetworkView<Relationship, Relationship> outgoingView = NetworkView
+        .fromNetworkRelation(network, Direction.OUTGOING);
+    final TransposableNetworkView<Relationship, Relationship> swappingView = swappingOutgoingView(
+        network);
+    final ConstMapping.OfInt eqInput = Mappings.wrapUnmodifiableInt(0, 0, 0, 0, 0, 0, 1, 1, 2,
+        3, 1, 1, 2, 3, 1);
+    final ToIntFunction<Relationship> failCostOp = Relationship::getRight;
+    final ToIntBiFunction<Relationship, Relationship> substCostOp = (ri, rj) -> rj == null
+        ? ri.getRight()
+        : Math.max(ri.getRight() - rj.getRight() / 2, 0);
+    final int n = network.asRelation().countUnionDomain();
+    for (int p : new int[] { 1, 2, n }) {
+      final int strictness = p;
+      final Function<TransposableNetworkView<Relationship, Relationship>, DistanceOperatorBuilder<Relationship, ConstMapping.OfInt>> builder = view -> DistanceOperators.EQUIVALENCE
+          .regular().strictness(strictness).of(view);
+      for (TransposableNetworkView<Relationship, Relationship> view : Arrays.asList(outgoingView,
+          swappingView)) {
+        for (int threshold = 0; threshold < 5; ++threshold) {
+          checkBoundedThresholding(builder.apply(view).make(), eqInput, threshold);
+          checkBoundedThresholding(builder.apply(view).failCost(failCostOp).make(), eqInput,
+              threshold);
+          checkBoundedThresholding(builder.apply(view).substCost(substCostOp).make(), eqInput,
+              threshold);
+        }
+      }
+    }
+  }
+
+  private static <T> void checkBoundedThresholding(Operator<T, IntDistanceMatrix> op, T input,
+      int threshold) {
+    final int[][] distances = op.apply(input).asMatrix();
+    final boolean[][] expected = new boolean[distances.length][distances.length];
+    for (int i = 0; i < distances.length; ++i) {
+      for (int j = 0; j < distances.length; ++j) {
+        expected[i][j] = distances[i][j] <= threshold;
+      }
+    }
+    final int th = threshold;
+    OperatorTestUtilities.checkOperator(Converters.thresholdDistances((i, j) -> th),
+        op.apply(input), BinaryRelations.fromMatrix(expected), true, false, false, false, () -> {
+        });
+  }
+
+  private static IntDistanceMatrix thresholded(IntDistanceMatrix distances, int threshold) {
+    return new LazyIntDistanceMatrixImpl(distances.getDomainSize(), (i, j) -> {
+      final int dist = distances.getDistance(i, j);
+      return dist <= threshold ? dist : Integer.MAX_VALUE;
+    });
+  }
+
   @Test
   public void testBasicOperators() {
     final int size = 20;
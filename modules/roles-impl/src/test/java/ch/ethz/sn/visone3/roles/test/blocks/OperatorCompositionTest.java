@@ -19,6 +19,7 @@ package ch.ethz.sn.visone3.roles.test.blocks;
 import static ch.ethz.sn.visone3.roles.test.blocks.OperatorTestUtilities.checkConverter;
 import static ch.ethz.sn.visone3.roles.test.blocks.OperatorTestUtilities.checkOperator;
 import static ch.ethz.sn.visone3.roles.test.blocks.OperatorTestUtilities.checkRoleOperator;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import ch.ethz.sn.visone3.roles.blocks.Operator;
@@ -30,8 +31,13 @@ import ch.ethz.sn.visone3.roles.blocks.RoleReducer;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public class OperatorCompositionTest {
 
@@ -1637,4 +1643,32 @@ public class OperatorCompositionTest {
       assertTrue(cacheReleased[4]);
     }, -50, 1000, -50, 464, 464, 1000, 20, null);
   }
+
+  @Test
+  public void testApplyToEach() {
+    assertEquals(Arrays.asList(3, 12, 27, 48),
+        Operators.applyToEach(Arrays.asList(1, 2, 3, 4),
+            item -> createOperator((Integer x) -> item * x, true, false, false, false, () -> {
+            }), item -> 3 * item));
+    assertEquals(Arrays.asList(), Operators.applyToEach(Arrays.<Integer>asList(),
+        item -> createOperator((Integer x) -> x, true, false, false, false, null), item -> item));
+  }
+
+  @Test
+  public void testConstantPartEvaluatedOnceInBatch() {
+    final AtomicInteger evaluations = new AtomicInteger();
+    final RoleOperator<Integer> constantOp = createRoleOperator(x -> {
+      evaluations.incrementAndGet();
+      return 7;
+    }, Math::max, Math::min, true, true, true, true, () -> {
+    });
+    final RoleOperator<Integer> plusOne = createRoleOperator(x -> x + 1, Math::max, Math::min,
+        true, false, false, true, () -> {
+        });
+    final List<Integer> inputs = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    final List<Integer> results = Operators.series(constantOp, plusOne).relativeAll(inputs);
+    assertEquals(1000, results.size());
+    assertTrue(results.stream().allMatch(x -> x == 8));
+    assertEquals(1, evaluations.get());
+  }
 }
@@ -18,6 +18,8 @@ package ch.ethz.sn.visone3.roles.test.blocks;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import java.util.Arrays;
+
 import ch.ethz.sn.visone3.roles.blocks.Operator;
 import ch.ethz.sn.visone3.roles.blocks.RoleConverter;
 import ch.ethz.sn.visone3.roles.blocks.RoleOperator;
@@ -40,6 +42,7 @@ public class OperatorTestUtilities {
     assertEquals(constant, op.isConstant());
     assertEquals(constant, op.isConstant());
     assertEquals(result, op.apply(input));
+    assertEquals(Arrays.asList(result, result), op.applyAll(Arrays.asList(input, input)));
     if (checkAfterCacheReleased != null) {
       op.releaseCache();
       checkAfterCacheReleased.run();
@@ -78,11 +81,21 @@ public class OperatorTestUtilities {
     assertEquals(coarsenedLargeResult, operator.relativeCoarsening(input, largerValue));
     assertEquals(operator.relativeRefining(input, input), operator.restrict(input));
     assertEquals(operator.relativeCoarsening(input, input), operator.extend(input));
+    assertEquals(Arrays.asList(result, result, result),
+        operator.relativeAll(Arrays.asList(input, input, input)));
+    assertEquals(Arrays.asList(operator.restrict(input), operator.restrict(input)),
+        operator.restrictAll(Arrays.asList(input, input)));
+    assertEquals(Arrays.asList(operator.extend(input), operator.extend(input)),
+        operator.extendAll(Arrays.asList(input, input)));
     if (interiorResult != null) {
       assertEquals(interiorResult, operator.interior(input));
+      assertEquals(Arrays.asList(interiorResult, interiorResult),
+          operator.interiorAll(Arrays.asList(input, input)));
     }
     if (closureResult != null) {
       assertEquals(closureResult, operator.closure(input));
+      assertEquals(Arrays.asList(closureResult, closureResult),
+          operator.closureAll(Arrays.asList(input, input)));
     }
   }
 
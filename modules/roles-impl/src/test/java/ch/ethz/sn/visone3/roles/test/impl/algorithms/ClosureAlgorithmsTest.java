@@ -0,0 +1,105 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.test.impl.algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mapping;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.networks.Direction;
+import ch.ethz.sn.visone3.networks.DyadType;
+import ch.ethz.sn.visone3.networks.MatrixSource;
+import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.roles.impl.algorithms.ClosureAlgorithms;
+import ch.ethz.sn.visone3.roles.impl.algorithms.Equivalences;
+import ch.ethz.sn.visone3.roles.position.NetworkView;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ClosureAlgorithmsTest {
+
+  @Test
+  public void testRegularClosure() {
+    final Integer z = null;
+    final Integer[][] adj = new Integer[][] { //
+        { z, 1, z, z, z, z }, //
+        { z, z, 1, z, z, z }, //
+        { z, z, z, z, z, z }, //
+        { z, z, z, z, 1, z }, //
+        { z, z, z, z, z, 1 }, //
+        { z, z, z, z, z, z } //
+    };
+    final Network network = MatrixSource.fromAdjacency(adj, DyadType.DIRECTED).getNetwork();
+    final NetworkView<?, ?> outgoingView = NetworkView.fromNetworkRelation(network,
+        Direction.OUTGOING);
+
+    // merging the sinks of the two paths propagates along the paths
+    assertEquals(Mappings.wrapUnmodifiableInt(0, 1, 2, 0, 1, 2),
+        ClosureAlgorithms.computeRegularClosure(6, outgoingView,
+            Mappings.wrapUnmodifiableInt(0, 1, 2, 3, 4, 2)));
+    // the sinks share the empty signature, so even the discrete partition collapses the paths
+    assertEquals(Mappings.wrapUnmodifiableInt(0, 1, 2, 0, 1, 2),
+        ClosureAlgorithms.computeRegularClosure(6, outgoingView,
+            Mappings.wrapUnmodifiableInt(0, 1, 2, 3, 4, 5)));
+    // separating the sinks from the rest is already regular
+    assertEquals(Mappings.wrapUnmodifiableInt(0, 0, 1, 0, 0, 1),
+        ClosureAlgorithms.computeRegularClosure(6, outgoingView,
+            Mappings.wrapUnmodifiableInt(0, 0, 1, 0, 0, 1)));
+  }
+
+  @Test
+  public void testRegularClosureMatchesIteration() {
+    final Random rand = new Random(7);
+    for (int round = 0; round < 50; ++round) {
+      final int n = 1 + rand.nextInt(30);
+      final Integer[][] adj = new Integer[n][n];
+      for (int i = 0; i < n; ++i) {
+        for (int j = 0; j < n; ++j) {
+          adj[i][j] = rand.nextInt(5) == 0 ? 1 : null;
+        }
+      }
+      final Network network = MatrixSource.fromAdjacency(adj, DyadType.DIRECTED).getNetwork();
+      for (Direction direction : new Direction[] { Direction.OUTGOING, Direction.INCOMING }) {
+        final NetworkView<?, ?> view = NetworkView.fromNetworkRelation(network, direction);
+        final int[] start = new int[n];
+        final int numClasses = 1 + rand.nextInt(n);
+        for (int i = 0; i < n; ++i) {
+          start[i] = rand.nextInt(numClasses);
+        }
+        final ConstMapping.OfInt input = Mappings.wrapUnmodifiableInt(start);
+        assertEquals(iteratedRegularClosure(n, view, input),
+            ClosureAlgorithms.computeRegularClosure(n, view, input));
+      }
+    }
+  }
+
+  private static ConstMapping.OfInt iteratedRegularClosure(int n, NetworkView<?, ?> view,
+      ConstMapping.OfInt input) {
+    ConstMapping.OfInt current = Equivalences.normalizePartition(input);
+    while (true) {
+      final Mapping.OfInt next = Equivalences.supremum(current,
+          Equivalences.relativeRegularEquivalence(n, view, current));
+      if (next.equals(current)) {
+        return current;
+      }
+      current = next;
+    }
+  }
+}
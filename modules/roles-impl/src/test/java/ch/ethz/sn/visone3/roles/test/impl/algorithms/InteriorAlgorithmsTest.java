@@ -18,16 +18,24 @@ package ch.ethz.sn.visone3.roles.test.impl.algorithms;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
+import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.lang.Mapping;
 import ch.ethz.sn.visone3.lang.Mappings;
 import ch.ethz.sn.visone3.networks.Direction;
 import ch.ethz.sn.visone3.networks.DyadType;
 import ch.ethz.sn.visone3.networks.MatrixSource;
 import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.Relationship;
 import ch.ethz.sn.visone3.networks.WeightedNetwork;
+import ch.ethz.sn.visone3.roles.impl.algorithms.Equivalences;
 import ch.ethz.sn.visone3.roles.impl.algorithms.InteriorAlgorithms;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
 
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 public class InteriorAlgorithmsTest {
@@ -60,6 +68,56 @@ public class InteriorAlgorithmsTest {
             Mappings.wrapUnmodifiableInt(0, 0, 0, 0, 0, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1)));
   }
 
+  @Test
+  public void testOrdinalRegularInterior() {
+    final Random rand = new Random(11);
+    for (int round = 0; round < 50; ++round) {
+      final int n = 2 + rand.nextInt(24);
+      // many weights lead to many threshold networks
+      final int numWeights = 1 + rand.nextInt(round % 2 == 0 ? 4 : 24);
+      final Integer[][] adj = new Integer[n][n];
+      for (int i = 0; i < n; ++i) {
+        for (int j = 0; j < n; ++j) {
+          adj[i][j] = rand.nextInt(4) == 0 ? rand.nextInt(numWeights) : null;
+        }
+      }
+      final WeightedNetwork<? extends Integer, ? extends Mapping<? extends Integer>> s = MatrixSource
+          .fromAdjacency(adj, DyadType.DIRECTED);
+      final Mapping<? extends Integer> weights = s.getWeight();
+      final Comparator<Relationship> comparator = Comparator
+          .comparingInt(r -> weights.get(r.getIndex()));
+      final long numDistinctWeights = Arrays.stream(adj).flatMap(Arrays::stream)
+          .filter(Objects::nonNull).distinct().count();
+      for (Direction direction : new Direction[] { Direction.OUTGOING, Direction.INCOMING }) {
+        final NetworkView<Relationship, Relationship> view = NetworkView
+            .fromNetworkRelation(s.getNetwork(), direction);
+        final int[] start = new int[n];
+        final int numClasses = 1 + rand.nextInt(3);
+        for (int i = 0; i < n; ++i) {
+          start[i] = rand.nextInt(numClasses);
+        }
+        final ConstMapping.OfInt input = Equivalences
+            .normalizePartition(Mappings.wrapUnmodifiableInt(start));
+        ConstMapping.OfInt expected = input;
+        ConstMapping.OfInt previous;
+        do {
+          previous = expected;
+          expected = Equivalences.refiningRelativeRegularEquivalence(n, view, previous, previous,
+              comparator);
+        } while (!expected.equals(previous));
+        assertEquals(expected,
+            InteriorAlgorithms.computeRegularInterior(n, view, input, comparator));
+
+        // threshold networks can be reused
+        final InteriorAlgorithms.ThresholdNetworks networks = InteriorAlgorithms
+            .thresholdNetworks(n, view, comparator);
+        assertEquals(numDistinctWeights, networks.size());
+        assertEquals(expected, InteriorAlgorithms.computeRegularInterior(n, networks, input));
+        assertEquals(expected, InteriorAlgorithms.computeRegularInterior(n, networks, input));
+      }
+    }
+  }
+
   @Test
   public void testExactInterior() {
 
@@ -0,0 +1,107 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.test.impl.algorithms;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import ch.ethz.sn.visone3.roles.impl.algorithms.PackedBooleanMatrices;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class PackedBooleanMatricesTest {
+
+  @Test
+  public void testProducts() {
+    final Random rand = new Random(5);
+    // small, word-straddling, dense (lookup tables) and large (parallel) products
+    final int[][] shapes = { { 1, 1, 1 }, { 3, 70, 5 }, { 65, 64, 130 }, { 40, 200, 90 },
+        { 600, 300, 2000 } };
+    for (int[] shape : shapes) {
+      for (int density : new int[] { 2, 20, 90 }) {
+        final boolean[][] lhs = random(rand, shape[0], shape[1], density);
+        final boolean[][] rhs = random(rand, shape[1], shape[2], density);
+        final long[][] packedLhs = pack(lhs, shape[1]);
+        final long[][] packedRhs = pack(rhs, shape[2]);
+
+        final boolean[][] product = new boolean[shape[0]][shape[2]];
+        final boolean[][] contained = new boolean[shape[0]][shape[2]];
+        for (int i = 0; i < shape[0]; ++i) {
+          for (int j = 0; j < shape[2]; ++j) {
+            boolean any = false;
+            boolean all = true;
+            for (int k = 0; k < shape[1]; ++k) {
+              if (lhs[i][k]) {
+                any |= rhs[k][j];
+                all &= rhs[k][j];
+              }
+            }
+            product[i][j] = any;
+            contained[i][j] = all;
+          }
+        }
+        assertArrayEquals(pack(product, shape[2]),
+            PackedBooleanMatrices.multiply(packedLhs, packedRhs, shape[2]));
+        assertArrayEquals(pack(contained, shape[2]),
+            PackedBooleanMatrices.multiplyContained(packedLhs, packedRhs, shape[2]));
+        // the right-hand side is left unchanged
+        assertArrayEquals(pack(rhs, shape[2]), packedRhs);
+      }
+    }
+  }
+
+  @Test
+  public void testTransposeAndComplement() {
+    final Random rand = new Random(6);
+    final boolean[][] matrix = random(rand, 70, 130, 30);
+    final long[][] transposed = PackedBooleanMatrices.transpose(pack(matrix, 130), 130);
+    final long[][] complemented = PackedBooleanMatrices.complement(pack(matrix, 130), 130);
+    assertEquals(130, transposed.length);
+    for (int i = 0; i < 70; ++i) {
+      for (int j = 0; j < 130; ++j) {
+        assertEquals(matrix[i][j], PackedBooleanMatrices.get(transposed, j, i));
+        assertEquals(!matrix[i][j], PackedBooleanMatrices.get(complemented, i, j));
+      }
+      // unused bits stay clear
+      assertEquals(0, complemented[i][2] >>> 2);
+    }
+  }
+
+  private static boolean[][] random(Random rand, int rows, int columns, int density) {
+    final boolean[][] result = new boolean[rows][columns];
+    for (int i = 0; i < rows; ++i) {
+      for (int j = 0; j < columns; ++j) {
+        result[i][j] = rand.nextInt(100) < density;
+      }
+    }
+    return result;
+  }
+
+  private static long[][] pack(boolean[][] matrix, int columns) {
+    final long[][] result = PackedBooleanMatrices.create(matrix.length, columns);
+    for (int i = 0; i < matrix.length; ++i) {
+      for (int j = 0; j < columns; ++j) {
+        if (matrix[i][j]) {
+          PackedBooleanMatrices.set(result, i, j);
+        }
+      }
+    }
+    return result;
+  }
+}
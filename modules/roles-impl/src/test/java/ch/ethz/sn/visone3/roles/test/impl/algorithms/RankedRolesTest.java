@@ -27,9 +27,13 @@ import ch.ethz.sn.visone3.networks.Relationship;
 import ch.ethz.sn.visone3.networks.WeightedNetwork;
 import ch.ethz.sn.visone3.roles.impl.algorithms.RegularRankedRoles;
 import ch.ethz.sn.visone3.roles.position.NetworkView;
+import ch.ethz.sn.visone3.roles.position.TransposableNetworkView;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
 import ch.ethz.sn.visone3.roles.structures.BinaryRelations;
 import ch.ethz.sn.visone3.roles.structures.Rankings;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 public class RankedRolesTest {
@@ -251,6 +255,41 @@ public class RankedRolesTest {
         })));
 	}
 
+  @Test
+  public void testRelativeRankedRolesMatchesTransposable() {
+    final Random rand = new Random(9);
+    for (int round = 0; round < 20; ++round) {
+      final int n = 2 + rand.nextInt(100);
+      final Integer[][] adj = new Integer[n][n];
+      for (int i = 0; i < n; ++i) {
+        for (int j = 0; j < n; ++j) {
+          adj[i][j] = rand.nextInt(8) == 0 ? 1 : null;
+        }
+      }
+      final Network network = MatrixSource.fromAdjacency(adj, DyadType.DIRECTED).getNetwork();
+      final boolean[][] relation = new boolean[n][n];
+      for (int i = 0; i < n; ++i) {
+        for (int j = 0; j < n; ++j) {
+          relation[i][j] = i == j || rand.nextInt(4) == 0;
+        }
+      }
+      final BinaryRelation relationRelativeTo = BinaryRelations.fromMatrix(relation);
+      for (Direction direction : new Direction[] { Direction.OUTGOING, Direction.INCOMING }) {
+        final NetworkView<Relationship, Relationship> view = NetworkView
+            .fromNetworkRelation(network, direction);
+        final TransposableNetworkView<Relationship, Relationship> transposableView = view;
+        assertEquals(
+            RegularRankedRoles.rankedRegularRoles(n, transposableView, relationRelativeTo),
+            RegularRankedRoles.rankedRegularRoles(n, view, relationRelativeTo));
+        assertEquals(
+            RegularRankedRoles.refiningRankedRegularRoles(n, transposableView,
+                relationRelativeTo, relationRelativeTo),
+            RegularRankedRoles.refiningRankedRegularRoles(n, view, relationRelativeTo,
+                relationRelativeTo));
+      }
+    }
+  }
+
 	@Test
 	public void testRankedRolesInterior() {
 		
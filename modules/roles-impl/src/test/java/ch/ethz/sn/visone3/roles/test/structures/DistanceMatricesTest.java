@@ -19,21 +19,41 @@ package ch.ethz.sn.visone3.roles.test.structures;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mappings;
 import ch.ethz.sn.visone3.roles.blocks.Converters;
 import ch.ethz.sn.visone3.roles.blocks.Reducers;
+import ch.ethz.sn.visone3.roles.blocks.RoleConverter;
+import ch.ethz.sn.visone3.roles.blocks.RoleOperators;
 import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
 import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrixWriter;
+import ch.ethz.sn.visone3.roles.distances.IntNeighborLists;
+import ch.ethz.sn.visone3.roles.impl.algorithms.Equivalences;
+import ch.ethz.sn.visone3.roles.impl.structures.BiIntPredicate;
+import ch.ethz.sn.visone3.roles.impl.structures.BoundedIntBinaryOperator;
+import ch.ethz.sn.visone3.roles.impl.structures.KeyedLowerBounds;
 import ch.ethz.sn.visone3.roles.impl.structures.LazyIntDistanceMatrixImpl;
+import ch.ethz.sn.visone3.roles.impl.structures.RowDefaultIntDistanceMatrixImpl;
 import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
 import ch.ethz.sn.visone3.roles.structures.BinaryRelations;
 
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
 
 public class DistanceMatricesTest {
 
@@ -110,6 +130,95 @@ public class DistanceMatricesTest {
     assertFalse(lazyDistanceMatrix.equals(null));
   }
 
+  @Test
+  public void testBoundedLazyDistanceMatrix() {
+    final int size = 100;
+    final IntBinaryOperator generator = (i, j) -> (7 * i + 3 * j) % 50;
+    final int[][] invocations = new int[size][size];
+    final LazyIntDistanceMatrixImpl lazyDistanceMatrix = new LazyIntDistanceMatrixImpl(size,
+        (i, j, bound) -> {
+          ++invocations[i][j];
+          final int dist = generator.applyAsInt(i, j);
+          // report a value just above the bound, as an early stopping kernel would
+          return dist > bound ? bound + 1 : dist;
+        });
+    // only every tenth entry is requested in even rows, so that their caches stay sparse
+    final BiIntPredicate requested = (i, j) -> i % 2 != 0 || j % 10 == 0;
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) {
+        if (!requested.testInt(i, j)) {
+          continue;
+        }
+        final int dist = generator.applyAsInt(i, j);
+        for (int repeat = 0; repeat < 2; ++repeat) {
+          final int bounded = lazyDistanceMatrix.getDistanceBounded(i, j, 20);
+          assertTrue(dist <= 20 ? bounded == dist : bounded > 20);
+          final int smaller = lazyDistanceMatrix.getDistanceBounded(i, j, 10);
+          assertTrue(dist <= 10 ? smaller == dist : smaller > 10);
+        }
+        assertEquals(1, invocations[i][j]);
+        // a larger bound requires another evaluation unless the distance is known
+        final int larger = lazyDistanceMatrix.getDistanceBounded(i, j, 30);
+        assertTrue(dist <= 30 ? larger == dist : larger > 30);
+        assertEquals(dist <= 20 ? 1 : 2, invocations[i][j]);
+      }
+    }
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) {
+        final int dist = generator.applyAsInt(i, j);
+        final int before = invocations[i][j];
+        assertEquals(dist, lazyDistanceMatrix.getDistance(i, j));
+        // exact distances known from bounded requests are reused
+        assertEquals(requested.testInt(i, j) && dist <= 30 ? before : before + 1,
+            invocations[i][j]);
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentBoundedLazyDistanceMatrix() {
+    final int size = 400;
+    final IntBinaryOperator generator = (i, j) -> (7 * i + 3 * j) % 50;
+    final AtomicInteger invocations = new AtomicInteger();
+    final LazyIntDistanceMatrixImpl lazyDistanceMatrix = new LazyIntDistanceMatrixImpl(size,
+        (i, j, bound) -> {
+          invocations.incrementAndGet();
+          final int dist = generator.applyAsInt(i, j);
+          return dist > bound ? bound + 1 : dist;
+        });
+    // all threads request the same few rows, whose caches grow from sparse to dense meanwhile
+    for (int repeat = 0; repeat < 2; ++repeat) {
+      IntStream.range(0, 8 * size * size).parallel().forEach(k -> {
+        final int i = k % 8;
+        final int j = (k / 8) % size;
+        final int bound = 10 * (k / (8 * size) % 4);
+        final int dist = generator.applyAsInt(i, j);
+        final int bounded = lazyDistanceMatrix.getDistanceBounded(i, j, bound);
+        assertTrue(dist <= bound ? bounded == dist : bounded > bound);
+      });
+    }
+    assertTrue(invocations.get() < 2 * 8 * size * size);
+  }
+
+  @Test
+  public void testBoundedLazyDistanceMatrixAsMatrix() {
+    // large enough for the rows to be filled in parallel
+    final int size = 1000;
+    final IntBinaryOperator generator = (i, j) -> (7 * i + 3 * j) % 50;
+    final LazyIntDistanceMatrixImpl lazyDistanceMatrix = new LazyIntDistanceMatrixImpl(size,
+        (i, j, bound) -> {
+          final int dist = generator.applyAsInt(i, j);
+          return dist > bound ? bound + 1 : dist;
+        });
+    assertEquals(generator.applyAsInt(3, 5), lazyDistanceMatrix.getDistance(3, 5));
+    final int[][] mat = lazyDistanceMatrix.asMatrix();
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) {
+        assertEquals(generator.applyAsInt(i, j), mat[i][j]);
+      }
+    }
+  }
+
   @Test
   public void testEagerDistanceMatrix() {
     final int size = 15;
@@ -144,6 +253,288 @@ public class DistanceMatricesTest {
     assertFalse(distMatrix.equals(null));
   }
 
+  @Test
+  public void testThresholdedDistanceMatrix() {
+    final int size = 15;
+    final int threshold = 200;
+    final IntBinaryOperator generator = (i, j) -> 20 * i * i + 3 * j;
+    final IntBinaryOperator capped = (i, j) -> {
+      int dist = generator.applyAsInt(i, j);
+      return dist <= threshold ? dist : Integer.MAX_VALUE;
+    };
+    final IntDistanceMatrix expected = new LazyIntDistanceMatrixImpl(size, capped);
+
+    IntDistanceMatrix sparse = DistanceMatrices
+        .thresholded(new LazyIntDistanceMatrixImpl(size, generator), threshold);
+    assertEquals(size, sparse.getDomainSize());
+    assertEquals(expected, sparse);
+    assertEquals(sparse, expected);
+    assertEquals(expected.hashCode(), sparse.hashCode());
+    assertTrue(Arrays.deepEquals(expected.asMatrix(), sparse.asMatrix()));
+    assertEquals(sparse, DistanceMatrices.thresholded(sparse, threshold + 10));
+
+    int[] invocationCounter = new int[1];
+    final IntBinaryOperator countingGenerator = (i, j) -> {
+      ++invocationCounter[0];
+      return generator.applyAsInt(i, j);
+    };
+    sparse = DistanceMatrices.thresholded(size, countingGenerator, (i, j) -> 20 * i * i,
+        threshold);
+    assertEquals(expected, sparse);
+    assertEquals(4 * size, invocationCounter[0]);
+
+    sparse = DistanceMatrices.thresholded(size, generator, (i, j) -> 0, 10);
+    assertEquals(DistanceMatrices.thresholded(expected, 10), sparse);
+    assertEquals(0, sparse.getDistance(0, 0));
+    assertEquals(Integer.MAX_VALUE, sparse.getDistance(0, 4));
+    assertEquals(Integer.MAX_VALUE, sparse.getDistance(1, 0));
+
+    // thresholding a sparse matrix further keeps its stored distances in order
+    sparse = DistanceMatrices.thresholded(new LazyIntDistanceMatrixImpl(size, generator),
+        threshold);
+    assertEquals(DistanceMatrices.thresholded(expected, 100),
+        DistanceMatrices.thresholded(sparse, 100));
+    assertEquals(DistanceMatrices.thresholded(expected, -1),
+        DistanceMatrices.thresholded(sparse, -1));
+  }
+
+  @Test
+  public void testThresholdedDistanceMatrixWithKeyedLowerBounds() {
+    final int size = 200;
+    final int threshold = 5;
+    final IntBinaryOperator generator = (i, j) -> Math.abs(i - j) + (i * j) % 3;
+    final int[][] invocations = new int[size][size];
+    final IntBinaryOperator countingGenerator = (i, j) -> {
+      ++invocations[i][j];
+      return generator.applyAsInt(i, j);
+    };
+    // the bound decreases with j, so only the columns from i - threshold on are visited
+    final KeyedLowerBounds lowerBounds = new KeyedLowerBounds() {
+
+      @Override
+      public int applyAsInt(int i, int j) {
+        return Math.max(0, i - j);
+      }
+
+      @Override
+      public int key(int j) {
+        return j;
+      }
+
+      @Override
+      public int minKey(int i, int threshold) {
+        return i - threshold;
+      }
+    };
+    final IntDistanceMatrix sparse = DistanceMatrices.thresholded(size, countingGenerator,
+        lowerBounds, threshold);
+    assertEquals(DistanceMatrices.thresholded(new LazyIntDistanceMatrixImpl(size, generator),
+        threshold), sparse);
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) {
+        assertEquals(j >= i - threshold ? 1 : 0, invocations[i][j]);
+      }
+    }
+  }
+
+  @Test
+  public void testNeighborLists() {
+    final Random rand = new Random(42);
+    for (int size : new int[] { 0, 1, 7, 40, 1500 }) {
+      final int[][] mat = new int[size][size];
+      final int[] rowDefaults = new int[size];
+      final int[][] rowColumns = new int[size][];
+      final int[][] rowDistances = new int[size][];
+      for (int i = 0; i < size; ++i) {
+        rowDefaults[i] = rand.nextInt(4) == 0 ? Integer.MAX_VALUE : rand.nextInt(10);
+        final int[] columns = rand.ints(rand.nextInt(Math.min(size, 30) + 1), 0, size).sorted()
+            .distinct().toArray();
+        final int[] distances = new int[columns.length];
+        Arrays.fill(mat[i], rowDefaults[i]);
+        for (int pos = 0; pos < columns.length; ++pos) {
+          do {
+            distances[pos] = rand.nextInt(8) == 0 ? Integer.MAX_VALUE : rand.nextInt(10);
+          } while (distances[pos] == rowDefaults[i]);
+          mat[i][columns[pos]] = distances[pos];
+        }
+        rowColumns[i] = columns;
+        rowDistances[i] = distances;
+      }
+      final IntDistanceMatrix dense = DistanceMatrices.fromMatrix(mat);
+      final BoundedIntBinaryOperator bounded = (i, j, bound) -> {
+        assertTrue(bound >= -1);
+        return mat[i][j];
+      };
+      final List<IntDistanceMatrix> matrices = Arrays.asList(dense,
+          new RowDefaultIntDistanceMatrixImpl(rowDefaults, rowColumns, rowDistances),
+          new LazyIntDistanceMatrixImpl(size, bounded),
+          new LazyIntDistanceMatrixImpl(size, (IntBinaryOperator) dense::getDistance));
+      for (int k : new int[] { 0, 1, 3, size }) {
+        final IntNeighborLists expected = bruteForceNeighbors(mat, k, Integer.MAX_VALUE);
+        for (IntDistanceMatrix matrix : matrices) {
+          assertNeighborListsEqual(expected, DistanceMatrices.nearest(matrix, k));
+        }
+        assertNeighborListsEqual(expected,
+            DistanceMatrices.nearest(DistanceMatrices.thresholded(dense, 9), k));
+        assertNeighborListsEqual(expected,
+            DistanceMatrices.nearest(size, dense::getDistance, (i, j) -> 0, k));
+      }
+      for (int radius : new int[] { -1, 0, 4, Integer.MAX_VALUE }) {
+        final IntNeighborLists expected = bruteForceNeighbors(mat, size, radius);
+        for (IntDistanceMatrix matrix : matrices) {
+          assertNeighborListsEqual(expected, DistanceMatrices.withinRadius(matrix, radius));
+        }
+        assertNeighborListsEqual(expected, DistanceMatrices
+            .withinRadius(DistanceMatrices.thresholded(dense, Math.max(radius, 0)), radius));
+        assertNeighborListsEqual(expected,
+            DistanceMatrices.withinRadius(size, dense::getDistance, null, radius));
+      }
+    }
+
+    // lower bounds rule out candidates once the nearest neighbors are close enough
+    final int size = 50;
+    final AtomicInteger invocationCounter = new AtomicInteger();
+    final IntBinaryOperator countingGenerator = (i, j) -> {
+      invocationCounter.incrementAndGet();
+      return Math.abs(i - j);
+    };
+    final IntNeighborLists nearest = DistanceMatrices.nearest(size, countingGenerator,
+        (i, j) -> Math.abs(i - j), 2);
+    for (int i = 0; i < size; ++i) {
+      final int[] expectedNeighbors = i == 0 ? new int[] { 1, 2 }
+          : i == size - 1 ? new int[] { size - 2, size - 3 } : new int[] { i - 1, i + 1 };
+      assertTrue(Arrays.equals(expectedNeighbors, nearest.getNeighbors(i)));
+    }
+    // candidates beyond the next higher index are never evaluated
+    assertTrue(invocationCounter.get() <= size * (size + 1) / 2 + 1);
+    final IntNeighborLists within = DistanceMatrices.withinRadius(size, countingGenerator,
+        (i, j) -> Math.abs(i - j), 1);
+    assertEquals(2, within.countNeighbors(1));
+    assertEquals(0, within.getNeighbor(1, 0));
+    assertEquals(1, within.getDistance(1, 1));
+    assertThrows(IndexOutOfBoundsException.class, () -> within.getNeighbor(1, 2));
+    assertThrows(IllegalArgumentException.class,
+        () -> DistanceMatrices.nearest(DistanceMatrices.fromMatrix(new int[0][0]), -1));
+  }
+
+  private static IntNeighborLists bruteForceNeighbors(int[][] mat, int k, int radius) {
+    final int size = mat.length;
+    final List<int[]> lists = new ArrayList<>();
+    for (int i = 0; i < size; ++i) {
+      final int row = i;
+      lists.add(IntStream.range(0, size)
+          .filter(j -> j != row && mat[row][j] != Integer.MAX_VALUE && mat[row][j] <= radius)
+          .boxed().sorted(Comparator.<Integer>comparingInt(j -> mat[row][j])
+              .thenComparingInt(j -> j))
+          .limit(k).mapToInt(Integer::intValue).toArray());
+    }
+    return new IntNeighborLists() {
+
+      @Override
+      public int getDomainSize() {
+        return size;
+      }
+
+      @Override
+      public int countNeighbors(int i) {
+        return lists.get(i).length;
+      }
+
+      @Override
+      public int getNeighbor(int i, int pos) {
+        return lists.get(i)[pos];
+      }
+
+      @Override
+      public int getDistance(int i, int pos) {
+        return mat[i][getNeighbor(i, pos)];
+      }
+
+      @Override
+      public int[] getNeighbors(int i) {
+        return lists.get(i).clone();
+      }
+
+      @Override
+      public int[] getDistances(int i) {
+        return Arrays.stream(lists.get(i)).map(j -> mat[i][j]).toArray();
+      }
+    };
+  }
+
+  private static void assertNeighborListsEqual(IntNeighborLists expected,
+      IntNeighborLists actual) {
+    assertEquals(expected.getDomainSize(), actual.getDomainSize());
+    for (int i = 0; i < expected.getDomainSize(); ++i) {
+      assertTrue(Arrays.equals(expected.getNeighbors(i), actual.getNeighbors(i)),
+          () -> actual.toString());
+      assertTrue(Arrays.equals(expected.getDistances(i), actual.getDistances(i)));
+      assertEquals(expected.countNeighbors(i), actual.countNeighbors(i));
+      for (int pos = 0; pos < expected.countNeighbors(i); ++pos) {
+        assertEquals(expected.getNeighbor(i, pos), actual.getNeighbor(i, pos));
+        assertEquals(expected.getDistance(i, pos), actual.getDistance(i, pos));
+      }
+    }
+  }
+
+  @Test
+  public void testFileBackedDistanceMatrix() throws IOException {
+    final Path file = Files.createTempFile("distances", ".bin");
+    try {
+      final Random rand = new Random(7);
+      final int size = 300;
+      final int[][] mat = new int[size][size];
+      for (int[] row : mat) {
+        for (int j = 0; j < size; ++j) {
+          row[j] = rand.nextInt(5) == 0 ? 70000 + rand.nextInt(1000) : rand.nextInt(300);
+        }
+      }
+      final IntDistanceMatrix dense = DistanceMatrices.fromMatrix(mat);
+      assertEquals(dense, DistanceMatrices.toFile(dense, file, 4));
+      assertEquals(dense, DistanceMatrices.fromFile(file));
+
+      // narrow cells saturate
+      for (int width : new int[] { 1, 2 }) {
+        final int saturation = (1 << (8 * width)) - 1;
+        final IntDistanceMatrix expected = new LazyIntDistanceMatrixImpl(size,
+            (i, j) -> mat[i][j] >= saturation ? Integer.MAX_VALUE : mat[i][j]);
+        final BoundedIntBinaryOperator bounded = (i, j, bound) -> {
+          assertEquals(saturation - 1, bound);
+          return mat[i][j];
+        };
+        assertEquals(expected,
+            DistanceMatrices.toFile(new LazyIntDistanceMatrixImpl(size, bounded), file, width));
+        assertEquals(expected, DistanceMatrices.fromFile(file));
+      }
+
+      // rows can be streamed in blocks
+      final IntDistanceMatrixWriter writer = DistanceMatrices.fileWriter(file, size, 4);
+      assertEquals(size, writer.getDomainSize());
+      for (int first = 0; first < size; first += 64) {
+        writer.writeRows(first, Arrays.copyOfRange(mat, first, Math.min(size, first + 64)));
+      }
+      assertThrows(IllegalArgumentException.class, () -> writer.writeRow(0, new int[1]));
+      assertEquals(dense, writer.finish());
+      assertThrows(IllegalStateException.class, () -> writer.writeRow(0, mat[0]));
+      assertEquals(dense, DistanceMatrices.fromFile(file));
+
+      final IntDistanceMatrixWriter byteWriter = DistanceMatrices.fileWriter(file, 2, 1);
+      assertThrows(IllegalArgumentException.class,
+          () -> byteWriter.writeRow(0, new int[] { 0, -1 }));
+      assertThrows(IllegalArgumentException.class,
+          () -> DistanceMatrices.fileWriter(file, size, 3));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+    final Path invalid = Files.createTempFile("invalid", ".bin");
+    try {
+      Files.write(invalid, new byte[] { 1, 2, 3 });
+      assertThrows(IOException.class, () -> DistanceMatrices.fromFile(invalid));
+    } finally {
+      Files.deleteIfExists(invalid);
+    }
+  }
+
   @Test
   public void testDistanceAdd() {
     final int size = 20;
@@ -205,4 +596,44 @@ public class DistanceMatricesTest {
     assertFalse(Converters.thresholdDistances(thresholds).isNonincreasing());
     assertFalse(Converters.thresholdDistances(thresholds).isNondecreasing());
   }
+
+  @Test
+  public void testDistanceThresholdComponentsConverter() {
+    final int size = 30;
+    final Random rand = new Random();
+    final int[][] distances = new int[size][size];
+    for (int i = 0; i < size; ++i) {
+      for (int j = 0; j < size; ++j) {
+        distances[i][j] = i == j ? 0 : rand.nextInt(40);
+      }
+    }
+    final int[] toCoarsenOrRefine = new int[size];
+    for (int i = 0; i < size; ++i) {
+      toCoarsenOrRefine[i] = rand.nextInt(4);
+    }
+    final ConstMapping.OfInt equivalence = Equivalences
+        .normalizePartition(Mappings.wrapUnmodifiableInt(toCoarsenOrRefine));
+    final IntDistanceMatrix distMat = DistanceMatrices.fromMatrix(distances);
+    final IntDistanceMatrix lazyDistMat = new LazyIntDistanceMatrixImpl(size,
+        (i, j) -> distances[i][j]);
+    for (IntBinaryOperator thresholds : Arrays.<IntBinaryOperator>asList((i, j) -> 3,
+        (i, j) -> (i + j) % 7, (i, j) -> i == 0 ? Integer.MAX_VALUE : 1)) {
+      final BinaryRelation symmetric = RoleOperators.BINARYRELATION.basic().symmetrize()
+          .relative(Converters.thresholdDistances(thresholds).convert(distMat));
+      final RoleConverter<BinaryRelation, ConstMapping.OfInt> components = Converters
+          .strongComponentsAsEquivalence();
+      final RoleConverter<IntDistanceMatrix, ConstMapping.OfInt> fused = Converters
+          .thresholdDistancesAsEquivalence(thresholds);
+      assertEquals(components.convert(symmetric), fused.convert(distMat));
+      assertEquals(components.convert(symmetric), fused.apply(lazyDistMat));
+      assertEquals(components.convertRefining(symmetric, equivalence),
+          fused.convertRefining(distMat, equivalence));
+      assertEquals(components.convertCoarsening(symmetric, equivalence),
+          fused.convertCoarsening(distMat, equivalence));
+      assertTrue(fused.isIsotone());
+      assertFalse(fused.isConstant());
+      assertFalse(fused.isNonincreasing());
+      assertFalse(fused.isNondecreasing());
+    }
+  }
 }
@@ -0,0 +1,150 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package ch.ethz.sn.visone3.roles.test.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.networks.Direction;
+import ch.ethz.sn.visone3.networks.MatrixSource;
+import ch.ethz.sn.visone3.networks.Network;
+import ch.ethz.sn.visone3.networks.VertexOrderings;
+import ch.ethz.sn.visone3.roles.blocks.RoleOperator;
+import ch.ethz.sn.visone3.roles.blocks.RoleOperators;
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.algorithms.Equivalences;
+import ch.ethz.sn.visone3.roles.position.NetworkView;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelations;
+import ch.ethz.sn.visone3.roles.structures.Ranking;
+import ch.ethz.sn.visone3.roles.structures.Rankings;
+import ch.ethz.sn.visone3.roles.util.RoleReorderings;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class RoleReorderingsTest {
+
+  private static Network randomNetwork(final Random random, final int n) {
+    final Integer[][] adj = new Integer[n][n];
+    for (int i = 0; i < n; ++i) {
+      for (int j = 0; j < n; ++j) {
+        if (random.nextInt(8) == 0) {
+          adj[i][j] = 1;
+        }
+      }
+    }
+    return MatrixSource.fromAdjacency(adj, false).getNetwork();
+  }
+
+  private static RoleOperator<ConstMapping.OfInt> regularEquivalence(final Network network) {
+    return RoleOperators.EQUIVALENCE.regular()
+        .of(NetworkView.fromNetworkRelation(network, Direction.OUTGOING)).make();
+  }
+
+  private static RoleOperator<Ranking> regularRanking(final Network network) {
+    return RoleOperators.RANKING.regular()
+        .of(NetworkView.fromNetworkRelation(network, Direction.OUTGOING)).make();
+  }
+
+  @Test
+  public void testRoleOperatorsOnReorderedNetwork() {
+    final Random random = new Random(47);
+    final int n = 40;
+    final Network network = randomNetwork(random, n);
+    final int[] start = new int[n];
+    for (int i = 0; i < n; ++i) {
+      start[i] = random.nextInt(3);
+    }
+    final ConstMapping.OfInt equivalence = Mappings
+        .wrapUnmodifiableInt(Equivalences.normalizePartition(start));
+    final Ranking ranking = Rankings.fromEquivalence(equivalence);
+
+    for (final ConstMapping.OfInt order : new ConstMapping.OfInt[] {
+        VertexOrderings.byDegree(network), VertexOrderings.reverseCuthillMcKee(network) }) {
+      final Network reordered = network.reorderable().permuteVertices(order);
+
+      final ConstMapping.OfInt expectedEquivalence = Equivalences
+          .normalizePartition(regularEquivalence(network).restrict(equivalence));
+      assertEquals(expectedEquivalence,
+          RoleReorderings.toOriginal(regularEquivalence(reordered)
+              .restrict(RoleReorderings.toReordered(equivalence, order)), order));
+
+      assertEquals(regularRanking(network).restrict(ranking),
+          RoleReorderings.toOriginal(regularRanking(reordered)
+              .restrict(RoleReorderings.toReordered(ranking, order)), order));
+    }
+  }
+
+  @Test
+  public void testRelabeling() {
+    final ConstMapping.OfInt order = Mappings.wrapUnmodifiableInt(2, 0, 3, 1);
+
+    assertEquals(Mappings.wrapUnmodifiableInt(0, 1, 1, 2),
+        RoleReorderings.toReordered(Mappings.wrapUnmodifiableInt(0, 1, 2, 0), order));
+    assertEquals(Mappings.wrapUnmodifiableInt(0, 1, 2, 0),
+        RoleReorderings.toOriginal(Mappings.wrapUnmodifiableInt(0, 1, 1, 2), order));
+
+    final BinaryRelation relation = BinaryRelations.fromMatrix(new boolean[][] { //
+        { false, true, false, false }, //
+        { false, false, false, true }, //
+        { true, false, false, false }, //
+        { false, false, false, false }, //
+    });
+    final BinaryRelation reordered = RoleReorderings.toReordered(relation, order);
+    for (int k = 0; k < 4; ++k) {
+      for (int l = 0; l < 4; ++l) {
+        assertEquals(relation.contains(order.getInt(k), order.getInt(l)),
+            reordered.contains(k, l));
+      }
+    }
+    assertEquals(relation, RoleReorderings.toOriginal(reordered, order));
+
+    final int[][] matrix = new int[][] { //
+        { 0, 1, 2, 3 }, //
+        { 4, 0, 5, 6 }, //
+        { 7, 8, 0, 9 }, //
+        { 10, 11, 12, 0 }, //
+    };
+    final IntDistanceMatrix distances = RoleReorderings
+        .toReordered(DistanceMatrices.fromMatrix(matrix), order);
+    assertArrayEquals(new int[][] { //
+        { 0, 7, 9, 8 }, //
+        { 2, 0, 3, 1 }, //
+        { 12, 10, 0, 11 }, //
+        { 5, 4, 6, 0 }, //
+    }, distances.asMatrix());
+    assertArrayEquals(matrix, RoleReorderings.toOriginal(distances, order).asMatrix());
+    final IntDistanceMatrix original = DistanceMatrices.fromMatrix(matrix);
+    final IntDistanceMatrix relabeled = RoleReorderings.toOriginal(distances, order);
+    assertEquals(original, relabeled);
+    assertEquals(relabeled, original);
+    assertEquals(original.hashCode(), relabeled.hashCode());
+    assertEquals(original.toString(), relabeled.toString());
+
+    assertThrows(IllegalArgumentException.class,
+        () -> RoleReorderings.toOriginal(relation, Mappings.wrapUnmodifiableInt(2, 0, 2, 1)));
+    assertThrows(IllegalArgumentException.class,
+        () -> RoleReorderings.toReordered(relation, Mappings.wrapUnmodifiableInt(2, 0, 1)));
+  }
+}
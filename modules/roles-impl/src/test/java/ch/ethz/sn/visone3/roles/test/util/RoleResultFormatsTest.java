@@ -0,0 +1,219 @@
+/*
+ * This file is part of netroles.
+ *
+ * netroles is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * netroles is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with netroles.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package ch.ethz.sn.visone3.roles.test.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import ch.ethz.sn.visone3.lang.ConstMapping;
+import ch.ethz.sn.visone3.lang.Mappings;
+import ch.ethz.sn.visone3.roles.distances.DistanceMatrices;
+import ch.ethz.sn.visone3.roles.distances.IntDistanceMatrix;
+import ch.ethz.sn.visone3.roles.impl.structures.LazyIntDistanceMatrixImpl;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelation;
+import ch.ethz.sn.visone3.roles.structures.BinaryRelations;
+import ch.ethz.sn.visone3.roles.structures.Ranking;
+import ch.ethz.sn.visone3.roles.structures.Rankings;
+import ch.ethz.sn.visone3.roles.structures.Relations;
+import ch.ethz.sn.visone3.roles.util.RoleResultFormats;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RoleResultFormatsTest {
+
+  @Test
+  public void testEquivalence() throws IOException {
+    final ConstMapping.OfInt equivalence = Mappings.wrapUnmodifiableInt(0, 1, 0, 2, 300, -1,
+        Integer.MAX_VALUE, Integer.MIN_VALUE);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RoleResultFormats.writeEquivalence(equivalence, out);
+    assertEquals(equivalence,
+        RoleResultFormats.readEquivalence(new ByteArrayInputStream(out.toByteArray())));
+
+    assertThrows(IOException.class,
+        () -> RoleResultFormats.readRanking(new ByteArrayInputStream(out.toByteArray())));
+    final byte[] truncated = new byte[out.size() - 1];
+    System.arraycopy(out.toByteArray(), 0, truncated, 0, truncated.length);
+    assertThrows(IOException.class,
+        () -> RoleResultFormats.readEquivalence(new ByteArrayInputStream(truncated)));
+  }
+
+  @Test
+  public void testRelationsAndRankings() throws IOException {
+    final int size = 70;
+    final Random rand = new Random(7);
+    final boolean[][] matrix = new boolean[size][size];
+    for (int i = 0; i < size; i++) {
+      // mix sparse and dense rows
+      final double density = i % 3 == 0 ? 0.6 : 0.03;
+      for (int j = 0; j < size; j++) {
+        matrix[i][j] = rand.nextDouble() < density;
+      }
+    }
+    final BinaryRelation relation = BinaryRelations.fromMatrix(matrix);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RoleResultFormats.writeRelation(relation, out);
+    assertTrue(Relations.equals(relation,
+        RoleResultFormats.readRelation(new ByteArrayInputStream(out.toByteArray()))));
+
+    final Ranking ranking = Rankings.fromEquivalence(
+        Mappings.wrapUnmodifiableInt(rand.ints(size, 0, 5).toArray()));
+    out.reset();
+    RoleResultFormats.writeRanking(ranking, out);
+    assertTrue(Relations.equals(ranking,
+        RoleResultFormats.readRanking(new ByteArrayInputStream(out.toByteArray()))));
+    assertTrue(Relations.equals(ranking,
+        RoleResultFormats.readRelation(new ByteArrayInputStream(out.toByteArray()))));
+
+    final Path file = Files.createTempFile("relation", ".bin");
+    try {
+      try (OutputStream fileOut = Files.newOutputStream(file)) {
+        RoleResultFormats.writeRelation(relation, fileOut);
+      }
+      assertTrue(Relations.equals(relation, RoleResultFormats.readRelation(file)));
+      assertThrows(IOException.class, () -> RoleResultFormats.readRanking(file));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void testDistances() throws IOException {
+    final int size = 150;
+    final Random rand = new Random(11);
+    final int[][] distances = new int[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        distances[i][j] = i == j ? 0
+            : rand.nextInt(10) == 0 ? Integer.MAX_VALUE : rand.nextInt(20);
+      }
+    }
+    distances[1][2] = -5;
+    final IntDistanceMatrix matrix = DistanceMatrices.fromMatrix(distances);
+
+    final ByteArrayOutputStream plain = new ByteArrayOutputStream();
+    RoleResultFormats.writeDistances(matrix, false, plain);
+    assertArrayEquals(distances, RoleResultFormats
+        .readDistances(new ByteArrayInputStream(plain.toByteArray())).asMatrix());
+
+    final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    RoleResultFormats.writeDistances(matrix, true, compressed);
+    assertTrue(compressed.size() < plain.size());
+    assertArrayEquals(distances, RoleResultFormats
+        .readDistances(new ByteArrayInputStream(compressed.toByteArray())).asMatrix());
+
+    final Path file = Files.createTempFile("distances", ".bin");
+    final Path target = Files.createTempFile("distances", ".mat");
+    try {
+      Files.write(file, compressed.toByteArray());
+      assertArrayEquals(distances, RoleResultFormats.readDistances(file).asMatrix());
+      assertArrayEquals(distances,
+          RoleResultFormats.readDistances(file, target, 4).asMatrix());
+      assertArrayEquals(distances, RoleResultFormats
+          .readDistances(new ByteArrayInputStream(plain.toByteArray()), target, 4).asMatrix());
+      assertArrayEquals(distances, DistanceMatrices.fromFile(target).asMatrix());
+      // narrow cells cannot hold negative distances
+      assertThrows(IllegalArgumentException.class,
+          () -> RoleResultFormats.readDistances(file, target, 1));
+    } finally {
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(target);
+    }
+  }
+
+  @Test
+  public void testConsecutiveResults() throws IOException {
+    final int size = 300;
+    final Random rand = new Random(13);
+    final ConstMapping.OfInt equivalence = Mappings
+        .wrapUnmodifiableInt(rand.ints(size, 0, 1000).toArray());
+    final boolean[][] matrix = new boolean[size][size];
+    final int[][] distances = new int[size][size];
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        matrix[i][j] = rand.nextBoolean();
+        distances[i][j] = rand.nextInt();
+      }
+    }
+    final BinaryRelation relation = BinaryRelations.fromMatrix(matrix);
+
+    // the results span several frames
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RoleResultFormats.writeDistances(DistanceMatrices.fromMatrix(distances), false, out);
+    final int firstEnd = out.size();
+    RoleResultFormats.writeEquivalence(equivalence, out);
+    final int secondEnd = out.size();
+    RoleResultFormats.writeRelation(relation, out);
+    RoleResultFormats.writeDistances(DistanceMatrices.fromMatrix(distances), true, out);
+    final int fourthEnd = out.size();
+    out.write(42);
+
+    final ByteArrayInputStream bytes = new ByteArrayInputStream(out.toByteArray());
+    // returns short reads, like an unbuffered socket or pipe
+    final InputStream in = new FilterInputStream(bytes) {
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        return super.read(b, off, Math.min(len, 1000));
+      }
+    };
+    assertArrayEquals(distances, RoleResultFormats.readDistances(in).asMatrix());
+    assertEquals(out.size() - firstEnd, bytes.available());
+    assertEquals(equivalence, RoleResultFormats.readEquivalence(in));
+    assertEquals(out.size() - secondEnd, bytes.available());
+    assertTrue(Relations.equals(relation, RoleResultFormats.readRelation(in)));
+    assertArrayEquals(distances, RoleResultFormats.readDistances(in).asMatrix());
+    assertEquals(out.size() - fourthEnd, bytes.available());
+    assertEquals(42, in.read());
+  }
+
+  @Test
+  public void testLazyDistancesUncached() throws IOException {
+    final int size = 20;
+    final AtomicInteger evaluations = new AtomicInteger();
+    final IntDistanceMatrix matrix = new LazyIntDistanceMatrixImpl(size, (i, j) -> {
+      evaluations.incrementAndGet();
+      return Math.abs(i - j);
+    });
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    RoleResultFormats.writeDistances(matrix, true, out);
+    assertEquals(size * size, evaluations.get());
+    final IntDistanceMatrix read = RoleResultFormats
+        .readDistances(new ByteArrayInputStream(out.toByteArray()));
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        assertEquals(Math.abs(i - j), read.getDistance(i, j));
+      }
+    }
+
+    // writing has not filled the cache, so each request still evaluates
+    matrix.getDistance(3, 5);
+    assertEquals(size * size + 1, evaluations.get());
+  }
+}
@@ -20,11 +20,14 @@ package ch.ethz.sn.visone3.test;
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import ch.ethz.sn.visone3.lang.ConstMapping;
 import ch.ethz.sn.visone3.lang.Iterators;
 import ch.ethz.sn.visone3.lang.PrimitiveIterable;
+import ch.ethz.sn.visone3.networks.AdjacencyCursor;
 import ch.ethz.sn.visone3.networks.DirectedGraph;
 import ch.ethz.sn.visone3.networks.Edge;
 import ch.ethz.sn.visone3.networks.Network;
@@ -43,6 +46,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
@@ -134,7 +138,17 @@ public final class NetworkAsserts {
     assertEquals(r.countLeftDomain(), g.countVertices(), "countVertices()");
     assertEquals(r.countRelationships(), g.countEdges(), "countEdges()");
     assertEquals(g.countEdges(), count(g.getEdges()), "count(getEdges())");
+    final AdjacencyCursor outCursor = g.getOutCursor();
+    final AdjacencyCursor inCursor = g.getInCursor();
+    final AdjacencyCursor cursor = g.getCursor();
     for (final int i : g.getVertices()) {
+      final int vertex = i;
+      assertCursor(g.getOutEdges(i), Edge::getTarget, Edge::getIndex, outCursor.reset(i),
+          format("getOutCursor(%d)", i));
+      assertCursor(g.getInEdges(i), Edge::getSource, Edge::getIndex, inCursor.reset(i),
+          format("getInCursor(%d)", i));
+      assertCursor(g.getEdges(i), e -> e.getSource() == vertex ? e.getTarget() : e.getSource(),
+          Edge::getIndex, cursor.reset(i), format("getCursor(%d)", i));
       assertEquals(r.countRelationshipsFrom(i), g.getOutDegree(i), format("outDegree(%d)", i));
       assertEquals(g.getOutDegree(i), count(g.getOutEdges(i)), format("count(getOutEdges(%d))", i));
       assertEquals(r.countRelationshipsTo(i), g.getInDegree(i), format("inDegree(%d)", i));
@@ -190,8 +204,11 @@ public final class NetworkAsserts {
     assertEquals(expected.length, g.countVertices(), "countVertices()");
     assertEquals((relations + loops) / 2, g.countEdges(), "countEdges()");
     assertEquals(g.countEdges(), count(g.getEdges()), "count(getEdges())");
+    final AdjacencyCursor cursor = g.getCursor();
     for (final int i : g.getVertices()) {
       assertEquals(relationsFrom[i], g.getDegree(i), format("(%d)", i));
+      assertCursor(g.getEdges(i), Edge::getTarget, Edge::getIndex, cursor.reset(i),
+          format("getCursor(%d)", i));
       for (final Edge e : g.getEdges(i)) {
         assertEquals(expected[i][e.getTarget()], map.get(e.getIndex()),
             format("(%d,%d)", i, e.getTarget()));
@@ -271,7 +288,13 @@ public final class NetworkAsserts {
   private static <T> void assert1ModeRelation(final T[][] expected, final ConstMapping<T> map,
       final Relation r) {
     // 1-mode left (and right) domain accessors
+    final AdjacencyCursor cursorFrom = r.getCursorFrom();
+    final AdjacencyCursor cursorTo = r.getCursorTo();
     for (final int i : r.getUnionDomain()) {
+      assertCursor(r.getRelationshipsFrom(i), Relationship::getRight, Relationship::getIndex,
+          cursorFrom.reset(i), format("getCursorFrom(%d)", i));
+      assertCursor(r.getRelationshipsTo(i), Relationship::getLeft, Relationship::getIndex,
+          cursorTo.reset(i), format("getCursorTo(%d)", i));
       final int rowNonZeros = (int) Arrays.stream(expected[i]).filter(Objects::nonNull).count();
       final int colNonZeros = (int) Arrays.stream(expected).map(row -> row[i])
           .filter(Objects::nonNull).count();
@@ -300,7 +323,11 @@ public final class NetworkAsserts {
   private static <T> void assert2ModeRelation(final T[][] expected, final ConstMapping<T> map,
       final Relation rel) {
     // left domain accessors
+    final AdjacencyCursor cursorFrom = rel.getCursorFrom();
+    final AdjacencyCursor cursorTo = rel.getCursorTo();
     for (final int l : rel.getLeftDomain()) {
+      assertCursor(rel.getRelationshipsFrom(l), Relationship::getRight, Relationship::getIndex,
+          cursorFrom.reset(l), format("getCursorFrom(%d)", l));
       final int rowNonZeros = (int) Arrays.stream(expected[l]).filter(Objects::nonNull).count();
       assertEquals(rowNonZeros, rel.countRelationshipsFrom(l), format("countRelationsFrom(%d)", l));
       assertEquals(rowNonZeros, count(rel.getRelationshipsFrom(l)),
@@ -313,6 +340,8 @@ public final class NetworkAsserts {
     // right domain accessors
     for (final int r : rel.getRightDomain()) {
       final int r0 = r - rel.countLeftDomain();
+      assertCursor(rel.getRelationshipsTo(r), Relationship::getLeft, Relationship::getIndex,
+          cursorTo.reset(r), format("getCursorTo(%d)", r));
       final int colNonZeros = (int) Arrays.stream(expected).map(row -> row[r0])
           .filter(Objects::nonNull).count();
       // N-based
@@ -332,6 +361,21 @@ public final class NetworkAsserts {
     }
   }
 
+  private static <T> void assertCursor(final Iterable<T> expected,
+      final ToIntFunction<T> target, final ToIntFunction<T> index, final AdjacencyCursor actual,
+      final String message) {
+    final int source = actual.source();
+    for (final T e : expected) {
+      assertTrue(actual.next(), message);
+      assertEquals(source, actual.source(), message);
+      assertEquals(target.applyAsInt(e), actual.target(), format("%s target of %s", message, e));
+      assertEquals(index.applyAsInt(e), actual.index(), format("%s index of %s", message, e));
+    }
+    assertFalse(actual.next(), message);
+    assertFalse(actual.next(), message);
+    assertThrows(NoSuchElementException.class, actual::target, message);
+  }
+
   /**
    * Assert the matrix perspective against an adjacency matrix.
    * 